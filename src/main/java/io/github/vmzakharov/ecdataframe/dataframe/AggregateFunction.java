@@ -12,6 +12,7 @@ import org.eclipse.collections.api.list.ListIterable;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
 
 import static io.github.vmzakharov.ecdataframe.util.ExceptionFactory.exceptionByKey;
 
@@ -386,6 +387,10 @@ public abstract class AggregateFunction
         {
             ((DfFloatColumnStored) accumulatorColumn).setFloat(accumulatorRowIndex, this.floatInitialValue());
         }
+        else if (this.sumsDecimals() && accumulatorColumn instanceof DfDecimalColumnStored decimalColumn)
+        {
+            decimalColumn.setZero(accumulatorRowIndex);
+        }
         else
         {
             accumulatorColumn.setObject(accumulatorRowIndex, this.objectInitialValue());
@@ -432,6 +437,93 @@ public abstract class AggregateFunction
                 this.floatAccumulator(currentAggregatedValue, this.getFloatValue(sourceColumn, sourceRowIndex)));
     }
 
+    public void aggregateValueIntoDecimal(
+            DfDecimalColumnStored targetColumn, int targetRowIndex,
+            DfColumn sourceColumn, int sourceRowIndex)
+    {
+        if (this.sumsDecimals() && targetColumn.addUnscaledValueAt(targetRowIndex, sourceColumn, sourceRowIndex))
+        {
+            return;
+        }
+
+        BigDecimal currentAggregatedValue = targetColumn.getTypedObject(targetRowIndex);
+        targetColumn.setObject(
+                targetRowIndex,
+                this.objectAccumulator(currentAggregatedValue, this.getObjectValue(sourceColumn, sourceRowIndex)));
+    }
+
+    /**
+     * Indicates whether this function aggregates decimal values by adding them up starting from zero, in which case
+     * the values stored as unscaled longs can be added up without converting them to {@code BigDecimal}.
+     *
+     * @return <code>true</code> if decimal values are aggregated by summing them up, <code>false</code> otherwise
+     */
+    protected boolean sumsDecimals()
+    {
+        return false;
+    }
+
+    /**
+     * Indicates whether partial aggregates computed by this function over disjoint ranges of source rows can be
+     * combined, in the order of the ranges, into exactly the same result as aggregating all the source rows at once.
+     * This allows a data frame to aggregate its rows in parallel. Aggregation functions are not combinable by default.
+     *
+     * @param accumulatorType the type of the aggregated values, that is the type of the aggregation target column
+     * @return <code>true</code> if partial aggregates of this type can be combined, <code>false</code> otherwise
+     */
+    public boolean supportsCombining(ValueType accumulatorType)
+    {
+        return false;
+    }
+
+    /**
+     * Combines a partial aggregate value with the value accumulated so far. The default implementation applies this
+     * aggregation function to the partial aggregate as if it were a source value, which works for the functions that
+     * can be applied to their own results, such as sum, min, or max. Only called if {@link #supportsCombining(ValueType)}
+     * returns <code>true</code>.
+     *
+     * @param accumulatorColumn   the column containing the aggregate value accumulated so far
+     * @param accumulatorRowIndex the row index of the accumulated value
+     * @param partialColumn       the column containing the partial aggregate value to combine with the accumulated one
+     * @param partialRowIndex     the row index of the partial aggregate value
+     */
+    public void combine(DfColumn accumulatorColumn, int accumulatorRowIndex, DfColumn partialColumn, int partialRowIndex)
+    {
+        accumulatorColumn.applyAggregator(accumulatorRowIndex, partialColumn, partialRowIndex, this);
+    }
+
+    /**
+     * Aggregates the first source value contributing to an accumulator row, which has just been set up by
+     * {@link #initializeValue(DfColumn, int)}. The default implementation aggregates it like any other value. Override
+     * this method if the first value needs to be handled differently, for example if there is no initial value that
+     * can be told apart from the aggregated values.
+     *
+     * @param accumulatorColumn   the column containing the aggregate value
+     * @param accumulatorRowIndex the row index of the aggregate value
+     * @param sourceColumn        the column containing the value to aggregate
+     * @param sourceRowIndex      the row index of the value to aggregate
+     */
+    public void aggregateFirstValue(DfColumn accumulatorColumn, int accumulatorRowIndex, DfColumn sourceColumn, int sourceRowIndex)
+    {
+        accumulatorColumn.applyAggregator(accumulatorRowIndex, sourceColumn, sourceRowIndex, this);
+    }
+
+    /**
+     * Combines the first partial aggregate value contributing to an accumulator row, which has just been set up by
+     * {@link #initializeValue(DfColumn, int)}. The default implementation is the same as
+     * {@link #combine(DfColumn, int, DfColumn, int)}. Only called if {@link #supportsCombining(ValueType)} returns
+     * <code>true</code>.
+     *
+     * @param accumulatorColumn   the column containing the aggregate value
+     * @param accumulatorRowIndex the row index of the aggregate value
+     * @param partialColumn       the column containing the partial aggregate value
+     * @param partialRowIndex     the row index of the partial aggregate value
+     */
+    public void combineFirst(DfColumn accumulatorColumn, int accumulatorRowIndex, DfColumn partialColumn, int partialRowIndex)
+    {
+        this.combine(accumulatorColumn, accumulatorRowIndex, partialColumn, partialRowIndex);
+    }
+
     /**
      * by default aggregators treat null values as "poisonous" - that is any null value passed in the aggregator will
      * cause the result of the entire aggregation to be null, which is a sensible behavior for most aggregation
@@ -19,9 +19,11 @@ import org.eclipse.collections.api.FloatIterable;
 import org.eclipse.collections.api.IntIterable;
 import org.eclipse.collections.api.LongIterable;
 import org.eclipse.collections.api.RichIterable;
-import org.eclipse.collections.api.block.function.primitive.IntIntToIntFunction;
+import org.eclipse.collections.api.block.function.primitive.IntToObjectFunction;
 import org.eclipse.collections.api.block.predicate.primitive.IntPredicate;
 import org.eclipse.collections.api.block.procedure.Procedure;
+import org.eclipse.collections.api.block.procedure.primitive.IntBooleanProcedure;
+import org.eclipse.collections.api.block.procedure.primitive.IntProcedure;
 import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.api.list.MutableList;
@@ -39,6 +41,7 @@ import org.eclipse.collections.impl.factory.Maps;
 import org.eclipse.collections.impl.factory.Multimaps;
 import org.eclipse.collections.impl.factory.primitive.IntLists;
 import org.eclipse.collections.impl.list.mutable.primitive.BooleanArrayList;
+import org.eclipse.collections.impl.list.primitive.IntInterval;
 import org.eclipse.collections.impl.set.sorted.mutable.TreeSortedSet;
 import org.eclipse.collections.impl.tuple.Tuples;
 import org.eclipse.collections.impl.utility.ArrayIterate;
@@ -47,9 +50,14 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Supplier;
 
 import static io.github.vmzakharov.ecdataframe.dataframe.DfColumnSortOrder.ASC;
@@ -61,10 +69,24 @@ import static io.github.vmzakharov.ecdataframe.util.ExceptionFactory.exceptionBy
 public class DataFrame
 implements DfIterate
 {
+    // the smallest number of rows evaluated by a single task when processing rows in parallel, a multiple of 64 so
+    // that the chunks of rows map to distinct words of a bitmap
+    private static final int PARALLEL_CHUNK_MIN_SIZE = 16 * DfVectorEvaluator.BATCH_SIZE;
+
+    // the maximum number of indexes cached by the lookups into a data frame
+    private static final int LOOKUP_INDEX_CACHE_SIZE = 8;
+
+    // with the automatic join strategy selection, the hash join is used if one of the data frames has at least this
+    // many times fewer rows than the other one
+    private static final int HASH_JOIN_SIZE_RATIO = 4;
+
+    private static final int DEFAULT_PARALLEL_SORT_THRESHOLD = 2 * PARALLEL_CHUNK_MIN_SIZE;
+
     private String name;
 
     private final MutableMap<String, DfColumn> columnsByName = Maps.mutable.of();
     private final MutableList<DfColumn> columns = Lists.mutable.of();
+    private long schemaVersion = 0;
 
     private int rowCount = 0;
 
@@ -73,12 +95,30 @@ implements DfIterate
 
     private IntList virtualRowMap = null;
     private boolean poolingEnabled = false;
+    private boolean vectorizedEvaluationEnabled = true;
+    private boolean expressionCompilationEnabled = true;
+    private boolean offHeapStorageEnabled = false;
+    private ForkJoinPool parallelPool = null;
+    private DfJoinStrategy joinStrategy = DfJoinStrategy.AUTO;
+    private int parallelSortThreshold = DEFAULT_PARALLEL_SORT_THRESHOLD;
 
     private MutableBooleanList bitmap = null;
 
     private MutableList<MutableIntList> aggregateIndex = null;
 
     private final MutableMap<String, DfIndex> indices = Maps.mutable.of();
+    private final MutableMap<String, DfSortedIndex> sortedIndices = Maps.mutable.of();
+
+    // the indexes built for the lookups into this data frame by the names of the indexed columns, least recently used
+    // indexes are evicted
+    private final Map<ListIterable<String>, DfIndex> lookupIndexCache = new LinkedHashMap<>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ListIterable<String>, DfIndex> eldest)
+        {
+            return this.size() > LOOKUP_INDEX_CACHE_SIZE;
+        }
+    };
 
     public DataFrame(String newName)
     {
@@ -119,6 +159,59 @@ implements DfIterate
         return this;
     }
 
+    /**
+     * Adds a dictionary encoded string column to this data frame. The column stores each distinct value once and an
+     * int code per row, which saves memory and speeds up equality filters, grouping, and sorting for the columns with
+     * relatively few distinct values. See {@link DfStringColumnEncoded}.
+     *
+     * @param newColumnName the name of the column to be added
+     * @return this data frame
+     */
+    public DataFrame addDictionaryEncodedStringColumn(String newColumnName)
+    {
+        return this.addDictionaryEncodedStringColumn(newColumnName, false);
+    }
+
+    /**
+     * Adds a dictionary encoded string column to this data frame. See {@link DfStringColumnEncoded}.
+     *
+     * @param newColumnName    the name of the column to be added
+     * @param sortedDictionary if {@code true} the column keeps its dictionary sorted, so that the order of the codes is
+     *                         the same as the order of the values
+     * @return this data frame
+     */
+    public DataFrame addDictionaryEncodedStringColumn(String newColumnName, boolean sortedDictionary)
+    {
+        this.attachColumn(new DfStringColumnEncoded(this, newColumnName, sortedDictionary));
+        return this;
+    }
+
+    public DataFrame addDictionaryEncodedStringColumn(String newColumnName, ListIterable<String> values, boolean sortedDictionary)
+    {
+        this.attachColumn(new DfStringColumnEncoded(this, newColumnName, values, sortedDictionary));
+        return this;
+    }
+
+    /**
+     * Adds a string column storing the UTF-8 encoded bytes of its values in a single byte arena rather than as
+     * {@code String} instances, which saves memory for the columns with many distinct values. See
+     * {@link DfStringColumnUtf8}.
+     *
+     * @param newColumnName the name of the column to be added
+     * @return this data frame
+     */
+    public DataFrame addUtf8StringColumn(String newColumnName)
+    {
+        this.attachColumn(new DfStringColumnUtf8(this, newColumnName));
+        return this;
+    }
+
+    public DataFrame addUtf8StringColumn(String newColumnName, ListIterable<String> values)
+    {
+        this.attachColumn(new DfStringColumnUtf8(this, newColumnName, values));
+        return this;
+    }
+
     public DataFrame addLongColumn(String newColumnName)
     {
         return this.addColumn(newColumnName, ValueType.LONG);
@@ -308,6 +401,34 @@ implements DfIterate
         return this;
     }
 
+    /**
+     * Add a read-only stored column with values read directly from a memory mapped file. Only columns of numeric
+     * primitive types (long, int, double, float) can be mapped.
+     * @param newColumnName the name of the column to be added
+     * @param type the type of the column
+     * @param size the number of values in the column
+     * @param nullMap the bitmap marking null values, ignored for double and float columns where nulls are stored as NaN
+     * @param values the mapped values of the column
+     * @return this data frame
+     */
+    public DataFrame addMappedColumn(String newColumnName, ValueType type, int size, DfMappedBuffer nullMap, DfMappedBuffer values)
+    {
+        DfColumnMapped column = switch (type)
+        {
+            case LONG -> new DfLongColumnMapped(this, newColumnName, size, nullMap, values);
+            case INT -> new DfIntColumnMapped(this, newColumnName, size, nullMap, values);
+            case DOUBLE -> new DfDoubleColumnMapped(this, newColumnName, size, values);
+            case FLOAT -> new DfFloatColumnMapped(this, newColumnName, size, values);
+            default -> throw exceptionByKey("DF_ADD_COL_UNKNOWN_TYPE")
+                    .with("columnName", newColumnName)
+                    .with("type", type)
+                    .get();
+        };
+
+        this.attachColumn(column);
+        return this;
+    }
+
     /**
      * Returns a string representation of the data frame, which consists of the data frame's name, the row count, and up
      * to the first 10 rows of its data. If the data frame contains more than 10 rows, the first 10 rows are followed by
@@ -346,6 +467,7 @@ implements DfIterate
 
         this.columnsByName.put(newColumn.getName(), newColumn);
         this.columns.add(newColumn);
+        this.schemaVersion++;
 
         if (this.isPoolingEnabled())
         {
@@ -742,11 +864,21 @@ implements DfIterate
         return this.getDateColumn(columnName).getTypedObject(this.rowIndexMap(rowIndex));
     }
 
+    public long getEpochDay(String columnName, int rowIndex)
+    {
+        return this.getDateColumn(columnName).getEpochDay(this.rowIndexMap(rowIndex));
+    }
+
     public LocalDateTime getDateTime(String columnName, int rowIndex)
     {
         return this.getDateTimeColumn(columnName).getTypedObject(this.rowIndexMap(rowIndex));
     }
 
+    public long getEpochMicros(String columnName, int rowIndex)
+    {
+        return this.getDateTimeColumn(columnName).getEpochMicros(this.rowIndexMap(rowIndex));
+    }
+
     public BigDecimal getDecimal(String columnName, int rowIndex)
     {
         return this.getDecimalColumn(columnName).getTypedObject(this.rowIndexMap(rowIndex));
@@ -869,6 +1001,261 @@ implements DfIterate
         return this.poolingEnabled;
     }
 
+    /**
+     * Turns on storing the values of long, int, double, float, and date columns added to this data frame from now on outside
+     * of the Java heap. The values are stored in direct buffers allocated in fixed size chunks, so that large columns
+     * neither create large arrays on the heap nor copy their values as they grow. The memory can be released eagerly
+     * by calling {@link #releaseStorage()} once the data frame is no longer needed, otherwise it is released when the
+     * data frame is garbage collected. The columns already added to the data frame are not affected. Data frames
+     * derived from this one (e.g., by filtering or sorting) store their values on the heap.
+     * See also {@link #disableOffHeapStorage()}
+     */
+    public void enableOffHeapStorage()
+    {
+        this.offHeapStorageEnabled = true;
+    }
+
+    /**
+     * Turns off storing the values of the columns added to this data frame from now on outside of the Java heap.
+     * Off-heap storage is disabled by default.
+     * See also {@link #enableOffHeapStorage()}
+     */
+    public void disableOffHeapStorage()
+    {
+        this.offHeapStorageEnabled = false;
+    }
+
+    public boolean isOffHeapStorageEnabled()
+    {
+        return this.offHeapStorageEnabled;
+    }
+
+    /*
+     * The total of the modification counts of the stored columns, which changes whenever any of their values are
+     * changed in place (see DfColumn.getModificationCount())
+     */
+    long storedColumnModificationCount()
+    {
+        long count = 0L;
+        for (int i = 0; i < this.columns.size(); i++)
+        {
+            DfColumn column = this.columns.get(i);
+            if (column.isStored())
+            {
+                count += column.getModificationCount();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Releases the memory held outside of the Java heap by the stored columns of this data frame. The data frame
+     * should not be used after its storage is released.
+     */
+    public void releaseStorage()
+    {
+        this.columns
+                .select(DfColumn::isStored)
+                .forEach(column -> ((DfColumnStored) column).releaseStorage());
+    }
+
+    /**
+     * Turns off the vectorized (a batch of rows at a time) evaluation of filter expressions and computed columns on
+     * this data frame, all expressions will be evaluated by the interpreter one row at a time.
+     * See also {@link #enableVectorizedEvaluation()}
+     */
+    public void disableVectorizedEvaluation()
+    {
+        this.vectorizedEvaluationEnabled = false;
+    }
+
+    /**
+     * Turns on the vectorized evaluation of filter expressions and computed columns on this data frame. Expressions
+     * (or their parts) over numeric and boolean columns will be evaluated a batch of rows at a time directly against
+     * the primitive column values. Vectorized evaluation is enabled by default.
+     * See also {@link #disableVectorizedEvaluation()}
+     */
+    public void enableVectorizedEvaluation()
+    {
+        this.vectorizedEvaluationEnabled = true;
+    }
+
+    public boolean isVectorizedEvaluationEnabled()
+    {
+        return this.vectorizedEvaluationEnabled;
+    }
+
+    /**
+     * Returns a vectorized evaluator for the expression if vectorized evaluation is enabled on this data frame and the
+     * expression can be vectorized producing values of the expected type, otherwise returns {@code null}
+     */
+    DfVectorEvaluator vectorEvaluatorFor(Expression expression, ValueType expectedType)
+    {
+        if (!this.isVectorizedEvaluationEnabled())
+        {
+            return null;
+        }
+
+        DfVectorEvaluator evaluator = new DfVectorEvaluator(this, expression);
+
+        return evaluator.getType() == expectedType ? evaluator : null;
+    }
+
+    /**
+     * Turns off the compilation of filter, sort, and computed column expressions on this data frame, expressions that
+     * cannot be vectorized will be evaluated by the interpreter.
+     * See also {@link #enableExpressionCompilation()}
+     */
+    public void disableExpressionCompilation()
+    {
+        this.expressionCompilationEnabled = false;
+    }
+
+    /**
+     * Turns on the compilation of filter, sort, and computed column expressions on this data frame. Expressions over
+     * numeric and boolean columns will be compiled into primitive-typed functions, which are evaluated without
+     * allocating intermediate values. Expression compilation is enabled by default.
+     * See also {@link #disableExpressionCompilation()}
+     */
+    public void enableExpressionCompilation()
+    {
+        this.expressionCompilationEnabled = true;
+    }
+
+    public boolean isExpressionCompilationEnabled()
+    {
+        return this.expressionCompilationEnabled;
+    }
+
+    /**
+     * Returns a number that changes every time a column is added to or dropped from this data frame. Compiled
+     * expressions hold references to the columns they were compiled against, so their holders use this number to tell
+     * when to recompile them.
+     */
+    long getSchemaVersion()
+    {
+        return this.schemaVersion;
+    }
+
+    /**
+     * Returns a compiled form of the expression if expression compilation is enabled on this data frame and the
+     * expression can be compiled, otherwise returns {@code null}
+     */
+    DfCompiledExpression compiledExpressionFor(Expression expression, boolean resolveVariablesAsConstants)
+    {
+        if (!this.isExpressionCompilationEnabled())
+        {
+            return null;
+        }
+
+        return DfCompiledExpression.compile(this, expression, resolveVariablesAsConstants);
+    }
+
+    /**
+     * Turns on parallel processing of the operations that evaluate filter expressions ({@link #selectBy(String)},
+     * {@link #rejectBy(String)}, {@link #partition(String)}, and {@link #flagRowsBy(String)}) on this data frame using
+     * the common fork join pool.
+     * See also {@link #enableParallelProcessing(ForkJoinPool)}, {@link #disableParallelProcessing()}
+     */
+    public void enableParallelProcessing()
+    {
+        this.enableParallelProcessing(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Turns on parallel processing of the operations that evaluate filter expressions on this data frame using the
+     * specified pool. The rows of a large enough data frame are split into chunks, which are evaluated concurrently by
+     * the tasks running in the pool, the selected rows are then copied into the result one column at a time.
+     * See also {@link #disableParallelProcessing()}
+     *
+     * @param newPool the pool to run the tasks in
+     */
+    public void enableParallelProcessing(ForkJoinPool newPool)
+    {
+        this.parallelPool = newPool;
+    }
+
+    /**
+     * Turns off parallel processing on this data frame, all operations will run in the calling thread. Parallel
+     * processing is disabled by default.
+     * See also {@link #enableParallelProcessing()}
+     */
+    public void disableParallelProcessing()
+    {
+        this.parallelPool = null;
+    }
+
+    public boolean isParallelProcessingEnabled()
+    {
+        return this.parallelPool != null;
+    }
+
+    /**
+     * Sets the smallest number of rows to be sorted in parallel by {@link #sortBy(ListIterable)},
+     * {@link #sortByExpression(String)}, and the joins involving this data frame, if parallel processing is enabled
+     * (see {@link #enableParallelProcessing()}). The sort keys are then extracted and the row indices are merge sorted
+     * by the tasks running in the parallel processing pool.
+     *
+     * @param newParallelSortThreshold the minimum number of rows to sort in parallel
+     */
+    public void setParallelSortThreshold(int newParallelSortThreshold)
+    {
+        this.parallelSortThreshold = newParallelSortThreshold;
+    }
+
+    public int getParallelSortThreshold()
+    {
+        return this.parallelSortThreshold;
+    }
+
+    DfRowIndexSorter rowIndexSorter(int rowCountToSort)
+    {
+        return this.isParallelProcessingEnabled() && rowCountToSort >= this.parallelSortThreshold
+                ? DfRowIndexSorter.parallel(this.parallelPool, this::runInParallel)
+                : DfRowIndexSorter.SEQUENTIAL;
+    }
+
+    /**
+     * Sets the algorithm used by the joins of this data frame with other data frames ({@link #join(DataFrame, String,
+     * String)}, {@link #outerJoin(DataFrame, String, String)}, {@link #joinWithComplements(DataFrame, ListIterable,
+     * ListIterable)} and their variants). The result of a join does not depend on the strategy. The default is
+     * {@link DfJoinStrategy#AUTO}.
+     *
+     * @param newJoinStrategy the join strategy
+     */
+    public void setJoinStrategy(DfJoinStrategy newJoinStrategy)
+    {
+        this.joinStrategy = newJoinStrategy;
+    }
+
+    public DfJoinStrategy getJoinStrategy()
+    {
+        return this.joinStrategy;
+    }
+
+    /**
+     * Runs the tasks in the parallel processing pool of this data frame and waits for all of them to complete. The
+     * external evaluation context is set for each thread separately so it is propagated to the threads running the
+     * tasks.
+     */
+    private void runInParallel(ListIterable<Runnable> tasks)
+    {
+        EvalContext nestedContext = this.getEvalContext().getNestedContext();
+
+        MutableList<ForkJoinTask<?>> submitted = Lists.mutable.withInitialCapacity(tasks.size());
+        tasks.forEach(task -> submitted.add(this.parallelPool.submit(() -> {
+            this.getEvalContext().setNestedContext(nestedContext);
+            task.run();
+        })));
+
+        submitted.forEach(ForkJoinTask::join);
+    }
+
+    boolean hasEvalContextVariable(String variableName)
+    {
+        return this.getEvalContext().hasVariable(variableName);
+    }
+
     private void determineRowCount()
     {
         MutableIntList storedColumnsSizes = this.columns.select(DfColumn::isStored).collectInt(DfColumn::getSize);
@@ -1024,28 +1411,31 @@ implements DfIterate
         // distinct row counts for each pivot column
         // sizing for the worst case scenario (if there is no aggregation)
 
+        IntProcedure initializeAccumulators = newRowIndex -> pivotColumns.forEachWithIndex(
+                (accumulatorColumn, i) -> aggregatorsForPivot.get(i).initializeValue(accumulatorColumn, newRowIndex)
+        );
+
         for (int rowIndex = 0; rowIndex < this.rowCount; rowIndex++)
         {
             final int finalRowIndex = rowIndex;
 
             String pivotValue = columnToPivot.getValueAsString(rowIndex);
 
-            ListIterable<Object> keyValueForGroupBy = index.computeKeyFrom(rowIndex);
-
-            int accumulatorRowIndex = index.getRowIndexAtKeyIfAbsentAddAndEvaluate(
-                    keyValueForGroupBy,
-                    newRowIndex -> pivotColumns.forEachWithIndex(
-                            (accumulatorColumn, i) -> aggregatorsForPivot.get(i).initializeValue(accumulatorColumn, newRowIndex)
-                    )
-            );
+            int accumulatorRowIndex = index.getRowIndexAtSourceRowIfAbsentAddAndEvaluate(rowIndex, initializeAccumulators);
 
             aggregatorsByPivotValue
                     .get(pivotValue)
                     .forEach(agg -> {
                             DfColumn valueColumn = this.getColumnNamed(agg.getSourceColumnName());
-                            inputRowCountPerAggregateRow.get(agg.getTargetColumnName())[accumulatorRowIndex]++;
-                            agg.getTargetColumn(pivoted)
-                                   .applyAggregator(accumulatorRowIndex, valueColumn, finalRowIndex, agg);
+                            if (inputRowCountPerAggregateRow.get(agg.getTargetColumnName())[accumulatorRowIndex]++ == 0)
+                            {
+                                agg.aggregateFirstValue(agg.getTargetColumn(pivoted), accumulatorRowIndex, valueColumn, finalRowIndex);
+                            }
+                            else
+                            {
+                                agg.getTargetColumn(pivoted)
+                                       .applyAggregator(accumulatorRowIndex, valueColumn, finalRowIndex, agg);
+                            }
                         });
         }
 
@@ -1123,16 +1513,27 @@ implements DfIterate
             ListIterable<String> columnsToGroupByNames,
             boolean createSourceRowIdIndex)
     {
-        MutableList<MutableIntList> sourceRowIds = null;
+        AggregationResult result = this.canAggregateInParallel(aggregators)
+                ? this.aggregateRowsInParallel(aggregators, columnsToGroupByNames, createSourceRowIdIndex)
+                : this.aggregateRows(aggregators, columnsToGroupByNames, 0, this.rowCount, createSourceRowIdIndex);
+
+        DataFrame aggregatedDataFrame = result.aggregated();
+
         if (createSourceRowIdIndex)
         {
-            sourceRowIds = Lists.mutable.of();
+            aggregatedDataFrame.aggregateIndex = result.sourceRowIds();
         }
 
-        int[] inputRowCountPerAggregateRow = new int[this.rowCount()]; // sizing for the worst case scenario: no aggregation
+        aggregators.forEach(agg -> agg.finishAggregating(aggregatedDataFrame, result.inputRowCountPerAggregateRow()));
+
+        return aggregatedDataFrame;
+    }
 
-        ListIterable<String> columnsToAggregateNames = aggregators.collect(AggregateFunction::getSourceColumnName);
-        ListIterable<DfColumn> columnsToAggregate = this.getColumnsToAggregate(columnsToAggregateNames);
+    private DataFrame createAggregatedDataFrame(
+            ListIterable<AggregateFunction> aggregators,
+            ListIterable<String> columnsToGroupByNames)
+    {
+        ListIterable<DfColumn> columnsToAggregate = this.getColumnsToAggregate(aggregators.collect(AggregateFunction::getSourceColumnName));
 
         DataFrame aggregatedDataFrame = new DataFrame("Aggregate Of " + this.getName());
 
@@ -1145,20 +1546,44 @@ implements DfIterate
                 (col, agg) -> aggregatedDataFrame.addColumn(agg.getTargetColumnName(), agg.targetColumnType(col.getType()))
         );
 
+        return aggregatedDataFrame;
+    }
+
+    /**
+     * Aggregates the rows of this data frame from {@code fromRow} (inclusive) to {@code toRow} (exclusive). The result
+     * does not have the finishing step of the aggregate functions applied to it, so it can be combined with the
+     * results of aggregating other row ranges.
+     */
+    private AggregationResult aggregateRows(
+            ListIterable<AggregateFunction> aggregators,
+            ListIterable<String> columnsToGroupByNames,
+            int fromRow,
+            int toRow,
+            boolean createSourceRowIdIndex)
+    {
+        MutableList<MutableIntList> sourceRowIds = null;
+        if (createSourceRowIdIndex)
+        {
+            sourceRowIds = Lists.mutable.of();
+        }
+
+        int[] inputRowCountPerAggregateRow = new int[toRow - fromRow]; // sizing for the worst case scenario: no aggregation
+
+        ListIterable<DfColumn> columnsToAggregate = this.getColumnsToAggregate(aggregators.collect(AggregateFunction::getSourceColumnName));
+
+        DataFrame aggregatedDataFrame = this.createAggregatedDataFrame(aggregators, columnsToGroupByNames);
+
         ListIterable<DfColumn> accumulatorColumns = aggregators
                 .collectWith(AggregateFunction::getTargetColumn, aggregatedDataFrame);
 
         DfIndexKeeper index = new DfIndexKeeper(aggregatedDataFrame, columnsToGroupByNames, this);
 
-        for (int rowIndex = 0; rowIndex < this.rowCount; rowIndex++)
-        {
-            ListIterable<Object> keyValue = index.computeKeyFrom(rowIndex);
+        IntProcedure initializeAccumulators = newRowIndex -> aggregators.forEachInBoth(accumulatorColumns,
+                (aggregateFunction, accumulatorColumn) -> aggregateFunction.initializeValue(accumulatorColumn, newRowIndex));
 
-            int accumulatorRowIndex = index.getRowIndexAtKeyIfAbsentAddAndEvaluate(
-                    keyValue,
-                    newRowIndex -> aggregators.forEachInBoth(accumulatorColumns,
-                            (aggregateFunction, accumulatorColumn) -> aggregateFunction.initializeValue(accumulatorColumn, newRowIndex))
-            );
+        for (int rowIndex = fromRow; rowIndex < toRow; rowIndex++)
+        {
+            int accumulatorRowIndex = index.getRowIndexAtSourceRowIfAbsentAddAndEvaluate(rowIndex, initializeAccumulators);
 
             if (createSourceRowIdIndex)
             {
@@ -1170,45 +1595,143 @@ implements DfIterate
                 sourceRowIds.get(accumulatorRowIndex).add(rowIndex);
             }
 
-            inputRowCountPerAggregateRow[accumulatorRowIndex]++;
+            boolean firstValue = inputRowCountPerAggregateRow[accumulatorRowIndex]++ == 0;
 
             for (int colIndex = 0; colIndex < columnsToAggregate.size(); colIndex++)
             {
-                accumulatorColumns.get(colIndex).applyAggregator(accumulatorRowIndex, columnsToAggregate.get(colIndex), rowIndex, aggregators.get(colIndex));
+                if (firstValue)
+                {
+                    aggregators.get(colIndex).aggregateFirstValue(accumulatorColumns.get(colIndex), accumulatorRowIndex, columnsToAggregate.get(colIndex), rowIndex);
+                }
+                else
+                {
+                    accumulatorColumns.get(colIndex).applyAggregator(accumulatorRowIndex, columnsToAggregate.get(colIndex), rowIndex, aggregators.get(colIndex));
+                }
             }
         }
 
-        if (createSourceRowIdIndex)
-        {
-            aggregatedDataFrame.aggregateIndex = sourceRowIds;
-        }
-
-        aggregators.forEach(agg -> agg.finishAggregating(aggregatedDataFrame, inputRowCountPerAggregateRow));
-
-        return aggregatedDataFrame;
+        return new AggregationResult(aggregatedDataFrame, inputRowCountPerAggregateRow, sourceRowIds);
     }
 
-    public DataFrame sumByWithIndex(ListIterable<String> columnsToSumNames, ListIterable<String> columnsToGroupByNames)
+    private boolean canAggregateInParallel(ListIterable<AggregateFunction> aggregators)
     {
-        return this.aggregateByWithIndex(columnsToSumNames.collect(AggregateFunction::sum), columnsToGroupByNames);
+        if (!this.isParallelProcessingEnabled() || this.rowCount < 2 * PARALLEL_CHUNK_MIN_SIZE)
+        {
+            return false;
+        }
+
+        return aggregators.allSatisfy(
+                agg -> agg.supportsCombining(agg.targetColumnType(this.getColumnNamed(agg.getSourceColumnName()).getType())));
     }
 
     /**
-     * Extracts distinct rows from the data frame. Returns a new data frame with the same schema as this data frame and
-     * only containing distinct row values. This is the same as calling the {@link #distinct(ListIterable)} method with
-     * the list of all the data frame columns as its parameter.
-     *
-     * @return a new data frame with a row for each distinct (unique) combination of row values for the specified
-     * columns in this dataframe
+     * Aggregates ranges of rows of this data frame in parallel, each into its own accumulator data frame, then combines
+     * the partial results in the order of the row ranges, which yields the same result (including the order of the
+     * aggregated rows) as aggregating all the rows sequentially.
      */
-    public DataFrame distinct()
+    private AggregationResult aggregateRowsInParallel(
+            ListIterable<AggregateFunction> aggregators,
+            ListIterable<String> columnsToGroupByNames,
+            boolean createSourceRowIdIndex)
     {
-        return this.uniqueRowsForColumns(this.columns);
-    }
+        int chunkSize = Math.max(PARALLEL_CHUNK_MIN_SIZE, this.rowCount / (4 * this.parallelPool.getParallelism()) + 1);
+        int chunkCount = (this.rowCount + chunkSize - 1) / chunkSize;
 
-    /**
-     * Extracts distinct valued in rows, in multiple columns, for the specified columns. Returns a new data frame
-     * containing the specified columns with distinct row values from this dataframe.
+        AggregationResult[] partials = new AggregationResult[chunkCount];
+
+        MutableList<Runnable> chunkTasks = Lists.mutable.of();
+        for (int chunkIndex = 0; chunkIndex < chunkCount; chunkIndex++)
+        {
+            int chunk = chunkIndex;
+            int fromRow = chunk * chunkSize;
+            int toRow = Math.min(fromRow + chunkSize, this.rowCount);
+
+            chunkTasks.add(() -> partials[chunk] = this.aggregateRows(
+                    aggregators, columnsToGroupByNames, fromRow, toRow, createSourceRowIdIndex));
+        }
+
+        this.runInParallel(chunkTasks);
+
+        MutableList<MutableIntList> sourceRowIds = createSourceRowIdIndex ? Lists.mutable.of() : null;
+        int[] inputRowCountPerAggregateRow = new int[this.rowCount]; // sizing for the worst case scenario: no aggregation
+
+        DataFrame aggregatedDataFrame = this.createAggregatedDataFrame(aggregators, columnsToGroupByNames);
+
+        ListIterable<DfColumn> accumulatorColumns = aggregators
+                .collectWith(AggregateFunction::getTargetColumn, aggregatedDataFrame);
+
+        DfIndexKeeper index = new DfIndexKeeper(aggregatedDataFrame, columnsToGroupByNames, partials[0].aggregated());
+
+        for (AggregationResult partial : partials)
+        {
+            DataFrame partialDataFrame = partial.aggregated();
+            ListIterable<DfColumn> partialKeyColumns = columnsToGroupByNames.collect(partialDataFrame::getColumnNamed);
+            ListIterable<DfColumn> partialColumns = aggregators.collectWith(AggregateFunction::getTargetColumn, partialDataFrame);
+
+            for (int partialRowIndex = 0; partialRowIndex < partialDataFrame.rowCount(); partialRowIndex++)
+            {
+                int rowIndex = partialRowIndex;
+                ListIterable<Object> keyValue = partialKeyColumns.collect(column -> column.getObject(rowIndex));
+
+                int accumulatorRowIndex = index.getRowIndexAtKeyIfAbsentAddAndEvaluate(
+                        keyValue,
+                        newRowIndex -> aggregators.forEachInBoth(accumulatorColumns,
+                                (aggregateFunction, accumulatorColumn) -> aggregateFunction.initializeValue(accumulatorColumn, newRowIndex))
+                );
+
+                if (createSourceRowIdIndex)
+                {
+                    if (sourceRowIds.size() == accumulatorRowIndex)
+                    {
+                        sourceRowIds.add(IntLists.mutable.of());
+                    }
+
+                    sourceRowIds.get(accumulatorRowIndex).addAll(partial.sourceRowIds().get(partialRowIndex));
+                }
+
+                boolean firstPartial = inputRowCountPerAggregateRow[accumulatorRowIndex] == 0;
+                inputRowCountPerAggregateRow[accumulatorRowIndex] += partial.inputRowCountPerAggregateRow()[partialRowIndex];
+
+                for (int colIndex = 0; colIndex < aggregators.size(); colIndex++)
+                {
+                    if (firstPartial)
+                    {
+                        aggregators.get(colIndex).combineFirst(
+                                accumulatorColumns.get(colIndex), accumulatorRowIndex, partialColumns.get(colIndex), partialRowIndex);
+                    }
+                    else
+                    {
+                        aggregators.get(colIndex).combine(
+                                accumulatorColumns.get(colIndex), accumulatorRowIndex, partialColumns.get(colIndex), partialRowIndex);
+                    }
+                }
+            }
+        }
+
+        return new AggregationResult(aggregatedDataFrame, inputRowCountPerAggregateRow, sourceRowIds);
+    }
+
+    public DataFrame sumByWithIndex(ListIterable<String> columnsToSumNames, ListIterable<String> columnsToGroupByNames)
+    {
+        return this.aggregateByWithIndex(columnsToSumNames.collect(AggregateFunction::sum), columnsToGroupByNames);
+    }
+
+    /**
+     * Extracts distinct rows from the data frame. Returns a new data frame with the same schema as this data frame and
+     * only containing distinct row values. This is the same as calling the {@link #distinct(ListIterable)} method with
+     * the list of all the data frame columns as its parameter.
+     *
+     * @return a new data frame with a row for each distinct (unique) combination of row values for the specified
+     * columns in this dataframe
+     */
+    public DataFrame distinct()
+    {
+        return this.uniqueRowsForColumns(this.columns);
+    }
+
+    /**
+     * Extracts distinct valued in rows, in multiple columns, for the specified columns. Returns a new data frame
+     * containing the specified columns with distinct row values from this dataframe.
      *
      * @param columnNames the list of columns from which to select unique row values
      * @return a new data frame with a row for each distinct (unique) combination of row values for the specified
@@ -1231,8 +1754,7 @@ implements DfIterate
 
         for (int rowIndex = 0; rowIndex < this.rowCount; rowIndex++)
         {
-            ListIterable<Object> keyValue = index.computeKeyFrom(rowIndex);
-            index.getRowIndexAtKeyIfAbsentAdd(keyValue);
+            index.getRowIndexAtSourceRowIfAbsentAdd(rowIndex);
         }
 
         return result;
@@ -1260,19 +1782,10 @@ implements DfIterate
 
         Expression filterExpression = ExpressionParserHelper.DEFAULT.toExpression(filterExpressionString);
 
-        for (int i = 0; i < this.rowCount; i++)
-        {
-            this.getEvalContext().setRowIndex(i);
-            Value select = filterExpression.evaluate(this.getEvalVisitor());
-            if (((BooleanValue) select).isTrue())
-            {
-                selected.copyRowFrom(this, i);
-            }
-            else
-            {
-                rejected.copyRowFrom(this, i);
-            }
-        }
+        BitSet selectedRows = this.selectionBitmap(filterExpression);
+
+        selected.copyRowsFrom(this, this.rowIndicesOf(selectedRows, true));
+        rejected.copyRowsFrom(this, this.rowIndicesOf(selectedRows, false));
 
         this.sealMindingPooling(selected);
         this.sealMindingPooling(rejected);
@@ -1282,7 +1795,9 @@ implements DfIterate
 
     /**
      * Creates a new data frame from this one by copying the rows of this data frame for which the specified filter
-     * expression returns {@code true}.
+     * expression returns {@code true}. If the expression constrains all the columns of one of the named indexes of this
+     * data frame to constant values ({@code ==} or {@code in}, possibly as a part of a conjunction), the matching rows
+     * are looked up in the index and the rest of the expression is evaluated only for these rows.
      *
      * @param filterExpressionString the expression based on which rows will be selected into the result data frame
      * @return a new data frame, which is a copy of this data frame with only the rows that satisfy the filter criteria
@@ -1334,18 +1849,181 @@ implements DfIterate
         this.inheritPoolingSettings(filtered);
 
         Expression filterExpression = ExpressionParserHelper.DEFAULT.toExpression(filterExpressionString);
-        for (int i = 0; i < this.rowCount; i++)
+
+        DfIndexPlanner.Plan indexPlan = new DfIndexPlanner(this).planFor(filterExpression, this.indices.valuesView());
+
+        IntList rowIndices = indexPlan == null
+                ? this.rowIndicesOf(this.selectionBitmap(filterExpression), select)
+                : this.rowIndicesOf(indexPlan, select);
+
+        filtered.copyRowsFrom(this, rowIndices);
+
+        this.sealMindingPooling(filtered);
+        return filtered;
+    }
+
+    /**
+     * Returns the indices of the rows of this data frame, in ascending order, that match (or do not match if {@code
+     * select} is {@code false}) the filter expression answered by the index lookup plan. The residual predicate of the
+     * plan is evaluated only for the rows found in the index.
+     */
+    private IntList rowIndicesOf(DfIndexPlanner.Plan indexPlan, boolean select)
+    {
+        MutableIntList matching = indexPlan.candidateRowIndices();
+
+        if (indexPlan.residual() != null)
+        {
+            matching = matching.select(this.rowPredicateFor(indexPlan.residual()));
+        }
+
+        if (select)
+        {
+            return matching;
+        }
+
+        BitSet selection = new BitSet(this.rowCount);
+        matching.forEach(selection::set);
+        return this.rowIndicesOf(selection, false);
+    }
+
+    /**
+     * Returns a predicate evaluating the filter expression for individual rows of this data frame, using its compiled
+     * form if the expression can be compiled
+     */
+    private IntPredicate rowPredicateFor(Expression filterExpression)
+    {
+        DfCompiledExpression compiled = this.compiledExpressionFor(filterExpression, true);
+
+        if (compiled != null && compiled.getType() == ValueType.BOOLEAN)
+        {
+            return rowIndex -> compiled.isNull(rowIndex)
+                    ? this.evaluateFilterAt(filterExpression, rowIndex)
+                    : compiled.getBoolean(rowIndex);
+        }
+
+        return rowIndex -> this.evaluateFilterAt(filterExpression, rowIndex);
+    }
+
+    /**
+     * Evaluates the filter expression for each row of this data frame and returns a bitmap with the bits set for the
+     * rows for which the expression evaluates to {@code true}. If parallel processing is enabled, the rows are split
+     * into chunks, with each chunk evaluated by its own task into its own bitmap.
+     */
+    private BitSet selectionBitmap(Expression filterExpression)
+    {
+        RowRangeFilter filter = this.rowRangeFilterFor(filterExpression);
+
+        if (!this.isParallelProcessingEnabled() || this.rowCount < 2 * PARALLEL_CHUNK_MIN_SIZE)
+        {
+            BitSet selection = new BitSet(this.rowCount);
+            filter.evaluate(0, this.rowCount, (rowIndex, isSelected) -> selection.set(rowIndex, isSelected));
+            return selection;
+        }
+
+        // rounded up to a multiple of 64 so each chunk owns a distinct range of the words of the result bitmap
+        int chunkSize = Math.max(
+                PARALLEL_CHUNK_MIN_SIZE,
+                (this.rowCount / (4 * this.parallelPool.getParallelism()) | 63) + 1);
+
+        long[] words = new long[(this.rowCount + 63) / 64];
+
+        MutableList<Runnable> chunkTasks = Lists.mutable.of();
+        for (int chunkFromRow = 0; chunkFromRow < this.rowCount; chunkFromRow += chunkSize)
+        {
+            int fromRow = chunkFromRow;
+            int toRow = Math.min(fromRow + chunkSize, this.rowCount);
+
+            chunkTasks.add(() -> {
+                BitSet chunkBitmap = new BitSet(toRow - fromRow);
+                filter.evaluate(fromRow, toRow, (rowIndex, isSelected) -> chunkBitmap.set(rowIndex - fromRow, isSelected));
+
+                long[] chunkWords = chunkBitmap.toLongArray();
+                System.arraycopy(chunkWords, 0, words, fromRow / 64, chunkWords.length);
+            });
+        }
+
+        this.runInParallel(chunkTasks);
+
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Returns the indices of the rows of this data frame, in ascending order, for which the corresponding bit in the
+     * selection bitmap has the specified value
+     */
+    private IntList rowIndicesOf(BitSet selection, boolean bitValue)
+    {
+        MutableIntList rowIndices = IntLists.mutable.empty();
+
+        if (bitValue)
+        {
+            for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1))
+            {
+                rowIndices.add(i);
+            }
+        }
+        else
         {
-            this.getEvalContext().setRowIndex(i);
-            Value filterValue = filterExpression.evaluate(this.getEvalVisitor());
-            if (((BooleanValue) filterValue).is(select))
+            for (int i = selection.nextClearBit(0); i < this.rowCount; i = selection.nextClearBit(i + 1))
             {
-                filtered.copyRowFrom(this, i);
+                rowIndices.add(i);
             }
         }
 
-        this.sealMindingPooling(filtered);
-        return filtered;
+        return rowIndices;
+    }
+
+    /**
+     * Returns a filter that evaluates the filter expression for a range of rows of this data frame and passes the row
+     * index along with the boolean result of the evaluation to the procedure. The expression is evaluated in batches
+     * if it can be vectorized, otherwise it is evaluated one row at a time, using its compiled form if the expression
+     * can be compiled. The returned filter can be used concurrently for distinct ranges of rows.
+     */
+    private RowRangeFilter rowRangeFilterFor(Expression filterExpression)
+    {
+        DfVectorEvaluator evaluator = this.vectorEvaluatorFor(filterExpression, ValueType.BOOLEAN);
+
+        if (evaluator != null)
+        {
+            return (fromRow, toRow, procedure) -> evaluator.forEachBatch(fromRow, toRow, (results, batchFromRow) -> {
+                for (int i = 0; i < results.size(); i++)
+                {
+                    int rowIndex = batchFromRow + i;
+                    // a null result is not a valid filter outcome, let the interpreter deal with it
+                    procedure.value(rowIndex, results.isNull(i)
+                            ? this.evaluateFilterAt(filterExpression, rowIndex)
+                            : results.getBoolean(i));
+                }
+            });
+        }
+
+        DfCompiledExpression compiled = this.compiledExpressionFor(filterExpression, true);
+
+        if (compiled != null && compiled.getType() == ValueType.BOOLEAN)
+        {
+            return (fromRow, toRow, procedure) -> {
+                for (int i = fromRow; i < toRow; i++)
+                {
+                    // a null result is reported by the interpreter the same way as on the non-compiled path
+                    procedure.value(i, compiled.isNull(i)
+                            ? this.evaluateFilterAt(filterExpression, i)
+                            : compiled.getBoolean(i));
+                }
+            };
+        }
+
+        return (fromRow, toRow, procedure) -> {
+            for (int i = fromRow; i < toRow; i++)
+            {
+                procedure.value(i, this.evaluateFilterAt(filterExpression, i));
+            }
+        };
+    }
+
+    private boolean evaluateFilterAt(Expression filterExpression, int rowIndex)
+    {
+        this.getEvalContext().setRowIndex(rowIndex);
+        return ((BooleanValue) filterExpression.evaluate(this.getEvalVisitor())).isTrue();
     }
 
     private DataFrame selectByMarkValue(IntPredicate flaggedAtIndex, String description)
@@ -1365,6 +2043,39 @@ implements DfIterate
         return filtered;
     }
 
+    /**
+     * Copies the rows at the specified indices of the source data frame into this data frame, which is expected to be
+     * empty, one column at a time. If parallel processing is enabled on the source data frame, the columns are copied
+     * concurrently.
+     */
+    private void copyRowsFrom(DataFrame source, IntList rowIndices)
+    {
+        MutableList<Runnable> columnCopies = Lists.mutable.of();
+
+        for (int columnIndex = 0; columnIndex < this.columns.size(); columnIndex++)
+        {
+            DfColumn thisColumn = this.columns.get(columnIndex);
+
+            if (thisColumn.isStored())
+            {
+                DfColumn sourceColumn = source.getColumnAt(columnIndex);
+                columnCopies.add(() -> {
+                    ((DfColumnStored) thisColumn).ensureInitialCapacity(rowIndices.size());
+                    sourceColumn.addRowsToColumn(rowIndices, thisColumn);
+                });
+            }
+        }
+
+        if (source.isParallelProcessingEnabled())
+        {
+            source.runInParallel(columnCopies);
+        }
+        else
+        {
+            columnCopies.forEach(Runnable::run);
+        }
+    }
+
     private void copyRowFrom(DataFrame source, int rowIndex)
     {
         for (int columnIndex = 0; columnIndex < this.columns.size(); columnIndex++)
@@ -1461,22 +2172,8 @@ implements DfIterate
             return IntLists.immutable.empty();
         }
 
-        DfTuple[] tuples = new DfTuple[this.rowCount];
-        for (int i = 0; i < this.rowCount; i++)
-        {
-            tuples[i] = this.rowToTuple(i, columnsToSortBy);
-        }
-
-        if (sortOrders == null)
-        {
-            Arrays.sort(tuples);
-        }
-        else
-        {
-            Arrays.sort(tuples, (t1, t2) -> t1.compareTo(t2, sortOrders));
-        }
-
-        return ArrayIterate.collectInt(tuples, DfTuple::order);
+        return IntLists.mutable.with(this.rowIndexSorter(this.rowCount)
+                .sortedRowIndices(columnsToSortBy, sortOrders, IntInterval.zeroTo(this.rowCount - 1).toArray()));
     }
 
     public DataFrame sortByExpression(String expressionString)
@@ -1495,32 +2192,26 @@ implements DfIterate
 
         Expression expression = ExpressionParserHelper.DEFAULT.toExpression(expressionString);
 
-        DfTuple[] tuples = new DfTuple[this.rowCount];
-        for (int i = 0; i < this.rowCount; i++)
+        DfCompiledExpression compiled = this.compiledExpressionFor(expression, true);
+        if (compiled != null && compiled.getType() != ValueType.BOOLEAN)
         {
-            this.getEvalContext().setRowIndex(i);
-            tuples[i] = new DfTuple(i, expression.evaluate(this.getEvalVisitor()));
+            this.virtualRowMap = IntLists.mutable.with(
+                    this.rowIndexSorter(this.rowCount).sortedRowIndices(compiled, sortOrder, this.rowCount));
+            return this;
         }
 
-        Arrays.sort(tuples, (t1, t2) -> t1.compareTo(t2, Lists.immutable.of(sortOrder)));
+        // the evaluation context is thread local, so the expression can be evaluated in parallel
+        IntToObjectFunction<Object> valueAtRow = rowIndex -> {
+            this.getEvalContext().setRowIndex(rowIndex);
+            return expression.evaluate(this.getEvalVisitor());
+        };
 
-        this.virtualRowMap = ArrayIterate.collectInt(tuples, DfTuple::order);
+        this.virtualRowMap = IntLists.mutable.with(
+                this.rowIndexSorter(this.rowCount).sortedRowIndices(valueAtRow, sortOrder, this.rowCount));
 
         return this;
     }
 
-    private DfTuple rowToTuple(int rowIndex, ListIterable<DfColumn> columnsToCollect)
-    {
-        int size = columnsToCollect.size();
-        Object[] values = new Object[size];
-        for (int i = 0; i < size; i++)
-        {
-            values[i] = columnsToCollect.get(i).getObject(rowIndex);
-        }
-
-        return new DfTuple(rowIndex, values);
-    }
-
     public void unsort()
     {
         this.virtualRowMap = null;
@@ -1556,6 +2247,54 @@ implements DfIterate
         return dfUnion;
     }
 
+    /**
+     * Appends the rows of the data frame passed as the parameter to this data frame. Unlike {@link #union(DataFrame)}
+     * this data frame is modified in place, so the indexes created on it are maintained incrementally rather than
+     * being lost. The data frame schemas must match.
+     *
+     * @param other the data frame whose rows to append
+     * @return this data frame
+     */
+    public DataFrame appendRows(DataFrame other)
+    {
+        // the schemas are checked up front, so that a mismatch does not leave some of the columns appended
+        if (this.columnCount() != other.columnCount())
+        {
+            exceptionByKey("DF_APPEND_DIFF_COL_COUNT")
+                    .with("dataFrameName", this.getName())
+                    .with("otherDataFrameName", other.getName())
+                    .fire();
+        }
+
+        for (DfColumn column : this.columns)
+        {
+            if (!other.hasColumn(column.getName()) || other.getColumnNamed(column.getName()).getType() != column.getType())
+            {
+                exceptionByKey("DF_APPEND_COL_MISMATCH")
+                        .with("dataFrameName", this.getName())
+                        .with("otherDataFrameName", other.getName())
+                        .with("columnName", column.getName())
+                        .with("columnType", column.getType())
+                        .fire();
+            }
+        }
+
+        if (other.isEmpty())
+        {
+            return this;
+        }
+
+        IntInterval otherRowIndices = IntInterval.zeroTo(other.rowCount() - 1);
+
+        this.columns
+                .select(DfColumn::isStored)
+                .forEach(col -> other.getColumnNamed(col.getName()).addRowsToColumn(otherRowIndices, col));
+
+        this.determineRowCount();
+        this.resetBitmap();
+        return this;
+    }
+
     /**
      * Enables flagging the rows as true or false - effectively creating a bitmap of the data frame rows.
      * This method initializes the bitmap so that no flags are set.
@@ -1635,15 +2374,7 @@ implements DfIterate
 
         Expression filterExpression = ExpressionParserHelper.DEFAULT.toExpression(filterExpressionString);
 
-        for (int i = 0; i < this.rowCount; i++)
-        {
-            this.getEvalContext().setRowIndex(i);
-            BooleanValue evalResult = (BooleanValue) filterExpression.evaluate(this.getEvalVisitor());
-            if (evalResult.isTrue())
-            {
-                this.bitmap.set(i, true);
-            }
-        }
+        this.rowIndicesOf(this.selectionBitmap(filterExpression), true).forEach(rowIndex -> this.bitmap.set(rowIndex, true));
     }
 
     /**
@@ -1659,6 +2390,9 @@ implements DfIterate
 
         this.columns.remove(dropped);
         this.columnsByName.remove(columnName);
+        this.schemaVersion++;
+
+        this.markIndexesOnColumnsForRebuild(Lists.immutable.of(columnName));
 
         return this;
     }
@@ -1666,8 +2400,8 @@ implements DfIterate
     /**
      * A very basic join - creates a data frame that is a join of this data frame and another one, based on the key
      * column values. Rows with the same values of the key column will be combined in the resulting data frame into one
-     * wide row. This is an inner join so rows for which there is no match in the other data frame will not be present
-     * in the join.
+     * wide row, a row is combined with each matching row if there are several. This is an inner join so rows for
+     * which there is no match in the other data frame will not be present in the join.
      *
      * @param other               the data frame to join to
      * @param thisJoinColumnName  the name of the column in this data frame to use as the join key
@@ -1682,8 +2416,8 @@ implements DfIterate
     /**
      * A basic inner join - creates a data frame that is a join of this data frame and another one, based on the key
      * column values. Rows with the same values of the key column will be combined in the resulting data frame into one
-     * wide row. This is an inner join so rows for which there is no match in the other data frame will not be present
-     * in the join.
+     * wide row, a row is combined with each matching row if there are several. This is an inner join so rows for
+     * which there is no match in the other data frame will not be present in the join.
      *
      * @param other                the data frame to join to
      * @param thisJoinColumnNames  the name of the columns in this data frame to use as the join keys
@@ -1705,8 +2439,8 @@ implements DfIterate
     /**
      * A basic inner join - creates a data frame that is a join of this data frame and another one, based on the key
      * column values. Rows with the same values of the key column will be combined in the resulting data frame into one
-     * wide row. This is an inner join so rows for which there is no match in the other data frame will not be present
-     * in the join.
+     * wide row, a row is combined with each matching row if there are several. This is an inner join so rows for
+     * which there is no match in the other data frame will not be present in the join.
      *
      * @param other                the data frame to join to
      * @param thisJoinColumnNames  the name of the columns in this data frame to use as the join keys
@@ -1734,8 +2468,9 @@ implements DfIterate
     /**
      * A basic outer join - creates a data frame that is a join of this data frame and another one, based on the key
      * column values. Rows with the same values of the key column will be combined in the resulting data frame into one
-     * wide row. The rows for which there is no match in the other data frame will have the missing values filled with
-     * nulls for object column types or zeros for numeric column types.
+     * wide row, a row is combined with each matching row if there are several. The rows for which there is no match
+     * in the other data frame will have the missing values filled with nulls for object column types or zeros for
+     * numeric column types.
      *
      * @param other               the data frame to join to
      * @param thisJoinColumnName  the name of the column in this data frame to use as the join key
@@ -1750,8 +2485,9 @@ implements DfIterate
     /**
      * A basic outer join - creates a data frame that is a join of this data frame and another one, based on the key
      * column values. Rows with the same values of the key columns will be combined in the resulting data frame into one
-     * wide row. The rows for which there is no match in the other data frame will have the missing values filled with
-     * nulls for object column types or zeros for numeric column types.
+     * wide row, a row is combined with each matching row if there are several. The rows for which there is no match
+     * in the other data frame will have the missing values filled with nulls for object column types or zeros for
+     * numeric column types.
      *
      * @param other                the data frame to join to
      * @param thisJoinColumnNames  the name of the columns in this data frame to use as the join keys
@@ -1772,8 +2508,9 @@ implements DfIterate
     /**
      * A basic outer join - creates a data frame that is a join of this data frame and another one, based on the key
      * column values. Rows with the same values of the key columns will be combined in the resulting data frame into one
-     * wide row. The rows for which there is no match in the other data frame will have the missing values filled with
-     * nulls for object column types or zeros for numeric column types.
+     * wide row, a row is combined with each matching row if there are several. The rows for which there is no match
+     * in the other data frame will have the missing values filled with nulls for object column types or zeros for
+     * numeric column types.
      *
      * @param other                the data frame to join to
      * @param thisJoinColumnNames  the name of the columns in this data frame to use as the join keys
@@ -1799,9 +2536,10 @@ implements DfIterate
 
     /**
      * Performs intersection and complement set operations between two data frames based on the provided keys and
-     * returns their results as a triplet of data frames. The result of the intersection is equivalent to inner join of
-     * two data frames, and the result of each complement is the subset of the rows of each data frame that does not
-     * have corresponding keys in the other data frame
+     * returns their results as a triplet of data frames. The rows with the same keys are paired one to one, so if the
+     * keys are unique the result of the intersection is equivalent to inner join of two data frames, and the result of
+     * each complement is the subset of the rows of each data frame that does not have a paired row in the other data
+     * frame
      *
      * @param other                the data frame to join to
      * @param thisJoinColumnNames  the name of the columns in this data frame to use as the join keys
@@ -1823,9 +2561,10 @@ implements DfIterate
 
     /**
      * Performs intersection and complement set operations between two data frames based on the provided keys and
-     * returns their results as a triplet of data frames. The result of the intersection is equivalent to inner join of
-     * two data frames, and the result of each complement is the subset of the rows of each data frame that does not
-     * have corresponding keys in the other data frame
+     * returns their results as a triplet of data frames. The rows with the same keys are paired one to one, so if the
+     * keys are unique the result of the intersection is equivalent to inner join of two data frames, and the result of
+     * each complement is the subset of the rows of each data frame that does not have a paired row in the other data
+     * frame
      *
      * @param other                the data frame to join to
      * @param thisJoinColumnNames  the name of the columns in this data frame to use as the join keys
@@ -1850,9 +2589,10 @@ implements DfIterate
 
     /**
      * Performs intersection and complement set operations between two data frames based on the provided keys and
-     * returns their results as a triplet of data frames. The result of the intersection is equivalent to inner join of
-     * two data frames, and the result of each complement is the subset of the rows of each data frame that does not
-     * have corresponding keys in the other data frame
+     * returns their results as a triplet of data frames. The rows with the same keys are paired one to one, so if the
+     * keys are unique the result of the intersection is equivalent to inner join of two data frames, and the result of
+     * each complement is the subset of the rows of each data frame that does not have a paired row in the other data
+     * frame
      *
      * @param other                          the data frame to join to
      * @param thisJoinColumnNames            the name of the columns in this data frame to use as the join keys
@@ -1880,9 +2620,10 @@ implements DfIterate
 
     /**
      * Performs intersection and complement set operations between two data frames based on the provided keys and
-     * returns their results as a triplet of data frames. The result of the intersection is equivalent to inner join of
-     * two data frames, and the result of each complement is the subset of the rows of each data frame that does not
-     * have corresponding keys in the other data frame
+     * returns their results as a triplet of data frames. The rows with the same keys are paired one to one, so if the
+     * keys are unique the result of the intersection is equivalent to inner join of two data frames, and the result of
+     * each complement is the subset of the rows of each data frame that does not have a paired row in the other data
+     * frame
      *
      * @param other                          the data frame to join to
      * @param thisJoinColumnNames            the name of the columns in this data frame to use as the join keys
@@ -1929,11 +2670,6 @@ implements DfIterate
                     .fire();
         }
 
-        DataFrame joined = this.cloneStructureAsStored(this.getName() + "_" + other.getName());
-
-        DataFrame thisComplementOther = this.cloneStructureAsStored(this.getName() + "-" + other.getName());
-        DataFrame otherComplementThis = other.cloneStructureAsStored(other.getName() + "-" + this.getName());
-
         MapIterable<String, String> otherColumnNameMap = this.resolveDuplicateNames(
                 this.columns.collect(DfColumn::getName),
                 other.columns.collect(DfColumn::getName));
@@ -1941,171 +2677,258 @@ implements DfIterate
         otherColumnNameMap.forEachKeyValue(renamedOtherColumns::put);
         otherJoinColumnNames.forEachInBoth(theseJoinColumnNames, renamedOtherColumns::put);
 
-        other.columns
-                .reject(col -> otherJoinColumnNames.contains(col.getName()))
-                .forEach(col -> joined.addColumn(otherColumnNameMap.get(col.getName()), col.getType()));
+        JoinOutput output = new JoinOutput(joinType, this, other, theseJoinColumnNames, otherJoinColumnNames, otherColumnNameMap);
 
-        // building separate indexes for sorting rather than sorting the data frames directly to preserve their existing
-        // sort order (if any)
-        IntList thisSortedIndexMap = this.buildSortedRowIndexMap(theseJoinColumnNames.toList().withAll(thisAdditionalSortColumnNames), null);
-        IntList otherSortedIndexMap = other.buildSortedRowIndexMap(otherJoinColumnNames.toList().withAll(otherAdditionalSortColumnNames), null);
+        ListIterable<DfColumn> theseJoinColumns = this.columnsNamed(theseJoinColumnNames);
+        ListIterable<DfColumn> otherJoinColumns = other.columnsNamed(otherJoinColumnNames);
 
-        int thisRowIndex = 0;
-        int otherRowIndex = 0;
+        DataFrame hashJoinBuildSide = this.hashJoinBuildSide(
+                other, theseJoinColumns, otherJoinColumns,
+                thisAdditionalSortColumnNames.notEmpty(), otherAdditionalSortColumnNames.notEmpty());
 
-        int thisRowCount = this.rowCount();
-        int otherRowCount = other.rowCount();
+        if (hashJoinBuildSide == this)
+        {
+            int[] thisSortedRows = this.buildSortedRowIndexMap(theseJoinColumnNames.toList().withAll(thisAdditionalSortColumnNames), null).toArray();
+            DataFrame.hashJoin(new DfJoinHashTable(theseJoinColumns, thisSortedRows, otherJoinColumns), theseJoinColumns, other, otherJoinColumns, true, output);
+        }
+        else if (hashJoinBuildSide == other)
+        {
+            int[] otherSortedRows = other.buildSortedRowIndexMap(otherJoinColumnNames.toList().withAll(otherAdditionalSortColumnNames), null).toArray();
+            DataFrame.hashJoin(new DfJoinHashTable(otherJoinColumns, otherSortedRows, theseJoinColumns), otherJoinColumns, this, theseJoinColumns, false, output);
+        }
+        else
+        {
+            // building separate indexes for sorting rather than sorting the data frames directly to preserve their
+            // existing sort order (if any)
+            int[] thisSortedRows = this.buildSortedRowIndexMap(theseJoinColumnNames.toList().withAll(thisAdditionalSortColumnNames), null).toArray();
+            int[] otherSortedRows = other.buildSortedRowIndexMap(otherJoinColumnNames.toList().withAll(otherAdditionalSortColumnNames), null).toArray();
 
-        Object[] rowData = new Object[joined.columnCount()];
+            DataFrame.sortMergeJoin(theseJoinColumns, thisSortedRows, otherJoinColumns, otherSortedRows, output);
+        }
 
-        ListIterable<String> theseColumnNames = this.columns.collect(DfColumn::getName);
-        int theseColumnCount = theseColumnNames.size();
+        return output.result();
+    }
 
-        IntList joinColumnIndices = theseJoinColumnNames.collectInt(theseColumnNames::indexOf);
+    /*
+     * Returns the data frame to build the hash table on if the hash join is to be used to join this data frame with the
+     * other one, or null if the sort-merge join is to be used. The rows on the probe side are ordered by the join keys
+     * only, so a data frame with additional sort columns can only be on the build side.
+     */
+    private DataFrame hashJoinBuildSide(
+            DataFrame other,
+            ListIterable<DfColumn> theseJoinColumns,
+            ListIterable<DfColumn> otherJoinColumns,
+            boolean thisHasAdditionalSortColumns,
+            boolean otherHasAdditionalSortColumns)
+    {
+        if (this.joinStrategy == DfJoinStrategy.SORT_MERGE)
+        {
+            return null;
+        }
 
-        ListIterable<String> otherColumnNames = other.columns
-                .collect(DfColumn::getName)
-                .reject(otherJoinColumnNames::contains);
+        for (int i = 0; i < theseJoinColumns.size(); i++)
+        {
+            ValueType keyType = theseJoinColumns.get(i).getType();
+            if (keyType != otherJoinColumns.get(i).getType() || !DfKeyEncoder.isConsistentWithComparison(keyType))
+            {
+                return null;
+            }
+        }
 
-        ListIterable<DfColumn> theseColumns = this.columnsNamed(theseColumnNames);
-        ListIterable<DfColumn> otherColumns = other.columnsNamed(otherColumnNames);
+        boolean thisIsSmaller = this.rowCount() <= other.rowCount();
+        DataFrame smaller = thisIsSmaller ? this : other;
+        DataFrame larger = thisIsSmaller ? other : this;
+        boolean smallerHasAdditionalSortColumns = thisIsSmaller ? thisHasAdditionalSortColumns : otherHasAdditionalSortColumns;
+        boolean largerHasAdditionalSortColumns = thisIsSmaller ? otherHasAdditionalSortColumns : thisHasAdditionalSortColumns;
 
-        ListIterable<DfColumn> theseJoinColumns = this.columnsNamed(theseJoinColumnNames);
-        ListIterable<DfColumn> otherJoinColumns = other.columnsNamed(otherJoinColumnNames);
+        if (this.joinStrategy == DfJoinStrategy.AUTO)
+        {
+            return !largerHasAdditionalSortColumns && (long) smaller.rowCount() * HASH_JOIN_SIZE_RATIO <= larger.rowCount()
+                    ? smaller : null;
+        }
 
-        IntIntToIntFunction keyComparator = (thisIndex, otherIndex) -> {
-            for (int i = 0; i < theseJoinColumns.size(); i++)
+        if (largerHasAdditionalSortColumns)
+        {
+            return smallerHasAdditionalSortColumns ? null : larger;
+        }
+
+        return smaller;
+    }
+
+    private static int compareKeys(
+            ListIterable<DfColumn> theseKeyColumns, int thisRowIndex,
+            ListIterable<DfColumn> otherKeyColumns, int otherRowIndex)
+    {
+        for (int i = 0; i < theseKeyColumns.size(); i++)
+        {
+            int result = DfTuple.compareMindingNulls(
+                    theseKeyColumns.get(i).getObject(thisRowIndex),
+                    otherKeyColumns.get(i).getObject(otherRowIndex)
+            );
+
+            if (result != 0)
             {
-                int result = DfTuple.compareMindingNulls(
-                        theseJoinColumns.get(i).getObject(thisSortedIndexMap.get(thisIndex)),
-                        otherJoinColumns.get(i).getObject(otherSortedIndexMap.get(otherIndex))
-                );
-                if (result != 0)
-                {
-                    return result;
-                }
+                return result;
             }
-            return 0;
-        };
+        }
 
-        int comparison;
-        while (thisRowIndex < thisRowCount && otherRowIndex < otherRowCount)
+        return 0;
+    }
+
+    private static void sortMergeJoin(
+            ListIterable<DfColumn> theseJoinColumns, int[] thisSortedRows,
+            ListIterable<DfColumn> otherJoinColumns, int[] otherSortedRows,
+            JoinOutput output)
+    {
+        int thisPosition = 0;
+        int otherPosition = 0;
+
+        while (thisPosition < thisSortedRows.length && otherPosition < otherSortedRows.length)
         {
-            comparison = keyComparator.valueOf(thisRowIndex, otherRowIndex);
+            int thisRowIndex = thisSortedRows[thisPosition];
+            int otherRowIndex = otherSortedRows[otherPosition];
 
-            final int thisSortedIndex = thisSortedIndexMap.get(thisRowIndex);
-            final int otherSortedIndex = otherSortedIndexMap.get(otherRowIndex);
+            int comparison = compareKeys(theseJoinColumns, thisRowIndex, otherJoinColumns, otherRowIndex);
 
             if (comparison == 0)
             {
-                theseColumns.forEachWithIndex((col, i) -> rowData[i] = col.getObject(thisSortedIndex));
-                otherColumns.forEachWithIndex((col, i) -> rowData[theseColumnCount + i] = col.getObject(otherSortedIndex));
-
-                joined.addRow(rowData);
-                thisRowIndex++;
-                otherRowIndex++;
-            }
-            else
-            {
-                if (comparison < 0)
+                // find the runs of rows with this key on both sides
+                int thisRunEnd = thisPosition + 1;
+                while (thisRunEnd < thisSortedRows.length
+                        && compareKeys(theseJoinColumns, thisSortedRows[thisRunEnd], otherJoinColumns, otherRowIndex) == 0)
                 {
-                    // this side is behind
-                    if (joinType.isOuterJoin())
-                    {
-                        Arrays.fill(rowData, null);
-                        theseColumns.forEachWithIndex((col, i) -> rowData[i] = col.getObject(thisSortedIndex));
-
-                        joined.addRow(rowData);
-                    }
-                    else if (joinType.isJoinWithComplements())
-                    {
-                        thisComplementOther.copyRowFrom(this, thisSortedIndex);
-                    }
-                    thisRowIndex++;
+                    thisRunEnd++;
                 }
-                else
-                {
-                    // the other side is behind
-                    if (joinType.isOuterJoin())
-                    {
-                        Arrays.fill(rowData, null);
 
-                        joinColumnIndices.forEachWithIndex(
-                            (joinColumnIndex, sourceKeyIndex) ->
-                                rowData[joinColumnIndex] = otherJoinColumns.get(sourceKeyIndex)
-                                                                           .getObject(otherSortedIndex)
-                        );
+                int otherRunEnd = otherPosition + 1;
+                while (otherRunEnd < otherSortedRows.length
+                        && compareKeys(theseJoinColumns, thisRowIndex, otherJoinColumns, otherSortedRows[otherRunEnd]) == 0)
+                {
+                    otherRunEnd++;
+                }
 
-                        otherColumns.forEachWithIndex(
-                                (col, i) -> rowData[theseColumnCount + i] = col.getObject(otherSortedIndex));
+                output.addGroup(thisSortedRows, thisPosition, thisRunEnd, otherSortedRows, otherPosition, otherRunEnd);
 
-                        joined.addRow(rowData);
-                    }
-                    else if (joinType.isJoinWithComplements())
-                    {
-                        otherComplementThis.copyRowFrom(other, otherSortedIndex);
-                    }
-                    otherRowIndex++;
-                }
+                thisPosition = thisRunEnd;
+                otherPosition = otherRunEnd;
+            }
+            else if (comparison < 0)
+            {
+                // this side is behind
+                output.addThisRow(thisRowIndex);
+                thisPosition++;
+            }
+            else
+            {
+                // the other side is behind
+                output.addOtherRow(otherRowIndex);
+                otherPosition++;
             }
         }
 
         //   leftovers go here
-        if (joinType.isOuterJoin())
+        if (output.keepsUnmatchedRows())
         {
-            while (thisRowIndex < thisRowCount)
+            for (; thisPosition < thisSortedRows.length; thisPosition++)
             {
-                final int thisSortedIndex = thisSortedIndexMap.get(thisRowIndex);
-
-                Arrays.fill(rowData, null);
-                theseColumns.forEachWithIndex((col, i) -> rowData[i] = col.getObject(thisSortedIndex));
-
-                joined.addRow(rowData);
+                output.addThisRow(thisSortedRows[thisPosition]);
+            }
 
-                thisRowIndex++;
+            for (; otherPosition < otherSortedRows.length; otherPosition++)
+            {
+                output.addOtherRow(otherSortedRows[otherPosition]);
             }
+        }
+    }
 
-            while (otherRowIndex < otherRowCount)
+    /*
+     * Probes the hash table built on one side of the join with the rows of the other side. Produces the same rows in
+     * the same order as the sort-merge join: the groups of rows with the same key come in the key order, and the
+     * probe side rows with no match are sorted and placed in between the groups.
+     */
+    private static void hashJoin(
+            DfJoinHashTable hashTable,
+            ListIterable<DfColumn> buildKeyColumns,
+            DataFrame probeSide,
+            ListIterable<DfColumn> probeKeyColumns,
+            boolean buildSideIsThis,
+            JoinOutput output)
+    {
+        int probeRowCount = probeSide.rowCount();
+        int groupCount = hashTable.groupCount();
+
+        int[] probeGroups = new int[probeRowCount];
+        int[] probeGroupStarts = new int[groupCount + 1];
+        MutableIntList unmatchedProbeRows = IntLists.mutable.of();
+
+        for (int i = 0; i < probeRowCount; i++)
+        {
+            int group = hashTable.groupOf(i);
+            probeGroups[i] = group;
+            if (group == -1)
             {
-                final int otherSortedIndex = otherSortedIndexMap.get(otherRowIndex);
+                if (output.keepsUnmatchedRows())
+                {
+                    unmatchedProbeRows.add(i);
+                }
+            }
+            else
+            {
+                probeGroupStarts[group + 1]++;
+            }
+        }
 
-                Arrays.fill(rowData, null);
+        // a counting sort of the probe side rows by group, keeps the rows within a group in their original order, same
+        // as the stable sort used by the sort-merge join
+        for (int group = 0; group < groupCount; group++)
+        {
+            probeGroupStarts[group + 1] += probeGroupStarts[group];
+        }
 
-                joinColumnIndices.forEachWithIndex(
-                        (joinColumnIndex, sourceKeyIndex)
-                                -> rowData[joinColumnIndex] = otherJoinColumns.get(sourceKeyIndex)
-                                                                              .getObject(otherSortedIndex)
-                );
+        int[] groupedProbeRows = new int[probeGroupStarts[groupCount]];
+        int[] nextPositions = Arrays.copyOf(probeGroupStarts, groupCount);
+        for (int i = 0; i < probeRowCount; i++)
+        {
+            if (probeGroups[i] != -1)
+            {
+                groupedProbeRows[nextPositions[probeGroups[i]]++] = i;
+            }
+        }
 
-                otherColumns.forEachWithIndex(
-                        (col, i) -> rowData[theseColumnCount + i] = col.getObject(otherSortedIndex)
-                );
+        int[] sortedUnmatchedProbeRows = probeSide.rowIndexSorter(unmatchedProbeRows.size())
+                .sortedRowIndices(probeKeyColumns, null, unmatchedProbeRows.toArray());
+        int unmatchedPosition = 0;
 
-                joined.addRow(rowData);
+        int[] buildRows = hashTable.sortedBuildRows();
 
-                otherRowIndex++;
-            }
-        }
-        else if (joinType.isJoinWithComplements())
+        for (int group = 0; group < groupCount; group++)
         {
-            while (thisRowIndex < thisRowCount)
+            int groupFirstBuildRow = buildRows[hashTable.groupStart(group)];
+            while (unmatchedPosition < sortedUnmatchedProbeRows.length
+                    && compareKeys(probeKeyColumns, sortedUnmatchedProbeRows[unmatchedPosition], buildKeyColumns, groupFirstBuildRow) < 0)
             {
-                thisComplementOther.copyRowFrom(this, thisSortedIndexMap.get(thisRowIndex));
-                thisRowIndex++;
+                output.addUnmatchedRow(sortedUnmatchedProbeRows[unmatchedPosition], !buildSideIsThis);
+                unmatchedPosition++;
             }
 
-            while (otherRowIndex < otherRowCount)
+            if (buildSideIsThis)
             {
-                otherComplementThis.copyRowFrom(other, otherSortedIndexMap.get(otherRowIndex));
-                otherRowIndex++;
+                output.addGroup(
+                        buildRows, hashTable.groupStart(group), hashTable.groupEnd(group),
+                        groupedProbeRows, probeGroupStarts[group], probeGroupStarts[group + 1]);
+            }
+            else
+            {
+                output.addGroup(
+                        groupedProbeRows, probeGroupStarts[group], probeGroupStarts[group + 1],
+                        buildRows, hashTable.groupStart(group), hashTable.groupEnd(group));
             }
         }
 
-        joined.seal();
-        thisComplementOther.seal();
-        otherComplementThis.seal();
-
-        return Tuples.triplet(thisComplementOther, joined, otherComplementThis);
+        for (; unmatchedPosition < sortedUnmatchedProbeRows.length; unmatchedPosition++)
+        {
+            output.addUnmatchedRow(sortedUnmatchedProbeRows[unmatchedPosition], !buildSideIsThis);
+        }
     }
 
     private MapIterable<String, String> resolveDuplicateNames(
@@ -2143,10 +2966,29 @@ implements DfIterate
 
         this.columns.removeAllIterable(columnsToDrop);
         this.columnsByName.removeAllKeys(columnNamesToDrop.toSet());
+        this.schemaVersion++;
+
+        this.markIndexesOnColumnsForRebuild(columnNamesToDrop);
 
         return this;
     }
 
+    private void markIndexesOnColumnsForRebuild(ListIterable<String> columnNames)
+    {
+        this.indices
+                .select(index -> index.getIndexByColumnNames().anySatisfy(columnNames::contains))
+                .forEach(DfIndex::markRebuildNeeded);
+
+        this.sortedIndices
+                .select(index -> index.getIndexByColumnNames().anySatisfy(columnNames::contains))
+                .forEach(DfSortedIndex::markRebuildNeeded);
+
+        synchronized (this.lookupIndexCache)
+        {
+            this.lookupIndexCache.keySet().removeIf(indexColumnNames -> indexColumnNames.anySatisfy(columnNames::contains));
+        }
+    }
+
     /**
      * Drops all the data frame columns except those with the names specified as the method parameter
      *
@@ -2173,7 +3015,9 @@ implements DfIterate
 
     /**
      * Appends one or more columns to this dataframe based on value lookup in another data frame. If more than one value
-     * matches a lookup key, the first matching value is used.
+     * matches a lookup key, the first matching value is used. The rows are looked up using a named index of the other
+     * data frame by the join columns if there is one, otherwise the index is built on the first lookup and cached by the
+     * other data frame for the subsequent lookups (see {@link #clearLookupIndexCache()}).
      *
      * @param joinDescriptor - a descriptor, which specifies join keys, values to select, default values, and other join
      *                       parameters
@@ -2182,7 +3026,7 @@ implements DfIterate
     public DataFrame lookup(DfJoin joinDescriptor)
     {
         DataFrame target = joinDescriptor.joinTo();
-        DfIndex index = new DfIndex(target, joinDescriptor.joinToColumnNames());
+        DfIndex index = target.lookupIndexFor(joinDescriptor.joinToColumnNames());
 
         ListIterable<DfColumn> columnsToSelectFrom = joinDescriptor
                 .selectFromJoined()
@@ -2191,43 +3035,97 @@ implements DfIterate
         ListIterable<DfColumn> columnsToLookup = joinDescriptor.columnsToLookup()
                                                                .collect(this::getColumnNamed);
 
+        // the first matching row in the target for each row, -1 if there is none
+        int[] targetRowIndices = new int[this.rowCount()];
+        synchronized (index)
+        {
+            DfIndex.Probe probe = index.probeFor(columnsToLookup);
+            for (int rowIndex = 0; rowIndex < targetRowIndices.length; rowIndex++)
+            {
+                targetRowIndices[rowIndex] = probe.firstRowIndexAt(rowIndex);
+            }
+        }
+
         columnsToSelectFrom.forEachInBoth(joinDescriptor.columnNameAliases(),
                 (col, alias) -> this.addColumn(alias, col.getType()));
 
         ListIterable<DfColumn> addedColumns = joinDescriptor.columnNameAliases()
                                                             .collect(this::getColumnNamed);
 
-        for (int rowIndex = 0; rowIndex < this.rowCount(); rowIndex++)
+        // the values are gathered one column at a time, default if specified, otherwise null for the rows with no match
+        boolean hasValuesIfAbsent = joinDescriptor.valuesIfAbsent().notEmpty();
+        for (int columnIndex = 0; columnIndex < addedColumns.size(); columnIndex++)
         {
-            int finalRowIndex = rowIndex; // to pass as a lambda parameter
-
-            ListIterable<Object> lookupKey = columnsToLookup.collect(col -> col.getObject(finalRowIndex));
-
-            IntList found = index.getRowIndicesAtKey(lookupKey);
+            DfColumn selectFrom = columnsToSelectFrom.get(columnIndex);
+            DfColumn addTo = addedColumns.get(columnIndex);
+            Object valueIfAbsent = hasValuesIfAbsent ? joinDescriptor.valuesIfAbsent().get(columnIndex) : null;
 
-            if (found.isEmpty())
+            for (int targetRowIndex : targetRowIndices)
             {
-                // default if specified, otherwise null
-                if (joinDescriptor.valuesIfAbsent()
-                                  .notEmpty())
+                if (targetRowIndex != -1)
                 {
-                    addedColumns.forEachInBoth(joinDescriptor.valuesIfAbsent(), DfColumn::addObject);
+                    selectFrom.addRowToColumn(targetRowIndex, addTo);
+                }
+                else if (hasValuesIfAbsent)
+                {
+                    addTo.addObject(valueIfAbsent);
                 }
                 else
                 {
-                    addedColumns.forEach(DfColumn::addEmptyValue);
+                    addTo.addEmptyValue();
                 }
             }
-            else
+        }
+
+        return this.seal();
+    }
+
+    /*
+     * Returns an index of this data frame by the specified columns to look up rows in: a named index by the same
+     * columns if there is one, otherwise an index built for the previous lookups into this data frame or a new one.
+     * The cached indexes are maintained the same way as the named ones as rows are added to this data frame. A cached
+     * index whose columns have been changed in place since it was built is evicted and replaced with a new one, a named
+     * index in the same state is rebuilt when it is probed.
+     */
+    private DfIndex lookupIndexFor(ListIterable<String> columnNames)
+    {
+        DfIndex namedIndex = this.indices.detect(index -> index.getIndexByColumnNames().equals(columnNames));
+        if (namedIndex != null)
+        {
+            return namedIndex;
+        }
+
+        synchronized (this.lookupIndexCache)
+        {
+            ImmutableList<String> key = columnNames.toImmutable();
+
+            DfIndex cachedIndex = this.lookupIndexCache.get(key);
+            if (cachedIndex != null && cachedIndex.isRebuildNeeded())
             {
-                // use the first row in case there are multiple rows matching this lookup key
-                int targetRowIndex = found.getFirst();
+                this.lookupIndexCache.remove(key);
+                cachedIndex = null;
+            }
 
-                columnsToSelectFrom.forEachInBoth(addedColumns, (selectFrom, addTo) -> addTo.addObject(selectFrom.getObject(targetRowIndex)));
+            if (cachedIndex == null)
+            {
+                cachedIndex = new DfIndex(this, columnNames);
+                this.lookupIndexCache.put(key, cachedIndex);
             }
+
+            return cachedIndex;
         }
+    }
 
-        return this.seal();
+    /**
+     * Drops the indexes built and cached by the lookups into this data frame (see {@link #lookup(DfJoin)}), releasing
+     * the memory they use. The named indexes of the data frame are not affected.
+     */
+    public void clearLookupIndexCache()
+    {
+        synchronized (this.lookupIndexCache)
+        {
+            this.lookupIndexCache.clear();
+        }
     }
 
     public DfJoin lookupIn(DataFrame lookupTarget)
@@ -2247,7 +3145,7 @@ implements DfIterate
 
     /**
      * creates a named index based on the values of one or more columns. A data frame can have multiple indexes defined
-     * for it
+     * for it. The rows appended to the data frame after the index is created are added to the index incrementally
      * @param indexName the name of the index to be created
      * @param columnNames the names of the columns to index data frame by
      * @see io.github.vmzakharov.ecdataframe.dataframe.DataFrame#index(String)
@@ -2267,6 +3165,7 @@ implements DfIterate
     public void dropIndex(String indexName)
     {
         this.indices.remove(indexName);
+        this.sortedIndices.remove(indexName);
     }
 
     /**
@@ -2289,6 +3188,38 @@ implements DfIterate
         return found;
     }
 
+    /**
+     * creates a named sorted index based on the values of one or more columns. A sorted index answers range, prefix,
+     * and top/bottom N queries by binary search. It is rebuilt on the next use after rows are added to the data frame
+     * @param indexName the name of the index to be created
+     * @param columnNames the names of the columns to sort the index by, in ascending order
+     * @see io.github.vmzakharov.ecdataframe.dataframe.DataFrame#sortedIndex(String)
+     * @see io.github.vmzakharov.ecdataframe.dataframe.DataFrame#dropIndex(String)
+     */
+    public void createSortedIndex(String indexName, ListIterable<String> columnNames)
+    {
+        this.sortedIndices.put(indexName, new DfSortedIndex(this, columnNames));
+    }
+
+    /**
+     * returns an existing sorted index with the specified name
+     * @param indexName the name of the index to retrieve
+     * @see io.github.vmzakharov.ecdataframe.dataframe.DataFrame#createSortedIndex(String, ListIterable)
+     * @see io.github.vmzakharov.ecdataframe.dataframe.DataFrame#dropIndex(String)
+     */
+    public DfSortedIndex sortedIndex(String indexName)
+    {
+        DfSortedIndex found = this.sortedIndices.get(indexName);
+        if (found == null)
+        {
+            exceptionByKey("DF_INDEX_DOES_NOT_EXIST").with("indexName", indexName)
+                                                     .with("dataFrameName", this.getName())
+                                                     .fire();
+        }
+
+        return found;
+    }
+
     @Override
     public void forEach(Procedure<DfCursor> action)
     {
@@ -2337,6 +3268,186 @@ implements DfIterate
         }
     }
 
+    /*
+     * Collects the rows produced by a join into the joined data frame and, for a join with complements, into the
+     * complement data frames
+     */
+    private static class JoinOutput
+    {
+        private final JoinType joinType;
+        private final DataFrame thisDataFrame;
+        private final DataFrame otherDataFrame;
+
+        private final DataFrame joined;
+        private final DataFrame thisComplementOther;
+        private final DataFrame otherComplementThis;
+
+        private final ListIterable<DfColumn> theseColumns;
+        private final ListIterable<DfColumn> otherColumns;
+        private final ListIterable<DfColumn> otherJoinColumns;
+        private final IntList joinColumnIndices;
+        private final int theseColumnCount;
+
+        private final Object[] rowData;
+
+        JoinOutput(
+                JoinType newJoinType,
+                DataFrame newThisDataFrame,
+                DataFrame newOtherDataFrame,
+                ListIterable<String> theseJoinColumnNames,
+                ListIterable<String> otherJoinColumnNames,
+                MapIterable<String, String> otherColumnNameMap)
+        {
+            this.joinType = newJoinType;
+            this.thisDataFrame = newThisDataFrame;
+            this.otherDataFrame = newOtherDataFrame;
+
+            String thisName = this.thisDataFrame.getName();
+            String otherName = this.otherDataFrame.getName();
+
+            this.joined = this.thisDataFrame.cloneStructureAsStored(thisName + "_" + otherName);
+            this.thisComplementOther = this.thisDataFrame.cloneStructureAsStored(thisName + "-" + otherName);
+            this.otherComplementThis = this.otherDataFrame.cloneStructureAsStored(otherName + "-" + thisName);
+
+            this.otherDataFrame.columns
+                    .reject(col -> otherJoinColumnNames.contains(col.getName()))
+                    .forEach(col -> this.joined.addColumn(otherColumnNameMap.get(col.getName()), col.getType()));
+
+            this.theseColumns = this.thisDataFrame.columns.toImmutable();
+            this.theseColumnCount = this.theseColumns.size();
+
+            ListIterable<String> theseColumnNames = this.theseColumns.collect(DfColumn::getName);
+            this.joinColumnIndices = theseJoinColumnNames.collectInt(theseColumnNames::indexOf);
+
+            this.otherColumns = this.otherDataFrame.columns.reject(col -> otherJoinColumnNames.contains(col.getName()));
+            this.otherJoinColumns = this.otherDataFrame.columnsNamed(otherJoinColumnNames);
+
+            this.rowData = new Object[this.joined.columnCount()];
+        }
+
+        boolean keepsUnmatchedRows()
+        {
+            return this.joinType.isOuterJoin() || this.joinType.isJoinWithComplements();
+        }
+
+        /*
+         * Adds the rows with the same key from both sides. A join with complements pairs the rows one to one, the rows
+         * left without a pair go to the complements. Other join types combine each row on this side with each row on
+         * the other side.
+         */
+        void addGroup(int[] thisRows, int thisFrom, int thisTo, int[] otherRows, int otherFrom, int otherTo)
+        {
+            if (this.joinType.isJoinWithComplements() || thisFrom == thisTo || otherFrom == otherTo)
+            {
+                int pairCount = Math.min(thisTo - thisFrom, otherTo - otherFrom);
+                for (int i = 0; i < pairCount; i++)
+                {
+                    this.addMatchedRow(thisRows[thisFrom + i], otherRows[otherFrom + i]);
+                }
+
+                for (int i = thisFrom + pairCount; i < thisTo; i++)
+                {
+                    this.addThisRow(thisRows[i]);
+                }
+
+                for (int i = otherFrom + pairCount; i < otherTo; i++)
+                {
+                    this.addOtherRow(otherRows[i]);
+                }
+            }
+            else
+            {
+                for (int thisPosition = thisFrom; thisPosition < thisTo; thisPosition++)
+                {
+                    for (int otherPosition = otherFrom; otherPosition < otherTo; otherPosition++)
+                    {
+                        this.addMatchedRow(thisRows[thisPosition], otherRows[otherPosition]);
+                    }
+                }
+            }
+        }
+
+        void addMatchedRow(int thisRowIndex, int otherRowIndex)
+        {
+            this.theseColumns.forEachWithIndex((col, i) -> this.rowData[i] = col.getObject(thisRowIndex));
+            this.otherColumns.forEachWithIndex(
+                    (col, i) -> this.rowData[this.theseColumnCount + i] = col.getObject(otherRowIndex));
+
+            this.joined.addRow(this.rowData);
+        }
+
+        void addUnmatchedRow(int rowIndex, boolean fromThisSide)
+        {
+            if (fromThisSide)
+            {
+                this.addThisRow(rowIndex);
+            }
+            else
+            {
+                this.addOtherRow(rowIndex);
+            }
+        }
+
+        void addThisRow(int thisRowIndex)
+        {
+            if (this.joinType.isOuterJoin())
+            {
+                Arrays.fill(this.rowData, null);
+                this.theseColumns.forEachWithIndex((col, i) -> this.rowData[i] = col.getObject(thisRowIndex));
+
+                this.joined.addRow(this.rowData);
+            }
+            else if (this.joinType.isJoinWithComplements())
+            {
+                this.thisComplementOther.copyRowFrom(this.thisDataFrame, thisRowIndex);
+            }
+        }
+
+        void addOtherRow(int otherRowIndex)
+        {
+            if (this.joinType.isOuterJoin())
+            {
+                Arrays.fill(this.rowData, null);
+
+                this.joinColumnIndices.forEachWithIndex(
+                        (joinColumnIndex, sourceKeyIndex) ->
+                            this.rowData[joinColumnIndex] = this.otherJoinColumns.get(sourceKeyIndex)
+                                                                                 .getObject(otherRowIndex)
+                );
+
+                this.otherColumns.forEachWithIndex(
+                        (col, i) -> this.rowData[this.theseColumnCount + i] = col.getObject(otherRowIndex));
+
+                this.joined.addRow(this.rowData);
+            }
+            else if (this.joinType.isJoinWithComplements())
+            {
+                this.otherComplementThis.copyRowFrom(this.otherDataFrame, otherRowIndex);
+            }
+        }
+
+        Triplet<DataFrame> result()
+        {
+            this.joined.seal();
+            this.thisComplementOther.seal();
+            this.otherComplementThis.seal();
+
+            return Tuples.triplet(this.thisComplementOther, this.joined, this.otherComplementThis);
+        }
+    }
+
+    private record AggregationResult(
+            DataFrame aggregated,
+            int[] inputRowCountPerAggregateRow,
+            MutableList<MutableIntList> sourceRowIds)
+    {
+    }
+
+    private interface RowRangeFilter
+    {
+        void evaluate(int fromRow, int toRow, IntBooleanProcedure procedure);
+    }
+
     private static class DataFrameEvalContext
     extends EvalContextAbstract
     {
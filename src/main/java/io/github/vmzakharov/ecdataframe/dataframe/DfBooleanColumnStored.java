@@ -12,7 +12,7 @@ implements DfColumnStored
 {
     static private final boolean NULL_FILLER = false;
 
-    private MutableBooleanList nullMap = BooleanLists.mutable.empty();
+    private DfNullMap nullMap = new DfNullMap();
     private MutableBooleanList values = BooleanLists.mutable.empty();
 
     public DfBooleanColumnStored(DataFrame newDataFrame, String newName)
@@ -26,11 +26,8 @@ implements DfColumnStored
 
         this.values.addAll(newValues);
 
-        this.nullMap = BooleanLists.mutable.withInitialCapacity(this.values.size());
-        for (int i = 0; i < this.values.size(); i++)
-        {
-            this.nullMap.add(false);
-        }
+        this.nullMap = new DfNullMap(this.values.size());
+        this.nullMap.addNonNulls(this.values.size());
     }
 
     @Override
@@ -102,6 +99,8 @@ implements DfColumnStored
     @Override
     public void setObject(int rowIndex, Object anObject)
     {
+        this.markModified();
+
         if (anObject == null)
         {
             this.values.set(rowIndex, NULL_FILLER);
@@ -116,6 +115,7 @@ implements DfColumnStored
 
     public void setBoolean(int rowIndex, boolean value)
     {
+        this.markModified();
         this.values.set(rowIndex, value);
         this.clearNull(rowIndex);
     }
@@ -147,11 +147,49 @@ implements DfColumnStored
         return this.getBooleanWithoutNullCheck(rowIndex);
     }
 
-    private boolean getBooleanWithoutNullCheck(int rowIndex)
+    boolean getBooleanWithoutNullCheck(int rowIndex)
     {
         return this.values.get(rowIndex);
     }
 
+    DfVector fillVector(int fromRow, DfVector vector)
+    {
+        boolean[] target = vector.booleans();
+
+        if (!this.nullMap.hasNulls())
+        {
+            // the null flags of a new vector are all false
+            for (int i = 0; i < target.length; i++)
+            {
+                target[i] = this.values.get(fromRow + i);
+            }
+            return vector;
+        }
+
+        boolean[] targetNulls = vector.nulls();
+        for (int i = 0; i < target.length; i++)
+        {
+            int rowIndex = fromRow + i;
+            target[i] = this.values.get(rowIndex);
+            targetNulls[i] = this.nullMap.get(rowIndex);
+        }
+        return vector;
+    }
+
+    @Override
+    public boolean mayContainNulls()
+    {
+        return this.nullMap.hasNulls();
+    }
+
+    /**
+     * @return the number of null values in this column
+     */
+    public int getNullCount()
+    {
+        return this.nullMap.getNullCount();
+    }
+
     @Override
     public boolean isNull(int rowIndex)
     {
@@ -169,12 +207,34 @@ implements DfColumnStored
     public void ensureInitialCapacity(int newCapacity)
     {
         this.values = BooleanLists.mutable.withInitialCapacity(newCapacity);
-        this.nullMap = BooleanLists.mutable.withInitialCapacity(newCapacity);
+        this.nullMap = new DfNullMap(newCapacity);
     }
 
     @Override
     protected void addAllItemsFrom(DfBooleanColumn intColumn)
     {
+        if (!intColumn.isStored())
+        {
+            DfVectorEvaluator evaluator = ((DfColumnComputed) intColumn).vectorEvaluator();
+            if (evaluator != null)
+            {
+                evaluator.forEachBatch(intColumn.getSize(), (batch, fromRow) -> {
+                    for (int i = 0; i < batch.size(); i++)
+                    {
+                        if (batch.isNull(i))
+                        {
+                            this.addEmptyValue();
+                        }
+                        else
+                        {
+                            this.addBoolean(batch.getBoolean(i), false);
+                        }
+                    }
+                });
+                return;
+            }
+        }
+
         int size = intColumn.getSize();
         for (int rowIndex = 0; rowIndex < size; rowIndex++)
         {
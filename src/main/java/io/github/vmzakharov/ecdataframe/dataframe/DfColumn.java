@@ -2,6 +2,7 @@ package io.github.vmzakharov.ecdataframe.dataframe;
 
 import io.github.vmzakharov.ecdataframe.dsl.value.Value;
 import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
+import org.eclipse.collections.api.IntIterable;
 
 import static io.github.vmzakharov.ecdataframe.util.ExceptionFactory.exceptionByKey;
 
@@ -22,6 +23,15 @@ public interface DfColumn
 
     boolean isNull(int rowIndex);
 
+    /**
+     * @return {@code false} if this column is known not to contain null values, in which case null checks can be
+     * skipped when processing its values, {@code true} if it may contain nulls
+     */
+    default boolean mayContainNulls()
+    {
+        return true;
+    }
+
     Object getObject(int rowIndex);
 
     DataFrame getDataFrame();
@@ -41,6 +51,12 @@ public interface DfColumn
 
     void setObject(int rowIndex, Object anObject);
 
+    /**
+     * @return a count that changes every time a value of this column is changed in place, appending values to the
+     * column does not change it. Used to tell if an index built on the column values is still current.
+     */
+    long getModificationCount();
+
     void addEmptyValue();
 
     default Object aggregate(AggregateFunction aggregateFunction)
@@ -75,6 +91,18 @@ public interface DfColumn
 
     void addRowToColumn(int rowIndex, DfColumn target);
 
+    /**
+     * Adds the values at the specified row indices of this column to the target column, in the order in which the
+     * indices are listed
+     *
+     * @param rowIndices the indices of the rows to add
+     * @param target     the column to add the values to
+     */
+    default void addRowsToColumn(IntIterable rowIndices, DfColumn target)
+    {
+        rowIndices.forEach(rowIndex -> this.addRowToColumn(rowIndex, target));
+    }
+
     default void enablePooling()
     {
         // nothing
@@ -11,6 +11,8 @@ implements DfColumn
 
     private DataFrame dataFrame;
 
+    private long modificationCount = 0L;
+
     public DfColumnAbstract(DataFrame newDataFrame, String newName)
     {
         this.dataFrame = newDataFrame;
@@ -29,6 +31,28 @@ implements DfColumn
         return this.dataFrame;
     }
 
+    @Override
+    public long getModificationCount()
+    {
+        // the values of a computed column change when the values of any of the stored columns do
+        return this.isStored() || this.dataFrame == null
+                ? this.modificationCount
+                : this.dataFrame.storedColumnModificationCount();
+    }
+
+    /**
+     * To be called by the stored columns every time one of their values is changed in place
+     */
+    protected void markModified()
+    {
+        this.modificationCount++;
+    }
+
+    boolean isOffHeapStorageEnabled()
+    {
+        return this.dataFrame != null && this.dataFrame.isOffHeapStorageEnabled();
+    }
+
     public void setDataFrame(DataFrame newDataFrame)
     {
         if (this.dataFrame != null)
@@ -24,14 +24,37 @@ extends DfColumn
         exceptionByKey("DF_SET_VAL_ON_COMP_COL").with("columnName", this.getName()).fire();
     }
 
+    /**
+     * @return the compiled form of the expression of this column if it is available, {@code null} otherwise
+     */
+    default DfCompiledExpression getCompiledExpression()
+    {
+        return null;
+    }
+
     @Override
     default Value getValue(int rowIndex)
     {
+        DfCompiledExpression compiled = this.getCompiledExpression();
+        if (compiled != null)
+        {
+            return compiled.getValue(rowIndex);
+        }
+
         this.getDataFrame().setEvalContextRowIndex(rowIndex);
 
         return this.getExpression().evaluate(this.getDataFrame().getEvalVisitor());
     }
 
+    /**
+     * @return an evaluator producing the values of this column in batches if the expression of this column can be
+     * vectorized, {@code null} otherwise
+     */
+    default DfVectorEvaluator vectorEvaluator()
+    {
+        return this.getDataFrame().vectorEvaluatorFor(this.getExpression(), this.getType());
+    }
+
     @Override
     default void addEmptyValue()
     {
@@ -0,0 +1,54 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+
+import static io.github.vmzakharov.ecdataframe.util.ExceptionFactory.exceptionByKey;
+
+/**
+ * A stored column with values read directly from a memory mapped file. Mapped columns are read-only, any attempt to
+ * modify their contents results in an exception.
+ */
+public interface DfColumnMapped
+extends DfColumnStored
+{
+    @Override
+    default void addObject(Object newObject)
+    {
+        throw this.modificationNotSupported();
+    }
+
+    @Override
+    default void addValue(Value value)
+    {
+        throw this.modificationNotSupported();
+    }
+
+    @Override
+    default void addEmptyValue()
+    {
+        throw this.modificationNotSupported();
+    }
+
+    @Override
+    default void setObject(int rowIndex, Object anObject)
+    {
+        throw this.modificationNotSupported();
+    }
+
+    @Override
+    default void ensureInitialCapacity(int newCapacity)
+    {
+        throw this.modificationNotSupported();
+    }
+
+    @Override
+    default void aggregateValueInto(int rowIndex, DfColumn sourceColumn, int sourceRowIndex, AggregateFunction aggregator)
+    {
+        throw this.modificationNotSupported();
+    }
+
+    default RuntimeException modificationNotSupported()
+    {
+        return exceptionByKey("DF_MAPPED_COL_MODIFICATION").with("columnName", this.getName()).getUnsupported();
+    }
+}
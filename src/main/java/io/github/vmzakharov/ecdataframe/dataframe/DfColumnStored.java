@@ -11,17 +11,26 @@ extends DfColumn
 
     void ensureInitialCapacity(int newCapacity);
 
+    /**
+     * Releases the memory held by this column outside of the Java heap, if any. The column is left empty and should
+     * not be used afterwards.
+     */
+    default void releaseStorage()
+    {
+        // nothing to release by default
+    }
+
     @Override
     default void applyAggregator(int targetRowIndex, DfColumn sourceColumn, int sourceRowIndex, AggregateFunction aggregator)
     {
         if (aggregator.nullsArePoisonous())
         {
-            if (this.isNull(targetRowIndex))
+            if (this.mayContainNulls() && this.isNull(targetRowIndex))
             {
                 return;
             }
 
-            if (sourceColumn.isNull(sourceRowIndex))
+            if (sourceColumn.mayContainNulls() && sourceColumn.isNull(sourceRowIndex))
             {
                 this.setObject(targetRowIndex, null);
                 return;
@@ -0,0 +1,80 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.ComparisonOp;
+
+/**
+ * The results of a comparison operation depending on the relative order of its operands, including the cases where
+ * one or both operands are null, consistent with the definitions in ComparisonOp
+ */
+record DfComparisonOutcomes(
+        boolean less, boolean equal, boolean greater, boolean unordered,
+        boolean bothNull, boolean firstNull, boolean secondNull)
+{
+    static DfComparisonOutcomes of(ComparisonOp op)
+    {
+        if (op == ComparisonOp.EQ)
+        {
+            return new DfComparisonOutcomes(false, true, false, false, true, false, false);
+        }
+
+        if (op == ComparisonOp.NE)
+        {
+            return new DfComparisonOutcomes(true, false, true, true, false, true, true);
+        }
+
+        if (op == ComparisonOp.LT)
+        {
+            return new DfComparisonOutcomes(true, false, false, false, false, true, false);
+        }
+
+        if (op == ComparisonOp.LTE)
+        {
+            return new DfComparisonOutcomes(true, true, false, false, true, true, false);
+        }
+
+        if (op == ComparisonOp.GT)
+        {
+            return new DfComparisonOutcomes(false, false, true, false, false, false, true);
+        }
+
+        if (op == ComparisonOp.GTE)
+        {
+            return new DfComparisonOutcomes(false, true, true, false, true, false, true);
+        }
+
+        return null;
+    }
+
+    boolean compareLongs(long first, long second)
+    {
+        return first < second ? this.less : (first == second ? this.equal : this.greater);
+    }
+
+    boolean compareDoubles(double first, double second)
+    {
+        if (first < second)
+        {
+            return this.less;
+        }
+
+        if (first > second)
+        {
+            return this.greater;
+        }
+
+        return first == second ? this.equal : this.unordered;
+    }
+
+    /**
+     * @return the outcome of the comparison when at least one of the operands is null
+     */
+    boolean withNulls(boolean firstIsNull, boolean secondIsNull)
+    {
+        if (firstIsNull)
+        {
+            return secondIsNull ? this.bothNull : this.firstNull;
+        }
+
+        return this.secondNull;
+    }
+}
@@ -0,0 +1,414 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.ArithmeticOp;
+import io.github.vmzakharov.ecdataframe.dsl.BooleanOp;
+import io.github.vmzakharov.ecdataframe.dsl.Expression;
+import io.github.vmzakharov.ecdataframe.dsl.UnaryOp;
+import io.github.vmzakharov.ecdataframe.dsl.value.BooleanValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.DoubleValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.FloatValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.IntValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.LongValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
+import org.eclipse.collections.api.block.function.primitive.IntToDoubleFunction;
+import org.eclipse.collections.api.block.function.primitive.IntToIntFunction;
+import org.eclipse.collections.api.block.function.primitive.IntToLongFunction;
+import org.eclipse.collections.api.block.predicate.primitive.IntPredicate;
+
+/**
+ * An expression compiled into a tree of primitive-typed functions of the row index. The compiled form reads the
+ * values of the stored columns directly and returns primitive values, without allocating intermediate {@code Value}
+ * objects or going through the evaluation visitor, while producing the same results (including null handling,
+ * short-circuiting and errors) as the interpreter.
+ * <p>
+ * The same subset of expressions as for the vectorized evaluation ({@link DfVectorEvaluator}) is supported, as both
+ * are compiled by {@link DfExpressionCompiler}: column references, numeric and boolean constants, arithmetic,
+ * comparisons, boolean operations, unary minus, negation and null checks. Boolean subexpressions that cannot be compiled are delegated to the interpreter. If an expression
+ * cannot be compiled, {@link #compile(DataFrame, Expression, boolean)} returns {@code null}.
+ */
+final public class DfCompiledExpression
+{
+    private static final int FALSE = 0;
+    private static final int TRUE = 1;
+    private static final int NULL = 2;
+
+    private final Node root;
+
+    private DfCompiledExpression(Node newRoot)
+    {
+        this.root = newRoot;
+    }
+
+    /**
+     * Compiles the expression in the context of the data frame.
+     *
+     * @param dataFrame                   the data frame the columns referenced by the expression belong to
+     * @param expression                  the expression to compile
+     * @param resolveVariablesAsConstants if {@code true}, the variables that are not data frame columns are resolved
+     *                                    at the time of compilation and treated as constants, otherwise expressions
+     *                                    referring to such variables are not compiled
+     * @return the compiled expression or {@code null} if the expression cannot be compiled
+     */
+    public static DfCompiledExpression compile(
+            DataFrame dataFrame, Expression expression, boolean resolveVariablesAsConstants)
+    {
+        Node root = new Compiler(dataFrame, resolveVariablesAsConstants).compile(expression);
+
+        return root == null ? null : new DfCompiledExpression(root);
+    }
+
+    public ValueType getType()
+    {
+        return this.root.type();
+    }
+
+    public boolean isNull(int rowIndex)
+    {
+        return this.root.isNull(rowIndex);
+    }
+
+    /**
+     * Returns the value of the expression at the row as a long, should only be called for expressions of whole number
+     * types after checking that the value is not null.
+     */
+    public long getLong(int rowIndex)
+    {
+        return this.root.longAt().valueOf(rowIndex);
+    }
+
+    /**
+     * Returns the value of the expression at the row as a double, should only be called for expressions of numeric
+     * types after checking that the value is not null.
+     */
+    public double getDouble(int rowIndex)
+    {
+        return this.root.doubleAt().valueOf(rowIndex);
+    }
+
+    /**
+     * Returns the value of the expression at the row as a boolean, should only be called for boolean expressions after
+     * checking that the value is not null.
+     */
+    public boolean getBoolean(int rowIndex)
+    {
+        return this.root.booleanAt().valueOf(rowIndex) == TRUE;
+    }
+
+    /**
+     * Evaluates the expression at the row once, returning the result as a value. For boolean expressions, this method
+     * does not allocate
+     */
+    public Value getValue(int rowIndex)
+    {
+        if (this.root.type() == ValueType.BOOLEAN)
+        {
+            int result = this.root.booleanAt().valueOf(rowIndex);
+            return result == NULL ? Value.VOID : BooleanValue.valueOf(result == TRUE);
+        }
+
+        if (this.root.isNull(rowIndex))
+        {
+            return Value.VOID;
+        }
+
+        return switch (this.root.type())
+        {
+            case LONG -> new LongValue(this.getLong(rowIndex));
+            case INT -> new IntValue((int) this.getLong(rowIndex));
+            case DOUBLE -> new DoubleValue(this.getDouble(rowIndex));
+            default -> new FloatValue((float) this.getDouble(rowIndex));
+        };
+    }
+
+    /*
+     * A compiled (sub)expression. Numeric nodes provide a null check and a function returning the value of the
+     * expression, which should only be called for non-null values. Boolean nodes provide a function returning one of
+     * TRUE, FALSE or NULL, so that three-valued logic does not require evaluating the node twice
+     */
+    private record Node(
+            ValueType type,
+            IntPredicate nullAt,
+            IntToLongFunction longAt,
+            IntToDoubleFunction doubleAt,
+            IntToIntFunction booleanAt)
+    {
+        static Node wholeNumber(ValueType type, IntPredicate nullAt, IntToLongFunction longAt)
+        {
+            return new Node(type, nullAt, longAt, longAt::valueOf, null);
+        }
+
+        static Node realNumber(ValueType type, IntPredicate nullAt, IntToDoubleFunction doubleAt)
+        {
+            return new Node(type, nullAt, null, doubleAt, null);
+        }
+
+        static Node bool(IntToIntFunction booleanAt)
+        {
+            return new Node(ValueType.BOOLEAN, rowIndex -> booleanAt.valueOf(rowIndex) == NULL, null, null, booleanAt);
+        }
+
+        boolean isNull(int rowIndex)
+        {
+            return this.nullAt.accept(rowIndex);
+        }
+    }
+
+    private static class Compiler
+    extends DfExpressionCompiler<Node>
+    {
+        Compiler(DataFrame newDataFrame, boolean newResolveVariablesAsConstants)
+        {
+            super(newDataFrame, newResolveVariablesAsConstants);
+        }
+
+        @Override
+        protected ValueType typeOf(Node node)
+        {
+            return node.type();
+        }
+
+        @Override
+        protected Node interpretedBoolean(Expression operand)
+        {
+            DataFrame dataFrame = this.getDataFrame();
+
+            return Node.bool(rowIndex -> {
+                dataFrame.setEvalContextRowIndex(rowIndex);
+                Value value = operand.evaluate(dataFrame.getEvalVisitor());
+                return value.isVoid() ? NULL : toTriState(((BooleanValue) value).isTrue());
+            });
+        }
+
+        @Override
+        protected Node storedColumn(DfColumn column)
+        {
+            return switch (column.getType())
+            {
+                case LONG -> this.storedColumn((DfLongColumn) column);
+                case INT -> this.storedColumn((DfIntColumn) column);
+                case DOUBLE -> this.storedColumn((DfDoubleColumn) column);
+                case FLOAT -> this.storedColumn((DfFloatColumn) column);
+                case BOOLEAN -> this.storedColumn((DfBooleanColumnStored) column);
+                default -> null;
+            };
+        }
+
+        private Node storedColumn(DfLongColumn column)
+        {
+            return Node.wholeNumber(ValueType.LONG, column::isNull, column::getLongWithoutNullCheck);
+        }
+
+        private Node storedColumn(DfIntColumn column)
+        {
+            return Node.wholeNumber(ValueType.INT, column::isNull, column::getIntWithoutNullCheck);
+        }
+
+        private Node storedColumn(DfDoubleColumn column)
+        {
+            return Node.realNumber(ValueType.DOUBLE, column::isNull, column::getDoubleWithoutNullCheck);
+        }
+
+        private Node storedColumn(DfFloatColumn column)
+        {
+            return Node.realNumber(ValueType.FLOAT, column::isNull, column::getFloatWithoutNullCheck);
+        }
+
+        private Node storedColumn(DfBooleanColumnStored column)
+        {
+            return Node.bool(rowIndex -> column.isNull(rowIndex)
+                    ? NULL
+                    : toTriState(column.getBooleanWithoutNullCheck(rowIndex)));
+        }
+
+        @Override
+        protected Node wholeNumberConstant(ValueType type, long constant)
+        {
+            return Node.wholeNumber(type, rowIndex -> false, rowIndex -> constant);
+        }
+
+        @Override
+        protected Node realNumberConstant(ValueType type, double constant)
+        {
+            return Node.realNumber(type, rowIndex -> false, rowIndex -> constant);
+        }
+
+        @Override
+        protected Node booleanConstant(boolean constant)
+        {
+            int triState = toTriState(constant);
+            return Node.bool(rowIndex -> triState);
+        }
+
+        @Override
+        protected Node arithmetic(ArithmeticOp op, Node first, Node second, boolean wholeNumbers)
+        {
+            IntPredicate nullAt = rowIndex -> first.isNull(rowIndex) || second.isNull(rowIndex);
+
+            if (wholeNumbers)
+            {
+                IntToLongFunction a = first.longAt();
+                IntToLongFunction b = second.longAt();
+
+                IntToLongFunction longAt;
+                if (op == ArithmeticOp.ADD)
+                {
+                    longAt = rowIndex -> a.valueOf(rowIndex) + b.valueOf(rowIndex);
+                }
+                else if (op == ArithmeticOp.SUBTRACT)
+                {
+                    longAt = rowIndex -> a.valueOf(rowIndex) - b.valueOf(rowIndex);
+                }
+                else if (op == ArithmeticOp.MULTIPLY)
+                {
+                    longAt = rowIndex -> a.valueOf(rowIndex) * b.valueOf(rowIndex);
+                }
+                else
+                {
+                    longAt = rowIndex -> a.valueOf(rowIndex) / b.valueOf(rowIndex);
+                }
+
+                return Node.wholeNumber(ValueType.LONG, nullAt, longAt);
+            }
+
+            IntToDoubleFunction a = first.doubleAt();
+            IntToDoubleFunction b = second.doubleAt();
+
+            IntToDoubleFunction doubleAt;
+            if (op == ArithmeticOp.ADD)
+            {
+                doubleAt = rowIndex -> a.valueOf(rowIndex) + b.valueOf(rowIndex);
+            }
+            else if (op == ArithmeticOp.SUBTRACT)
+            {
+                doubleAt = rowIndex -> a.valueOf(rowIndex) - b.valueOf(rowIndex);
+            }
+            else if (op == ArithmeticOp.MULTIPLY)
+            {
+                doubleAt = rowIndex -> a.valueOf(rowIndex) * b.valueOf(rowIndex);
+            }
+            else
+            {
+                doubleAt = rowIndex -> a.valueOf(rowIndex) / b.valueOf(rowIndex);
+            }
+
+            return Node.realNumber(ValueType.DOUBLE, nullAt, doubleAt);
+        }
+
+        @Override
+        protected Node comparison(DfComparisonOutcomes outcomes, Node first, Node second, boolean wholeNumbers)
+        {
+            if (wholeNumbers)
+            {
+                IntToLongFunction a = first.longAt();
+                IntToLongFunction b = second.longAt();
+
+                return Node.bool(rowIndex -> {
+                    boolean firstIsNull = first.isNull(rowIndex);
+                    boolean secondIsNull = second.isNull(rowIndex);
+
+                    return toTriState(firstIsNull || secondIsNull
+                            ? outcomes.withNulls(firstIsNull, secondIsNull)
+                            : outcomes.compareLongs(a.valueOf(rowIndex), b.valueOf(rowIndex)));
+                });
+            }
+
+            IntToDoubleFunction a = first.doubleAt();
+            IntToDoubleFunction b = second.doubleAt();
+
+            return Node.bool(rowIndex -> {
+                boolean firstIsNull = first.isNull(rowIndex);
+                boolean secondIsNull = second.isNull(rowIndex);
+
+                return toTriState(firstIsNull || secondIsNull
+                        ? outcomes.withNulls(firstIsNull, secondIsNull)
+                        : outcomes.compareDoubles(a.valueOf(rowIndex), b.valueOf(rowIndex)));
+            });
+        }
+
+        @Override
+        protected Node booleanOperation(BooleanOp op, Node first, Node second)
+        {
+            IntToIntFunction a = first.booleanAt();
+            IntToIntFunction b = second.booleanAt();
+
+            if (op == BooleanOp.AND)
+            {
+                return Node.bool(rowIndex -> {
+                    int firstResult = a.valueOf(rowIndex);
+                    if (firstResult == FALSE)
+                    {
+                        return FALSE;
+                    }
+
+                    int secondResult = b.valueOf(rowIndex);
+                    return firstResult == TRUE || secondResult == FALSE ? secondResult : NULL;
+                });
+            }
+
+            if (op == BooleanOp.OR)
+            {
+                return Node.bool(rowIndex -> {
+                    int firstResult = a.valueOf(rowIndex);
+                    if (firstResult == TRUE)
+                    {
+                        return TRUE;
+                    }
+
+                    int secondResult = b.valueOf(rowIndex);
+                    return firstResult == FALSE || secondResult == TRUE ? secondResult : NULL;
+                });
+            }
+
+            return Node.bool(rowIndex -> {
+                int firstResult = a.valueOf(rowIndex);
+                int secondResult = b.valueOf(rowIndex);
+                return firstResult == NULL || secondResult == NULL ? NULL : firstResult ^ secondResult;
+            });
+        }
+
+        @Override
+        protected Node minus(Node operand)
+        {
+            // negating a null is an error, so let the operation report it the same way the interpreter does
+            IntPredicate nullAt = rowIndex -> operand.isNull(rowIndex) && UnaryOp.MINUS.apply(Value.VOID).isVoid();
+
+            return switch (operand.type())
+            {
+                case INT -> Node.wholeNumber(ValueType.INT, nullAt,
+                        rowIndex -> -((int) operand.longAt().valueOf(rowIndex)));
+                case LONG -> Node.wholeNumber(ValueType.LONG, nullAt,
+                        rowIndex -> -operand.longAt().valueOf(rowIndex));
+                default -> Node.realNumber(operand.type(), nullAt,
+                        rowIndex -> -operand.doubleAt().valueOf(rowIndex));
+            };
+        }
+
+        @Override
+        protected Node not(Node operand)
+        {
+            IntToIntFunction a = operand.booleanAt();
+            return Node.bool(rowIndex -> {
+                int result = a.valueOf(rowIndex);
+                return result == NULL ? NULL : TRUE - result;
+            });
+        }
+
+        @Override
+        protected Node nullCheck(Node operand, boolean isNull)
+        {
+            return Node.bool(rowIndex -> toTriState(operand.isNull(rowIndex) == isNull));
+        }
+
+        @Override
+        protected Node storedColumnNullCheck(DfColumn column, boolean isNull)
+        {
+            return Node.bool(rowIndex -> toTriState(column.isNull(rowIndex) == isNull));
+        }
+    }
+
+    private static int toTriState(boolean value)
+    {
+        return value ? TRUE : FALSE;
+    }
+}
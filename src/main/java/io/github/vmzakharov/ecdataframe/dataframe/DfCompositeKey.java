@@ -0,0 +1,60 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import java.util.Arrays;
+
+/**
+ * A multi-column index key made of the codes produced by {@link DfKeyEncoder}s for the values in each of the key
+ * columns. The key is mutable so that a single instance can be reused to look up keys in a hash map, a copy needs to
+ * be stored in the map when a new key is added.
+ */
+final class DfCompositeKey
+{
+    private final long[] codes;
+    private final boolean[] nulls;
+
+    DfCompositeKey(int newSize)
+    {
+        this.codes = new long[newSize];
+        this.nulls = new boolean[newSize];
+    }
+
+    private DfCompositeKey(long[] newCodes, boolean[] newNulls)
+    {
+        this.codes = newCodes;
+        this.nulls = newNulls;
+    }
+
+    void set(int index, long code)
+    {
+        this.codes[index] = code;
+        this.nulls[index] = false;
+    }
+
+    void setNull(int index)
+    {
+        this.codes[index] = 0;
+        this.nulls[index] = true;
+    }
+
+    DfCompositeKey copy()
+    {
+        return new DfCompositeKey(this.codes.clone(), this.nulls.clone());
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (o instanceof DfCompositeKey other)
+        {
+            return Arrays.equals(this.codes, other.codes) && Arrays.equals(this.nulls, other.nulls);
+        }
+
+        return false;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * Arrays.hashCode(this.codes) + Arrays.hashCode(this.nulls);
+    }
+}
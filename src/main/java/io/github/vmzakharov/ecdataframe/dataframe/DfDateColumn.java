@@ -13,6 +13,17 @@ extends DfObjectColumn<LocalDate>
 {
     DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_DATE;
 
+    /**
+     * Returns the date at the specified row as the number of days since the epoch (1970-01-01), without creating a
+     * {@code LocalDate} instance if the column stores its values as epoch days
+     * @param rowIndex the row index
+     * @return the number of days since the epoch
+     */
+    default long getEpochDay(int rowIndex)
+    {
+        return this.getTypedObject(rowIndex).toEpochDay();
+    }
+
     @Override
     default String getValueAsString(int rowIndex)
     {
@@ -2,22 +2,46 @@ package io.github.vmzakharov.ecdataframe.dataframe;
 
 import io.github.vmzakharov.ecdataframe.dsl.value.DateValue;
 import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.set.Pool;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.set.mutable.UnifiedSet;
 
 import java.time.LocalDate;
 
+/**
+ * A stored date column. The dates are stored as epoch days (the number of days since 1970-01-01) in an int per row,
+ * {@code LocalDate} instances are only created when the values are accessed as objects. When pooling is enabled, the
+ * column switches to storing {@code LocalDate} instances, one shared instance per distinct date, and keeps storing
+ * instances after pooling is disabled. A column that rows are copied to from a column storing instances stores the
+ * same instances.
+ */
 public class DfDateColumnStored
-extends DfObjectColumnStored<LocalDate>
-implements DfDateColumn
+extends DfObjectColumnAbstract<LocalDate>
+implements DfDateColumn, DfColumnStored
 {
+    static private final int NULL_FILLER = Integer.MIN_VALUE; // not the actual null marker, but makes debugging easier
+
+    private DfNullMap nullMap = new DfNullMap();
+    private DfIntStorage epochDays;
+
+    // only used once the column switches to storing objects, in which case the two fields above are not used
+    private DfObjectStorage<LocalDate> objects = null;
+
+    private Pool<LocalDate> pool = null;
+
     public DfDateColumnStored(DataFrame owner, String newName)
     {
         super(owner, newName);
+        this.epochDays = this.createStorage(0);
     }
 
     public DfDateColumnStored(DataFrame owner, String newName, ListIterable<LocalDate> newValues)
     {
-        super(owner, newName, newValues);
+        this(owner, newName);
+        this.addAllItems(newValues);
     }
 
     @Override
@@ -42,4 +66,286 @@ implements DfDateColumn
             this.throwAddingIncompatibleValueException(value);
         }
     }
+
+    protected void addMyType(LocalDate aDate)
+    {
+        if (!this.storesEpochDays())
+        {
+            this.objects.add(this.pooled(aDate));
+        }
+        else if (aDate == null)
+        {
+            this.addEmptyValue();
+        }
+        else
+        {
+            this.addEpochDay(Math.toIntExact(aDate.toEpochDay()));
+        }
+    }
+
+    public void addEpochDay(int epochDay)
+    {
+        if (this.storesEpochDays())
+        {
+            this.epochDays.add(epochDay);
+            this.nullMap.add(false);
+        }
+        else
+        {
+            this.addMyType(LocalDate.ofEpochDay(epochDay));
+        }
+    }
+
+    @Override
+    public void addEmptyValue()
+    {
+        if (this.storesEpochDays())
+        {
+            this.epochDays.add(NULL_FILLER);
+            this.nullMap.add(true);
+        }
+        else
+        {
+            this.objects.add(null);
+        }
+    }
+
+    /**
+     * @return true if the values of this column are stored as epoch days, false if the column stores
+     * {@code LocalDate} instances because pooling has been enabled on it or on a column its rows were copied from
+     */
+    public boolean storesEpochDays()
+    {
+        return this.objects == null;
+    }
+
+    @Override
+    public void enablePooling()
+    {
+        if (this.pool == null)
+        {
+            this.switchToObjects();
+            this.pool = new UnifiedSet<>();
+            for (int rowIndex = 0; rowIndex < this.objects.size(); rowIndex++)
+            {
+                this.objects.set(rowIndex, this.pooled(this.objects.get(rowIndex)));
+            }
+        }
+    }
+
+    @Override
+    public void disablePooling()
+    {
+        this.pool = null;
+    }
+
+    @Override
+    public long getEpochDay(int rowIndex)
+    {
+        if (!this.storesEpochDays())
+        {
+            return DfDateColumn.super.getEpochDay(rowIndex);
+        }
+
+        if (this.isNull(rowIndex))
+        {
+            throw new NullPointerException("Null value at " + this.getName() + "[" + rowIndex + "]");
+        }
+
+        return this.epochDays.get(rowIndex);
+    }
+
+    @Override
+    public LocalDate getTypedObject(int rowIndex)
+    {
+        if (!this.storesEpochDays())
+        {
+            return this.objects.get(rowIndex);
+        }
+
+        return this.nullMap.get(rowIndex) ? null : LocalDate.ofEpochDay(this.epochDays.get(rowIndex));
+    }
+
+    @Override
+    public Value getValue(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            return Value.VOID;
+        }
+
+        return this.objectToValue(this.getTypedObject(rowIndex));
+    }
+
+    @Override
+    public boolean mayContainNulls()
+    {
+        return !this.storesEpochDays() || this.nullMap.hasNulls();
+    }
+
+    /**
+     * @return the number of null values in this column
+     */
+    public int getNullCount()
+    {
+        if (this.storesEpochDays())
+        {
+            return this.nullMap.getNullCount();
+        }
+
+        int nullCount = 0;
+        for (int rowIndex = 0; rowIndex < this.objects.size(); rowIndex++)
+        {
+            if (this.objects.get(rowIndex) == null)
+            {
+                nullCount++;
+            }
+        }
+        return nullCount;
+    }
+
+    @Override
+    public boolean isNull(int rowIndex)
+    {
+        return this.storesEpochDays() ? this.nullMap.get(rowIndex) : this.objects.get(rowIndex) == null;
+    }
+
+    @Override
+    public int getSize()
+    {
+        return this.storesEpochDays() ? this.epochDays.size() : this.objects.size();
+    }
+
+    @Override
+    public void setObject(int rowIndex, Object anObject)
+    {
+        this.markModified();
+
+        LocalDate aDate = (LocalDate) anObject;
+
+        if (!this.storesEpochDays())
+        {
+            this.objects.set(rowIndex, this.pooled(aDate));
+        }
+        else if (aDate == null)
+        {
+            this.epochDays.set(rowIndex, NULL_FILLER);
+            this.nullMap.set(rowIndex, true);
+        }
+        else
+        {
+            this.epochDays.set(rowIndex, Math.toIntExact(aDate.toEpochDay()));
+            this.nullMap.set(rowIndex, false);
+        }
+    }
+
+    @Override
+    public void addRowToColumn(int rowIndex, DfColumn target)
+    {
+        DfDateColumnStored targetDateColumn = (DfDateColumnStored) target;
+
+        if (!this.storesEpochDays())
+        {
+            targetDateColumn.switchToObjects();
+            targetDateColumn.addMyType(this.objects.get(rowIndex));
+        }
+        else if (this.isNull(rowIndex))
+        {
+            target.addEmptyValue();
+        }
+        else
+        {
+            targetDateColumn.addEpochDay(this.epochDays.get(rowIndex));
+        }
+    }
+
+    @Override
+    public ImmutableList<LocalDate> toList()
+    {
+        MutableList<LocalDate> list = Lists.mutable.withInitialCapacity(this.getSize());
+        for (int rowIndex = 0; rowIndex < this.getSize(); rowIndex++)
+        {
+            list.add(this.getTypedObject(rowIndex));
+        }
+        return list.toImmutable();
+    }
+
+    @Override
+    public void aggregateValueInto(int rowIndex, DfColumn sourceColumn, int sourceRowIndex, AggregateFunction aggregator)
+    {
+        this.setObject(rowIndex,
+                aggregator.objectAccumulator(
+                        this.getTypedObject(rowIndex), aggregator.getObjectValue(sourceColumn, sourceRowIndex)));
+    }
+
+    @Override
+    public void ensureInitialCapacity(int newCapacity)
+    {
+        if (this.pool == null)
+        {
+            this.epochDays = this.createStorage(newCapacity);
+            this.nullMap = new DfNullMap(newCapacity);
+            this.objects = null;
+        }
+        else
+        {
+            this.objects = new DfObjectStorage<>(newCapacity);
+        }
+    }
+
+    @Override
+    public void releaseStorage()
+    {
+        if (this.storesEpochDays())
+        {
+            this.epochDays.release();
+            this.nullMap = new DfNullMap();
+        }
+        else
+        {
+            this.objects.release();
+        }
+
+        if (this.pool != null)
+        {
+            this.pool.clear();
+        }
+    }
+
+    private DfIntStorage createStorage(int initialCapacity)
+    {
+        return this.isOffHeapStorageEnabled()
+                ? new DfIntOffHeapStorage()
+                : new DfIntHeapStorage(initialCapacity);
+    }
+
+    @Override
+    protected void addAllItems(ListIterable<LocalDate> items)
+    {
+        items.forEach(this::addMyType);
+    }
+
+    private LocalDate pooled(LocalDate aDate)
+    {
+        return this.pool == null || aDate == null ? aDate : this.pool.put(aDate);
+    }
+
+    private void switchToObjects()
+    {
+        if (!this.storesEpochDays())
+        {
+            return;
+        }
+
+        DfObjectStorage<LocalDate> newObjects = new DfObjectStorage<>(this.getSize());
+        for (int rowIndex = 0; rowIndex < this.getSize(); rowIndex++)
+        {
+            newObjects.add(this.getTypedObject(rowIndex));
+        }
+
+        this.epochDays.release();
+        this.objects = newObjects;
+        this.epochDays = null;
+        this.nullMap = null;
+    }
 }
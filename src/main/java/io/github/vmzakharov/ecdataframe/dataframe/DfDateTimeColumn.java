@@ -6,6 +6,7 @@ import io.github.vmzakharov.ecdataframe.dsl.value.Value;
 import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 
 public interface DfDateTimeColumn
@@ -13,6 +14,31 @@ extends DfObjectColumn<LocalDateTime>
 {
     DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_DATE_TIME;
 
+    long MICROS_PER_SECOND = 1_000_000L;
+
+    /**
+     * Returns the date/time at the specified row as the number of microseconds since 1970-01-01T00:00. The date/time
+     * values have no time zone, and neither does the epoch they are counted from. Any sub-microsecond part of the
+     * value is truncated.
+     * @param rowIndex the row index
+     * @return the number of microseconds since the epoch
+     */
+    default long getEpochMicros(int rowIndex)
+    {
+        LocalDateTime value = this.getTypedObject(rowIndex);
+        return Math.addExact(
+                Math.multiplyExact(value.toEpochSecond(ZoneOffset.UTC), MICROS_PER_SECOND), value.getNano() / 1_000);
+    }
+
+    /**
+     * @return true if the values of this column are stored as epoch microseconds, so that the values returned by
+     * {@link #getEpochMicros(int)} are exact and ordered the same way as the date/time values
+     */
+    default boolean storesEpochMicros()
+    {
+        return false;
+    }
+
     @Override
     default String getValueAsString(int rowIndex)
     {
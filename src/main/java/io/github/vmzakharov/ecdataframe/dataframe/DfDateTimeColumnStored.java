@@ -1,23 +1,54 @@
 package io.github.vmzakharov.ecdataframe.dataframe;
 
+import io.github.vmzakharov.ecdataframe.dataframe.compare.LongComparisonResult;
 import io.github.vmzakharov.ecdataframe.dsl.value.DateTimeValue;
 import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.set.Pool;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.set.mutable.UnifiedSet;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
+/**
+ * A stored date/time column. The values are stored as the number of microseconds since 1970-01-01T00:00 in a long per
+ * row, {@code LocalDateTime} instances are only created when the values are accessed as objects. If a value that
+ * cannot be represented this way (it has a sub-microsecond part or is hundreds of thousands of years away from the
+ * epoch) is added to the column, the column switches to storing its values as objects. Enabling pooling also switches
+ * the column to storing objects, one shared instance per distinct value. A column that rows are copied to from a column
+ * storing objects stores the same instances.
+ */
 public class DfDateTimeColumnStored
-extends DfObjectColumnStored<LocalDateTime>
-implements DfDateTimeColumn
+extends DfObjectColumnAbstract<LocalDateTime>
+implements DfDateTimeColumn, DfColumnStored
 {
+    static private final long NULL_FILLER = Long.MIN_VALUE; // not the actual null marker, but makes debugging easier
+
+    // the range of epoch seconds that can be converted to microseconds without an overflow, with some room to spare
+    static private final long MAX_EPOCH_SECOND = Long.MAX_VALUE / MICROS_PER_SECOND - 1;
+    static private final long MIN_EPOCH_SECOND = -MAX_EPOCH_SECOND;
+
+    private DfNullMap nullMap = new DfNullMap();
+    private DfLongStorage epochMicros;
+
+    // only used once the column switches to storing objects, in which case the two fields above are not used
+    private DfObjectStorage<LocalDateTime> objects = null;
+
+    private Pool<LocalDateTime> pool = null;
+
     public DfDateTimeColumnStored(DataFrame owner, String newName)
     {
         super(owner, newName);
+        this.epochMicros = this.createStorage(0);
     }
 
     public DfDateTimeColumnStored(DataFrame owner, String newName, ListIterable<LocalDateTime> newValues)
     {
-        super(owner, newName, newValues);
+        this(owner, newName);
+        this.addAllItems(newValues);
     }
 
     @Override
@@ -42,4 +73,317 @@ implements DfDateTimeColumn
             this.throwAddingIncompatibleValueException(value);
         }
     }
+
+    protected void addMyType(LocalDateTime aDateTime)
+    {
+        if (aDateTime == null)
+        {
+            this.addEmptyValue();
+        }
+        else if (this.storesEpochMicros() && isExactInMicros(aDateTime))
+        {
+            this.addEpochMicros(toEpochMicros(aDateTime));
+        }
+        else
+        {
+            this.switchToObjects();
+            this.objects.add(this.pooled(aDateTime));
+        }
+    }
+
+    public void addEpochMicros(long newEpochMicros)
+    {
+        if (this.storesEpochMicros())
+        {
+            this.epochMicros.add(newEpochMicros);
+            this.nullMap.add(false);
+        }
+        else
+        {
+            this.objects.add(this.pooled(fromEpochMicros(newEpochMicros)));
+        }
+    }
+
+    @Override
+    public void addEmptyValue()
+    {
+        if (this.storesEpochMicros())
+        {
+            this.epochMicros.add(NULL_FILLER);
+            this.nullMap.add(true);
+        }
+        else
+        {
+            this.objects.add(null);
+        }
+    }
+
+    @Override
+    public void enablePooling()
+    {
+        if (this.pool == null)
+        {
+            this.switchToObjects();
+            this.pool = new UnifiedSet<>();
+            for (int rowIndex = 0; rowIndex < this.objects.size(); rowIndex++)
+            {
+                this.objects.set(rowIndex, this.pooled(this.objects.get(rowIndex)));
+            }
+        }
+    }
+
+    @Override
+    public void disablePooling()
+    {
+        this.pool = null;
+    }
+
+    @Override
+    public boolean storesEpochMicros()
+    {
+        return this.objects == null;
+    }
+
+    @Override
+    public long getEpochMicros(int rowIndex)
+    {
+        if (!this.storesEpochMicros())
+        {
+            return DfDateTimeColumn.super.getEpochMicros(rowIndex);
+        }
+
+        if (this.isNull(rowIndex))
+        {
+            throw new NullPointerException("Null value at " + this.getName() + "[" + rowIndex + "]");
+        }
+
+        return this.epochMicros.get(rowIndex);
+    }
+
+    @Override
+    public LocalDateTime getTypedObject(int rowIndex)
+    {
+        if (!this.storesEpochMicros())
+        {
+            return this.objects.get(rowIndex);
+        }
+
+        return this.nullMap.get(rowIndex) ? null : fromEpochMicros(this.epochMicros.get(rowIndex));
+    }
+
+    @Override
+    public Value getValue(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            return Value.VOID;
+        }
+
+        return this.objectToValue(this.getTypedObject(rowIndex));
+    }
+
+    @Override
+    public boolean mayContainNulls()
+    {
+        return !this.storesEpochMicros() || this.nullMap.hasNulls();
+    }
+
+    /**
+     * @return the number of null values in this column
+     */
+    public int getNullCount()
+    {
+        if (this.storesEpochMicros())
+        {
+            return this.nullMap.getNullCount();
+        }
+
+        int nullCount = 0;
+        for (int rowIndex = 0; rowIndex < this.objects.size(); rowIndex++)
+        {
+            if (this.objects.get(rowIndex) == null)
+            {
+                nullCount++;
+            }
+        }
+        return nullCount;
+    }
+
+    @Override
+    public boolean isNull(int rowIndex)
+    {
+        return this.storesEpochMicros() ? this.nullMap.get(rowIndex) : this.objects.get(rowIndex) == null;
+    }
+
+    @Override
+    public int getSize()
+    {
+        return this.storesEpochMicros() ? this.epochMicros.size() : this.objects.size();
+    }
+
+    @Override
+    public void setObject(int rowIndex, Object anObject)
+    {
+        this.markModified();
+
+        LocalDateTime aDateTime = (LocalDateTime) anObject;
+
+        if (this.storesEpochMicros() && aDateTime == null)
+        {
+            this.epochMicros.set(rowIndex, NULL_FILLER);
+            this.nullMap.set(rowIndex, true);
+        }
+        else if (this.storesEpochMicros() && isExactInMicros(aDateTime))
+        {
+            this.epochMicros.set(rowIndex, toEpochMicros(aDateTime));
+            this.nullMap.set(rowIndex, false);
+        }
+        else
+        {
+            this.switchToObjects();
+            this.objects.set(rowIndex, this.pooled(aDateTime));
+        }
+    }
+
+    @Override
+    public void addRowToColumn(int rowIndex, DfColumn target)
+    {
+        DfDateTimeColumnStored targetDateTimeColumn = (DfDateTimeColumnStored) target;
+
+        if (!this.storesEpochMicros())
+        {
+            targetDateTimeColumn.switchToObjects();
+            targetDateTimeColumn.addMyType(this.objects.get(rowIndex));
+        }
+        else if (this.isNull(rowIndex))
+        {
+            target.addEmptyValue();
+        }
+        else
+        {
+            targetDateTimeColumn.addEpochMicros(this.epochMicros.get(rowIndex));
+        }
+    }
+
+    @Override
+    public DfCellComparator columnComparator(DfColumn otherColumn)
+    {
+        DfDateTimeColumn otherDateTimeColumn = (DfDateTimeColumn) otherColumn;
+
+        if (!this.storesEpochMicros() || !otherDateTimeColumn.storesEpochMicros())
+        {
+            return DfDateTimeColumn.super.columnComparator(otherColumn);
+        }
+
+        return (thisRowIndex, otherRowIndex) -> {
+            int thisMappedIndex = this.dataFrameRowIndex(thisRowIndex);
+            int otherMappedIndex = otherDateTimeColumn.dataFrameRowIndex(otherRowIndex);
+
+            return new LongComparisonResult(
+                    () -> this.getEpochMicros(thisMappedIndex),
+                    () -> otherDateTimeColumn.getEpochMicros(otherMappedIndex),
+                    this.isNull(thisMappedIndex),
+                    otherDateTimeColumn.isNull(otherMappedIndex));
+        };
+    }
+
+    @Override
+    public ImmutableList<LocalDateTime> toList()
+    {
+        MutableList<LocalDateTime> list = Lists.mutable.withInitialCapacity(this.getSize());
+        for (int rowIndex = 0; rowIndex < this.getSize(); rowIndex++)
+        {
+            list.add(this.getTypedObject(rowIndex));
+        }
+        return list.toImmutable();
+    }
+
+    @Override
+    public void aggregateValueInto(int rowIndex, DfColumn sourceColumn, int sourceRowIndex, AggregateFunction aggregator)
+    {
+        this.setObject(rowIndex,
+                aggregator.objectAccumulator(
+                        this.getTypedObject(rowIndex), aggregator.getObjectValue(sourceColumn, sourceRowIndex)));
+    }
+
+    @Override
+    public void ensureInitialCapacity(int newCapacity)
+    {
+        if (this.pool == null)
+        {
+            this.epochMicros = this.createStorage(newCapacity);
+            this.nullMap = new DfNullMap(newCapacity);
+            this.objects = null;
+        }
+        else
+        {
+            this.objects = new DfObjectStorage<>(newCapacity);
+        }
+    }
+
+    @Override
+    public void releaseStorage()
+    {
+        this.ensureInitialCapacity(0);
+
+        if (this.pool != null)
+        {
+            this.pool.clear();
+        }
+    }
+
+    @Override
+    protected void addAllItems(ListIterable<LocalDateTime> items)
+    {
+        items.forEach(this::addMyType);
+    }
+
+    private DfLongStorage createStorage(int initialCapacity)
+    {
+        return this.isOffHeapStorageEnabled()
+                ? new DfLongOffHeapStorage()
+                : new DfLongHeapStorage(initialCapacity);
+    }
+
+    private LocalDateTime pooled(LocalDateTime aDateTime)
+    {
+        return this.pool == null || aDateTime == null ? aDateTime : this.pool.put(aDateTime);
+    }
+
+    private void switchToObjects()
+    {
+        if (!this.storesEpochMicros())
+        {
+            return;
+        }
+
+        DfObjectStorage<LocalDateTime> newObjects = new DfObjectStorage<>(this.getSize());
+        for (int rowIndex = 0; rowIndex < this.getSize(); rowIndex++)
+        {
+            newObjects.add(this.getTypedObject(rowIndex));
+        }
+
+        this.objects = newObjects;
+        this.epochMicros = null;
+        this.nullMap = null;
+    }
+
+    private static boolean isExactInMicros(LocalDateTime aDateTime)
+    {
+        long epochSecond = aDateTime.toEpochSecond(ZoneOffset.UTC);
+        return aDateTime.getNano() % 1_000 == 0 && epochSecond >= MIN_EPOCH_SECOND && epochSecond <= MAX_EPOCH_SECOND;
+    }
+
+    private static long toEpochMicros(LocalDateTime aDateTime)
+    {
+        return aDateTime.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + aDateTime.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromEpochMicros(long micros)
+    {
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(micros, MICROS_PER_SECOND),
+                (int) Math.floorMod(micros, MICROS_PER_SECOND) * 1_000,
+                ZoneOffset.UTC);
+    }
 }
@@ -35,6 +35,16 @@ extends DfObjectColumn<BigDecimal>
         target.addObject(this.getTypedObject(rowIndex));
     }
 
+    /**
+     * Returns the sum of the values in this column or {@code null} if any of the values is null.
+     *
+     * @return the sum of the values in this column
+     */
+    default BigDecimal sum()
+    {
+        return this.injectIntoBreakOnNulls(BigDecimal.ZERO, BigDecimal::add);
+    }
+
     @Override
     default DfCellComparator columnComparator(DfColumn otherColumn)
     {
@@ -1,23 +1,53 @@
 package io.github.vmzakharov.ecdataframe.dataframe;
 
+import io.github.vmzakharov.ecdataframe.dataframe.compare.DecimalComparisonResult;
 import io.github.vmzakharov.ecdataframe.dsl.value.DecimalValue;
 import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.set.Pool;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.set.mutable.UnifiedSet;
 
 import java.math.BigDecimal;
 
+/**
+ * A stored decimal column. As long as all the values in the column have the same scale and their unscaled values fit
+ * in a long, the column stores them as unscaled longs with a single scale for the entire column, {@code BigDecimal}
+ * instances are only created when the values are accessed as objects. Once a value with a different scale or a value
+ * that is too large is added to the column, the column switches to storing its values as objects. Enabling pooling
+ * also switches the column to storing objects, one shared instance per distinct value. A column that rows are copied to
+ * from a column storing objects stores the same instances.
+ */
 public class DfDecimalColumnStored
-extends DfObjectColumnStored<BigDecimal>
-implements DfDecimalColumn
+extends DfObjectColumnAbstract<BigDecimal>
+implements DfDecimalColumn, DfColumnStored
 {
+    static private final long NULL_FILLER = Long.MIN_VALUE; // not the actual null marker, but makes debugging easier
+
+    private DfNullMap nullMap = new DfNullMap();
+    private DfLongStorage unscaledValues;
+
+    // the scale is determined by the first non-null value added to the column
+    private int scale = 0;
+    private boolean scaleKnown = false;
+
+    // only used once the column switches to storing objects, in which case the fields above are not used
+    private DfObjectStorage<BigDecimal> objects = null;
+
+    private Pool<BigDecimal> pool = null;
+
     public DfDecimalColumnStored(DataFrame owner, String newName)
     {
         super(owner, newName);
+        this.unscaledValues = this.createStorage(0);
     }
 
     public DfDecimalColumnStored(DataFrame owner, String newName, ListIterable<BigDecimal> newValues)
     {
-        super(owner, newName, newValues);
+        this(owner, newName);
+        this.addAllItems(newValues);
     }
 
     @Override
@@ -42,4 +72,424 @@ implements DfDecimalColumn
             this.throwAddingIncompatibleValueException(value);
         }
     }
+
+    protected void addMyType(BigDecimal aDecimal)
+    {
+        if (aDecimal == null)
+        {
+            this.addEmptyValue();
+        }
+        else if (this.canStoreUnscaled(aDecimal))
+        {
+            this.addUnscaledValue(aDecimal.unscaledValue().longValue(), aDecimal.scale());
+        }
+        else
+        {
+            this.switchToObjects();
+            this.objects.add(this.pooled(aDecimal));
+        }
+    }
+
+    /**
+     * Adds the decimal value {@code newUnscaledValue * 10^(-newScale)} to this column without creating a
+     * {@code BigDecimal} instance if the column stores unscaled values at the same scale.
+     *
+     * @param newUnscaledValue the unscaled value to add
+     * @param newScale         the scale of the value to add
+     */
+    public void addUnscaledValue(long newUnscaledValue, int newScale)
+    {
+        if (this.storesUnscaledValues() && (!this.scaleKnown || this.scale == newScale))
+        {
+            this.fixScale(newScale);
+            this.unscaledValues.add(newUnscaledValue);
+            this.nullMap.add(false);
+        }
+        else
+        {
+            this.addMyType(BigDecimal.valueOf(newUnscaledValue, newScale));
+        }
+    }
+
+    @Override
+    public void addEmptyValue()
+    {
+        if (this.storesUnscaledValues())
+        {
+            this.unscaledValues.add(NULL_FILLER);
+            this.nullMap.add(true);
+        }
+        else
+        {
+            this.objects.add(null);
+        }
+    }
+
+    @Override
+    public void enablePooling()
+    {
+        if (this.pool == null)
+        {
+            this.switchToObjects();
+            this.pool = new UnifiedSet<>();
+            for (int rowIndex = 0; rowIndex < this.objects.size(); rowIndex++)
+            {
+                this.objects.set(rowIndex, this.pooled(this.objects.get(rowIndex)));
+            }
+        }
+    }
+
+    @Override
+    public void disablePooling()
+    {
+        this.pool = null;
+    }
+
+    /**
+     * @return {@code true} if the values of this column are stored as unscaled longs with the same scale,
+     * {@code false} if they are stored as {@code BigDecimal} objects
+     */
+    public boolean storesUnscaledValues()
+    {
+        return this.objects == null;
+    }
+
+    /**
+     * @return the scale of the values in this column, only meaningful if {@link #storesUnscaledValues()} returns
+     * {@code true}
+     */
+    public int getScale()
+    {
+        return this.scale;
+    }
+
+    /**
+     * Returns the unscaled value at the specified row, only meaningful if {@link #storesUnscaledValues()} returns
+     * {@code true}, in which case the decimal value is {@code getUnscaledValue(rowIndex) * 10^(-getScale())}.
+     *
+     * @param rowIndex the row index
+     * @return the unscaled value
+     */
+    public long getUnscaledValue(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            throw new NullPointerException("Null value at " + this.getName() + "[" + rowIndex + "]");
+        }
+
+        return this.unscaledValues.get(rowIndex);
+    }
+
+    @Override
+    public BigDecimal getTypedObject(int rowIndex)
+    {
+        if (!this.storesUnscaledValues())
+        {
+            return this.objects.get(rowIndex);
+        }
+
+        return this.nullMap.get(rowIndex) ? null : BigDecimal.valueOf(this.unscaledValues.get(rowIndex), this.scale);
+    }
+
+    @Override
+    public Value getValue(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            return Value.VOID;
+        }
+
+        return this.objectToValue(this.getTypedObject(rowIndex));
+    }
+
+    @Override
+    public boolean mayContainNulls()
+    {
+        return !this.storesUnscaledValues() || this.nullMap.hasNulls();
+    }
+
+    /**
+     * @return the number of null values in this column
+     */
+    public int getNullCount()
+    {
+        if (this.storesUnscaledValues())
+        {
+            return this.nullMap.getNullCount();
+        }
+
+        int nullCount = 0;
+        for (int rowIndex = 0; rowIndex < this.objects.size(); rowIndex++)
+        {
+            if (this.objects.get(rowIndex) == null)
+            {
+                nullCount++;
+            }
+        }
+        return nullCount;
+    }
+
+    @Override
+    public boolean isNull(int rowIndex)
+    {
+        return this.storesUnscaledValues() ? this.nullMap.get(rowIndex) : this.objects.get(rowIndex) == null;
+    }
+
+    @Override
+    public int getSize()
+    {
+        return this.storesUnscaledValues() ? this.unscaledValues.size() : this.objects.size();
+    }
+
+    @Override
+    public void setObject(int rowIndex, Object anObject)
+    {
+        this.markModified();
+
+        BigDecimal aDecimal = (BigDecimal) anObject;
+
+        if (this.storesUnscaledValues() && aDecimal == null)
+        {
+            this.unscaledValues.set(rowIndex, NULL_FILLER);
+            this.nullMap.set(rowIndex, true);
+        }
+        else if (this.canStoreUnscaled(aDecimal))
+        {
+            this.fixScale(aDecimal.scale());
+            this.unscaledValues.set(rowIndex, aDecimal.unscaledValue().longValue());
+            this.nullMap.set(rowIndex, false);
+        }
+        else
+        {
+            this.switchToObjects();
+            this.objects.set(rowIndex, this.pooled(aDecimal));
+        }
+    }
+
+    /**
+     * Sets the value at the specified row to zero at the scale of this column. Unlike setting it to
+     * {@code BigDecimal.ZERO}, this does not conflict with the scale of the other values in the column. If the scale of
+     * the column is not yet known, the value will have the scale of the first non-null value added to the column.
+     *
+     * @param rowIndex the row index
+     */
+    public void setZero(int rowIndex)
+    {
+        this.markModified();
+
+        if (this.storesUnscaledValues())
+        {
+            this.unscaledValues.set(rowIndex, 0L);
+            this.nullMap.set(rowIndex, false);
+        }
+        else
+        {
+            this.objects.set(rowIndex, BigDecimal.ZERO);
+        }
+    }
+
+    /**
+     * Adds the value of the source column at the source row to the value of this column at the specified row if both
+     * columns store unscaled values at the same scale and the sum does not overflow, in which case the sum is computed
+     * on longs.
+     *
+     * @param rowIndex       the row index of the value in this column to add to
+     * @param sourceColumn   the column containing the value to add
+     * @param sourceRowIndex the row index of the value to add
+     * @return {@code true} if the value has been added, {@code false} if it needs to be added as a {@code BigDecimal}
+     */
+    public boolean addUnscaledValueAt(int rowIndex, DfColumn sourceColumn, int sourceRowIndex)
+    {
+        if (!this.storesUnscaledValues()
+                || !(sourceColumn instanceof DfDecimalColumnStored source)
+                || !source.storesUnscaledValues()
+                || source.getScale() < 0
+                || (this.scaleKnown && this.scale != source.getScale()))
+        {
+            return false;
+        }
+
+        long sum;
+        try
+        {
+            sum = Math.addExact(this.getUnscaledValue(rowIndex), source.getUnscaledValue(sourceRowIndex));
+        }
+        catch (ArithmeticException e)
+        {
+            return false;
+        }
+
+        this.markModified();
+        this.fixScale(source.getScale());
+        this.unscaledValues.set(rowIndex, sum);
+        return true;
+    }
+
+    @Override
+    public BigDecimal sum()
+    {
+        if (this.storesUnscaledValues())
+        {
+            long sum = 0L;
+            int size = this.getSize();
+            try
+            {
+                for (int rowIndex = 0; rowIndex < size; rowIndex++)
+                {
+                    if (this.nullMap.get(rowIndex))
+                    {
+                        return null;
+                    }
+
+                    sum = Math.addExact(sum, this.unscaledValues.get(rowIndex));
+                }
+            }
+            catch (ArithmeticException e)
+            {
+                return DfDecimalColumn.super.sum();
+            }
+
+            return BigDecimal.ZERO.add(BigDecimal.valueOf(sum, this.scale));
+        }
+
+        return DfDecimalColumn.super.sum();
+    }
+
+    @Override
+    public void addRowToColumn(int rowIndex, DfColumn target)
+    {
+        DfDecimalColumnStored targetDecimalColumn = (DfDecimalColumnStored) target;
+
+        if (!this.storesUnscaledValues())
+        {
+            targetDecimalColumn.switchToObjects();
+            targetDecimalColumn.addMyType(this.objects.get(rowIndex));
+        }
+        else if (this.isNull(rowIndex))
+        {
+            target.addEmptyValue();
+        }
+        else
+        {
+            targetDecimalColumn.addUnscaledValue(this.unscaledValues.get(rowIndex), this.scale);
+        }
+    }
+
+    @Override
+    public DfCellComparator columnComparator(DfColumn otherColumn)
+    {
+        if (!this.storesUnscaledValues()
+                || !(otherColumn instanceof DfDecimalColumnStored otherDecimalColumn)
+                || !otherDecimalColumn.storesUnscaledValues()
+                || this.getScale() != otherDecimalColumn.getScale())
+        {
+            return DfDecimalColumn.super.columnComparator(otherColumn);
+        }
+
+        return (thisRowIndex, otherRowIndex) -> {
+            int thisMappedIndex = this.dataFrameRowIndex(thisRowIndex);
+            int otherMappedIndex = otherDecimalColumn.dataFrameRowIndex(otherRowIndex);
+
+            return new DecimalComparisonResult(
+                    () -> this.getUnscaledValue(thisMappedIndex),
+                    () -> otherDecimalColumn.getUnscaledValue(otherMappedIndex),
+                    this.scale,
+                    this.isNull(thisMappedIndex),
+                    otherDecimalColumn.isNull(otherMappedIndex));
+        };
+    }
+
+    @Override
+    public ImmutableList<BigDecimal> toList()
+    {
+        MutableList<BigDecimal> list = Lists.mutable.withInitialCapacity(this.getSize());
+        for (int rowIndex = 0; rowIndex < this.getSize(); rowIndex++)
+        {
+            list.add(this.getTypedObject(rowIndex));
+        }
+        return list.toImmutable();
+    }
+
+    @Override
+    public void aggregateValueInto(int rowIndex, DfColumn sourceColumn, int sourceRowIndex, AggregateFunction aggregator)
+    {
+        aggregator.aggregateValueIntoDecimal(this, rowIndex, sourceColumn, sourceRowIndex);
+    }
+
+    @Override
+    public void ensureInitialCapacity(int newCapacity)
+    {
+        if (this.pool == null)
+        {
+            this.unscaledValues = this.createStorage(newCapacity);
+            this.nullMap = new DfNullMap(newCapacity);
+            this.scale = 0;
+            this.scaleKnown = false;
+            this.objects = null;
+        }
+        else
+        {
+            this.objects = new DfObjectStorage<>(newCapacity);
+        }
+    }
+
+    @Override
+    public void releaseStorage()
+    {
+        this.ensureInitialCapacity(0);
+
+        if (this.pool != null)
+        {
+            this.pool.clear();
+        }
+    }
+
+    @Override
+    protected void addAllItems(ListIterable<BigDecimal> items)
+    {
+        items.forEach(this::addMyType);
+    }
+
+    private DfLongStorage createStorage(int initialCapacity)
+    {
+        return this.isOffHeapStorageEnabled()
+                ? new DfLongOffHeapStorage()
+                : new DfLongHeapStorage(initialCapacity);
+    }
+
+    private boolean canStoreUnscaled(BigDecimal aDecimal)
+    {
+        return this.storesUnscaledValues()
+                && (!this.scaleKnown || this.scale == aDecimal.scale())
+                && aDecimal.unscaledValue().bitLength() < Long.SIZE;
+    }
+
+    private void fixScale(int newScale)
+    {
+        this.scale = newScale;
+        this.scaleKnown = true;
+    }
+
+    private BigDecimal pooled(BigDecimal aDecimal)
+    {
+        return this.pool == null || aDecimal == null ? aDecimal : this.pool.put(aDecimal);
+    }
+
+    private void switchToObjects()
+    {
+        if (!this.storesUnscaledValues())
+        {
+            return;
+        }
+
+        DfObjectStorage<BigDecimal> newObjects = new DfObjectStorage<>(this.getSize());
+        for (int rowIndex = 0; rowIndex < this.getSize(); rowIndex++)
+        {
+            newObjects.add(this.getTypedObject(rowIndex));
+        }
+
+        this.objects = newObjects;
+        this.unscaledValues = null;
+        this.nullMap = null;
+    }
 }
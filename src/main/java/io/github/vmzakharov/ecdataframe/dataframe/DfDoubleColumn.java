@@ -17,6 +17,25 @@ abstract public class DfDoubleColumn
 
     abstract public double getDouble(int rowIndex);
 
+    double getDoubleWithoutNullCheck(int rowIndex)
+    {
+        return this.getDouble(rowIndex);
+    }
+
+    DfVector fillVector(int fromRow, DfVector vector)
+    {
+        double[] target = vector.doubles();
+        boolean[] targetNulls = vector.nulls();
+        for (int i = 0; i < target.length; i++)
+        {
+            int rowIndex = fromRow + i;
+            boolean isNull = this.isNull(rowIndex);
+            target[i] = isNull ? Double.NaN : this.getDoubleWithoutNullCheck(rowIndex);
+            targetNulls[i] = isNull;
+        }
+        return vector;
+    }
+
     @Override
     public String getValueAsString(int rowIndex)
     {
@@ -12,6 +12,9 @@ implements DfColumnComputed
     private final String expressionAsString;
     private final Expression expression;
 
+    private DfCompiledExpression compiledExpression;
+    private long compiledAtSchemaVersion = -1;
+
     public DfDoubleColumnComputed(DataFrame newDataFrame, String newName, String newExpressionAsString)
     {
         super(newDataFrame, newName);
@@ -31,6 +34,12 @@ implements DfColumnComputed
     @Override
     public double getDouble(int rowIndex)
     {
+        DfCompiledExpression compiled = this.getCompiledExpression();
+        if (compiled != null && !compiled.isNull(rowIndex))
+        {
+            return compiled.getDouble(rowIndex);
+        }
+
         Value result = this.getValue(rowIndex);
 
         if (result.isVoid())
@@ -68,6 +77,33 @@ implements DfColumnComputed
     @Override
     public boolean isNull(int rowIndex)
     {
+        DfCompiledExpression compiled = this.getCompiledExpression();
+        if (compiled != null)
+        {
+            return compiled.isNull(rowIndex);
+        }
+
         return this.getObject(rowIndex) == null;
     }
+
+    @Override
+    public DfCompiledExpression getCompiledExpression()
+    {
+        if (!this.getDataFrame().isExpressionCompilationEnabled())
+        {
+            return null;
+        }
+
+        long schemaVersion = this.getDataFrame().getSchemaVersion();
+        if (this.compiledAtSchemaVersion != schemaVersion)
+        {
+            // compiled lazily as the columns referenced by the expression may be added after this column, and compiled
+            // again if columns are added or dropped since, as the compiled form refers to the columns it was built on
+            DfCompiledExpression compiled = this.getDataFrame().compiledExpressionFor(this.expression, false);
+            this.compiledExpression = compiled != null && compiled.getType() == this.getType() ? compiled : null;
+            this.compiledAtSchemaVersion = schemaVersion;
+        }
+
+        return this.compiledExpression;
+    }
 }
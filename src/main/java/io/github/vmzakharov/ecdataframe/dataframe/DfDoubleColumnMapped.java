@@ -0,0 +1,80 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.value.DoubleValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+
+/**
+ * A read-only double column with values read directly from a memory mapped file. The values are stored as
+ * consecutive big-endian doubles, null values are represented by NaN.
+ */
+public class DfDoubleColumnMapped
+extends DfDoubleColumn
+implements DfColumnMapped
+{
+    private final int size;
+    private final DfMappedBuffer values;
+
+    public DfDoubleColumnMapped(DataFrame newDataFrame, String newName, int newSize, DfMappedBuffer newValues)
+    {
+        super(newDataFrame, newName);
+        this.size = newSize;
+        this.values = newValues;
+    }
+
+    @Override
+    public double getDouble(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            throw new NullPointerException("Null value at " + this.getName() + "[" + rowIndex + "]");
+        }
+
+        return this.getDoubleWithoutNullCheck(rowIndex);
+    }
+
+    @Override
+    double getDoubleWithoutNullCheck(int rowIndex)
+    {
+        return this.values.getDouble((long) rowIndex << 3);
+    }
+
+    @Override
+    public Value getValue(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            return Value.VOID;
+        }
+
+        return new DoubleValue(this.getDoubleWithoutNullCheck(rowIndex));
+    }
+
+    @Override
+    public Object getObject(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            return null;
+        }
+
+        return this.getDoubleWithoutNullCheck(rowIndex);
+    }
+
+    @Override
+    public boolean isNull(int rowIndex)
+    {
+        return Double.isNaN(this.getDoubleWithoutNullCheck(rowIndex));
+    }
+
+    @Override
+    public int getSize()
+    {
+        return this.size;
+    }
+
+    @Override
+    protected void addAllItemsFrom(DfDoubleColumn items)
+    {
+        throw this.modificationNotSupported();
+    }
+}
@@ -4,18 +4,17 @@ import io.github.vmzakharov.ecdataframe.dsl.value.DoubleValue;
 import io.github.vmzakharov.ecdataframe.dsl.value.NumberValue;
 import io.github.vmzakharov.ecdataframe.dsl.value.Value;
 import org.eclipse.collections.api.DoubleIterable;
-import org.eclipse.collections.api.list.primitive.MutableDoubleList;
-import org.eclipse.collections.impl.factory.primitive.DoubleLists;
 
 public class DfDoubleColumnStored
 extends DfDoubleColumn
 implements DfColumnStored
 {
-    private MutableDoubleList values = DoubleLists.mutable.of();
+    private DfDoubleStorage values;
 
     public DfDoubleColumnStored(DataFrame owner, String newName)
     {
         super(owner, newName);
+        this.values = this.createStorage(0);
     }
 
     public DfDoubleColumnStored(DataFrame owner, String newName, DoubleIterable newValues)
@@ -94,11 +93,26 @@ implements DfColumnStored
         return this.getDoubleWithoutNullCheck(rowIndex);
     }
 
-    private double getDoubleWithoutNullCheck(int rowIndex)
+    @Override
+    double getDoubleWithoutNullCheck(int rowIndex)
     {
         return this.values.get(rowIndex);
     }
 
+    @Override
+    DfVector fillVector(int fromRow, DfVector vector)
+    {
+        double[] target = vector.doubles();
+        boolean[] targetNulls = vector.nulls();
+        for (int i = 0; i < target.length; i++)
+        {
+            double value = this.values.get(fromRow + i);
+            target[i] = value;
+            targetNulls[i] = Double.isNaN(value);
+        }
+        return vector;
+    }
+
     @Override
     public int getSize()
     {
@@ -108,6 +122,8 @@ implements DfColumnStored
     @Override
     public void setObject(int rowIndex, Object anObject)
     {
+        this.markModified();
+
         if (anObject == null)
         {
             this.values.set(rowIndex, Double.NaN);
@@ -120,6 +136,7 @@ implements DfColumnStored
 
     public void setDouble(int rowIndex, double value)
     {
+        this.markModified();
         this.values.set(rowIndex, value);
     }
 
@@ -138,12 +155,47 @@ implements DfColumnStored
     @Override
     public void ensureInitialCapacity(int newCapacity)
     {
-        this.values = DoubleLists.mutable.withInitialCapacity(newCapacity);
+        this.values = this.createStorage(newCapacity);
+    }
+
+    @Override
+    public void releaseStorage()
+    {
+        this.values.release();
+    }
+
+    private DfDoubleStorage createStorage(int initialCapacity)
+    {
+        return this.isOffHeapStorageEnabled()
+                ? new DfDoubleOffHeapStorage()
+                : new DfDoubleHeapStorage(initialCapacity);
     }
 
     @Override
     protected void addAllItemsFrom(DfDoubleColumn doubleColumn)
     {
+        if (!doubleColumn.isStored())
+        {
+            DfVectorEvaluator evaluator = ((DfColumnComputed) doubleColumn).vectorEvaluator();
+            if (evaluator != null)
+            {
+                evaluator.forEachBatch(doubleColumn.getSize(), (batch, fromRow) -> {
+                    for (int i = 0; i < batch.size(); i++)
+                    {
+                        if (batch.isNull(i))
+                        {
+                            this.addEmptyValue();
+                        }
+                        else
+                        {
+                            this.addDouble(batch.getDouble(i));
+                        }
+                    }
+                });
+                return;
+            }
+        }
+
         int size = doubleColumn.getSize();
         for (int rowIndex = 0; rowIndex < size; rowIndex++)
         {
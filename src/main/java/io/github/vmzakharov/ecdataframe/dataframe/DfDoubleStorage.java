@@ -0,0 +1,27 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.DoubleIterable;
+
+/**
+ * The values of a stored double column
+ */
+interface DfDoubleStorage
+{
+    void add(double value);
+
+    default void addAll(DoubleIterable values)
+    {
+        values.forEach(this::add);
+    }
+
+    double get(int index);
+
+    void set(int index, double value);
+
+    int size();
+
+    /**
+     * Releases the memory held by this storage, the storage is empty afterwards
+     */
+    void release();
+}
@@ -0,0 +1,368 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.ArithmeticOp;
+import io.github.vmzakharov.ecdataframe.dsl.BinaryExpr;
+import io.github.vmzakharov.ecdataframe.dsl.BinaryOp;
+import io.github.vmzakharov.ecdataframe.dsl.BooleanOp;
+import io.github.vmzakharov.ecdataframe.dsl.ComparisonOp;
+import io.github.vmzakharov.ecdataframe.dsl.Expression;
+import io.github.vmzakharov.ecdataframe.dsl.PredicateOp;
+import io.github.vmzakharov.ecdataframe.dsl.UnaryExpr;
+import io.github.vmzakharov.ecdataframe.dsl.UnaryOp;
+import io.github.vmzakharov.ecdataframe.dsl.VarExpr;
+import io.github.vmzakharov.ecdataframe.dsl.value.BooleanValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.DoubleValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.FloatValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.IntValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.LongValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.NumberValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
+import io.github.vmzakharov.ecdataframe.dsl.value.WholeNumberValue;
+
+/**
+ * Translates an expression into a tree of nodes evaluating it over the data frame rows. This class decides which
+ * expressions can be compiled and what the types of their results are, consistent with the interpreter, while the
+ * subclasses build the nodes: {@link DfCompiledExpression} evaluates a row at a time and {@link DfVectorEvaluator}
+ * evaluates a batch of rows at a time.
+ * <p>
+ * The compile methods return {@code null} if an expression cannot be compiled.
+ *
+ * @param <N> the type of the nodes the expression is compiled into
+ */
+abstract class DfExpressionCompiler<N>
+{
+    private final DataFrame dataFrame;
+    private final boolean resolveVariablesAsConstants;
+
+    protected DfExpressionCompiler(DataFrame newDataFrame, boolean newResolveVariablesAsConstants)
+    {
+        this.dataFrame = newDataFrame;
+        this.resolveVariablesAsConstants = newResolveVariablesAsConstants;
+    }
+
+    protected DataFrame getDataFrame()
+    {
+        return this.dataFrame;
+    }
+
+    public N compile(Expression expression)
+    {
+        if (expression instanceof VarExpr varExpr)
+        {
+            return this.compileVariable(varExpr);
+        }
+
+        if (expression instanceof BinaryExpr binaryExpr)
+        {
+            return this.compileBinary(binaryExpr);
+        }
+
+        if (expression instanceof UnaryExpr unaryExpr)
+        {
+            return this.compileUnary(unaryExpr);
+        }
+
+        if (expression instanceof Value value)
+        {
+            return this.compileConstant(value);
+        }
+
+        return null;
+    }
+
+    /**
+     * @return the type of the values produced by the node
+     */
+    abstract protected ValueType typeOf(N node);
+
+    /**
+     * @return a node delegating the evaluation of a boolean valued operand that cannot be compiled to the interpreter
+     */
+    abstract protected N interpretedBoolean(Expression operand);
+
+    /**
+     * @return a node reading the values of a stored column or {@code null} if columns of this type are not supported
+     */
+    abstract protected N storedColumn(DfColumn column);
+
+    abstract protected N wholeNumberConstant(ValueType type, long constant);
+
+    abstract protected N realNumberConstant(ValueType type, double constant);
+
+    abstract protected N booleanConstant(boolean constant);
+
+    /**
+     * @return a node for one of the four arithmetic operations on numeric operands, computed as longs if both operands
+     * are whole numbers, otherwise as doubles
+     */
+    abstract protected N arithmetic(ArithmeticOp op, N first, N second, boolean wholeNumbers);
+
+    /**
+     * @return a node for a comparison of numeric operands, compared as longs if both operands are whole numbers,
+     * otherwise as doubles
+     */
+    abstract protected N comparison(DfComparisonOutcomes outcomes, N first, N second, boolean wholeNumbers);
+
+    /**
+     * @return a node for "and", "or", or "xor" of boolean operands following the three-valued logic and
+     * short-circuiting of the interpreter
+     */
+    abstract protected N booleanOperation(BooleanOp op, N first, N second);
+
+    /**
+     * @return a node negating a numeric operand, negating a null is an error as it is for the interpreter
+     */
+    abstract protected N minus(N operand);
+
+    abstract protected N not(N operand);
+
+    abstract protected N nullCheck(N operand, boolean isNull);
+
+    abstract protected N storedColumnNullCheck(DfColumn column, boolean isNull);
+
+    /**
+     * A hook for the binary expressions a subclass can compile in a special way, which is tried before compiling the
+     * operands of the expression
+     *
+     * @return the node for the expression or {@code null} if there is no special way to compile it
+     */
+    protected N compileSpecialBinary(BinaryExpr binaryExpr)
+    {
+        return null;
+    }
+
+    protected boolean isWholeNumber(N node)
+    {
+        return this.typeOf(node).isWholeNumber();
+    }
+
+    protected boolean isNumeric(N node)
+    {
+        ValueType type = this.typeOf(node);
+        return type.isWholeNumber() || type.isRealNumber();
+    }
+
+    /*
+     * Operands of compiled operations that cannot be compiled themselves are still allowed if they are known to
+     * produce boolean values, in which case they are evaluated by the interpreter
+     */
+    private N compileOperand(Expression operand)
+    {
+        N compiled = this.compile(operand);
+
+        if (compiled == null && this.isBooleanValued(operand))
+        {
+            return this.interpretedBoolean(operand);
+        }
+
+        return compiled;
+    }
+
+    private boolean isBooleanValued(Expression expression)
+    {
+        if (expression instanceof BinaryExpr binaryExpr)
+        {
+            return binaryExpr.operation() instanceof PredicateOp;
+        }
+
+        if (expression instanceof UnaryExpr unaryExpr)
+        {
+            UnaryOp op = unaryExpr.operation();
+            return op == UnaryOp.NOT || op == UnaryOp.IS_NULL || op == UnaryOp.IS_NOT_NULL
+                    || op == UnaryOp.IS_EMPTY || op == UnaryOp.IS_NOT_EMPTY;
+        }
+
+        return false;
+    }
+
+    /*
+     * Columns are resolved at the time of compilation, so the compiled form is only valid for as long as the columns
+     * of the data frame stay the same, see DataFrame.getSchemaVersion()
+     */
+    private N compileVariable(VarExpr varExpr)
+    {
+        String variableName = varExpr.variableName();
+
+        if (!this.dataFrame.hasColumn(variableName))
+        {
+            // not a column, so the value is the same for every row
+            return this.resolveVariablesAsConstants && this.dataFrame.hasEvalContextVariable(variableName)
+                    ? this.compileConstant(varExpr.evaluate(this.dataFrame.getEvalVisitor()))
+                    : null;
+        }
+
+        DfColumn column = this.dataFrame.getColumnNamed(variableName);
+
+        if (!column.isStored())
+        {
+            return this.compile(((DfColumnComputed) column).getExpression());
+        }
+
+        return this.storedColumn(column);
+    }
+
+    private N compileConstant(Value value)
+    {
+        if (value instanceof LongValue || value instanceof IntValue)
+        {
+            return this.wholeNumberConstant(value.getType(), ((WholeNumberValue) value).longValue());
+        }
+
+        if (value instanceof DoubleValue || value instanceof FloatValue)
+        {
+            return this.realNumberConstant(value.getType(), ((NumberValue) value).doubleValue());
+        }
+
+        if (value instanceof BooleanValue booleanValue)
+        {
+            return this.booleanConstant(booleanValue.isTrue());
+        }
+
+        return null;
+    }
+
+    private N compileBinary(BinaryExpr binaryExpr)
+    {
+        N special = this.compileSpecialBinary(binaryExpr);
+        if (special != null)
+        {
+            return special;
+        }
+
+        N first = this.compileOperand(binaryExpr.operand1());
+        if (first == null)
+        {
+            return null;
+        }
+
+        N second = this.compileOperand(binaryExpr.operand2());
+        if (second == null)
+        {
+            return null;
+        }
+
+        BinaryOp op = binaryExpr.operation();
+
+        if (op instanceof ArithmeticOp arithmeticOp)
+        {
+            return this.compileArithmetic(arithmeticOp, first, second);
+        }
+
+        if (op instanceof ComparisonOp comparisonOp)
+        {
+            return this.compileComparison(comparisonOp, first, second);
+        }
+
+        if (op instanceof BooleanOp booleanOp)
+        {
+            return this.compileBoolean(booleanOp, first, second);
+        }
+
+        return null;
+    }
+
+    private N compileArithmetic(ArithmeticOp op, N first, N second)
+    {
+        if (!this.isNumeric(first) || !this.isNumeric(second))
+        {
+            return null;
+        }
+
+        if (op != ArithmeticOp.ADD && op != ArithmeticOp.SUBTRACT
+                && op != ArithmeticOp.MULTIPLY && op != ArithmeticOp.DIVIDE)
+        {
+            return null;
+        }
+
+        return this.arithmetic(op, first, second, this.isWholeNumber(first) && this.isWholeNumber(second));
+    }
+
+    private N compileComparison(ComparisonOp op, N first, N second)
+    {
+        if (!this.isNumeric(first) || !this.isNumeric(second))
+        {
+            return null;
+        }
+
+        // the interpreter only supports comparing a long value to another long or to a double
+        ValueType secondType = this.typeOf(second);
+        if (this.typeOf(first) == ValueType.LONG && (secondType == ValueType.INT || secondType == ValueType.FLOAT))
+        {
+            return null;
+        }
+
+        DfComparisonOutcomes outcomes = DfComparisonOutcomes.of(op);
+        if (outcomes == null)
+        {
+            return null;
+        }
+
+        return this.comparison(outcomes, first, second, this.isWholeNumber(first) && this.isWholeNumber(second));
+    }
+
+    private N compileBoolean(BooleanOp op, N first, N second)
+    {
+        if (this.typeOf(first) != ValueType.BOOLEAN || this.typeOf(second) != ValueType.BOOLEAN)
+        {
+            return null;
+        }
+
+        if (op != BooleanOp.AND && op != BooleanOp.OR && op != BooleanOp.XOR)
+        {
+            return null;
+        }
+
+        return this.booleanOperation(op, first, second);
+    }
+
+    private N compileUnary(UnaryExpr unaryExpr)
+    {
+        UnaryOp op = unaryExpr.operation();
+
+        if (op == UnaryOp.IS_NULL || op == UnaryOp.IS_NOT_NULL)
+        {
+            return this.compileNullCheck(unaryExpr.operand(), op == UnaryOp.IS_NULL);
+        }
+
+        N operand = this.compileOperand(unaryExpr.operand());
+        if (operand == null)
+        {
+            return null;
+        }
+
+        if (op == UnaryOp.MINUS && this.isNumeric(operand))
+        {
+            return this.minus(operand);
+        }
+
+        if (op == UnaryOp.NOT && this.typeOf(operand) == ValueType.BOOLEAN)
+        {
+            return this.not(operand);
+        }
+
+        return null;
+    }
+
+    private N compileNullCheck(Expression operand, boolean isNull)
+    {
+        N compiledOperand = this.compile(operand);
+
+        if (compiledOperand != null)
+        {
+            return this.nullCheck(compiledOperand, isNull);
+        }
+
+        // null checks on stored columns of any type can be done without materializing the values
+        if (operand instanceof VarExpr varExpr && this.dataFrame.hasColumn(varExpr.variableName()))
+        {
+            DfColumn column = this.dataFrame.getColumnNamed(varExpr.variableName());
+            if (column.isStored())
+            {
+                return this.storedColumnNullCheck(column, isNull);
+            }
+        }
+
+        return null;
+    }
+}
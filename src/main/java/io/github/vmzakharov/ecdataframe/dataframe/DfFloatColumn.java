@@ -17,6 +17,25 @@ extends DfColumnAbstract
 
     abstract public float getFloat(int rowIndex);
 
+    float getFloatWithoutNullCheck(int rowIndex)
+    {
+        return this.getFloat(rowIndex);
+    }
+
+    DfVector fillVector(int fromRow, DfVector vector)
+    {
+        double[] target = vector.doubles();
+        boolean[] targetNulls = vector.nulls();
+        for (int i = 0; i < target.length; i++)
+        {
+            int rowIndex = fromRow + i;
+            boolean isNull = this.isNull(rowIndex);
+            target[i] = isNull ? Double.NaN : this.getFloatWithoutNullCheck(rowIndex);
+            targetNulls[i] = isNull;
+        }
+        return vector;
+    }
+
     @Override
     public String getValueAsString(int rowIndex)
     {
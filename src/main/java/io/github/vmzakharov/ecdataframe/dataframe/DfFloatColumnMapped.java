@@ -0,0 +1,80 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.value.FloatValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+
+/**
+ * A read-only float column with values read directly from a memory mapped file. The values are stored as
+ * consecutive big-endian floats, null values are represented by NaN.
+ */
+public class DfFloatColumnMapped
+extends DfFloatColumn
+implements DfColumnMapped
+{
+    private final int size;
+    private final DfMappedBuffer values;
+
+    public DfFloatColumnMapped(DataFrame newDataFrame, String newName, int newSize, DfMappedBuffer newValues)
+    {
+        super(newDataFrame, newName);
+        this.size = newSize;
+        this.values = newValues;
+    }
+
+    @Override
+    public float getFloat(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            throw new NullPointerException("Null value at " + this.getName() + "[" + rowIndex + "]");
+        }
+
+        return this.getFloatWithoutNullCheck(rowIndex);
+    }
+
+    @Override
+    float getFloatWithoutNullCheck(int rowIndex)
+    {
+        return this.values.getFloat((long) rowIndex << 2);
+    }
+
+    @Override
+    public Value getValue(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            return Value.VOID;
+        }
+
+        return new FloatValue(this.getFloatWithoutNullCheck(rowIndex));
+    }
+
+    @Override
+    public Object getObject(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            return null;
+        }
+
+        return this.getFloatWithoutNullCheck(rowIndex);
+    }
+
+    @Override
+    public boolean isNull(int rowIndex)
+    {
+        return Float.isNaN(this.getFloatWithoutNullCheck(rowIndex));
+    }
+
+    @Override
+    public int getSize()
+    {
+        return this.size;
+    }
+
+    @Override
+    protected void addAllItemsFrom(DfFloatColumn items)
+    {
+        throw this.modificationNotSupported();
+    }
+}
@@ -3,18 +3,17 @@ package io.github.vmzakharov.ecdataframe.dataframe;
 import io.github.vmzakharov.ecdataframe.dsl.value.FloatValue;
 import io.github.vmzakharov.ecdataframe.dsl.value.Value;
 import org.eclipse.collections.api.FloatIterable;
-import org.eclipse.collections.api.list.primitive.MutableFloatList;
-import org.eclipse.collections.impl.factory.primitive.FloatLists;
 
 public class DfFloatColumnStored
 extends DfFloatColumn
 implements DfColumnStored
 {
-    private MutableFloatList values = FloatLists.mutable.of();
+    private DfFloatStorage values;
 
     public DfFloatColumnStored(DataFrame owner, String newName)
     {
         super(owner, newName);
+        this.values = this.createStorage(0);
     }
 
     public DfFloatColumnStored(DataFrame owner, String newName, FloatIterable newValues)
@@ -93,11 +92,26 @@ implements DfColumnStored
         return this.getFloatWithoutNullCheck(rowIndex);
     }
 
-    private float getFloatWithoutNullCheck(int rowIndex)
+    @Override
+    float getFloatWithoutNullCheck(int rowIndex)
     {
         return this.values.get(rowIndex);
     }
 
+    @Override
+    DfVector fillVector(int fromRow, DfVector vector)
+    {
+        double[] target = vector.doubles();
+        boolean[] targetNulls = vector.nulls();
+        for (int i = 0; i < target.length; i++)
+        {
+            float value = this.values.get(fromRow + i);
+            target[i] = value;
+            targetNulls[i] = Float.isNaN(value);
+        }
+        return vector;
+    }
+
     @Override
     public int getSize()
     {
@@ -107,6 +121,8 @@ implements DfColumnStored
     @Override
     public void setObject(int rowIndex, Object anObject)
     {
+        this.markModified();
+
         if (anObject == null)
         {
             this.values.set(rowIndex, Float.NaN);
@@ -119,6 +135,7 @@ implements DfColumnStored
 
     public void setFloat(int rowIndex, float value)
     {
+        this.markModified();
         this.values.set(rowIndex, value);
     }
 
@@ -137,7 +154,20 @@ implements DfColumnStored
     @Override
     public void ensureInitialCapacity(int newCapacity)
     {
-        this.values = FloatLists.mutable.withInitialCapacity(newCapacity);
+        this.values = this.createStorage(newCapacity);
+    }
+
+    @Override
+    public void releaseStorage()
+    {
+        this.values.release();
+    }
+
+    private DfFloatStorage createStorage(int initialCapacity)
+    {
+        return this.isOffHeapStorageEnabled()
+                ? new DfFloatOffHeapStorage()
+                : new DfFloatHeapStorage(initialCapacity);
     }
 
     @Override
@@ -0,0 +1,92 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import java.util.Arrays;
+
+/**
+ * Stores float values on the heap in fixed size chunks, so that adding values to a large column never copies
+ * the values already stored, and no single huge array is allocated
+ */
+final class DfFloatHeapStorage
+implements DfFloatStorage
+{
+    // the number of values in every chunk but the first one, which grows up to this size like an array list would
+    static private final int CHUNK_SHIFT = 16;
+    static private final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    static private final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    static private final int MIN_FIRST_CHUNK_SIZE = 16;
+
+    private float[][] chunks;
+    private int capacity;
+    private int size = 0;
+
+    DfFloatHeapStorage(int initialCapacity)
+    {
+        int chunkCount = Math.max(1, (initialCapacity + CHUNK_MASK) >>> CHUNK_SHIFT);
+        this.chunks = new float[chunkCount][];
+        this.chunks[0] = new float[Math.min(initialCapacity, CHUNK_SIZE)];
+        for (int i = 1; i < chunkCount; i++)
+        {
+            this.chunks[i] = new float[CHUNK_SIZE];
+        }
+
+        this.capacity = chunkCount == 1 ? this.chunks[0].length : chunkCount << CHUNK_SHIFT;
+    }
+
+    @Override
+    public void add(float value)
+    {
+        if (this.size == this.capacity)
+        {
+            this.grow();
+        }
+
+        this.chunks[this.size >>> CHUNK_SHIFT][this.size & CHUNK_MASK] = value;
+        this.size++;
+    }
+
+    private void grow()
+    {
+        if (this.capacity < CHUNK_SIZE)
+        {
+            this.chunks[0] = Arrays.copyOf(this.chunks[0], Math.min(CHUNK_SIZE, Math.max(MIN_FIRST_CHUNK_SIZE, this.capacity * 2)));
+            this.capacity = this.chunks[0].length;
+            return;
+        }
+
+        int chunkIndex = this.capacity >>> CHUNK_SHIFT;
+        if (chunkIndex == this.chunks.length)
+        {
+            this.chunks = Arrays.copyOf(this.chunks, chunkIndex * 2);
+        }
+
+        this.chunks[chunkIndex] = new float[CHUNK_SIZE];
+        this.capacity += CHUNK_SIZE;
+    }
+
+    @Override
+    public float get(int index)
+    {
+        return this.chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    @Override
+    public void set(int index, float value)
+    {
+        this.chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK] = value;
+    }
+
+    @Override
+    public int size()
+    {
+        return this.size;
+    }
+
+    @Override
+    public void release()
+    {
+        this.chunks = new float[][] {new float[0]};
+        this.capacity = 0;
+        this.size = 0;
+    }
+}
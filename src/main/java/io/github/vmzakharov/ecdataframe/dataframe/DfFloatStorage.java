@@ -0,0 +1,27 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.FloatIterable;
+
+/**
+ * The values of a stored float column
+ */
+interface DfFloatStorage
+{
+    void add(float value);
+
+    default void addAll(FloatIterable values)
+    {
+        values.forEach(this::add);
+    }
+
+    float get(int index);
+
+    void set(int index, float value);
+
+    int size();
+
+    /**
+     * Releases the memory held by this storage, the storage is empty afterwards
+     */
+    void release();
+}
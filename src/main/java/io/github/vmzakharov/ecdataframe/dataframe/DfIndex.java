@@ -1,42 +1,302 @@
 package io.github.vmzakharov.ecdataframe.dataframe;
 
 import org.eclipse.collections.api.block.procedure.Procedure;
+import org.eclipse.collections.api.block.procedure.primitive.IntProcedure;
 import org.eclipse.collections.api.list.ListIterable;
-import org.eclipse.collections.api.list.MutableList;
 import org.eclipse.collections.api.list.primitive.IntList;
 import org.eclipse.collections.api.list.primitive.MutableIntList;
-import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.map.primitive.MutableLongIntMap;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
 import org.eclipse.collections.impl.factory.Lists;
-import org.eclipse.collections.impl.factory.Maps;
 import org.eclipse.collections.impl.factory.primitive.IntLists;
+import org.eclipse.collections.impl.factory.primitive.IntObjectMaps;
+import org.eclipse.collections.impl.factory.primitive.LongIntMaps;
+import org.eclipse.collections.impl.factory.primitive.ObjectIntMaps;
 
+import java.util.Arrays;
+
+/**
+ * An index of the rows of a data frame by the values of one or more of its columns. The key values are encoded as
+ * primitive codes by {@link DfKeyEncoder}s and each distinct key is mapped to a group id. The row indices are stored
+ * in the compressed sparse row layout: a single array of all row indices ordered by group, and an array of offsets
+ * where the rows of each group start, both built in two passes over the data frame, the first one counting the rows
+ * in each group. No objects are created per distinct key other than the hash map entries for multi-column keys.
+ * <p>
+ * The rows added to the index after it is built are kept separately per group and follow the rows of the group in the
+ * offset array. The rows appended to the data frame after the index is built are added to the index incrementally the
+ * next time it is accessed. Changes to the data frame that cannot be applied incrementally, such as dropping one of
+ * the indexed columns, put the index in the "rebuild needed" state (see {@link #markRebuildNeeded()}), in which case
+ * the index is rebuilt from scratch the next time it is accessed. So do the changes to the values of the indexed
+ * columns made in place, which are detected by the modification counts of the columns (see
+ * {@link DfColumn#getModificationCount()}).
+ */
 public class DfIndex
 {
-    static private final MutableIntList EMPTY_LIST = IntLists.mutable.empty().asUnmodifiable();
-
-    private final MutableMap<ListIterable<Object>, MutableIntList> rowIndexByKey = Maps.mutable.of();
+    static private final int NO_GROUP = -1;
 
     private DataFrame dataFrame;
+    private final ListIterable<String> indexByColumnNames;
+
+    private DfKeyEncoder[] keyEncoders;
+    private DfCompositeKey probeKey;
+
+    // the number of data frame rows reflected in the index
+    private int indexedRowCount;
+    private boolean rebuildNeeded = false;
+
+    // the modification counts of the indexed columns when the index was built, by key position
+    private long[] indexedModificationCounts;
+
+    // single column keys
+    private final MutableLongIntMap groupIdByCode = LongIntMaps.mutable.of();
+    private int nullKeyGroupId = NO_GROUP;
+
+    // multi-column keys
+    private final MutableObjectIntMap<DfCompositeKey> groupIdByCompositeKey = ObjectIntMaps.mutable.of();
+
+    private int groupCount = 0;
+
+    // the rows of group i are rowIndices[offsets[i]] to rowIndices[offsets[i + 1] - 1]
+    private int[] offsets;
+    private int[] rowIndices;
+
+    // the rows added after the index was built, by group id
+    private final MutableIntObjectMap<MutableIntList> addedRowIndicesByGroupId = IntObjectMaps.mutable.of();
 
     public DfIndex(DataFrame newIndexedDataFrame, ListIterable<String> indexByColumnNames)
     {
-        this.buildIndex(newIndexedDataFrame, indexByColumnNames);
+        this.dataFrame = newIndexedDataFrame;
+        this.indexByColumnNames = indexByColumnNames;
+
+        this.buildIndex();
     }
 
-    private void buildIndex(DataFrame newDataFrame, ListIterable<String> indexByColumnNames)
+    private void buildIndex()
     {
-        this.dataFrame = newDataFrame;
+        this.groupIdByCode.clear();
+        this.nullKeyGroupId = NO_GROUP;
+        this.groupIdByCompositeKey.clear();
+        this.groupCount = 0;
+        this.addedRowIndicesByGroupId.clear();
 
-        ListIterable<DfColumn> indexByColumns = indexByColumnNames.collect(newDataFrame::getColumnNamed);
+        this.keyEncoders = this.indexByColumnNames
+                .collect(this.dataFrame::getColumnNamed)
+                .collect(DfKeyEncoder::forColumn)
+                .toArray(new DfKeyEncoder[0]);
+        this.probeKey = new DfCompositeKey(this.keyEncoders.length);
+
+        int rowCount = this.dataFrame.rowCount();
+
+        // the first pass assigns group ids to the rows and counts the rows in each group
+        int[] groupIds = new int[rowCount];
+        int[] groupSizes = new int[16];
 
-        int rowCount = newDataFrame.rowCount();
         for (int rowIndex = 0; rowIndex < rowCount; rowIndex++)
         {
-            this.addRowIndex(
-                this.computeKeyFrom(indexByColumns, rowIndex),
-                rowIndex
-            );
+            int groupId = this.groupIdAtRowIfAbsentAdd(rowIndex);
+            if (groupId == groupSizes.length)
+            {
+                groupSizes = Arrays.copyOf(groupSizes, groupSizes.length * 2);
+            }
+
+            groupSizes[groupId]++;
+            groupIds[rowIndex] = groupId;
+        }
+
+        this.offsets = new int[this.groupCount + 1];
+        for (int groupId = 0; groupId < this.groupCount; groupId++)
+        {
+            this.offsets[groupId + 1] = this.offsets[groupId] + groupSizes[groupId];
+        }
+
+        // the second pass places the row indices, the rows of each group stay in their original order
+        int[] nextPositions = Arrays.copyOf(this.offsets, this.groupCount);
+        this.rowIndices = new int[rowCount];
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++)
+        {
+            this.rowIndices[nextPositions[groupIds[rowIndex]]++] = rowIndex;
         }
+
+        this.indexedRowCount = rowCount;
+        this.rebuildNeeded = false;
+
+        this.indexedModificationCounts = new long[this.keyEncoders.length];
+        for (int i = 0; i < this.keyEncoders.length; i++)
+        {
+            this.indexedModificationCounts[i] = this.keyEncoders[i].getColumn().getModificationCount();
+        }
+    }
+
+    /*
+     * Returns true if the values of any of the indexed columns have been changed in place since the index was built
+     */
+    private boolean indexedColumnsModified()
+    {
+        for (int i = 0; i < this.keyEncoders.length; i++)
+        {
+            if (this.keyEncoders[i].getColumn().getModificationCount() != this.indexedModificationCounts[i])
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Brings the index up to date with the data frame: rebuilds it if it is marked as needing a rebuild, if the values
+     * of the indexed columns have been changed in place, or if the data frame has fewer rows than were indexed,
+     * otherwise adds the rows appended to the data frame since they were last indexed
+     */
+    private void ensureCurrent()
+    {
+        int rowCount = this.dataFrame.rowCount();
+
+        if (this.isRebuildNeeded() || rowCount < this.indexedRowCount)
+        {
+            this.buildIndex();
+            return;
+        }
+
+        for (int rowIndex = this.indexedRowCount; rowIndex < rowCount; rowIndex++)
+        {
+            int groupId = this.groupIdAtRowIfAbsentAdd(rowIndex);
+            this.addedRowIndicesByGroupId.getIfAbsentPut(groupId, IntLists.mutable::of).add(rowIndex);
+        }
+
+        this.indexedRowCount = rowCount;
+    }
+
+    /**
+     * Marks this index as needing to be rebuilt. The index is rebuilt from the data frame the next time it is accessed.
+     * This is needed if the indexed columns have been replaced. Changing the values of the indexed columns in place
+     * and appending rows to the data frame do not require marking the index.
+     */
+    public void markRebuildNeeded()
+    {
+        this.rebuildNeeded = true;
+    }
+
+    /**
+     * @return {@code true} if this index will be rebuilt from the data frame the next time it is accessed
+     */
+    public boolean isRebuildNeeded()
+    {
+        return this.rebuildNeeded || this.indexedColumnsModified();
+    }
+
+    /**
+     * @return the names of the columns the data frame is indexed by
+     */
+    public ListIterable<String> getIndexByColumnNames()
+    {
+        return this.indexByColumnNames;
+    }
+
+    private int groupIdAtRowIfAbsentAdd(int rowIndex)
+    {
+        if (this.isSingleColumnKey())
+        {
+            DfKeyEncoder keyEncoder = this.keyEncoders[0];
+            if (keyEncoder.isNull(rowIndex))
+            {
+                if (this.nullKeyGroupId == NO_GROUP)
+                {
+                    this.nullKeyGroupId = this.groupCount++;
+                }
+                return this.nullKeyGroupId;
+            }
+
+            return this.nextGroupId(this.groupIdByCode.getIfAbsentPut(keyEncoder.encode(rowIndex), this.groupCount));
+        }
+
+        for (int i = 0; i < this.keyEncoders.length; i++)
+        {
+            DfKeyEncoder keyEncoder = this.keyEncoders[i];
+            if (keyEncoder.isNull(rowIndex))
+            {
+                this.probeKey.setNull(i);
+            }
+            else
+            {
+                this.probeKey.set(i, keyEncoder.encode(rowIndex));
+            }
+        }
+
+        int groupId = this.groupIdByCompositeKey.getIfAbsent(this.probeKey, NO_GROUP);
+        if (groupId == NO_GROUP)
+        {
+            groupId = this.groupCount++;
+            this.groupIdByCompositeKey.put(this.probeKey.copy(), groupId);
+        }
+
+        return groupId;
+    }
+
+    // keeps the group count in sync with the ids assigned by getIfAbsentPut() for single column keys
+    private int nextGroupId(int groupId)
+    {
+        if (groupId == this.groupCount)
+        {
+            this.groupCount++;
+        }
+        return groupId;
+    }
+
+    private boolean isSingleColumnKey()
+    {
+        return this.keyEncoders.length == 1;
+    }
+
+    /*
+     * Returns the group id of the key or NO_GROUP if the key is not in the index, does not assign codes to the values
+     * not seen before
+     */
+    private int groupIdOf(ListIterable<Object> key)
+    {
+        if (key.size() != this.keyEncoders.length)
+        {
+            return NO_GROUP;
+        }
+
+        for (int i = 0; i < this.keyEncoders.length; i++)
+        {
+            Object value = key.get(i);
+            if (value != null && !(this.keyEncoders[i].canEncode(value) && this.keyEncoders[i].isKnown(value)))
+            {
+                return NO_GROUP;
+            }
+        }
+
+        if (this.isSingleColumnKey())
+        {
+            Object value = key.get(0);
+            return value == null
+                    ? this.nullKeyGroupId
+                    : this.groupIdByCode.getIfAbsent(this.keyEncoders[0].encodeValue(value), NO_GROUP);
+        }
+
+        return this.groupIdByCompositeKey.getIfAbsent(this.encode(key), NO_GROUP);
+    }
+
+    private DfCompositeKey encode(ListIterable<Object> key)
+    {
+        DfCompositeKey compositeKey = new DfCompositeKey(this.keyEncoders.length);
+
+        for (int i = 0; i < this.keyEncoders.length; i++)
+        {
+            Object value = key.get(i);
+            if (value == null)
+            {
+                compositeKey.setNull(i);
+            }
+            else
+            {
+                compositeKey.set(i, this.keyEncoders[i].encodeValue(value));
+            }
+        }
+
+        return compositeKey;
     }
 
     public IntList getRowIndicesAtKey(Object... keyElements)
@@ -46,7 +306,57 @@ public class DfIndex
 
     public IntList getRowIndicesAtKey(ListIterable<Object> key)
     {
-        return this.rowIndexByKey.getIfAbsent(key, () -> EMPTY_LIST);
+        this.ensureCurrent();
+
+        int groupId = this.groupIdOf(key);
+        if (groupId == NO_GROUP)
+        {
+            return IntLists.immutable.empty();
+        }
+
+        MutableIntList found = IntLists.mutable.withInitialCapacity(this.sizeOfGroup(groupId));
+        this.forEachRowIndexInGroup(groupId, found::add);
+        return found.asUnmodifiable();
+    }
+
+    /**
+     * returns the index of the first data frame row corresponding to this index value
+     * @param key the index value to look up
+     * @return the index of the first row corresponding to this index value or -1 if there are no such rows
+     */
+    public int getFirstRowIndexAtKey(ListIterable<Object> key)
+    {
+        this.ensureCurrent();
+
+        int groupId = this.groupIdOf(key);
+        return this.firstRowIndexInGroup(groupId);
+    }
+
+    private int firstRowIndexInGroup(int groupId)
+    {
+        if (groupId == NO_GROUP)
+        {
+            return -1;
+        }
+
+        if (groupId < this.offsets.length - 1)
+        {
+            return this.rowIndices[this.offsets[groupId]];
+        }
+
+        return this.addedRowIndicesByGroupId.get(groupId).getFirst();
+    }
+
+    /**
+     * Returns a probe to look up the keys made of the values of the specified columns, usually of another data frame,
+     * in this index without creating a key object for each row. The probe reflects the state of the index at the time
+     * it is created, so it should not be used after rows are added to the indexed data frame.
+     */
+    Probe probeFor(ListIterable<DfColumn> probeColumns)
+    {
+        this.ensureCurrent();
+
+        return new Probe(probeColumns);
     }
 
     /**
@@ -66,22 +376,173 @@ public class DfIndex
      */
     public int sizeAt(ListIterable<Object> key)
     {
-        return this.rowIndexByKey.getIfAbsent(key, () -> EMPTY_LIST).size();
+        this.ensureCurrent();
+
+        int groupId = this.groupIdOf(key);
+        return groupId == NO_GROUP ? 0 : this.sizeOfGroup(groupId);
     }
 
-    private ListIterable<Object> computeKeyFrom(ListIterable<DfColumn> indexByColumns, int rowIndex)
+    private int sizeOfGroup(int groupId)
     {
-        MutableList<Object> key = Lists.fixedSize.of(new Object[indexByColumns.size()]);
+        MutableIntList added = this.addedRowIndicesByGroupId.get(groupId);
+        int addedCount = added == null ? 0 : added.size();
+
+        // the groups created after the index was built only have the added rows
+        return groupId < this.offsets.length - 1
+                ? this.offsets[groupId + 1] - this.offsets[groupId] + addedCount
+                : addedCount;
+    }
 
-        indexByColumns.forEachWithIndex((col, index) -> key.set(index, col.getObject(rowIndex)));
+    private void forEachRowIndexInGroup(int groupId, IntProcedure procedure)
+    {
+        if (groupId < this.offsets.length - 1)
+        {
+            for (int position = this.offsets[groupId]; position < this.offsets[groupId + 1]; position++)
+            {
+                procedure.value(this.rowIndices[position]);
+            }
+        }
 
-        return key;
+        MutableIntList added = this.addedRowIndicesByGroupId.get(groupId);
+        if (added != null)
+        {
+            added.forEach(procedure);
+        }
     }
 
+    /**
+     * adds a row index to the index at the specified key. The rows appended to the indexed data frame are added to the
+     * index automatically, so this method should only be used for the rows that are not part of the data frame
+     * @param key the index value to add the row at
+     * @param rowIndex the row index to add
+     */
     public void addRowIndex(ListIterable<Object> key, int rowIndex)
     {
-        MutableIntList rowIndicesAtKey = this.rowIndexByKey.getIfAbsentPut(key, IntLists.mutable::of);
-        rowIndicesAtKey.add(rowIndex);
+        this.ensureCurrent();
+
+        int groupId = this.groupIdOf(key);
+        if (groupId == NO_GROUP)
+        {
+            groupId = this.addGroup(key);
+        }
+
+        this.addedRowIndicesByGroupId.getIfAbsentPut(groupId, IntLists.mutable::of).add(rowIndex);
+    }
+
+    private int addGroup(ListIterable<Object> key)
+    {
+        int groupId = this.groupCount++;
+
+        if (this.isSingleColumnKey())
+        {
+            Object value = key.get(0);
+            if (value == null)
+            {
+                this.nullKeyGroupId = groupId;
+            }
+            else
+            {
+                this.groupIdByCode.put(this.keyEncoders[0].encodeValue(value), groupId);
+            }
+        }
+        else
+        {
+            this.groupIdByCompositeKey.put(this.encode(key), groupId);
+        }
+
+        return groupId;
+    }
+
+    /*
+     * Looks up the values of the probe columns at a row in the index. The values of a probe column of the same type as
+     * the corresponding index column that is encoded in place are encoded directly, the values of other columns are
+     * encoded by the index encoder if they are known to it.
+     */
+    final class Probe
+    {
+        private final DfColumn[] columns;
+        private final DfKeyEncoder[] inPlaceEncoders;
+        private final DfCompositeKey probeKey;
+
+        private long code;
+
+        private Probe(ListIterable<DfColumn> probeColumns)
+        {
+            this.columns = probeColumns.toArray(new DfColumn[0]);
+            this.inPlaceEncoders = new DfKeyEncoder[this.columns.length];
+            this.probeKey = new DfCompositeKey(this.columns.length);
+
+            for (int i = 0; i < this.columns.length; i++)
+            {
+                DfKeyEncoder indexEncoder = DfIndex.this.keyEncoders[i];
+                if (indexEncoder.encodesInPlace() && indexEncoder.getColumn().getType() == this.columns[i].getType())
+                {
+                    this.inPlaceEncoders[i] = DfKeyEncoder.forColumn(this.columns[i]);
+                }
+            }
+        }
+
+        /**
+         * @return the index of the first indexed row with the same key as the probe columns at the specified row, or -1
+         * if there is no such row
+         */
+        int firstRowIndexAt(int probeRowIndex)
+        {
+            if (this.columns.length != DfIndex.this.keyEncoders.length)
+            {
+                return -1;
+            }
+
+            if (DfIndex.this.isSingleColumnKey())
+            {
+                if (this.columns[0].isNull(probeRowIndex))
+                {
+                    return DfIndex.this.firstRowIndexInGroup(DfIndex.this.nullKeyGroupId);
+                }
+
+                return this.encode(0, probeRowIndex)
+                        ? DfIndex.this.firstRowIndexInGroup(DfIndex.this.groupIdByCode.getIfAbsent(this.code, NO_GROUP))
+                        : -1;
+            }
+
+            for (int i = 0; i < this.columns.length; i++)
+            {
+                if (this.columns[i].isNull(probeRowIndex))
+                {
+                    this.probeKey.setNull(i);
+                }
+                else if (this.encode(i, probeRowIndex))
+                {
+                    this.probeKey.set(i, this.code);
+                }
+                else
+                {
+                    return -1;
+                }
+            }
+
+            return DfIndex.this.firstRowIndexInGroup(DfIndex.this.groupIdByCompositeKey.getIfAbsent(this.probeKey, NO_GROUP));
+        }
+
+        // sets the code of the non-null value of the column at the row, returns false if the value is not in the index
+        private boolean encode(int columnIndex, int probeRowIndex)
+        {
+            if (this.inPlaceEncoders[columnIndex] != null)
+            {
+                this.code = this.inPlaceEncoders[columnIndex].encode(probeRowIndex);
+                return true;
+            }
+
+            DfKeyEncoder indexEncoder = DfIndex.this.keyEncoders[columnIndex];
+            Object value = this.columns[columnIndex].getObject(probeRowIndex);
+            if (!indexEncoder.canEncode(value) || !indexEncoder.isKnown(value))
+            {
+                return false;
+            }
+
+            this.code = indexEncoder.encodeValue(value);
+            return true;
+        }
     }
 
     public DfIndexIterator iterateAt(Object... keyElements)
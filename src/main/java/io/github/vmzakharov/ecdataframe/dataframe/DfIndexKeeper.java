@@ -3,8 +3,10 @@ package io.github.vmzakharov.ecdataframe.dataframe;
 import org.eclipse.collections.api.block.procedure.primitive.IntProcedure;
 import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.primitive.MutableLongIntMap;
 import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
 import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.primitive.LongIntMaps;
 import org.eclipse.collections.impl.factory.primitive.ObjectIntMaps;
 
 /**
@@ -16,11 +18,21 @@ import org.eclipse.collections.impl.factory.primitive.ObjectIntMaps;
  */
 public class DfIndexKeeper
 {
-    private final MutableObjectIntMap<ListIterable<Object>> rowIndexByKey = ObjectIntMaps.mutable.of();
     private final ListIterable<DfColumn> columnsToIndexBy;
     private final DataFrame indexedDataFrame;
     private final ListIterable<DfColumn> sourceColumns;
 
+    // the values of the key columns are encoded as primitive codes, so looking up an existing key does not allocate
+    private final DfKeyEncoder[] keyEncoders;
+
+    // single column keys
+    private final MutableLongIntMap rowIndexByCode = LongIntMaps.mutable.of();
+    private int nullKeyRowIndex = -1;
+
+    // multi-column keys
+    private final MutableObjectIntMap<DfCompositeKey> rowIndexByCompositeKey = ObjectIntMaps.mutable.of();
+    private final DfCompositeKey probeKey;
+
     public DfIndexKeeper(
             DataFrame newIndexedDataFrame,
             ListIterable<String> indexByColumnNames,
@@ -29,11 +41,37 @@ public class DfIndexKeeper
         this.indexedDataFrame = newIndexedDataFrame;
         this.columnsToIndexBy = indexByColumnNames.collect(this.indexedDataFrame::getColumnNamed);
         this.sourceColumns = indexByColumnNames.collect(newSourceDataFrame::getColumnNamed);
+
+        this.keyEncoders = this.sourceColumns.collect(DfKeyEncoder::forColumn).toArray(new DfKeyEncoder[0]);
+        this.probeKey = new DfCompositeKey(this.keyEncoders.length);
+    }
+
+    private boolean isSingleColumnKey()
+    {
+        return this.keyEncoders.length == 1;
     }
 
     private int getRowIndexAtKey(ListIterable<Object> key)
     {
-        return this.rowIndexByKey.getIfAbsent(key, -1);
+        for (int i = 0; i < this.keyEncoders.length; i++)
+        {
+            Object value = key.get(i);
+            if (value != null && !(this.keyEncoders[i].canEncode(value) && this.keyEncoders[i].isKnown(value)))
+            {
+                // a value of a different type or never seen before, cannot be a part of an existing key
+                return -1;
+            }
+        }
+
+        if (this.isSingleColumnKey())
+        {
+            Object value = key.get(0);
+            return value == null
+                    ? this.nullKeyRowIndex
+                    : this.rowIndexByCode.getIfAbsent(this.keyEncoders[0].encodeValue(value), -1);
+        }
+
+        return this.rowIndexByCompositeKey.getIfAbsent(this.encodeIntoProbeKey(key), -1);
     }
 
     /**
@@ -79,6 +117,120 @@ public class DfIndexKeeper
         return rowIndex;
     }
 
+    /**
+     * Returns the row index in the indexed data frame that matches the key formed by the values at the specified row
+     * of the source data frame. If no matching key exists in the index, a new entry for this key is added to the
+     * indexed data frame and its index is returned. Unlike {@link #getRowIndexAtKeyIfAbsentAdd(ListIterable)} this
+     * method does not allocate a key object for the keys that already exist in the index.
+     * @param sourceRowIndex the index of the row in the source data frame to compute the key from
+     * @return row id in the <b>the indexed data frame</b> corresponding to the key
+     */
+    public int getRowIndexAtSourceRowIfAbsentAdd(int sourceRowIndex)
+    {
+        return this.getRowIndexAtSourceRowIfAbsentAddAndEvaluate(sourceRowIndex, i -> { });
+    }
+
+    /**
+     * Returns the row index in the indexed data frame that matches the key formed by the values at the specified row
+     * of the source data frame. If no matching key exists in the index, a new entry for this key is added to the
+     * indexed data frame and the procedure passed into this method is evaluated with the newly added row index as its
+     * parameter.
+     * @param sourceRowIndex the index of the row in the source data frame to compute the key from
+     * @param evaluateIfAbsent the procedure that will be executed if the new entry needs to be created. This can be
+     *                         used to initialize the just added row in the indexed data frame.
+     * @return row id in the <b>the indexed data frame</b> corresponding to the key
+     */
+    public int getRowIndexAtSourceRowIfAbsentAddAndEvaluate(int sourceRowIndex, IntProcedure evaluateIfAbsent)
+    {
+        int rowIndex;
+
+        if (this.isSingleColumnKey())
+        {
+            DfKeyEncoder keyEncoder = this.keyEncoders[0];
+
+            if (keyEncoder.isNull(sourceRowIndex))
+            {
+                rowIndex = this.nullKeyRowIndex;
+                if (rowIndex == -1)
+                {
+                    rowIndex = this.addRowFromSource(sourceRowIndex);
+                    this.nullKeyRowIndex = rowIndex;
+                    evaluateIfAbsent.value(rowIndex);
+                }
+            }
+            else
+            {
+                long code = keyEncoder.encode(sourceRowIndex);
+                rowIndex = this.rowIndexByCode.getIfAbsent(code, -1);
+                if (rowIndex == -1)
+                {
+                    rowIndex = this.addRowFromSource(sourceRowIndex);
+                    this.rowIndexByCode.put(code, rowIndex);
+                    evaluateIfAbsent.value(rowIndex);
+                }
+            }
+        }
+        else
+        {
+            this.encodeIntoProbeKey(sourceRowIndex);
+            rowIndex = this.rowIndexByCompositeKey.getIfAbsent(this.probeKey, -1);
+            if (rowIndex == -1)
+            {
+                rowIndex = this.addRowFromSource(sourceRowIndex);
+                this.rowIndexByCompositeKey.put(this.probeKey.copy(), rowIndex);
+                evaluateIfAbsent.value(rowIndex);
+            }
+        }
+
+        return rowIndex;
+    }
+
+    private int addRowFromSource(int sourceRowIndex)
+    {
+        this.indexedDataFrame.addRow();
+
+        int lastRowIndex = this.indexedDataFrame.rowCount() - 1;
+
+        this.columnsToIndexBy.forEachInBoth(this.sourceColumns,
+                (col, sourceCol) -> col.setObject(lastRowIndex, sourceCol.getObject(sourceRowIndex)));
+
+        return lastRowIndex;
+    }
+
+    private DfCompositeKey encodeIntoProbeKey(ListIterable<Object> key)
+    {
+        for (int i = 0; i < this.keyEncoders.length; i++)
+        {
+            Object value = key.get(i);
+            if (value == null)
+            {
+                this.probeKey.setNull(i);
+            }
+            else
+            {
+                this.probeKey.set(i, this.keyEncoders[i].encodeValue(value));
+            }
+        }
+
+        return this.probeKey;
+    }
+
+    private void encodeIntoProbeKey(int sourceRowIndex)
+    {
+        for (int i = 0; i < this.keyEncoders.length; i++)
+        {
+            DfKeyEncoder keyEncoder = this.keyEncoders[i];
+            if (keyEncoder.isNull(sourceRowIndex))
+            {
+                this.probeKey.setNull(i);
+            }
+            else
+            {
+                this.probeKey.set(i, keyEncoder.encode(sourceRowIndex));
+            }
+        }
+    }
+
     /**
      * Checks if the given key exists in this index
      * @param key the key to look up in the index
@@ -101,8 +253,6 @@ public class DfIndexKeeper
 
     public ListIterable<Object> computeKeyFrom(int rowIndex)
     {
-        // TODO: 2024-10-10 avoid recreating the list - perhaps have a separate lookup key (reusable) vs stored key
-        //       requires more testing at scale to confirm benefits
         MutableList<Object> key = this.createKeyHolder();
 
         this.sourceColumns.forEachWithIndex(
@@ -119,6 +269,21 @@ public class DfIndexKeeper
 
     public void addIndex(ListIterable<Object> key, int rowIndex)
     {
-        this.rowIndexByKey.put(key, rowIndex);
+        if (this.isSingleColumnKey())
+        {
+            Object value = key.get(0);
+            if (value == null)
+            {
+                this.nullKeyRowIndex = rowIndex;
+            }
+            else
+            {
+                this.rowIndexByCode.put(this.keyEncoders[0].encodeValue(value), rowIndex);
+            }
+        }
+        else
+        {
+            this.rowIndexByCompositeKey.put(this.encodeIntoProbeKey(key).copy(), rowIndex);
+        }
     }
 }
@@ -0,0 +1,266 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.BinaryExpr;
+import io.github.vmzakharov.ecdataframe.dsl.BooleanOp;
+import io.github.vmzakharov.ecdataframe.dsl.ComparisonOp;
+import io.github.vmzakharov.ecdataframe.dsl.ContainsOp;
+import io.github.vmzakharov.ecdataframe.dsl.Expression;
+import io.github.vmzakharov.ecdataframe.dsl.VarExpr;
+import io.github.vmzakharov.ecdataframe.dsl.VectorExpr;
+import io.github.vmzakharov.ecdataframe.dsl.value.StringValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+import io.github.vmzakharov.ecdataframe.dsl.value.WholeNumberValue;
+import org.eclipse.collections.api.RichIterable;
+import org.eclipse.collections.api.block.procedure.Procedure;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.Maps;
+import org.eclipse.collections.impl.factory.Sets;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
+
+/**
+ * Answers a filter expression from one of the named indexes of a data frame, when possible. The expression is broken
+ * down into its top level conjuncts ({@code and} operands), the conjuncts comparing a stored column to a constant with
+ * {@code ==} or testing it with {@code in} against a vector of constants are candidates for index lookups. If all the
+ * columns of an index are constrained this way, the rows matching the constraints are looked up in the index and the
+ * remaining conjuncts (the residual predicate) are evaluated only for these rows.
+ * <p>
+ * Only string, long, and int columns are considered, the constants being compared to them must be of the matching
+ * type, so that the equality used by the index is the same as the equality used by the expression evaluator. An index
+ * whose columns have been changed in place since it was built is rebuilt when it is used for the lookup.
+ */
+final class DfIndexPlanner
+{
+    // the maximum number of keys to look up in a multi-column index, which is the product of the number of values
+    // allowed for each of the index columns
+    static private final int MAX_KEY_COMBINATIONS = 1024;
+
+    private final DataFrame dataFrame;
+
+    DfIndexPlanner(DataFrame newDataFrame)
+    {
+        this.dataFrame = newDataFrame;
+    }
+
+    /**
+     * Plans the evaluation of the filter expression using the specified indexes
+     * @return the plan, or {@code null} if none of the indexes can be used for the expression
+     */
+    Plan planFor(Expression filterExpression, RichIterable<DfIndex> indexes)
+    {
+        if (indexes.isEmpty())
+        {
+            return null;
+        }
+
+        MutableList<Expression> conjuncts = Lists.mutable.of();
+        this.collectConjuncts(filterExpression, conjuncts);
+
+        // the values allowed for each column by the equality conjuncts, along with the conjuncts themselves
+        MutableMap<String, MutableSet<Object>> allowedValuesByColumn = Maps.mutable.of();
+        MutableMap<String, MutableList<Expression>> conjunctsByColumn = Maps.mutable.of();
+
+        for (Expression conjunct : conjuncts)
+        {
+            ColumnValues columnValues = this.equalityConstraintOf(conjunct);
+            if (columnValues != null)
+            {
+                MutableSet<Object> allowed = allowedValuesByColumn.get(columnValues.columnName());
+                if (allowed == null)
+                {
+                    allowedValuesByColumn.put(columnValues.columnName(), columnValues.values());
+                }
+                else
+                {
+                    allowed.retainAll(columnValues.values());
+                }
+
+                conjunctsByColumn.getIfAbsentPut(columnValues.columnName(), Lists.mutable::of).add(conjunct);
+            }
+        }
+
+        // the index constraining the most columns is expected to be the most selective one
+        DfIndex index = indexes
+                .select(each -> each.getIndexByColumnNames().allSatisfy(allowedValuesByColumn::containsKey))
+                .select(each -> this.keyCombinationCount(each, allowedValuesByColumn) <= MAX_KEY_COMBINATIONS)
+                .maxByOptional(each -> each.getIndexByColumnNames().size())
+                .orElse(null);
+
+        if (index == null)
+        {
+            return null;
+        }
+
+        MutableList<Expression> answeredByIndex = index.getIndexByColumnNames().flatCollect(conjunctsByColumn::get).toList();
+        MutableList<Expression> residualConjuncts = conjuncts.reject(
+                conjunct -> answeredByIndex.anySatisfy(answered -> answered == conjunct));
+
+        Expression residual = residualConjuncts.isEmpty()
+                ? null
+                : residualConjuncts.injectInto(
+                        (Expression) null,
+                        (combined, conjunct) -> combined == null ? conjunct : new BinaryExpr(combined, conjunct, BooleanOp.AND));
+
+        return new Plan(index, index.getIndexByColumnNames().collect(allowedValuesByColumn::get), residual);
+    }
+
+    private long keyCombinationCount(DfIndex index, MutableMap<String, MutableSet<Object>> allowedValuesByColumn)
+    {
+        long count = 1;
+        for (String columnName : index.getIndexByColumnNames())
+        {
+            count = Math.min(count * allowedValuesByColumn.get(columnName).size(), Integer.MAX_VALUE);
+        }
+
+        return count;
+    }
+
+    private void collectConjuncts(Expression expression, MutableList<Expression> conjuncts)
+    {
+        if (expression instanceof BinaryExpr binaryExpr && binaryExpr.operation() == BooleanOp.AND)
+        {
+            this.collectConjuncts(binaryExpr.operand1(), conjuncts);
+            this.collectConjuncts(binaryExpr.operand2(), conjuncts);
+        }
+        else
+        {
+            conjuncts.add(expression);
+        }
+    }
+
+    /*
+     * Recognizes "column == constant", "constant == column", and "column in (constant, ...)", returns the column name
+     * and the allowed values converted to the type of the column values, or null if the conjunct is not one of these
+     */
+    private ColumnValues equalityConstraintOf(Expression conjunct)
+    {
+        if (!(conjunct instanceof BinaryExpr binaryExpr))
+        {
+            return null;
+        }
+
+        Expression columnOperand = binaryExpr.operand1();
+        Expression constantOperand = binaryExpr.operand2();
+
+        ListIterable<Expression> constants;
+        if (binaryExpr.operation() == ComparisonOp.EQ)
+        {
+            if (constantOperand instanceof VarExpr)
+            {
+                columnOperand = binaryExpr.operand2();
+                constantOperand = binaryExpr.operand1();
+            }
+            constants = Lists.immutable.of(constantOperand);
+        }
+        else if (binaryExpr.operation() == ContainsOp.IN && constantOperand instanceof VectorExpr vectorExpr)
+        {
+            constants = vectorExpr.elements();
+        }
+        else
+        {
+            return null;
+        }
+
+        if (!(columnOperand instanceof VarExpr varExpr) || !this.dataFrame.hasColumn(varExpr.variableName()))
+        {
+            return null;
+        }
+
+        DfColumn column = this.dataFrame.getColumnNamed(varExpr.variableName());
+        if (!column.isStored())
+        {
+            return null;
+        }
+
+        MutableSet<Object> values = Sets.mutable.of();
+        for (Expression constant : constants)
+        {
+            if (!(constant instanceof Value value))
+            {
+                return null;
+            }
+
+            switch (column.getType())
+            {
+                case STRING:
+                    if (!(value instanceof StringValue stringValue))
+                    {
+                        return null;
+                    }
+                    values.add(stringValue.stringValue());
+                    break;
+                case LONG:
+                    if (!(value instanceof WholeNumberValue wholeNumber))
+                    {
+                        return null;
+                    }
+                    values.add(wholeNumber.longValue());
+                    break;
+                case INT:
+                    if (!(value instanceof WholeNumberValue wholeNumber))
+                    {
+                        return null;
+                    }
+                    // a value outside of the int range does not match any row
+                    long longValue = wholeNumber.longValue();
+                    if (longValue == (int) longValue)
+                    {
+                        values.add((int) longValue);
+                    }
+                    break;
+                default:
+                    return null;
+            }
+        }
+
+        return new ColumnValues(varExpr.variableName(), values);
+    }
+
+    private record ColumnValues(String columnName, MutableSet<Object> values)
+    {
+    }
+
+    /**
+     * The index to look up the rows in, the values allowed for each of the index columns, and the residual predicate to
+     * evaluate for the rows found in the index ({@code null} if there is none)
+     */
+    record Plan(DfIndex index, ListIterable<MutableSet<Object>> allowedValues, Expression residual)
+    {
+        /**
+         * @return the indices of the rows matching the index constraints, in ascending order
+         */
+        MutableIntList candidateRowIndices()
+        {
+            MutableIntList candidates = IntLists.mutable.empty();
+            this.forEachKey(Lists.mutable.of(), key -> candidates.addAll(this.index.getRowIndicesAtKey(key)));
+
+            // the rows for each key are in ascending order, the rows for different keys are disjoint
+            if (this.allowedValues.anySatisfy(values -> values.size() > 1))
+            {
+                candidates.sortThis();
+            }
+
+            return candidates;
+        }
+
+        private void forEachKey(MutableList<Object> keyPrefix, Procedure<ListIterable<Object>> procedure)
+        {
+            if (keyPrefix.size() == this.allowedValues.size())
+            {
+                procedure.value(keyPrefix);
+                return;
+            }
+
+            for (Object value : this.allowedValues.get(keyPrefix.size()))
+            {
+                keyPrefix.add(value);
+                this.forEachKey(keyPrefix, procedure);
+                keyPrefix.remove(keyPrefix.size() - 1);
+            }
+        }
+    }
+}
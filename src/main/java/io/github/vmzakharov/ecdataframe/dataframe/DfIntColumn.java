@@ -17,6 +17,25 @@ extends DfColumnAbstract
 
     abstract public int getInt(int rowIndex);
 
+    int getIntWithoutNullCheck(int rowIndex)
+    {
+        return this.getInt(rowIndex);
+    }
+
+    DfVector fillVector(int fromRow, DfVector vector)
+    {
+        long[] target = vector.longs();
+        boolean[] targetNulls = vector.nulls();
+        for (int i = 0; i < target.length; i++)
+        {
+            int rowIndex = fromRow + i;
+            boolean isNull = this.isNull(rowIndex);
+            target[i] = isNull ? 0 : this.getIntWithoutNullCheck(rowIndex);
+            targetNulls[i] = isNull;
+        }
+        return vector;
+    }
+
     @Override
     public String getValueAsString(int rowIndex)
     {
@@ -39,7 +58,7 @@ extends DfColumnAbstract
         return IntInterval
                 .zeroTo(rowCount - 1)
                 .asLazy()
-                .collectInt(this::getInt);
+                .collectInt(this.mayContainNulls() ? this::getInt : this::getIntWithoutNullCheck);
     }
 
     @Override
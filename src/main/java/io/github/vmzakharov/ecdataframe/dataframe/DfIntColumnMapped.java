@@ -0,0 +1,82 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.value.IntValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+
+/**
+ * A read-only int column with values read directly from a memory mapped file. The values are stored as
+ * consecutive big-endian ints, null values are marked in a separate mapped bitmap.
+ */
+public class DfIntColumnMapped
+extends DfIntColumn
+implements DfColumnMapped
+{
+    private final int size;
+    private final DfMappedBuffer nullMap;
+    private final DfMappedBuffer values;
+
+    public DfIntColumnMapped(DataFrame newDataFrame, String newName, int newSize, DfMappedBuffer newNullMap, DfMappedBuffer newValues)
+    {
+        super(newDataFrame, newName);
+        this.size = newSize;
+        this.nullMap = newNullMap;
+        this.values = newValues;
+    }
+
+    @Override
+    public int getInt(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            throw new NullPointerException("Null value at " + this.getName() + "[" + rowIndex + "]");
+        }
+
+        return this.getIntWithoutNullCheck(rowIndex);
+    }
+
+    @Override
+    int getIntWithoutNullCheck(int rowIndex)
+    {
+        return this.values.getInt((long) rowIndex << 2);
+    }
+
+    @Override
+    public Value getValue(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            return Value.VOID;
+        }
+
+        return new IntValue(this.getIntWithoutNullCheck(rowIndex));
+    }
+
+    @Override
+    public Object getObject(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            return null;
+        }
+
+        return this.getIntWithoutNullCheck(rowIndex);
+    }
+
+    @Override
+    public boolean isNull(int rowIndex)
+    {
+        return this.nullMap.isBitSet(rowIndex);
+    }
+
+    @Override
+    public int getSize()
+    {
+        return this.size;
+    }
+
+    @Override
+    protected void addAllItemsFrom(DfIntColumn items)
+    {
+        throw this.modificationNotSupported();
+    }
+}
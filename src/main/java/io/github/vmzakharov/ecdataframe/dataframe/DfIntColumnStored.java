@@ -3,10 +3,6 @@ package io.github.vmzakharov.ecdataframe.dataframe;
 import io.github.vmzakharov.ecdataframe.dsl.value.IntValue;
 import io.github.vmzakharov.ecdataframe.dsl.value.Value;
 import org.eclipse.collections.api.IntIterable;
-import org.eclipse.collections.api.list.primitive.MutableBooleanList;
-import org.eclipse.collections.api.list.primitive.MutableIntList;
-import org.eclipse.collections.impl.factory.primitive.BooleanLists;
-import org.eclipse.collections.impl.factory.primitive.IntLists;
 
 public class DfIntColumnStored
 extends DfIntColumn
@@ -14,12 +10,13 @@ implements DfColumnStored
 {
     static private final int NULL_FILLER = Integer.MIN_VALUE; // not the actual null marker, but makes debugging easier
 
-    private MutableBooleanList nullMap = BooleanLists.mutable.empty();
-    private MutableIntList values = IntLists.mutable.empty();
+    private DfNullMap nullMap = new DfNullMap();
+    private DfIntStorage values;
 
     public DfIntColumnStored(DataFrame newDataFrame, String newName)
     {
         super(newDataFrame, newName);
+        this.values = this.createStorage(0);
     }
 
     public DfIntColumnStored(DataFrame newDataFrame, String newName, IntIterable newValues)
@@ -28,11 +25,8 @@ implements DfColumnStored
 
         this.values.addAll(newValues);
 
-        this.nullMap = BooleanLists.mutable.withInitialCapacity(this.values.size());
-        for (int i = 0; i < this.values.size(); i++)
-        {
-            this.nullMap.add(false);
-        }
+        this.nullMap = new DfNullMap(this.values.size());
+        this.nullMap.addNonNulls(this.values.size());
     }
 
     @Override
@@ -104,6 +98,8 @@ implements DfColumnStored
     @Override
     public void setObject(int rowIndex, Object anObject)
     {
+        this.markModified();
+
         if (anObject == null)
         {
             this.values.set(rowIndex, NULL_FILLER);
@@ -118,6 +114,7 @@ implements DfColumnStored
 
     public void setInt(int rowIndex, int value)
     {
+        this.markModified();
         this.values.set(rowIndex, value);
         this.clearNull(rowIndex);
     }
@@ -149,11 +146,51 @@ implements DfColumnStored
         return this.getIntWithoutNullCheck(rowIndex);
     }
 
-    private int getIntWithoutNullCheck(int rowIndex)
+    @Override
+    int getIntWithoutNullCheck(int rowIndex)
     {
         return this.values.get(rowIndex);
     }
 
+    @Override
+    DfVector fillVector(int fromRow, DfVector vector)
+    {
+        long[] target = vector.longs();
+
+        if (!this.nullMap.hasNulls())
+        {
+            // the null flags of a new vector are all false
+            for (int i = 0; i < target.length; i++)
+            {
+                target[i] = this.values.get(fromRow + i);
+            }
+            return vector;
+        }
+
+        boolean[] targetNulls = vector.nulls();
+        for (int i = 0; i < target.length; i++)
+        {
+            int rowIndex = fromRow + i;
+            target[i] = this.values.get(rowIndex);
+            targetNulls[i] = this.nullMap.get(rowIndex);
+        }
+        return vector;
+    }
+
+    @Override
+    public boolean mayContainNulls()
+    {
+        return this.nullMap.hasNulls();
+    }
+
+    /**
+     * @return the number of null values in this column
+     */
+    public int getNullCount()
+    {
+        return this.nullMap.getNullCount();
+    }
+
     @Override
     public boolean isNull(int rowIndex)
     {
@@ -170,8 +207,22 @@ implements DfColumnStored
     @Override
     public void ensureInitialCapacity(int newCapacity)
     {
-        this.values = IntLists.mutable.withInitialCapacity(newCapacity);
-        this.nullMap = BooleanLists.mutable.withInitialCapacity(newCapacity);
+        this.values = this.createStorage(newCapacity);
+        this.nullMap = new DfNullMap(newCapacity);
+    }
+
+    @Override
+    public void releaseStorage()
+    {
+        this.values.release();
+        this.nullMap = new DfNullMap();
+    }
+
+    private DfIntStorage createStorage(int initialCapacity)
+    {
+        return this.isOffHeapStorageEnabled()
+                ? new DfIntOffHeapStorage()
+                : new DfIntHeapStorage(initialCapacity);
     }
 
     @Override
@@ -0,0 +1,27 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.IntIterable;
+
+/**
+ * The values of a stored int column
+ */
+interface DfIntStorage
+{
+    void add(int value);
+
+    default void addAll(IntIterable values)
+    {
+        values.forEach(this::add);
+    }
+
+    int get(int index);
+
+    void set(int index, int value);
+
+    int size();
+
+    /**
+     * Releases the memory held by this storage, the storage is empty afterwards
+     */
+    void release();
+}
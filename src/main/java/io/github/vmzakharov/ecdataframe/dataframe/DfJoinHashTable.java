@@ -0,0 +1,169 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.map.primitive.MutableLongIntMap;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.impl.factory.primitive.LongIntMaps;
+import org.eclipse.collections.impl.factory.primitive.ObjectIntMaps;
+
+/**
+ * The hash table used by the hash join. It is built on the rows of one (the smaller) data frame sorted by the join
+ * keys, every distinct key is assigned a group number in the key sort order. The rows of the other data frame are then
+ * looked up by their key values to find the group of build side rows with the same key, if any.
+ * The key values are encoded as primitive codes using {@link DfKeyEncoder}s shared between the build and the probe
+ * side columns, so looking up a probe side row does not allocate.
+ */
+final class DfJoinHashTable
+{
+    private final DfKeyEncoder[] buildKeyEncoders;
+    private final DfKeyEncoder[] probeKeyEncoders;
+
+    // single column keys
+    private final MutableLongIntMap groupByCode = LongIntMaps.mutable.of();
+    private int nullKeyGroup = -1;
+
+    // multi-column keys
+    private final MutableObjectIntMap<DfCompositeKey> groupByCompositeKey = ObjectIntMaps.mutable.of();
+    private final DfCompositeKey probeKey;
+
+    private final int[] sortedBuildRows;
+    private final int[] groupStarts;
+    private int groupCount = 0;
+
+    /**
+     * @param buildKeyColumns the key columns of the build side data frame
+     * @param newSortedBuildRows the indices of the build side rows sorted by the values of the key columns
+     * @param probeKeyColumns the key columns of the probe side data frame, must be of the same types as the respective
+     *                        build side key columns
+     */
+    DfJoinHashTable(ListIterable<DfColumn> buildKeyColumns, int[] newSortedBuildRows, ListIterable<DfColumn> probeKeyColumns)
+    {
+        this.buildKeyEncoders = buildKeyColumns.collect(DfKeyEncoder::forColumn).toArray(new DfKeyEncoder[0]);
+        this.probeKeyEncoders = new DfKeyEncoder[this.buildKeyEncoders.length];
+        for (int i = 0; i < this.buildKeyEncoders.length; i++)
+        {
+            this.probeKeyEncoders[i] = this.buildKeyEncoders[i].sharingCodesWith(probeKeyColumns.get(i));
+        }
+
+        this.probeKey = new DfCompositeKey(this.buildKeyEncoders.length);
+
+        this.sortedBuildRows = newSortedBuildRows;
+        this.groupStarts = new int[this.sortedBuildRows.length + 1];
+
+        // the rows with the same key are adjacent in the sort order, so a new key starts a new group
+        for (int i = 0; i < this.sortedBuildRows.length; i++)
+        {
+            if (this.addGroupIfAbsent(this.sortedBuildRows[i], this.groupCount))
+            {
+                this.groupStarts[this.groupCount] = i;
+                this.groupCount++;
+            }
+        }
+
+        this.groupStarts[this.groupCount] = this.sortedBuildRows.length;
+    }
+
+    private boolean isSingleColumnKey()
+    {
+        return this.buildKeyEncoders.length == 1;
+    }
+
+    private boolean addGroupIfAbsent(int buildRowIndex, int newGroup)
+    {
+        if (this.isSingleColumnKey())
+        {
+            DfKeyEncoder keyEncoder = this.buildKeyEncoders[0];
+            if (keyEncoder.isNull(buildRowIndex))
+            {
+                if (this.nullKeyGroup == -1)
+                {
+                    this.nullKeyGroup = newGroup;
+                    return true;
+                }
+
+                return false;
+            }
+
+            long code = keyEncoder.encode(buildRowIndex);
+            if (this.groupByCode.containsKey(code))
+            {
+                return false;
+            }
+
+            this.groupByCode.put(code, newGroup);
+            return true;
+        }
+
+        this.encodeIntoProbeKey(this.buildKeyEncoders, buildRowIndex);
+        if (this.groupByCompositeKey.containsKey(this.probeKey))
+        {
+            return false;
+        }
+
+        this.groupByCompositeKey.put(this.probeKey.copy(), newGroup);
+        return true;
+    }
+
+    private void encodeIntoProbeKey(DfKeyEncoder[] keyEncoders, int rowIndex)
+    {
+        for (int i = 0; i < keyEncoders.length; i++)
+        {
+            if (keyEncoders[i].isNull(rowIndex))
+            {
+                this.probeKey.setNull(i);
+            }
+            else
+            {
+                this.probeKey.set(i, keyEncoders[i].encode(rowIndex));
+            }
+        }
+    }
+
+    /**
+     * Finds the group of the build side rows with the same key as the specified probe side row
+     * @param probeRowIndex the index of the row in the probe side data frame
+     * @return the group number or -1 if there are no build side rows with this key
+     */
+    int groupOf(int probeRowIndex)
+    {
+        if (this.isSingleColumnKey())
+        {
+            DfKeyEncoder keyEncoder = this.probeKeyEncoders[0];
+            return keyEncoder.isNull(probeRowIndex)
+                    ? this.nullKeyGroup
+                    : this.groupByCode.getIfAbsent(keyEncoder.encode(probeRowIndex), -1);
+        }
+
+        this.encodeIntoProbeKey(this.probeKeyEncoders, probeRowIndex);
+        return this.groupByCompositeKey.getIfAbsent(this.probeKey, -1);
+    }
+
+    /**
+     * @return the number of distinct keys on the build side, the groups are numbered in the key sort order
+     */
+    int groupCount()
+    {
+        return this.groupCount;
+    }
+
+    int[] sortedBuildRows()
+    {
+        return this.sortedBuildRows;
+    }
+
+    /**
+     * @return the position in the sorted build rows array of the first row in the group
+     */
+    int groupStart(int group)
+    {
+        return this.groupStarts[group];
+    }
+
+    /**
+     * @return the position in the sorted build rows array following the last row in the group
+     */
+    int groupEnd(int group)
+    {
+        return this.groupStarts[group + 1];
+    }
+}
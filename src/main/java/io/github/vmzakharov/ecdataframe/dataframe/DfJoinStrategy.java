@@ -0,0 +1,26 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+/**
+ * The algorithm used to match the rows of two data frames in a join. Both algorithms produce the same result, the
+ * choice only affects performance.
+ */
+public enum DfJoinStrategy
+{
+    /**
+     * The hash join is used if one of the data frames is significantly smaller than the other one, the sort-merge join
+     * is used otherwise
+     */
+    AUTO,
+
+    /**
+     * Both data frames are sorted by the join keys and the sorted rows are merged
+     */
+    SORT_MERGE,
+
+    /**
+     * A hash table is built on the keys of the smaller data frame and the rows of the larger data frame are looked up
+     * in it, so only the smaller data frame is sorted. The sort-merge join is used instead if the join keys cannot be
+     * hashed consistently with their sort order (e.g., decimal keys or keys of different types)
+     */
+    HASH
+}
@@ -0,0 +1,379 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.map.primitive.MutableObjectLongMap;
+import org.eclipse.collections.impl.factory.primitive.ObjectLongMaps;
+
+import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
+
+import java.time.LocalDate;
+
+/**
+ * Encodes the values of a column used as (a part of) an index key as {@code long} codes, so that the keys can be looked
+ * up without boxing the column values. The values of numeric, boolean, and date columns are encoded in place, the
+ * values of other types are dictionary encoded: each distinct value is assigned a sequential code the first time it is
+ * encountered. The values of dictionary encoded string columns use the codes already assigned by the column, the values
+ * of UTF-8 string columns are looked up by their bytes. Two values have the same code if and only if they are equal.
+ * Null values do not have codes and need to be checked for separately.
+ */
+abstract class DfKeyEncoder
+{
+    private final DfColumn column;
+
+    protected DfKeyEncoder(DfColumn newColumn)
+    {
+        this.column = newColumn;
+    }
+
+    static DfKeyEncoder forColumn(DfColumn column)
+    {
+        return switch (column.getType())
+        {
+            case LONG -> new DfKeyEncoder(column)
+            {
+                @Override
+                long encode(int rowIndex)
+                {
+                    return ((DfLongColumn) this.getColumn()).getLong(rowIndex);
+                }
+
+                @Override
+                long encodeValue(Object value)
+                {
+                    return (Long) value;
+                }
+            };
+            case INT -> new DfKeyEncoder(column)
+            {
+                @Override
+                long encode(int rowIndex)
+                {
+                    return ((DfIntColumn) this.getColumn()).getInt(rowIndex);
+                }
+
+                @Override
+                long encodeValue(Object value)
+                {
+                    return (Integer) value;
+                }
+            };
+            // the codes for floating point values follow the semantics of Double.equals() and Float.equals()
+            case DOUBLE -> new DfKeyEncoder(column)
+            {
+                @Override
+                long encode(int rowIndex)
+                {
+                    return Double.doubleToLongBits(((DfDoubleColumn) this.getColumn()).getDouble(rowIndex));
+                }
+
+                @Override
+                long encodeValue(Object value)
+                {
+                    return Double.doubleToLongBits((Double) value);
+                }
+            };
+            case FLOAT -> new DfKeyEncoder(column)
+            {
+                @Override
+                long encode(int rowIndex)
+                {
+                    return Float.floatToIntBits(((DfFloatColumn) this.getColumn()).getFloat(rowIndex));
+                }
+
+                @Override
+                long encodeValue(Object value)
+                {
+                    return Float.floatToIntBits((Float) value);
+                }
+            };
+            case BOOLEAN -> new DfKeyEncoder(column)
+            {
+                @Override
+                long encode(int rowIndex)
+                {
+                    return ((DfBooleanColumn) this.getColumn()).getBoolean(rowIndex) ? 1 : 0;
+                }
+
+                @Override
+                long encodeValue(Object value)
+                {
+                    return (Boolean) value ? 1 : 0;
+                }
+            };
+            case DATE -> new DfKeyEncoder(column)
+            {
+                @Override
+                long encode(int rowIndex)
+                {
+                    return ((DfDateColumn) this.getColumn()).getEpochDay(rowIndex);
+                }
+
+                @Override
+                long encodeValue(Object value)
+                {
+                    return ((LocalDate) value).toEpochDay();
+                }
+            };
+            case STRING -> forStringColumn(column);
+            default -> new DictionaryEncoder(column);
+        };
+    }
+
+    /**
+     * Checks if the codes assigned to the values of the specified type are equal if and only if the values are equal
+     * when compared as {@link Comparable}s. This is not the case for decimal values, where for example 1.0 and 1.00 are
+     * not equal but compare as equal.
+     */
+    static boolean isConsistentWithComparison(ValueType type)
+    {
+        return type != ValueType.DECIMAL;
+    }
+
+    protected DfColumn getColumn()
+    {
+        return this.column;
+    }
+
+    boolean isNull(int rowIndex)
+    {
+        return this.column.isNull(rowIndex);
+    }
+
+    /**
+     * Returns the code for the non-null value at the specified row of the column
+     */
+    abstract long encode(int rowIndex);
+
+    /**
+     * Returns the code for the specified non-null value, the value must be of the type matching the type of the column
+     */
+    abstract long encodeValue(Object value);
+
+    /**
+     * Checks if the value is of the type matching the type of the column, so it can be passed to
+     * {@link #encodeValue(Object)}. A value of any other type is not equal to any of the column values.
+     */
+    boolean canEncode(Object value)
+    {
+        return switch (this.column.getType())
+        {
+            case LONG -> value instanceof Long;
+            case INT -> value instanceof Integer;
+            case DOUBLE -> value instanceof Double;
+            case FLOAT -> value instanceof Float;
+            case BOOLEAN -> value instanceof Boolean;
+            case DATE -> value instanceof LocalDate;
+            case STRING -> value instanceof String;
+            default -> true;
+        };
+    }
+
+    /**
+     * Checks if the codes are computed from the values themselves rather than assigned from a dictionary. Such codes
+     * are the same for the same values in any column of the same type, regardless of the encoder.
+     */
+    boolean encodesInPlace()
+    {
+        return switch (this.column.getType())
+        {
+            case LONG, INT, DOUBLE, FLOAT, BOOLEAN, DATE -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Checks if the value has been assigned a code. Always {@code true} for the values encoded in place.
+     */
+    boolean isKnown(Object value)
+    {
+        return true;
+    }
+
+    /**
+     * Returns an encoder for another column of the same type, which assigns the same codes to the same values as this
+     * encoder. This allows the keys from the columns of two different data frames to be compared by their codes.
+     */
+    DfKeyEncoder sharingCodesWith(DfColumn otherColumn)
+    {
+        return DfKeyEncoder.forColumn(otherColumn);
+    }
+
+    private static DfKeyEncoder forStringColumn(DfColumn column)
+    {
+        if (column instanceof DfStringColumnEncoded encodedColumn)
+        {
+            return new ColumnDictionaryEncoder(encodedColumn);
+        }
+
+        if (column instanceof DfStringColumnUtf8)
+        {
+            return new Utf8DictionaryEncoder(column, ObjectLongMaps.mutable.of());
+        }
+
+        return new DictionaryEncoder(column);
+    }
+
+    /*
+     * Uses the codes of a dictionary encoded string column, the values not in the column dictionary (which can only be
+     * encoded by value) are assigned codes outside of the int range, so they cannot clash with the column codes
+     */
+    private static class ColumnDictionaryEncoder
+    extends DfKeyEncoder
+    {
+        private static final long FIRST_EXTRA_CODE = 1L << 32;
+
+        private final DfStringColumnEncoded encodedColumn;
+        private final MutableObjectLongMap<Object> extraCodes = ObjectLongMaps.mutable.of();
+
+        ColumnDictionaryEncoder(DfStringColumnEncoded newColumn)
+        {
+            super(newColumn);
+            this.encodedColumn = newColumn;
+        }
+
+        @Override
+        DfKeyEncoder sharingCodesWith(DfColumn otherColumn)
+        {
+            // the codes assigned by the returned encoder to new values start after the last column code
+            MutableObjectLongMap<Object> dictionary = ObjectLongMaps.mutable.withInitialCapacity(
+                    this.encodedColumn.getDictionarySize() + this.extraCodes.size());
+            for (int code = 0; code < this.encodedColumn.getDictionarySize(); code++)
+            {
+                dictionary.put(this.encodedColumn.getDictionaryValue(code), code);
+            }
+
+            this.extraCodes.forEachKeyValue(dictionary::put);
+
+            return new DictionaryEncoder(otherColumn, dictionary);
+        }
+
+        @Override
+        boolean isNull(int rowIndex)
+        {
+            return this.encodedColumn.getCode(rowIndex) == DfStringColumnEncoded.NULL_CODE;
+        }
+
+        @Override
+        long encode(int rowIndex)
+        {
+            return this.encodedColumn.getCode(rowIndex);
+        }
+
+        @Override
+        long encodeValue(Object value)
+        {
+            int code = this.encodedColumn.getCodeOf((String) value);
+            if (code != DfStringColumnEncoded.NULL_CODE)
+            {
+                return code;
+            }
+
+            return this.extraCodes.getIfAbsentPut(value, FIRST_EXTRA_CODE + this.extraCodes.size());
+        }
+
+        @Override
+        boolean isKnown(Object value)
+        {
+            return this.encodedColumn.getCodeOf((String) value) != DfStringColumnEncoded.NULL_CODE
+                    || this.extraCodes.containsKey(value);
+        }
+    }
+
+    /*
+     * Dictionary encodes the values of a UTF-8 string column by their bytes, a reusable probe slice is pointed at the
+     * bytes of each value in the column arena, so no strings are created. The values of other string columns sharing
+     * the codes are converted to bytes to be looked up.
+     */
+    private static class Utf8DictionaryEncoder
+    extends DfKeyEncoder
+    {
+        private final MutableObjectLongMap<DfUtf8Slice> dictionary;
+        private final DfUtf8Slice probe = new DfUtf8Slice();
+
+        Utf8DictionaryEncoder(DfColumn newColumn, MutableObjectLongMap<DfUtf8Slice> newDictionary)
+        {
+            super(newColumn);
+            this.dictionary = newDictionary;
+        }
+
+        @Override
+        DfKeyEncoder sharingCodesWith(DfColumn otherColumn)
+        {
+            return new Utf8DictionaryEncoder(otherColumn, this.dictionary);
+        }
+
+        @Override
+        long encode(int rowIndex)
+        {
+            if (this.getColumn() instanceof DfStringColumnUtf8 utf8Column)
+            {
+                return this.encodeProbe(utf8Column.sliceAt(rowIndex, this.probe));
+            }
+
+            return this.encodeValue(this.getColumn().getObject(rowIndex));
+        }
+
+        @Override
+        long encodeValue(Object value)
+        {
+            return this.encodeProbe(this.probe.set((String) value));
+        }
+
+        @Override
+        boolean isKnown(Object value)
+        {
+            return this.dictionary.containsKey(this.probe.set((String) value));
+        }
+
+        private long encodeProbe(DfUtf8Slice slice)
+        {
+            long code = this.dictionary.getIfAbsent(slice, -1L);
+            if (code == -1L)
+            {
+                code = this.dictionary.size();
+                this.dictionary.put(slice.copy(), code);
+            }
+            return code;
+        }
+    }
+
+    private static class DictionaryEncoder
+    extends DfKeyEncoder
+    {
+        private final MutableObjectLongMap<Object> dictionary;
+
+        DictionaryEncoder(DfColumn newColumn)
+        {
+            this(newColumn, ObjectLongMaps.mutable.of());
+        }
+
+        private DictionaryEncoder(DfColumn newColumn, MutableObjectLongMap<Object> newDictionary)
+        {
+            super(newColumn);
+            this.dictionary = newDictionary;
+        }
+
+        @Override
+        DfKeyEncoder sharingCodesWith(DfColumn otherColumn)
+        {
+            return new DictionaryEncoder(otherColumn, this.dictionary);
+        }
+
+        @Override
+        long encode(int rowIndex)
+        {
+            return this.encodeValue(this.getColumn().getObject(rowIndex));
+        }
+
+        @Override
+        long encodeValue(Object value)
+        {
+            return this.dictionary.getIfAbsentPut(value, this.dictionary.size());
+        }
+
+        @Override
+        boolean isKnown(Object value)
+        {
+            return this.dictionary.containsKey(value);
+        }
+    }
+}
@@ -17,6 +17,25 @@ extends DfColumnAbstract
 
     abstract public long getLong(int rowIndex);
 
+    long getLongWithoutNullCheck(int rowIndex)
+    {
+        return this.getLong(rowIndex);
+    }
+
+    DfVector fillVector(int fromRow, DfVector vector)
+    {
+        long[] target = vector.longs();
+        boolean[] targetNulls = vector.nulls();
+        for (int i = 0; i < target.length; i++)
+        {
+            int rowIndex = fromRow + i;
+            boolean isNull = this.isNull(rowIndex);
+            target[i] = isNull ? 0 : this.getLongWithoutNullCheck(rowIndex);
+            targetNulls[i] = isNull;
+        }
+        return vector;
+    }
+
     @Override
     public String getValueAsString(int rowIndex)
     {
@@ -38,7 +57,7 @@ extends DfColumnAbstract
 
         return IntInterval.zeroTo(rowCount - 1)
                 .asLazy()
-                .collectLong(this::getLong);
+                .collectLong(this.mayContainNulls() ? this::getLong : this::getLongWithoutNullCheck);
     }
 
     @Override
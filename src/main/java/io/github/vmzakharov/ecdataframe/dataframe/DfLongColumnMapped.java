@@ -0,0 +1,82 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.value.LongValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+
+/**
+ * A read-only long column with values read directly from a memory mapped file. The values are stored as
+ * consecutive big-endian longs, null values are marked in a separate mapped bitmap.
+ */
+public class DfLongColumnMapped
+extends DfLongColumn
+implements DfColumnMapped
+{
+    private final int size;
+    private final DfMappedBuffer nullMap;
+    private final DfMappedBuffer values;
+
+    public DfLongColumnMapped(DataFrame newDataFrame, String newName, int newSize, DfMappedBuffer newNullMap, DfMappedBuffer newValues)
+    {
+        super(newDataFrame, newName);
+        this.size = newSize;
+        this.nullMap = newNullMap;
+        this.values = newValues;
+    }
+
+    @Override
+    public long getLong(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            throw new NullPointerException("Null value at " + this.getName() + "[" + rowIndex + "]");
+        }
+
+        return this.getLongWithoutNullCheck(rowIndex);
+    }
+
+    @Override
+    long getLongWithoutNullCheck(int rowIndex)
+    {
+        return this.values.getLong((long) rowIndex << 3);
+    }
+
+    @Override
+    public Value getValue(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            return Value.VOID;
+        }
+
+        return new LongValue(this.getLongWithoutNullCheck(rowIndex));
+    }
+
+    @Override
+    public Object getObject(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            return null;
+        }
+
+        return this.getLongWithoutNullCheck(rowIndex);
+    }
+
+    @Override
+    public boolean isNull(int rowIndex)
+    {
+        return this.nullMap.isBitSet(rowIndex);
+    }
+
+    @Override
+    public int getSize()
+    {
+        return this.size;
+    }
+
+    @Override
+    protected void addAllItemsFrom(DfLongColumn items)
+    {
+        throw this.modificationNotSupported();
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * Stores long values outside of the Java heap in direct buffers, which are allocated in fixed size chunks as the
+ * storage grows, so adding values never copies the values already stored. The memory of the buffers is returned once
+ * the storage is released and the garbage collector clears the (small) buffer objects.
+ */
+final class DfLongOffHeapStorage
+implements DfLongStorage
+{
+    static private final int CHUNK_SHIFT = 14;
+    static private final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    static private final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private LongBuffer[] chunks = new LongBuffer[0];
+    private int size = 0;
+
+    @Override
+    public void add(long value)
+    {
+        int chunkIndex = this.size >>> CHUNK_SHIFT;
+        if ((this.size & CHUNK_MASK) == 0)
+        {
+            this.addChunk(chunkIndex);
+        }
+
+        this.chunks[chunkIndex].put(this.size & CHUNK_MASK, value);
+        this.size++;
+    }
+
+    private void addChunk(int chunkIndex)
+    {
+        if (chunkIndex == this.chunks.length)
+        {
+            this.chunks = Arrays.copyOf(this.chunks, Math.max(4, this.chunks.length * 2));
+        }
+
+        this.chunks[chunkIndex] = ByteBuffer.allocateDirect(CHUNK_SIZE * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+
+    @Override
+    public long get(int index)
+    {
+        return this.chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+    }
+
+    @Override
+    public void set(int index, long value)
+    {
+        this.chunks[index >>> CHUNK_SHIFT].put(index & CHUNK_MASK, value);
+    }
+
+    @Override
+    public int size()
+    {
+        return this.size;
+    }
+
+    @Override
+    public void release()
+    {
+        this.chunks = new LongBuffer[0];
+        this.size = 0;
+    }
+}
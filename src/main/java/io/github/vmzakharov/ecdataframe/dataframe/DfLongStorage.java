@@ -0,0 +1,27 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.LongIterable;
+
+/**
+ * The values of a stored long column
+ */
+interface DfLongStorage
+{
+    void add(long value);
+
+    default void addAll(LongIterable values)
+    {
+        values.forEach(this::add);
+    }
+
+    long get(int index);
+
+    void set(int index, long value);
+
+    int size();
+
+    /**
+     * Releases the memory held by this storage, the storage is empty afterwards
+     */
+    void release();
+}
@@ -0,0 +1,94 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A read-only region of a file mapped into memory. Regions larger than a single mapping allows are mapped as several
+ * consecutive segments. Values are read at byte offsets relative to the start of the region, the offsets must be
+ * aligned to the size of the value being read so that no value straddles a segment boundary.
+ */
+public final class DfMappedBuffer
+{
+    static private final int SEGMENT_SHIFT = 30;
+    static private final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+    static private final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final ByteBuffer[] segments;
+    private final long size;
+
+    private DfMappedBuffer(ByteBuffer[] newSegments, long newSize)
+    {
+        this.segments = newSegments;
+        this.size = newSize;
+    }
+
+    /**
+     * Maps a region of the file open in the channel into memory. The mapping remains valid after the channel is closed.
+     *
+     * @param channel the channel of the file to map
+     * @param position the position in the file at which the region starts
+     * @param regionSize the size of the region in bytes
+     * @return the mapped region
+     * @throws IOException if the region cannot be mapped
+     */
+    public static DfMappedBuffer map(FileChannel channel, long position, long regionSize)
+    throws IOException
+    {
+        int segmentCount = (int) ((regionSize + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        ByteBuffer[] segments = new ByteBuffer[segmentCount];
+
+        for (int i = 0; i < segmentCount; i++)
+        {
+            long segmentStart = (long) i << SEGMENT_SHIFT;
+            segments[i] = channel.map(
+                    FileChannel.MapMode.READ_ONLY, position + segmentStart, Math.min(SEGMENT_SIZE, regionSize - segmentStart));
+        }
+
+        return new DfMappedBuffer(segments, regionSize);
+    }
+
+    public long size()
+    {
+        return this.size;
+    }
+
+    public long getLong(long offset)
+    {
+        return this.segments[(int) (offset >>> SEGMENT_SHIFT)].getLong((int) (offset & SEGMENT_MASK));
+    }
+
+    public int getInt(long offset)
+    {
+        return this.segments[(int) (offset >>> SEGMENT_SHIFT)].getInt((int) (offset & SEGMENT_MASK));
+    }
+
+    public double getDouble(long offset)
+    {
+        return this.segments[(int) (offset >>> SEGMENT_SHIFT)].getDouble((int) (offset & SEGMENT_MASK));
+    }
+
+    public float getFloat(long offset)
+    {
+        return this.segments[(int) (offset >>> SEGMENT_SHIFT)].getFloat((int) (offset & SEGMENT_MASK));
+    }
+
+    /**
+     * Treats the region as a bitmap stored as a sequence of longs, in the same layout as produced by
+     * {@code BitSet.toLongArray()}. Bits beyond the end of the region are considered to be clear.
+     *
+     * @param bitIndex the index of the bit to test
+     * @return true if the bit is set, false otherwise
+     */
+    public boolean isBitSet(long bitIndex)
+    {
+        long wordOffset = (bitIndex >>> 6) << 3;
+        if (wordOffset >= this.size)
+        {
+            return false;
+        }
+
+        return (this.getLong(wordOffset) & (1L << bitIndex)) != 0;
+    }
+}
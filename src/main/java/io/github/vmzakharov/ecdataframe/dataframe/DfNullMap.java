@@ -0,0 +1,105 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import java.util.Arrays;
+
+/*
+ * Tracks which values of a column of primitives are null. The bitmap is only allocated when the first null value is
+ * added, so a column without nulls pays neither for storing the bitmap nor for checking it. The number of nulls is
+ * maintained as well, which lets bulk operations skip the null checks altogether when there are no nulls.
+ */
+final class DfNullMap
+{
+    private final int initialCapacity;
+
+    private long[] bits = null;
+    private int size = 0;
+    private int nullCount = 0;
+
+    DfNullMap()
+    {
+        this(0);
+    }
+
+    DfNullMap(int newInitialCapacity)
+    {
+        this.initialCapacity = newInitialCapacity;
+    }
+
+    void add(boolean isNull)
+    {
+        if (isNull)
+        {
+            this.setBit(this.size);
+            this.nullCount++;
+        }
+
+        this.size++;
+    }
+
+    void addNonNulls(int count)
+    {
+        this.size += count;
+    }
+
+    boolean get(int rowIndex)
+    {
+        long[] words = this.bits;
+        if (words == null)
+        {
+            return false;
+        }
+
+        int wordIndex = rowIndex >>> 6;
+        return wordIndex < words.length && (words[wordIndex] & (1L << rowIndex)) != 0;
+    }
+
+    void set(int rowIndex, boolean isNull)
+    {
+        if (this.get(rowIndex) == isNull)
+        {
+            return;
+        }
+
+        if (isNull)
+        {
+            this.setBit(rowIndex);
+            this.nullCount++;
+        }
+        else
+        {
+            this.bits[rowIndex >>> 6] &= ~(1L << rowIndex);
+            this.nullCount--;
+        }
+    }
+
+    int size()
+    {
+        return this.size;
+    }
+
+    int getNullCount()
+    {
+        return this.nullCount;
+    }
+
+    boolean hasNulls()
+    {
+        return this.nullCount > 0;
+    }
+
+    private void setBit(int rowIndex)
+    {
+        int wordIndex = rowIndex >>> 6;
+
+        if (this.bits == null)
+        {
+            this.bits = new long[Math.max(wordIndex + 1, (this.initialCapacity + 63) >>> 6)];
+        }
+        else if (wordIndex >= this.bits.length)
+        {
+            this.bits = Arrays.copyOf(this.bits, Math.max(wordIndex + 1, this.bits.length * 2));
+        }
+
+        this.bits[wordIndex] |= 1L << rowIndex;
+    }
+}
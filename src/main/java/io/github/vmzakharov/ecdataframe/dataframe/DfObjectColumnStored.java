@@ -12,7 +12,7 @@ abstract public class DfObjectColumnStored<T>
 extends DfObjectColumnAbstract<T>
 implements DfColumnStored
 {
-    private MutableList<T> values = Lists.mutable.of();
+    private DfObjectStorage<T> values = new DfObjectStorage<>(0);
 
     private Pool<T> pool = null;
 
@@ -24,7 +24,8 @@ implements DfColumnStored
     public DfObjectColumnStored(DataFrame owner, String newName, ListIterable<T> newValues)
     {
         super(owner, newName);
-        this.values.addAllIterable(newValues);
+        this.values = new DfObjectStorage<>(newValues.size());
+        newValues.forEach(this.values::add);
     }
 
     @Override
@@ -79,6 +80,7 @@ implements DfColumnStored
     @Override
     public void setObject(int rowIndex, Object anObject)
     {
+        this.markModified();
         this.values.set(rowIndex, (T) anObject);
     }
 
@@ -109,12 +111,19 @@ implements DfColumnStored
     @Override
     public ImmutableList<T> toList()
     {
-        return this.values.toImmutable();
+        MutableList<T> list = Lists.mutable.withInitialCapacity(this.values.size());
+        for (int i = 0; i < this.values.size(); i++)
+        {
+            list.add(this.values.get(i));
+        }
+        return list.toImmutable();
     }
 
     @Override
     public void aggregateValueInto(int rowIndex, DfColumn sourceColumn, int sourceRowIndex, AggregateFunction aggregator)
     {
+        this.markModified();
+
         T currentAggregatedValue = this.values.get(rowIndex);
         this.values.set(rowIndex,
                 (T) aggregator.objectAccumulator(
@@ -124,7 +133,7 @@ implements DfColumnStored
     @Override
     public void ensureInitialCapacity(int newCapacity)
     {
-        this.values = Lists.mutable.withInitialCapacity(newCapacity);
+        this.values = new DfObjectStorage<>(newCapacity);
     }
 
     @Override
@@ -132,7 +141,7 @@ implements DfColumnStored
     {
         if (this.pool == null)
         {
-            this.values.addAllIterable(items);
+            items.forEach(this.values::add);
         }
         else
         {
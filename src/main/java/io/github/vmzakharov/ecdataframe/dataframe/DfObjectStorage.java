@@ -0,0 +1,87 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import java.util.Arrays;
+
+/**
+ * Stores the values of an object column in fixed size chunks, so that adding values to a large column never
+ * copies the references already stored, and no single huge array is allocated
+ */
+final class DfObjectStorage<T>
+{
+    // the number of values in every chunk but the first one, which grows up to this size like an array list would
+    static private final int CHUNK_SHIFT = 16;
+    static private final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    static private final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    static private final int MIN_FIRST_CHUNK_SIZE = 16;
+
+    private Object[][] chunks;
+    private int capacity;
+    private int size = 0;
+
+    DfObjectStorage(int initialCapacity)
+    {
+        int chunkCount = Math.max(1, (initialCapacity + CHUNK_MASK) >>> CHUNK_SHIFT);
+        this.chunks = new Object[chunkCount][];
+        this.chunks[0] = new Object[Math.min(initialCapacity, CHUNK_SIZE)];
+        for (int i = 1; i < chunkCount; i++)
+        {
+            this.chunks[i] = new Object[CHUNK_SIZE];
+        }
+
+        this.capacity = chunkCount == 1 ? this.chunks[0].length : chunkCount << CHUNK_SHIFT;
+    }
+
+    public void add(T value)
+    {
+        if (this.size == this.capacity)
+        {
+            this.grow();
+        }
+
+        this.chunks[this.size >>> CHUNK_SHIFT][this.size & CHUNK_MASK] = value;
+        this.size++;
+    }
+
+    private void grow()
+    {
+        if (this.capacity < CHUNK_SIZE)
+        {
+            this.chunks[0] = Arrays.copyOf(this.chunks[0], Math.min(CHUNK_SIZE, Math.max(MIN_FIRST_CHUNK_SIZE, this.capacity * 2)));
+            this.capacity = this.chunks[0].length;
+            return;
+        }
+
+        int chunkIndex = this.capacity >>> CHUNK_SHIFT;
+        if (chunkIndex == this.chunks.length)
+        {
+            this.chunks = Arrays.copyOf(this.chunks, chunkIndex * 2);
+        }
+
+        this.chunks[chunkIndex] = new Object[CHUNK_SIZE];
+        this.capacity += CHUNK_SIZE;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int index)
+    {
+        return (T) this.chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    public void set(int index, T value)
+    {
+        this.chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK] = value;
+    }
+
+    public int size()
+    {
+        return this.size;
+    }
+
+    public void release()
+    {
+        this.chunks = new Object[][] {new Object[0]};
+        this.capacity = 0;
+        this.size = 0;
+    }
+}
@@ -0,0 +1,673 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
+import org.eclipse.collections.api.block.comparator.primitive.IntComparator;
+import org.eclipse.collections.api.block.function.primitive.IntToObjectFunction;
+import org.eclipse.collections.api.block.procedure.Procedure;
+import org.eclipse.collections.api.block.procedure.primitive.IntIntProcedure;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.impl.factory.Lists;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sorts the indices of data frame rows by the values of one or more columns. The values are extracted into primitive
+ * arrays (or object arrays for the types without a primitive representation), so no per row key objects are created
+ * while sorting. The values of UTF-8 string columns are not extracted, they are compared in place. A single whole
+ * number, date, or boolean column is sorted with a radix sort, other sorts use a merge sort of the row indices
+ * comparing the extracted values directly. A parallel sorter extracts the values and merge sorts the row indices
+ * using the tasks running in a fork join pool.
+ * The sort is stable and follows the semantics of {@link DfTuple#compareTo(DfTuple, ListIterable)}: nulls come before
+ * any other value, and the sort order of each column is applied to the result of comparing the values in that column.
+ */
+final class DfRowIndexSorter
+{
+    static final DfRowIndexSorter SEQUENTIAL = new DfRowIndexSorter(null, null);
+
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX_MASK = (1 << RADIX_BITS) - 1;
+
+    // the smallest number of rows for which the values are extracted or the indices are sorted by a single task
+    private static final int PARALLEL_MIN_RANGE_SIZE = 8_192;
+
+    private final ForkJoinPool pool;
+    private final Procedure<ListIterable<Runnable>> taskRunner;
+
+    private DfRowIndexSorter(ForkJoinPool newPool, Procedure<ListIterable<Runnable>> newTaskRunner)
+    {
+        this.pool = newPool;
+        this.taskRunner = newTaskRunner;
+    }
+
+    /**
+     * Creates a sorter that runs in parallel
+     *
+     * @param newPool the pool to run the merge sort tasks in
+     * @param newTaskRunner runs the value extraction tasks and waits for them to complete, the values may be extracted
+     *                      from computed columns, so the runner needs to set up the evaluation context for each task
+     * @return the parallel sorter
+     */
+    static DfRowIndexSorter parallel(ForkJoinPool newPool, Procedure<ListIterable<Runnable>> newTaskRunner)
+    {
+        return new DfRowIndexSorter(newPool, newTaskRunner);
+    }
+
+    private boolean isParallel()
+    {
+        return this.pool != null;
+    }
+
+    /**
+     * Sorts the specified rows by the values in the columns
+     *
+     * @param columns the columns to sort by
+     * @param sortOrders the sort order for each column, if {@code null} all the columns are sorted in ascending order
+     * @param rowIndices the indices of the rows to sort, not modified by this method
+     * @return the row indices in the sort order
+     */
+    int[] sortedRowIndices(ListIterable<DfColumn> columns, ListIterable<DfColumnSortOrder> sortOrders, int[] rowIndices)
+    {
+        SortKey[] sortKeys = new SortKey[columns.size()];
+        for (int i = 0; i < sortKeys.length; i++)
+        {
+            sortKeys[i] = this.extractSortKey(
+                    columns.get(i),
+                    sortOrders == null ? DfColumnSortOrder.ASC : sortOrders.get(i),
+                    rowIndices);
+        }
+
+        int[] positions = this.sortedPositions(sortKeys, rowIndices.length);
+
+        int[] sorted = new int[positions.length];
+        for (int i = 0; i < positions.length; i++)
+        {
+            sorted[i] = rowIndices[positions[i]];
+        }
+
+        return sorted;
+    }
+
+    /**
+     * Sorts the rows of a data frame by the values of a numeric compiled expression
+     *
+     * @param compiled the expression to sort by, must be of a numeric type
+     * @param sortOrder the sort order
+     * @param rowCount the number of rows in the data frame
+     * @return the row indices in the sort order
+     */
+    int[] sortedRowIndices(DfCompiledExpression compiled, DfColumnSortOrder sortOrder, int rowCount)
+    {
+        boolean[] nulls = new boolean[rowCount];
+        SortKey sortKey;
+
+        if (compiled.getType() == ValueType.LONG || compiled.getType() == ValueType.INT)
+        {
+            long[] values = new long[rowCount];
+            this.forEachRange(rowCount, (from, to) -> {
+                for (int i = from; i < to; i++)
+                {
+                    nulls[i] = compiled.isNull(i);
+                    values[i] = nulls[i] ? 0 : compiled.getLong(i);
+                }
+            });
+
+            sortKey = new LongSortKey(values, nulls, sortOrder);
+        }
+        else
+        {
+            double[] values = new double[rowCount];
+            this.forEachRange(rowCount, (from, to) -> {
+                for (int i = from; i < to; i++)
+                {
+                    nulls[i] = compiled.isNull(i);
+                    values[i] = nulls[i] ? 0.0 : compiled.getDouble(i);
+                }
+            });
+
+            sortKey = new DoubleSortKey(values, nulls, sortOrder);
+        }
+
+        // positions are the same as row indices when sorting all the rows
+        return this.sortedPositions(new SortKey[]{sortKey}, rowCount);
+    }
+
+    /**
+     * Sorts the rows of a data frame by the values computed for each row, the values are compared as
+     * {@link Comparable}s and cannot be null
+     *
+     * @param valueAtRow the function computing the value to sort by for a row, it may be called concurrently
+     * @param sortOrder the sort order
+     * @param rowCount the number of rows in the data frame
+     * @return the row indices in the sort order
+     */
+    int[] sortedRowIndices(IntToObjectFunction<Object> valueAtRow, DfColumnSortOrder sortOrder, int rowCount)
+    {
+        Object[] values = new Object[rowCount];
+        this.forEachRange(rowCount, (from, to) -> {
+            for (int i = from; i < to; i++)
+            {
+                values[i] = valueAtRow.valueOf(i);
+            }
+        });
+
+        return this.sortedPositions(new SortKey[]{new ObjectSortKey(values, new boolean[rowCount], sortOrder)}, rowCount);
+    }
+
+    /*
+     * Calls the procedure for consecutive ranges of positions covering [0, size), in parallel if this sorter is parallel
+     */
+    private void forEachRange(int size, IntIntProcedure rangeProcedure)
+    {
+        if (!this.isParallel() || size < 2 * PARALLEL_MIN_RANGE_SIZE)
+        {
+            rangeProcedure.value(0, size);
+            return;
+        }
+
+        int rangeSize = Math.max(PARALLEL_MIN_RANGE_SIZE, size / (4 * this.pool.getParallelism()) + 1);
+
+        MutableList<Runnable> tasks = Lists.mutable.of();
+        for (int from = 0; from < size; from += rangeSize)
+        {
+            int rangeFrom = from;
+            int rangeTo = Math.min(from + rangeSize, size);
+            tasks.add(() -> rangeProcedure.value(rangeFrom, rangeTo));
+        }
+
+        this.taskRunner.value(tasks);
+    }
+
+    private SortKey extractSortKey(DfColumn column, DfColumnSortOrder sortOrder, int[] rowIndices)
+    {
+        return switch (column.getType())
+        {
+            case LONG, INT, DATE, BOOLEAN -> this.extractLongs(column, sortOrder, rowIndices);
+            case DOUBLE, FLOAT -> this.extractDoubles(column, sortOrder, rowIndices);
+            case DECIMAL -> column instanceof DfDecimalColumnStored decimalColumn && decimalColumn.storesUnscaledValues()
+                    ? this.extractLongs(column, sortOrder, rowIndices)
+                    : this.extractObjects(column, sortOrder, rowIndices);
+            case DATE_TIME -> ((DfDateTimeColumn) column).storesEpochMicros()
+                    ? this.extractLongs(column, sortOrder, rowIndices)
+                    : this.extractObjects(column, sortOrder, rowIndices);
+            case STRING -> this.extractStrings(column, sortOrder, rowIndices);
+            default -> this.extractObjects(column, sortOrder, rowIndices);
+        };
+    }
+
+    private SortKey extractStrings(DfColumn column, DfColumnSortOrder sortOrder, int[] rowIndices)
+    {
+        if (column instanceof DfStringColumnEncoded encodedColumn)
+        {
+            return this.extractCodeRanks(encodedColumn, sortOrder, rowIndices);
+        }
+
+        if (column instanceof DfStringColumnUtf8 utf8Column)
+        {
+            // the values are compared in place in the arena of the column, only the nulls need to be extracted
+            boolean[] nulls = new boolean[rowIndices.length];
+            this.forEachRange(rowIndices.length, (from, to) -> {
+                for (int i = from; i < to; i++)
+                {
+                    nulls[i] = utf8Column.isNull(rowIndices[i]);
+                }
+            });
+
+            return new Utf8SortKey(utf8Column, rowIndices, nulls, sortOrder);
+        }
+
+        return this.extractObjects(column, sortOrder, rowIndices);
+    }
+
+    /*
+     * The values of a dictionary encoded column are sorted by the ranks of their codes, so no strings are compared
+     * other than those in the dictionary
+     */
+    private SortKey extractCodeRanks(DfStringColumnEncoded column, DfColumnSortOrder sortOrder, int[] rowIndices)
+    {
+        int[] ranks = column.dictionaryRanks();
+
+        boolean[] nulls = new boolean[rowIndices.length];
+        long[] values = new long[rowIndices.length];
+
+        this.forEachRange(rowIndices.length, (from, to) -> {
+            for (int i = from; i < to; i++)
+            {
+                int code = column.getCode(rowIndices[i]);
+                nulls[i] = code == DfStringColumnEncoded.NULL_CODE;
+                values[i] = nulls[i] ? 0 : ranks[code];
+            }
+        });
+
+        return new LongSortKey(values, nulls, sortOrder);
+    }
+
+    private SortKey extractLongs(DfColumn column, DfColumnSortOrder sortOrder, int[] rowIndices)
+    {
+        boolean mayContainNulls = column.mayContainNulls();
+        boolean[] nulls = new boolean[rowIndices.length];
+        long[] values = new long[rowIndices.length];
+
+        this.forEachRange(rowIndices.length, (from, to) -> {
+            for (int i = from; i < to; i++)
+            {
+                nulls[i] = mayContainNulls && column.isNull(rowIndices[i]);
+                values[i] = nulls[i] ? 0 : DfRowIndexSorter.longValueOf(column, rowIndices[i]);
+            }
+        });
+
+        return new LongSortKey(values, nulls, sortOrder);
+    }
+
+    private SortKey extractDoubles(DfColumn column, DfColumnSortOrder sortOrder, int[] rowIndices)
+    {
+        boolean mayContainNulls = column.mayContainNulls();
+        boolean[] nulls = new boolean[rowIndices.length];
+        double[] values = new double[rowIndices.length];
+
+        this.forEachRange(rowIndices.length, (from, to) -> {
+            for (int i = from; i < to; i++)
+            {
+                nulls[i] = mayContainNulls && column.isNull(rowIndices[i]);
+                values[i] = nulls[i] ? 0.0 : DfRowIndexSorter.doubleValueOf(column, rowIndices[i]);
+            }
+        });
+
+        return new DoubleSortKey(values, nulls, sortOrder);
+    }
+
+    private SortKey extractObjects(DfColumn column, DfColumnSortOrder sortOrder, int[] rowIndices)
+    {
+        boolean mayContainNulls = column.mayContainNulls();
+        boolean[] nulls = new boolean[rowIndices.length];
+        Object[] values = new Object[rowIndices.length];
+
+        this.forEachRange(rowIndices.length, (from, to) -> {
+            for (int i = from; i < to; i++)
+            {
+                nulls[i] = mayContainNulls && column.isNull(rowIndices[i]);
+                values[i] = nulls[i] ? null : column.getObject(rowIndices[i]);
+            }
+        });
+
+        return new ObjectSortKey(values, nulls, sortOrder);
+    }
+
+    // the mapping to long preserves the order of the values
+    private static long longValueOf(DfColumn column, int rowIndex)
+    {
+        return switch (column.getType())
+        {
+            case LONG -> ((DfLongColumn) column).getLong(rowIndex);
+            case INT -> ((DfIntColumn) column).getInt(rowIndex);
+            case DATE -> ((DfDateColumn) column).getEpochDay(rowIndex);
+            case DATE_TIME -> ((DfDateTimeColumn) column).getEpochMicros(rowIndex);
+            case DECIMAL -> ((DfDecimalColumnStored) column).getUnscaledValue(rowIndex);
+            default -> ((DfBooleanColumn) column).getBoolean(rowIndex) ? 1 : 0;
+        };
+    }
+
+    // float to double conversion is exact, so the order of float values is preserved
+    private static double doubleValueOf(DfColumn column, int rowIndex)
+    {
+        return column.getType() == ValueType.DOUBLE
+                ? ((DfDoubleColumn) column).getDouble(rowIndex)
+                : ((DfFloatColumn) column).getFloat(rowIndex);
+    }
+
+    /*
+     * Returns the positions of the values in the sort key arrays in the sort order
+     */
+    private int[] sortedPositions(SortKey[] sortKeys, int size)
+    {
+        if (!this.isParallel() && sortKeys.length == 1 && sortKeys[0] instanceof LongSortKey longSortKey)
+        {
+            return longSortKey.radixSortedPositions();
+        }
+
+        IntComparator comparator = sortKeys.length == 1
+                ? sortKeys[0]::compare
+                : (position1, position2) -> {
+                    for (SortKey sortKey : sortKeys)
+                    {
+                        int result = sortKey.compare(position1, position2);
+                        if (result != 0)
+                        {
+                            return result;
+                        }
+                    }
+                    return 0;
+                };
+
+        int[] positions = new int[size];
+        for (int i = 0; i < size; i++)
+        {
+            positions[i] = i;
+        }
+
+        if (this.isParallel() && size >= 2 * PARALLEL_MIN_RANGE_SIZE)
+        {
+            int sequentialSize = Math.max(PARALLEL_MIN_RANGE_SIZE, size / (4 * this.pool.getParallelism()) + 1);
+            this.pool.invoke(new MergeSortTask(positions.clone(), positions, 0, size, comparator, sequentialSize));
+        }
+        else
+        {
+            DfRowIndexSorter.mergeSort(positions.clone(), positions, 0, size, comparator);
+        }
+
+        return positions;
+    }
+
+    /*
+     * A stable merge sort of the range of the destination array, the source array must have the same contents as the
+     * destination array in this range, the two arrays swap roles at each level of recursion
+     */
+    private static void mergeSort(int[] source, int[] destination, int from, int to, IntComparator comparator)
+    {
+        if (to - from <= INSERTION_SORT_THRESHOLD)
+        {
+            for (int i = from + 1; i < to; i++)
+            {
+                int current = destination[i];
+                int j = i - 1;
+                while (j >= from && comparator.compare(destination[j], current) > 0)
+                {
+                    destination[j + 1] = destination[j];
+                    j--;
+                }
+                destination[j + 1] = current;
+            }
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        DfRowIndexSorter.mergeSort(destination, source, from, middle, comparator);
+        DfRowIndexSorter.mergeSort(destination, source, middle, to, comparator);
+
+        DfRowIndexSorter.merge(source, destination, from, middle, to, comparator);
+    }
+
+    /*
+     * Merges the sorted ranges [from, middle) and [middle, to) of the source array into the destination array, the
+     * elements of the first range go first if equal
+     */
+    private static void merge(int[] source, int[] destination, int from, int middle, int to, IntComparator comparator)
+    {
+        // the ranges are already in order
+        if (comparator.compare(source[middle - 1], source[middle]) <= 0)
+        {
+            System.arraycopy(source, from, destination, from, to - from);
+            return;
+        }
+
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++)
+        {
+            if (right >= to || (left < middle && comparator.compare(source[left], source[right]) <= 0))
+            {
+                destination[i] = source[left++];
+            }
+            else
+            {
+                destination[i] = source[right++];
+            }
+        }
+    }
+
+    // all the values have the same digit if they all fall into one bucket
+    private static boolean isSingleBucket(int[] counts, int valueCount)
+    {
+        for (int count : counts)
+        {
+            if (count == valueCount)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /*
+     * The parallel version of the merge sort, the two halves of a range are sorted concurrently
+     */
+    private static class MergeSortTask
+    extends RecursiveAction
+    {
+        private final int[] source;
+        private final int[] destination;
+        private final int from;
+        private final int to;
+        private final IntComparator comparator;
+        private final int sequentialSize;
+
+        MergeSortTask(int[] newSource, int[] newDestination, int newFrom, int newTo, IntComparator newComparator, int newSequentialSize)
+        {
+            this.source = newSource;
+            this.destination = newDestination;
+            this.from = newFrom;
+            this.to = newTo;
+            this.comparator = newComparator;
+            this.sequentialSize = newSequentialSize;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (this.to - this.from <= this.sequentialSize)
+            {
+                DfRowIndexSorter.mergeSort(this.source, this.destination, this.from, this.to, this.comparator);
+                return;
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+            RecursiveAction.invokeAll(
+                    new MergeSortTask(this.destination, this.source, this.from, middle, this.comparator, this.sequentialSize),
+                    new MergeSortTask(this.destination, this.source, middle, this.to, this.comparator, this.sequentialSize));
+
+            DfRowIndexSorter.merge(this.source, this.destination, this.from, middle, this.to, this.comparator);
+        }
+    }
+
+    /*
+     * The values of a sort column extracted at the positions of the rows being sorted
+     */
+    private abstract static class SortKey
+    {
+        private final boolean[] nulls;
+        private final DfColumnSortOrder sortOrder;
+
+        SortKey(boolean[] newNulls, DfColumnSortOrder newSortOrder)
+        {
+            this.nulls = newNulls;
+            this.sortOrder = newSortOrder;
+        }
+
+        protected boolean[] getNulls()
+        {
+            return this.nulls;
+        }
+
+        protected DfColumnSortOrder getSortOrder()
+        {
+            return this.sortOrder;
+        }
+
+        int compare(int position1, int position2)
+        {
+            boolean null1 = this.nulls[position1];
+            boolean null2 = this.nulls[position2];
+
+            int result = null1 || null2
+                    ? Boolean.compare(!null1, !null2)
+                    : this.compareValues(position1, position2);
+
+            return this.sortOrder.order(result);
+        }
+
+        abstract int compareValues(int position1, int position2);
+    }
+
+    private static class LongSortKey
+    extends SortKey
+    {
+        private final long[] values;
+
+        LongSortKey(long[] newValues, boolean[] newNulls, DfColumnSortOrder newSortOrder)
+        {
+            super(newNulls, newSortOrder);
+            this.values = newValues;
+        }
+
+        @Override
+        int compareValues(int position1, int position2)
+        {
+            return Long.compare(this.values[position1], this.values[position2]);
+        }
+
+        /*
+         * A least significant digit first radix sort, which is stable. The values are mapped to unsigned keys in the
+         * sort order, nulls are placed first in ascending order and last in descending order. Passes over the digits
+         * that are the same for all values are skipped.
+         */
+        int[] radixSortedPositions()
+        {
+            boolean[] nulls = this.getNulls();
+            boolean descending = this.getSortOrder() == DfColumnSortOrder.DESC;
+            int size = this.values.length;
+
+            int nullCount = 0;
+            for (boolean isNull : nulls)
+            {
+                if (isNull)
+                {
+                    nullCount++;
+                }
+            }
+
+            int valueCount = size - nullCount;
+            int[] positions = new int[valueCount];
+            long[] keys = new long[valueCount];
+            int[] sorted = new int[size];
+
+            int valueIndex = 0;
+            int nullIndex = descending ? valueCount : 0;
+            for (int i = 0; i < size; i++)
+            {
+                if (nulls[i])
+                {
+                    sorted[nullIndex++] = i;
+                }
+                else
+                {
+                    long unsignedKey = this.values[i] ^ Long.MIN_VALUE;
+                    keys[valueIndex] = descending ? ~unsignedKey : unsignedKey;
+                    positions[valueIndex++] = i;
+                }
+            }
+
+            int[] positionBuffer = new int[valueCount];
+            long[] keyBuffer = new long[valueCount];
+            int[] counts = new int[RADIX_MASK + 2];
+
+            for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS)
+            {
+                Arrays.fill(counts, 0);
+                for (long key : keys)
+                {
+                    counts[(int) ((key >>> shift) & RADIX_MASK) + 1]++;
+                }
+
+                if (DfRowIndexSorter.isSingleBucket(counts, valueCount))
+                {
+                    continue;
+                }
+
+                for (int digit = 0; digit <= RADIX_MASK; digit++)
+                {
+                    counts[digit + 1] += counts[digit];
+                }
+
+                for (int i = 0; i < valueCount; i++)
+                {
+                    int target = counts[(int) ((keys[i] >>> shift) & RADIX_MASK)]++;
+                    keyBuffer[target] = keys[i];
+                    positionBuffer[target] = positions[i];
+                }
+
+                long[] swapKeys = keys;
+                keys = keyBuffer;
+                keyBuffer = swapKeys;
+
+                int[] swapPositions = positions;
+                positions = positionBuffer;
+                positionBuffer = swapPositions;
+            }
+
+            System.arraycopy(positions, 0, sorted, descending ? 0 : nullCount, valueCount);
+
+            return sorted;
+        }
+    }
+
+    private static class DoubleSortKey
+    extends SortKey
+    {
+        private final double[] values;
+
+        DoubleSortKey(double[] newValues, boolean[] newNulls, DfColumnSortOrder newSortOrder)
+        {
+            super(newNulls, newSortOrder);
+            this.values = newValues;
+        }
+
+        @Override
+        int compareValues(int position1, int position2)
+        {
+            return Double.compare(this.values[position1], this.values[position2]);
+        }
+    }
+
+    private static class Utf8SortKey
+    extends SortKey
+    {
+        private final DfStringColumnUtf8 column;
+        private final int[] rowIndices;
+
+        Utf8SortKey(DfStringColumnUtf8 newColumn, int[] newRowIndices, boolean[] newNulls, DfColumnSortOrder newSortOrder)
+        {
+            super(newNulls, newSortOrder);
+            this.column = newColumn;
+            this.rowIndices = newRowIndices;
+        }
+
+        @Override
+        int compareValues(int position1, int position2)
+        {
+            return this.column.compareBytes(this.rowIndices[position1], this.column, this.rowIndices[position2]);
+        }
+    }
+
+    private static class ObjectSortKey
+    extends SortKey
+    {
+        private final Object[] values;
+
+        ObjectSortKey(Object[] newValues, boolean[] newNulls, DfColumnSortOrder newSortOrder)
+        {
+            super(newNulls, newSortOrder);
+            this.values = newValues;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        int compareValues(int position1, int position2)
+        {
+            return ((Comparable<Object>) this.values[position1]).compareTo(this.values[position2]);
+        }
+    }
+}
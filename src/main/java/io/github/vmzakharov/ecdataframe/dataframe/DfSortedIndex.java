@@ -0,0 +1,483 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.block.procedure.Procedure;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.primitive.IntList;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
+import org.eclipse.collections.impl.list.primitive.IntInterval;
+
+import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
+
+import java.time.LocalDate;
+
+/**
+ * An index of the rows of a data frame sorted in ascending order by the values of one or more of its columns. The index
+ * is a permutation of the row indices in the sort order, the values of the whole number, boolean, date, and floating
+ * point columns are copied into primitive arrays in the same order, the values of other columns are read from the
+ * columns as needed. Range, prefix, and top/bottom N queries are answered by binary search and return a
+ * {@link DfSortedIndexSlice} - a contiguous range of the sorted rows.
+ * <p>
+ * Nulls sort before all other values, they never match a range query with a bound on the value and are excluded from
+ * top and bottom N queries. A key passed to a query can have fewer elements than there are indexed columns, in which
+ * case only the leading columns are compared with it.
+ * <p>
+ * The index cannot be maintained incrementally, it is rebuilt from the data frame the next time it is accessed after
+ * rows are added to the data frame, the values of the indexed columns are changed in place, or it is marked as needing
+ * a rebuild (see {@link #markRebuildNeeded()}).
+ */
+public class DfSortedIndex
+{
+    private final DataFrame dataFrame;
+    private final ListIterable<String> indexByColumnNames;
+
+    private int[] sortedRowIndices;
+    private SortedValues[] sortedValues;
+
+    // the position of the first row with a non-null value in the leading column
+    private int firstNonNullPosition;
+
+    private int indexedRowCount;
+    private boolean rebuildNeeded = false;
+
+    private DfColumn[] indexedColumns;
+
+    // the modification counts of the indexed columns when the index was built
+    private long[] indexedModificationCounts;
+
+    public DfSortedIndex(DataFrame newIndexedDataFrame, ListIterable<String> indexByColumnNames)
+    {
+        this.dataFrame = newIndexedDataFrame;
+        this.indexByColumnNames = indexByColumnNames;
+
+        this.buildIndex();
+    }
+
+    private void buildIndex()
+    {
+        ListIterable<DfColumn> columns = this.indexByColumnNames.collect(this.dataFrame::getColumnNamed);
+
+        int rowCount = this.dataFrame.rowCount();
+
+        this.sortedRowIndices = rowCount == 0
+                ? new int[0]
+                : this.dataFrame.rowIndexSorter(rowCount)
+                                .sortedRowIndices(columns, null, IntInterval.zeroTo(rowCount - 1).toArray());
+
+        this.sortedValues = columns
+                .collect(column -> SortedValues.forColumn(column, this.sortedRowIndices))
+                .toArray(new SortedValues[0]);
+
+        this.firstNonNullPosition = this.search(Lists.immutable.with((Object) null), true);
+
+        this.indexedRowCount = rowCount;
+        this.rebuildNeeded = false;
+
+        this.indexedColumns = columns.toArray(new DfColumn[0]);
+        this.indexedModificationCounts = new long[this.indexedColumns.length];
+        for (int i = 0; i < this.indexedColumns.length; i++)
+        {
+            this.indexedModificationCounts[i] = this.indexedColumns[i].getModificationCount();
+        }
+    }
+
+    private boolean indexedColumnsModified()
+    {
+        for (int i = 0; i < this.indexedColumns.length; i++)
+        {
+            if (this.indexedColumns[i].getModificationCount() != this.indexedModificationCounts[i])
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void ensureCurrent()
+    {
+        if (this.isRebuildNeeded() || this.dataFrame.rowCount() != this.indexedRowCount)
+        {
+            this.buildIndex();
+        }
+    }
+
+    /**
+     * Marks this index as needing to be rebuilt. The index is rebuilt from the data frame the next time it is accessed.
+     */
+    public void markRebuildNeeded()
+    {
+        this.rebuildNeeded = true;
+    }
+
+    /**
+     * @return {@code true} if this index will be rebuilt from the data frame the next time it is accessed
+     */
+    public boolean isRebuildNeeded()
+    {
+        return this.rebuildNeeded || this.indexedColumnsModified();
+    }
+
+    /**
+     * @return the names of the columns the data frame is indexed by
+     */
+    public ListIterable<String> getIndexByColumnNames()
+    {
+        return this.indexByColumnNames;
+    }
+
+    /**
+     * returns the rows where the value of the leading index column is between the specified values, inclusive
+     * @param from the lowest value to include
+     * @param to the highest value to include
+     * @return the matching rows in ascending order
+     */
+    public DfSortedIndexSlice between(Object from, Object to)
+    {
+        return this.range(Lists.immutable.of(from), true, Lists.immutable.of(to), true);
+    }
+
+    public DfSortedIndexSlice greaterThan(Object value)
+    {
+        return this.range(Lists.immutable.of(value), false, null, false);
+    }
+
+    public DfSortedIndexSlice greaterThanOrEqualTo(Object value)
+    {
+        return this.range(Lists.immutable.of(value), true, null, false);
+    }
+
+    public DfSortedIndexSlice lessThan(Object value)
+    {
+        return this.range(null, false, Lists.immutable.of(value), false);
+    }
+
+    public DfSortedIndexSlice lessThanOrEqualTo(Object value)
+    {
+        return this.range(null, false, Lists.immutable.of(value), true);
+    }
+
+    /**
+     * returns the rows with the index keys in the specified range. The bounds can have fewer elements than there are
+     * indexed columns, in which case only the leading columns are compared to them
+     * @param fromKey the lower bound of the range, {@code null} if the range has no lower bound
+     * @param fromInclusive whether the rows matching the lower bound are included in the range
+     * @param toKey the upper bound of the range, {@code null} if the range has no upper bound
+     * @param toInclusive whether the rows matching the upper bound are included in the range
+     * @return the matching rows in ascending order
+     */
+    public DfSortedIndexSlice range(
+            ListIterable<Object> fromKey, boolean fromInclusive, ListIterable<Object> toKey, boolean toInclusive)
+    {
+        this.ensureCurrent();
+
+        int from = fromKey == null ? this.firstNonNullPosition : this.search(fromKey, !fromInclusive);
+        int to = toKey == null ? this.sortedRowIndices.length : this.search(toKey, toInclusive);
+
+        return new DfSortedIndexSlice(from, Math.max(from, to), false);
+    }
+
+    /**
+     * returns the rows where the values of the leading index columns are equal to the specified values
+     * @param keyElements the values of the leading index columns
+     * @return the matching rows in ascending order
+     */
+    public DfSortedIndexSlice prefix(Object... keyElements)
+    {
+        return this.prefix(Lists.immutable.of(keyElements));
+    }
+
+    public DfSortedIndexSlice prefix(ListIterable<Object> key)
+    {
+        this.ensureCurrent();
+
+        return new DfSortedIndexSlice(this.search(key, false), this.search(key, true), false);
+    }
+
+    /**
+     * returns up to {@code n} rows with the lowest non-null values of the index key
+     * @param n the maximum number of rows to return
+     * @return the matching rows in ascending order
+     */
+    public DfSortedIndexSlice bottom(int n)
+    {
+        this.ensureCurrent();
+
+        return new DfSortedIndexSlice(
+                this.firstNonNullPosition,
+                Math.min(this.sortedRowIndices.length, this.firstNonNullPosition + n),
+                false);
+    }
+
+    /**
+     * returns up to {@code n} rows with the highest non-null values of the index key
+     * @param n the maximum number of rows to return
+     * @return the matching rows in descending order
+     */
+    public DfSortedIndexSlice top(int n)
+    {
+        this.ensureCurrent();
+
+        return new DfSortedIndexSlice(
+                Math.max(this.firstNonNullPosition, this.sortedRowIndices.length - n),
+                this.sortedRowIndices.length,
+                true);
+    }
+
+    /*
+     * Returns the first position where the key of the row is greater than (or equal to, unless strictlyGreater is
+     * true) the specified key, only the leading index columns are compared
+     */
+    private int search(ListIterable<Object> key, boolean strictlyGreater)
+    {
+        int low = 0;
+        int high = this.sortedRowIndices.length;
+
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            int result = this.compareAt(middle, key);
+            if (result > 0 || (result == 0 && !strictlyGreater))
+            {
+                high = middle;
+            }
+            else
+            {
+                low = middle + 1;
+            }
+        }
+
+        return low;
+    }
+
+    private int compareAt(int position, ListIterable<Object> key)
+    {
+        int keySize = Math.min(key.size(), this.sortedValues.length);
+        for (int i = 0; i < keySize; i++)
+        {
+            int result = this.sortedValues[i].compareAt(position, key.get(i));
+            if (result != 0)
+            {
+                return result;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * A contiguous range of the rows in the sorted index, which can be iterated over in the sort order (or in the reverse
+     * sort order for the top N queries)
+     */
+    public final class DfSortedIndexSlice
+    implements DfIterate
+    {
+        private final int from;
+        private final int to;
+        private final boolean descending;
+
+        private DfSortedIndexSlice(int newFrom, int newTo, boolean newDescending)
+        {
+            this.from = newFrom;
+            this.to = newTo;
+            this.descending = newDescending;
+        }
+
+        public int size()
+        {
+            return this.to - this.from;
+        }
+
+        public boolean isEmpty()
+        {
+            return this.size() == 0;
+        }
+
+        /**
+         * @return the indices of the data frame rows in this slice
+         */
+        public IntList getRowIndices()
+        {
+            int[] rowIndices = new int[this.size()];
+            for (int i = 0; i < rowIndices.length; i++)
+            {
+                rowIndices[i] = this.rowIndexAt(i);
+            }
+
+            return IntLists.immutable.with(rowIndices);
+        }
+
+        private int rowIndexAt(int i)
+        {
+            return DfSortedIndex.this.sortedRowIndices[this.descending ? this.to - 1 - i : this.from + i];
+        }
+
+        @Override
+        public void forEach(Procedure<DfCursor> action)
+        {
+            DfCursor cursor = new DfCursor(DfSortedIndex.this.dataFrame);
+
+            for (int i = 0; i < this.size(); i++)
+            {
+                action.value(cursor.rowIndex(this.rowIndexAt(i)));
+            }
+        }
+    }
+
+    /*
+     * The values of an index column in the sort order. The values compare to a key value according to the type of the
+     * column, nulls come before any other value.
+     */
+    private abstract static class SortedValues
+    {
+        static SortedValues forColumn(DfColumn column, int[] sortedRowIndices)
+        {
+            return switch (column.getType())
+            {
+                case LONG, INT, DATE, BOOLEAN -> new LongSortedValues(column, sortedRowIndices);
+                case DOUBLE, FLOAT -> new DoubleSortedValues(column, sortedRowIndices);
+                default -> new ObjectSortedValues(column, sortedRowIndices);
+            };
+        }
+
+        abstract boolean isNullAt(int position);
+
+        abstract int compareNonNullAt(int position, Object value);
+
+        int compareAt(int position, Object value)
+        {
+            boolean isNull = this.isNullAt(position);
+            if (isNull || value == null)
+            {
+                return Boolean.compare(!isNull, value != null);
+            }
+
+            return this.compareNonNullAt(position, value);
+        }
+    }
+
+    private static class LongSortedValues
+    extends SortedValues
+    {
+        private final long[] values;
+        private final boolean[] nulls;
+
+        LongSortedValues(DfColumn column, int[] sortedRowIndices)
+        {
+            this.values = new long[sortedRowIndices.length];
+            this.nulls = new boolean[sortedRowIndices.length];
+
+            boolean mayContainNulls = column.mayContainNulls();
+            for (int i = 0; i < sortedRowIndices.length; i++)
+            {
+                int rowIndex = sortedRowIndices[i];
+                this.nulls[i] = mayContainNulls && column.isNull(rowIndex);
+                if (!this.nulls[i])
+                {
+                    this.values[i] = switch (column.getType())
+                    {
+                        case LONG -> ((DfLongColumn) column).getLong(rowIndex);
+                        case INT -> ((DfIntColumn) column).getInt(rowIndex);
+                        case DATE -> ((DfDateColumn) column).getEpochDay(rowIndex);
+                        default -> ((DfBooleanColumn) column).getBoolean(rowIndex) ? 1 : 0;
+                    };
+                }
+            }
+        }
+
+        @Override
+        boolean isNullAt(int position)
+        {
+            return this.nulls[position];
+        }
+
+        @Override
+        int compareNonNullAt(int position, Object value)
+        {
+            if (value instanceof Long || value instanceof Integer)
+            {
+                return Long.compare(this.values[position], ((Number) value).longValue());
+            }
+
+            if (value instanceof LocalDate date)
+            {
+                return Long.compare(this.values[position], date.toEpochDay());
+            }
+
+            if (value instanceof Boolean booleanValue)
+            {
+                return Long.compare(this.values[position], booleanValue ? 1 : 0);
+            }
+
+            // a fractional value is compared as a double
+            return Double.compare(this.values[position], ((Number) value).doubleValue());
+        }
+    }
+
+    private static class DoubleSortedValues
+    extends SortedValues
+    {
+        private final double[] values;
+        private final boolean[] nulls;
+
+        DoubleSortedValues(DfColumn column, int[] sortedRowIndices)
+        {
+            this.values = new double[sortedRowIndices.length];
+            this.nulls = new boolean[sortedRowIndices.length];
+
+            boolean mayContainNulls = column.mayContainNulls();
+            for (int i = 0; i < sortedRowIndices.length; i++)
+            {
+                int rowIndex = sortedRowIndices[i];
+                this.nulls[i] = mayContainNulls && column.isNull(rowIndex);
+                if (!this.nulls[i])
+                {
+                    this.values[i] = column.getType() == ValueType.DOUBLE
+                            ? ((DfDoubleColumn) column).getDouble(rowIndex)
+                            : ((DfFloatColumn) column).getFloat(rowIndex);
+                }
+            }
+        }
+
+        @Override
+        boolean isNullAt(int position)
+        {
+            return this.nulls[position];
+        }
+
+        @Override
+        int compareNonNullAt(int position, Object value)
+        {
+            return Double.compare(this.values[position], ((Number) value).doubleValue());
+        }
+    }
+
+    /*
+     * The values of the column types without a primitive representation are read from the column, a binary search only
+     * reads a logarithmic number of them
+     */
+    private static class ObjectSortedValues
+    extends SortedValues
+    {
+        private final DfColumn column;
+        private final int[] sortedRowIndices;
+
+        ObjectSortedValues(DfColumn newColumn, int[] newSortedRowIndices)
+        {
+            this.column = newColumn;
+            this.sortedRowIndices = newSortedRowIndices;
+        }
+
+        @Override
+        boolean isNullAt(int position)
+        {
+            return this.column.isNull(this.sortedRowIndices[position]);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        int compareNonNullAt(int position, Object value)
+        {
+            return ((Comparable<Object>) this.column.getObject(this.sortedRowIndices[position])).compareTo(value);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.primitive.ObjectIntMaps;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * A dictionary encoded stored string column. Each distinct value is stored once in the dictionary of the column, and
+ * each row stores an int code of its value, which is the position of the value in the dictionary. This saves memory
+ * for columns with a small number of distinct values and allows equality tests, grouping, and sorting to work with the
+ * codes instead of the string values.
+ * <p>
+ * The codes are assigned in the order in which the values are first added to the column. A column created with a
+ * sorted dictionary sorts its dictionary when the codes need to be compared for ordering, so that the order of the
+ * codes is the same as the order of the values, which makes the existing codes change, so the indexes on the column are
+ * rebuilt the next time they are used. The codes of a column without a sorted dictionary never change, the order of the
+ * values is tracked separately.
+ */
+public class DfStringColumnEncoded
+extends DfObjectColumnAbstract<String>
+implements DfStringColumn, DfColumnStored
+{
+    public static final int NULL_CODE = -1;
+
+    private final boolean sortedDictionary;
+
+    private DfIntStorage codes;
+    private MutableList<String> dictionary = Lists.mutable.of();
+    private MutableObjectIntMap<String> codesByValue = ObjectIntMaps.mutable.of();
+
+    // true while the codes are in the same order as the values they encode
+    private boolean codesInValueOrder = true;
+
+    // the position of each dictionary value in the sorted dictionary, indexed by code, computed when needed
+    private int[] ranks = null;
+
+    public DfStringColumnEncoded(DataFrame owner, String newName, boolean newSortedDictionary)
+    {
+        super(owner, newName);
+        this.sortedDictionary = newSortedDictionary;
+        this.codes = this.createStorage(0);
+    }
+
+    public DfStringColumnEncoded(
+            DataFrame owner, String newName, ListIterable<String> newValues, boolean newSortedDictionary)
+    {
+        this(owner, newName, newSortedDictionary);
+        this.addAllItems(newValues);
+    }
+
+    @Override
+    public void addValue(Value value)
+    {
+        if (value.isVoid())
+        {
+            this.addObject(null);
+        }
+        else if (value.isString())
+        {
+            this.addMyType(value.stringValue());
+        }
+        else
+        {
+            this.throwAddingIncompatibleValueException(value);
+        }
+    }
+
+    @Override
+    public void addObject(Object newObject)
+    {
+        this.addMyType((String) newObject);
+    }
+
+    protected void addMyType(String aString)
+    {
+        this.codes.add(this.encode(aString));
+    }
+
+    @Override
+    public void addEmptyValue()
+    {
+        this.codes.add(NULL_CODE);
+    }
+
+    /**
+     * @return {@code true} if the column keeps its dictionary sorted, so that the order of the codes is the same as
+     * the order of the values
+     */
+    public boolean hasSortedDictionary()
+    {
+        return this.sortedDictionary;
+    }
+
+    /**
+     * Returns the code of the value at the specified row.
+     *
+     * @param rowIndex the row index
+     * @return the code of the value or {@link #NULL_CODE} if the value is null
+     */
+    public int getCode(int rowIndex)
+    {
+        return this.codes.get(rowIndex);
+    }
+
+    /**
+     * Returns the code of the specified value if it is present in the dictionary of this column.
+     *
+     * @param aString the value to look up
+     * @return the code of the value or {@link #NULL_CODE} if the value is null or is not in the dictionary
+     */
+    public int getCodeOf(String aString)
+    {
+        return aString == null ? NULL_CODE : this.codesByValue.getIfAbsent(aString, NULL_CODE);
+    }
+
+    /**
+     * @return the number of distinct values in the dictionary of this column
+     */
+    public int getDictionarySize()
+    {
+        return this.dictionary.size();
+    }
+
+    String getDictionaryValue(int code)
+    {
+        return this.dictionary.get(code);
+    }
+
+    @Override
+    public String getTypedObject(int rowIndex)
+    {
+        int code = this.codes.get(rowIndex);
+        return code == NULL_CODE ? null : this.dictionary.get(code);
+    }
+
+    @Override
+    public Object getObject(int rowIndex)
+    {
+        return this.getTypedObject(rowIndex);
+    }
+
+    @Override
+    public Value getValue(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            return Value.VOID;
+        }
+
+        return this.objectToValue(this.getTypedObject(rowIndex));
+    }
+
+    @Override
+    public boolean isNull(int rowIndex)
+    {
+        return this.codes.get(rowIndex) == NULL_CODE;
+    }
+
+    @Override
+    public int getSize()
+    {
+        return this.codes.size();
+    }
+
+    @Override
+    public void setObject(int rowIndex, Object anObject)
+    {
+        this.markModified();
+        this.codes.set(rowIndex, this.encode((String) anObject));
+    }
+
+    @Override
+    public ImmutableList<String> toList()
+    {
+        MutableList<String> list = Lists.mutable.withInitialCapacity(this.getSize());
+        for (int rowIndex = 0; rowIndex < this.getSize(); rowIndex++)
+        {
+            list.add(this.getTypedObject(rowIndex));
+        }
+        return list.toImmutable();
+    }
+
+    @Override
+    public void aggregateValueInto(int rowIndex, DfColumn sourceColumn, int sourceRowIndex, AggregateFunction aggregator)
+    {
+        this.setObject(rowIndex,
+                aggregator.objectAccumulator(
+                        this.getTypedObject(rowIndex), aggregator.getObjectValue(sourceColumn, sourceRowIndex)));
+    }
+
+    @Override
+    public void ensureInitialCapacity(int newCapacity)
+    {
+        this.codes = this.createStorage(newCapacity);
+        this.dictionary = Lists.mutable.of();
+        this.codesByValue = ObjectIntMaps.mutable.of();
+        this.codesInValueOrder = true;
+        this.ranks = null;
+    }
+
+    @Override
+    public void releaseStorage()
+    {
+        this.ensureInitialCapacity(0);
+    }
+
+    @Override
+    public DfColumn cloneSchemaAndAttachTo(DataFrame attachTo, String newName)
+    {
+        attachTo.addDictionaryEncodedStringColumn(newName, this.sortedDictionary);
+        return attachTo.getColumnNamed(newName);
+    }
+
+    @Override
+    protected DfColumn copyColumnSchemaAndEnsureCapacity(DataFrame target)
+    {
+        DfColumnStored newColumn = (DfColumnStored) this.cloneSchemaAndAttachTo(target);
+
+        newColumn.ensureInitialCapacity(this.getSize());
+
+        return newColumn;
+    }
+
+    @Override
+    protected void addAllItems(ListIterable<String> items)
+    {
+        if (this.sortedDictionary)
+        {
+            // encoding the new values in their sorted order first avoids re-encoding the column later
+            items.asLazy().select(Objects::nonNull).toSortedSet().forEach(this::encode);
+        }
+
+        items.forEach(this::addMyType);
+    }
+
+    /**
+     * Returns the position of each dictionary value in the sorted dictionary, indexed by the value code. For a column
+     * with a sorted dictionary the dictionary is sorted first if needed, in which case the ranks are the same as the
+     * codes.
+     */
+    int[] dictionaryRanks()
+    {
+        if (this.sortedDictionary)
+        {
+            this.sortDictionary();
+        }
+
+        if (this.ranks == null)
+        {
+            this.ranks = this.computeRanks();
+        }
+
+        return this.ranks;
+    }
+
+    private int[] computeRanks()
+    {
+        int size = this.dictionary.size();
+        int[] newRanks = new int[size];
+
+        if (this.codesInValueOrder)
+        {
+            Arrays.setAll(newRanks, code -> code);
+        }
+        else
+        {
+            Integer[] codesInOrder = new Integer[size];
+            Arrays.setAll(codesInOrder, code -> code);
+            Arrays.sort(codesInOrder, Comparator.comparing(this.dictionary::get));
+
+            for (int rank = 0; rank < size; rank++)
+            {
+                newRanks[codesInOrder[rank]] = rank;
+            }
+        }
+
+        return newRanks;
+    }
+
+    /*
+     * Sorts the dictionary and re-encodes the values, so the new code of each value is its former rank. The values do
+     * not change, but the codes do, so the column is marked as modified for the indexes keyed by the codes to be rebuilt
+     */
+    private void sortDictionary()
+    {
+        if (this.codesInValueOrder)
+        {
+            return;
+        }
+
+        int[] newCodes = this.computeRanks();
+
+        this.markModified();
+        for (int rowIndex = 0; rowIndex < this.codes.size(); rowIndex++)
+        {
+            int code = this.codes.get(rowIndex);
+            if (code != NULL_CODE)
+            {
+                this.codes.set(rowIndex, newCodes[code]);
+            }
+        }
+
+        this.dictionary.sortThis();
+        this.codesByValue = ObjectIntMaps.mutable.of();
+        this.dictionary.forEachWithIndex((value, code) -> this.codesByValue.put(value, code));
+
+        this.codesInValueOrder = true;
+        this.ranks = null;
+    }
+
+    private int encode(String aString)
+    {
+        if (aString == null)
+        {
+            return NULL_CODE;
+        }
+
+        int code = this.codesByValue.getIfAbsent(aString, NULL_CODE);
+        if (code == NULL_CODE)
+        {
+            code = this.dictionary.size();
+
+            if (this.codesInValueOrder && code > 0 && aString.compareTo(this.dictionary.getLast()) < 0)
+            {
+                this.codesInValueOrder = false;
+            }
+
+            this.dictionary.add(aString);
+            this.codesByValue.put(aString, code);
+            this.ranks = null;
+        }
+
+        return code;
+    }
+
+    private DfIntStorage createStorage(int initialCapacity)
+    {
+        return this.isOffHeapStorageEnabled()
+                ? new DfIntOffHeapStorage()
+                : new DfIntHeapStorage(initialCapacity);
+    }
+}
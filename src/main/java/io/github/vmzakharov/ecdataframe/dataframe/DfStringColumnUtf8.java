@@ -0,0 +1,425 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.impl.factory.Lists;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static io.github.vmzakharov.ecdataframe.util.ExceptionFactory.exceptionByKey;
+
+/**
+ * A stored string column that keeps the UTF-8 encoded bytes of all its values in a contiguous arena of large byte
+ * chunks, with the position and the length of each value stored as primitives. Compared to a column of {@code String}
+ * instances this avoids the per row object overhead, which matters for columns with many distinct values, such as
+ * identifiers. The {@code String} instances are only created when the values are accessed as objects, the values can be
+ * compared, tested for equality, and hashed on the bytes directly, which is what sorting, grouping, and joins do.
+ * <p>
+ * The arena is append only: setting the value of a row adds the new bytes to the arena, the bytes of the previous value
+ * are not reclaimed.
+ * <p>
+ * Strings containing unpaired surrogate characters do not have a UTF-8 encoding and cannot be stored in the column.
+ */
+public class DfStringColumnUtf8
+extends DfObjectColumnAbstract<String>
+implements DfStringColumn, DfColumnStored
+{
+    static private final int NULL_LENGTH = -1;
+
+    static private final int MIN_CHUNK_SIZE = 4_096;
+    static private final int MAX_CHUNK_SIZE = 1 << 20;
+
+    // the position of a value is the index of its chunk in the upper 32 bits and the offset within the chunk in the lower
+    private DfLongStorage positions;
+    private DfIntStorage lengths;
+
+    private MutableList<byte[]> chunks = Lists.mutable.of();
+    private int chunkFill = 0;
+
+    public DfStringColumnUtf8(DataFrame owner, String newName)
+    {
+        super(owner, newName);
+        this.positions = this.createLongStorage(0);
+        this.lengths = this.createIntStorage(0);
+    }
+
+    public DfStringColumnUtf8(DataFrame owner, String newName, ListIterable<String> newValues)
+    {
+        this(owner, newName);
+        this.addAllItems(newValues);
+    }
+
+    @Override
+    public void addValue(Value value)
+    {
+        if (value.isVoid())
+        {
+            this.addObject(null);
+        }
+        else if (value.isString())
+        {
+            this.addMyType(value.stringValue());
+        }
+        else
+        {
+            this.throwAddingIncompatibleValueException(value);
+        }
+    }
+
+    @Override
+    public void addObject(Object newObject)
+    {
+        this.addMyType((String) newObject);
+    }
+
+    protected void addMyType(String aString)
+    {
+        if (aString == null)
+        {
+            this.addEmptyValue();
+        }
+        else
+        {
+            byte[] encoded = this.encode(aString);
+            this.addUtf8Bytes(encoded, 0, encoded.length);
+        }
+    }
+
+    /*
+     * String.getBytes() replaces unpaired surrogates with '?', which would make distinct values equal, so such values
+     * are rejected rather than stored
+     */
+    private byte[] encode(String aString)
+    {
+        int surrogateIndex = DfUtf8Slice.unpairedSurrogateIndex(aString);
+        if (surrogateIndex >= 0)
+        {
+            exceptionByKey("DF_UTF8_UNPAIRED_SURROGATE")
+                    .with("columnName", this.getName())
+                    .with("index", surrogateIndex)
+                    .fire();
+        }
+
+        return aString.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Adds a value to the column as a range of UTF-8 encoded bytes, which are copied into the column
+     *
+     * @param bytes  the array containing the value
+     * @param offset the offset of the value in the array
+     * @param length the number of bytes in the value
+     */
+    public void addUtf8Bytes(byte[] bytes, int offset, int length)
+    {
+        this.positions.add(this.appendToArena(bytes, offset, length));
+        this.lengths.add(length);
+    }
+
+    @Override
+    public void addEmptyValue()
+    {
+        this.positions.add(0L);
+        this.lengths.add(NULL_LENGTH);
+    }
+
+    @Override
+    public String getTypedObject(int rowIndex)
+    {
+        int length = this.lengths.get(rowIndex);
+        if (length == NULL_LENGTH)
+        {
+            return null;
+        }
+
+        long position = this.positions.get(rowIndex);
+        return new String(this.chunkAt(position), offsetAt(position), length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Object getObject(int rowIndex)
+    {
+        return this.getTypedObject(rowIndex);
+    }
+
+    @Override
+    public Value getValue(int rowIndex)
+    {
+        if (this.isNull(rowIndex))
+        {
+            return Value.VOID;
+        }
+
+        return this.objectToValue(this.getTypedObject(rowIndex));
+    }
+
+    @Override
+    public boolean isNull(int rowIndex)
+    {
+        return this.lengths.get(rowIndex) == NULL_LENGTH;
+    }
+
+    @Override
+    public int getSize()
+    {
+        return this.lengths.size();
+    }
+
+    /**
+     * @param rowIndex the row index
+     * @return the number of bytes in the UTF-8 encoding of the value at the row, or -1 if the value is null
+     */
+    public int getUtf8Length(int rowIndex)
+    {
+        return this.lengths.get(rowIndex);
+    }
+
+    @Override
+    public void setObject(int rowIndex, Object anObject)
+    {
+        this.markModified();
+
+        if (anObject == null)
+        {
+            this.positions.set(rowIndex, 0L);
+            this.lengths.set(rowIndex, NULL_LENGTH);
+        }
+        else
+        {
+            byte[] encoded = this.encode((String) anObject);
+            this.positions.set(rowIndex, this.appendToArena(encoded, 0, encoded.length));
+            this.lengths.set(rowIndex, encoded.length);
+        }
+    }
+
+    @Override
+    public void addRowToColumn(int rowIndex, DfColumn target)
+    {
+        if (target instanceof DfStringColumnUtf8 utf8Target && !this.isNull(rowIndex))
+        {
+            long position = this.positions.get(rowIndex);
+            utf8Target.addUtf8Bytes(this.chunkAt(position), offsetAt(position), this.lengths.get(rowIndex));
+        }
+        else
+        {
+            target.addObject(this.getTypedObject(rowIndex));
+        }
+    }
+
+    /**
+     * Tests the values at the specified rows of this and another column for equality without decoding them. Neither
+     * value can be null.
+     *
+     * @param rowIndex      the row index in this column
+     * @param other         the other column
+     * @param otherRowIndex the row index in the other column
+     * @return {@code true} if the values are equal
+     */
+    public boolean bytesEqual(int rowIndex, DfStringColumnUtf8 other, int otherRowIndex)
+    {
+        long position = this.positions.get(rowIndex);
+        long otherPosition = other.positions.get(otherRowIndex);
+        int offset = offsetAt(position);
+        int otherOffset = offsetAt(otherPosition);
+
+        return Arrays.equals(
+                this.chunkAt(position), offset, offset + this.lengths.get(rowIndex),
+                other.chunkAt(otherPosition), otherOffset, otherOffset + other.lengths.get(otherRowIndex));
+    }
+
+    /**
+     * Computes the hash code of the value at the specified row from its UTF-8 bytes without decoding it. Equal values
+     * have equal hash codes, which are not the same as the hash codes of the equivalent {@code String}s. The value
+     * cannot be null.
+     *
+     * @param rowIndex the row index
+     * @return the hash code
+     */
+    public int bytesHashCode(int rowIndex)
+    {
+        long position = this.positions.get(rowIndex);
+        return DfUtf8Slice.hashOf(this.chunkAt(position), offsetAt(position), this.lengths.get(rowIndex));
+    }
+
+    /**
+     * Compares the values at the specified rows of this and another column without decoding them. The result has the
+     * same sign as the result of comparing the equivalent {@code String}s with {@link String#compareTo(String)}.
+     * Neither value can be null.
+     *
+     * @param rowIndex      the row index in this column
+     * @param other         the other column
+     * @param otherRowIndex the row index in the other column
+     * @return a negative number, zero, or a positive number if the value in this column is less than, equal to, or
+     * greater than the value in the other column
+     */
+    public int compareBytes(int rowIndex, DfStringColumnUtf8 other, int otherRowIndex)
+    {
+        long position = this.positions.get(rowIndex);
+        long otherPosition = other.positions.get(otherRowIndex);
+        byte[] chunk = this.chunkAt(position);
+        byte[] otherChunk = other.chunkAt(otherPosition);
+        int offset = offsetAt(position);
+        int otherOffset = offsetAt(otherPosition);
+        int length = this.lengths.get(rowIndex);
+        int otherLength = other.lengths.get(otherRowIndex);
+
+        int mismatch = Arrays.mismatch(
+                chunk, offset, offset + length,
+                otherChunk, otherOffset, otherOffset + otherLength);
+
+        if (mismatch < 0)
+        {
+            return 0;
+        }
+
+        if (mismatch == Math.min(length, otherLength))
+        {
+            return length - otherLength;
+        }
+
+        // the preceding bytes are the same, so these are either the first bytes of two different characters or the
+        // continuation bytes of two characters of the same length
+        int thisByte = chunk[offset + mismatch] & 0xFF;
+        int otherByte = otherChunk[otherOffset + mismatch] & 0xFF;
+
+        // the UTF-8 byte order is the code point order, String.compareTo() compares UTF-16 chars, where the surrogate
+        // pairs of the supplementary characters come before the characters from U+E000 to U+FFFF
+        if (isSupplementaryLeadByte(thisByte) && isUpperBmpLeadByte(otherByte))
+        {
+            return -1;
+        }
+
+        if (isUpperBmpLeadByte(thisByte) && isSupplementaryLeadByte(otherByte))
+        {
+            return 1;
+        }
+
+        return thisByte - otherByte;
+    }
+
+    /*
+     * Points the slice at the bytes of the value at the row, the value cannot be null
+     */
+    DfUtf8Slice sliceAt(int rowIndex, DfUtf8Slice target)
+    {
+        long position = this.positions.get(rowIndex);
+        return target.set(this.chunkAt(position), offsetAt(position), this.lengths.get(rowIndex));
+    }
+
+    @Override
+    public ImmutableList<String> toList()
+    {
+        MutableList<String> list = Lists.mutable.withInitialCapacity(this.getSize());
+        for (int rowIndex = 0; rowIndex < this.getSize(); rowIndex++)
+        {
+            list.add(this.getTypedObject(rowIndex));
+        }
+        return list.toImmutable();
+    }
+
+    @Override
+    public void aggregateValueInto(int rowIndex, DfColumn sourceColumn, int sourceRowIndex, AggregateFunction aggregator)
+    {
+        this.setObject(rowIndex,
+                aggregator.objectAccumulator(
+                        this.getTypedObject(rowIndex), aggregator.getObjectValue(sourceColumn, sourceRowIndex)));
+    }
+
+    @Override
+    public void ensureInitialCapacity(int newCapacity)
+    {
+        this.positions = this.createLongStorage(newCapacity);
+        this.lengths = this.createIntStorage(newCapacity);
+        this.chunks = Lists.mutable.of();
+        this.chunkFill = 0;
+    }
+
+    @Override
+    public void releaseStorage()
+    {
+        this.ensureInitialCapacity(0);
+    }
+
+    @Override
+    public DfColumn cloneSchemaAndAttachTo(DataFrame attachTo, String newName)
+    {
+        attachTo.addUtf8StringColumn(newName);
+        return attachTo.getColumnNamed(newName);
+    }
+
+    @Override
+    protected DfColumn copyColumnSchemaAndEnsureCapacity(DataFrame target)
+    {
+        DfColumnStored newColumn = (DfColumnStored) this.cloneSchemaAndAttachTo(target);
+
+        newColumn.ensureInitialCapacity(this.getSize());
+
+        return newColumn;
+    }
+
+    @Override
+    protected void addAllItems(ListIterable<String> items)
+    {
+        items.forEach(this::addMyType);
+    }
+
+    /*
+     * Copies the bytes into the arena and returns their position. A value never spans chunks, a value that does not
+     * fit into the remaining space of the current chunk starts a new one, which is large enough for the value
+     */
+    private long appendToArena(byte[] bytes, int offset, int length)
+    {
+        if (this.chunks.isEmpty() || this.chunks.getLast().length - this.chunkFill < length)
+        {
+            int newChunkSize = this.chunks.isEmpty()
+                    ? MIN_CHUNK_SIZE
+                    : Math.min(this.chunks.getLast().length * 2, MAX_CHUNK_SIZE);
+            this.chunks.add(new byte[Math.max(newChunkSize, length)]);
+            this.chunkFill = 0;
+        }
+
+        System.arraycopy(bytes, offset, this.chunks.getLast(), this.chunkFill, length);
+
+        long position = ((long) (this.chunks.size() - 1) << 32) | this.chunkFill;
+        this.chunkFill += length;
+
+        return position;
+    }
+
+    private byte[] chunkAt(long position)
+    {
+        return this.chunks.get((int) (position >>> 32));
+    }
+
+    private static int offsetAt(long position)
+    {
+        return (int) position;
+    }
+
+    private static boolean isSupplementaryLeadByte(int aByte)
+    {
+        return aByte >= 0xF0;
+    }
+
+    private static boolean isUpperBmpLeadByte(int aByte)
+    {
+        return aByte == 0xEE || aByte == 0xEF;
+    }
+
+    private DfLongStorage createLongStorage(int initialCapacity)
+    {
+        return this.isOffHeapStorageEnabled()
+                ? new DfLongOffHeapStorage()
+                : new DfLongHeapStorage(initialCapacity);
+    }
+
+    private DfIntStorage createIntStorage(int initialCapacity)
+    {
+        return this.isOffHeapStorageEnabled()
+                ? new DfIntOffHeapStorage()
+                : new DfIntHeapStorage(initialCapacity);
+    }
+}
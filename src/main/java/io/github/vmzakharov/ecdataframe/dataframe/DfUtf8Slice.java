@@ -0,0 +1,161 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/*
+ * A range of bytes holding a UTF-8 encoded string, compared and hashed byte by byte, so strings can be used as hash keys
+ * without being decoded. A slice can be re-pointed at different bytes, so a single instance can be reused to probe a
+ * hash table, the bytes are never copied.
+ */
+final class DfUtf8Slice
+{
+    private byte[] bytes;
+    private int offset;
+    private int length;
+    private int hash;
+
+    DfUtf8Slice()
+    {
+    }
+
+    private DfUtf8Slice(byte[] newBytes, int newOffset, int newLength, int newHash)
+    {
+        this.bytes = newBytes;
+        this.offset = newOffset;
+        this.length = newLength;
+        this.hash = newHash;
+    }
+
+    DfUtf8Slice set(byte[] newBytes, int newOffset, int newLength)
+    {
+        this.bytes = newBytes;
+        this.offset = newOffset;
+        this.length = newLength;
+        this.hash = hashOf(newBytes, newOffset, newLength);
+        return this;
+    }
+
+    /*
+     * Strings with unpaired surrogates are encoded with the surrogates as three byte sequences, which never appear in
+     * valid UTF-8, so such a string does not match any value stored in a UTF-8 column, nor a different string
+     */
+    DfUtf8Slice set(String aString)
+    {
+        byte[] encoded = unpairedSurrogateIndex(aString) < 0
+                ? aString.getBytes(StandardCharsets.UTF_8)
+                : encodeWithSurrogates(aString);
+        return this.set(encoded, 0, encoded.length);
+    }
+
+    /*
+     * Returns the index of the first surrogate character in the string that is not a part of a surrogate pair, or -1
+     * if there is none
+     */
+    static int unpairedSurrogateIndex(String aString)
+    {
+        int length = aString.length();
+        for (int i = 0; i < length; i++)
+        {
+            char c = aString.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(aString.charAt(i + 1)))
+            {
+                i++;
+            }
+            else if (Character.isSurrogate(c))
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static byte[] encodeWithSurrogates(String aString)
+    {
+        // no code point takes more than three bytes per char
+        byte[] encoded = new byte[aString.length() * 3];
+        int length = 0;
+        int i = 0;
+        while (i < aString.length())
+        {
+            int codePoint = aString.codePointAt(i);
+            i += Character.charCount(codePoint);
+
+            if (codePoint < 0x80)
+            {
+                encoded[length++] = (byte) codePoint;
+            }
+            else if (codePoint < 0x800)
+            {
+                encoded[length++] = (byte) (0xC0 | (codePoint >> 6));
+                encoded[length++] = (byte) (0x80 | (codePoint & 0x3F));
+            }
+            else if (codePoint < 0x10000)
+            {
+                encoded[length++] = (byte) (0xE0 | (codePoint >> 12));
+                encoded[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                encoded[length++] = (byte) (0x80 | (codePoint & 0x3F));
+            }
+            else
+            {
+                encoded[length++] = (byte) (0xF0 | (codePoint >> 18));
+                encoded[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                encoded[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                encoded[length++] = (byte) (0x80 | (codePoint & 0x3F));
+            }
+        }
+
+        return Arrays.copyOf(encoded, length);
+    }
+
+    /*
+     * The copy refers to the same bytes, which is safe as long as they are not modified, as is the case for the string
+     * arena of a column
+     */
+    DfUtf8Slice copy()
+    {
+        return new DfUtf8Slice(this.bytes, this.offset, this.length, this.hash);
+    }
+
+    static int hashOf(byte[] bytes, int offset, int length)
+    {
+        int result = 1;
+        for (int i = offset; i < offset + length; i++)
+        {
+            result = 31 * result + bytes[i];
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        if (this == other)
+        {
+            return true;
+        }
+
+        if (!(other instanceof DfUtf8Slice otherSlice))
+        {
+            return false;
+        }
+
+        return this.hash == otherSlice.hash
+                && Arrays.equals(
+                        this.bytes, this.offset, this.offset + this.length,
+                        otherSlice.bytes, otherSlice.offset, otherSlice.offset + otherSlice.length);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return this.hash;
+    }
+
+    @Override
+    public String toString()
+    {
+        return new String(this.bytes, this.offset, this.length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.value.BooleanValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.NumberValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
+import io.github.vmzakharov.ecdataframe.dsl.value.WholeNumberValue;
+
+import static io.github.vmzakharov.ecdataframe.util.ExceptionFactory.exceptionByKey;
+
+/**
+ * A batch of values produced by evaluating an expression over a contiguous range of data frame rows. The values are
+ * stored in a primitive array matching the type of the vector - {@code long} for {@code LONG} and {@code INT},
+ * {@code double} for {@code DOUBLE} and {@code FLOAT}, {@code boolean} for {@code BOOLEAN} - accompanied by a null
+ * bitmap of the same size.
+ */
+public class DfVector
+{
+    private final ValueType type;
+    private final int size;
+    private final boolean[] nulls;
+
+    private long[] longs;
+    private double[] doubles;
+    private boolean[] booleans;
+
+    public DfVector(ValueType newType, int newSize)
+    {
+        this.type = newType;
+        this.size = newSize;
+        this.nulls = new boolean[newSize];
+
+        switch (this.type)
+        {
+            case LONG, INT -> this.longs = new long[newSize];
+            case DOUBLE, FLOAT -> this.doubles = new double[newSize];
+            case BOOLEAN -> this.booleans = new boolean[newSize];
+            default -> throw exceptionByKey("DF_VECTOR_UNSUPPORTED_TYPE").with("type", this.type).get();
+        }
+    }
+
+    public ValueType getType()
+    {
+        return this.type;
+    }
+
+    public int size()
+    {
+        return this.size;
+    }
+
+    public boolean isNull(int index)
+    {
+        return this.nulls[index];
+    }
+
+    public long getLong(int index)
+    {
+        return this.longs[index];
+    }
+
+    public double getDouble(int index)
+    {
+        return this.doubles[index];
+    }
+
+    public boolean getBoolean(int index)
+    {
+        return this.booleans[index];
+    }
+
+    /**
+     * Stores the value at the specified position in this vector, converting it to the primitive representation
+     * matching the type of the vector
+     *
+     * @param index the position in this vector
+     * @param value the value to store, {@code Value.VOID} marks the position as null
+     */
+    public void setValue(int index, Value value)
+    {
+        if (value.isVoid())
+        {
+            this.nulls[index] = true;
+            return;
+        }
+
+        switch (this.type)
+        {
+            case LONG, INT -> this.longs[index] = ((WholeNumberValue) value).longValue();
+            case DOUBLE, FLOAT -> this.doubles[index] = ((NumberValue) value).doubleValue();
+            default -> this.booleans[index] = ((BooleanValue) value).isTrue();
+        }
+    }
+
+    boolean[] nulls()
+    {
+        return this.nulls;
+    }
+
+    long[] longs()
+    {
+        return this.longs;
+    }
+
+    double[] doubles()
+    {
+        return this.doubles;
+    }
+
+    boolean[] booleans()
+    {
+        return this.booleans;
+    }
+
+    /**
+     * Returns the values of this vector as doubles. For the vectors of whole number types a converted copy of the
+     * values is returned.
+     *
+     * @return the array of double values
+     */
+    double[] asDoubles()
+    {
+        if (this.doubles != null)
+        {
+            return this.doubles;
+        }
+
+        double[] converted = new double[this.size];
+        for (int i = 0; i < this.size; i++)
+        {
+            converted[i] = this.longs[i];
+        }
+        return converted;
+    }
+}
@@ -0,0 +1,708 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.ArithmeticOp;
+import io.github.vmzakharov.ecdataframe.dsl.BinaryExpr;
+import io.github.vmzakharov.ecdataframe.dsl.BinaryOp;
+import io.github.vmzakharov.ecdataframe.dsl.BooleanOp;
+import io.github.vmzakharov.ecdataframe.dsl.ComparisonOp;
+import io.github.vmzakharov.ecdataframe.dsl.ContainsOp;
+import io.github.vmzakharov.ecdataframe.dsl.Expression;
+import io.github.vmzakharov.ecdataframe.dsl.VarExpr;
+import io.github.vmzakharov.ecdataframe.dsl.VectorExpr;
+import io.github.vmzakharov.ecdataframe.dsl.value.BooleanValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.StringValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.Value;
+import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
+
+import org.eclipse.collections.api.block.procedure.primitive.ObjectIntProcedure;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.impl.factory.Lists;
+
+import java.util.Arrays;
+
+/**
+ * Evaluates an expression over a range of data frame rows a column at a time rather than a row at a time. The
+ * expression is compiled into a tree of kernels operating directly on the primitive values of the stored columns,
+ * producing a {@link DfVector} of results per batch of rows and avoiding the allocation of intermediate
+ * {@code Value} objects.
+ * <p>
+ * Column references (including computed columns whose expressions can be compiled), numeric and boolean constants,
+ * arithmetic operations, comparisons, boolean operations, unary minus, negation and null checks are supported.
+ * Equality and {@code in} tests of dictionary encoded string columns against string constants are evaluated on the value
+ * codes.
+ * Boolean subexpressions that cannot be compiled (e.g., string comparisons or function calls) are evaluated row by row
+ * by the interpreter as part of the batch. If an expression cannot be compiled at all, {@link #isVectorizable()}
+ * returns {@code false} and the caller is expected to use the regular row by row evaluation.
+ * <p>
+ * If a batch cannot be evaluated by the kernels (an integer division by zero or a negation of a null), the batch is
+ * re-evaluated by the interpreter, so that the error is reported the same way as by the row by row evaluation.
+ */
+public class DfVectorEvaluator
+{
+    public static final int BATCH_SIZE = 4096;
+
+    private final DataFrame dataFrame;
+    private final Expression expression;
+    private final Kernel kernel;
+
+    public DfVectorEvaluator(DataFrame newDataFrame, Expression newExpression)
+    {
+        this.dataFrame = newDataFrame;
+        this.expression = newExpression;
+        this.kernel = new KernelCompiler().compile(this.expression);
+    }
+
+    public boolean isVectorizable()
+    {
+        return this.kernel != null;
+    }
+
+    /**
+     * @return the type of the values produced by this evaluator or {@code null} if the expression cannot be vectorized
+     */
+    public ValueType getType()
+    {
+        return this.kernel == null ? null : this.kernel.type();
+    }
+
+    /**
+     * Evaluates the expression for the rows from {@code fromRow} (inclusive) to {@code toRow} (exclusive)
+     *
+     * @param fromRow the first row of the batch
+     * @param toRow   the row following the last row of the batch
+     * @return a vector of the results, the element at position {@code i} corresponds to row {@code fromRow + i}
+     */
+    public DfVector evaluate(int fromRow, int toRow)
+    {
+        DfVector result = this.kernel.evaluate(fromRow, toRow, null);
+
+        return result == null ? this.interpret(this.expression, this.kernel.type(), fromRow, toRow) : result;
+    }
+
+    /**
+     * Evaluates the expression for the rows from zero to {@code rowCount} (exclusive) in batches of up to
+     * {@link #BATCH_SIZE} rows, passing each batch of results along with the index of its first row to the procedure
+     *
+     * @param rowCount  the number of rows to evaluate
+     * @param procedure the procedure to receive the results
+     */
+    public void forEachBatch(int rowCount, ObjectIntProcedure<DfVector> procedure)
+    {
+        this.forEachBatch(0, rowCount, procedure);
+    }
+
+    /**
+     * Evaluates the expression for the rows from {@code fromRow} (inclusive) to {@code toRow} (exclusive) in batches
+     * of up to {@link #BATCH_SIZE} rows, passing each batch of results along with the index of its first row to the
+     * procedure
+     *
+     * @param fromRow   the index of the first row to evaluate
+     * @param toRow     the index of the row following the last row to evaluate
+     * @param procedure the procedure to receive the results
+     */
+    public void forEachBatch(int fromRow, int toRow, ObjectIntProcedure<DfVector> procedure)
+    {
+        for (int batchFromRow = fromRow; batchFromRow < toRow; batchFromRow += BATCH_SIZE)
+        {
+            procedure.value(this.evaluate(batchFromRow, Math.min(batchFromRow + BATCH_SIZE, toRow)), batchFromRow);
+        }
+    }
+
+    private DfVector interpret(Expression anExpression, ValueType type, int fromRow, int toRow)
+    {
+        DfVector result = new DfVector(type, toRow - fromRow);
+
+        for (int rowIndex = fromRow; rowIndex < toRow; rowIndex++)
+        {
+            this.dataFrame.setEvalContextRowIndex(rowIndex);
+            result.setValue(rowIndex - fromRow, anExpression.evaluate(this.dataFrame.getEvalVisitor()));
+        }
+
+        return result;
+    }
+
+    private DfVector interpretBoolean(Expression operand, int fromRow, int toRow, boolean[] active)
+    {
+        DfVector result = new DfVector(ValueType.BOOLEAN, toRow - fromRow);
+        boolean[] values = result.booleans();
+        boolean[] nulls = result.nulls();
+
+        for (int rowIndex = fromRow; rowIndex < toRow; rowIndex++)
+        {
+            if (active != null && !active[rowIndex - fromRow])
+            {
+                continue;
+            }
+
+            this.dataFrame.setEvalContextRowIndex(rowIndex);
+            Value value = operand.evaluate(this.dataFrame.getEvalVisitor());
+            if (value.isVoid())
+            {
+                nulls[rowIndex - fromRow] = true;
+            }
+            else
+            {
+                values[rowIndex - fromRow] = ((BooleanValue) value).isTrue();
+            }
+        }
+
+        return result;
+    }
+
+    /*
+     * A comparison of a dictionary encoded string column to string constants is done by looking up the codes of the
+     * constants once per batch and then checking the code of each row against them, without accessing the values
+     */
+    private Kernel compileEncodedStringPredicate(BinaryExpr binaryExpr)
+    {
+        BinaryOp op = binaryExpr.operation();
+
+        boolean negated = op == ComparisonOp.NE || op == ContainsOp.NOT_IN;
+        if (!negated && op != ComparisonOp.EQ && op != ContainsOp.IN)
+        {
+            return null;
+        }
+
+        Expression columnOperand = binaryExpr.operand1();
+        Expression constantOperand = binaryExpr.operand2();
+
+        if (op instanceof ComparisonOp && constantOperand instanceof VarExpr)
+        {
+            columnOperand = binaryExpr.operand2();
+            constantOperand = binaryExpr.operand1();
+        }
+
+        if (!(columnOperand instanceof VarExpr varExpr)
+                || !this.dataFrame.hasColumn(varExpr.variableName())
+                || !(this.dataFrame.getColumnNamed(varExpr.variableName()) instanceof DfStringColumnEncoded column))
+        {
+            return null;
+        }
+
+        ListIterable<Expression> constants;
+        if (op instanceof ComparisonOp)
+        {
+            constants = Lists.immutable.of(constantOperand);
+        }
+        else if (constantOperand instanceof VectorExpr vectorExpr)
+        {
+            constants = vectorExpr.elements();
+        }
+        else
+        {
+            return null;
+        }
+
+        if (!constants.allSatisfy(StringValue.class::isInstance))
+        {
+            return null;
+        }
+
+        return new Kernel(ValueType.BOOLEAN, (fromRow, toRow, active) -> {
+            // the codes are looked up for every batch as the column may re-encode its values in the meantime
+            boolean[] matchingCodes = new boolean[column.getDictionarySize()];
+            constants.forEach(constant -> {
+                int code = column.getCodeOf(((StringValue) constant).stringValue());
+                if (code != DfStringColumnEncoded.NULL_CODE)
+                {
+                    matchingCodes[code] = true;
+                }
+            });
+
+            DfVector result = new DfVector(ValueType.BOOLEAN, toRow - fromRow);
+            boolean[] values = result.booleans();
+            for (int i = 0; i < values.length; i++)
+            {
+                int code = column.getCode(fromRow + i);
+                values[i] = negated ^ (code != DfStringColumnEncoded.NULL_CODE && matchingCodes[code]);
+            }
+            return result;
+        });
+    }
+
+    private static void mergeNulls(DfVector first, DfVector second, DfVector result)
+    {
+        boolean[] firstNulls = first.nulls();
+        boolean[] secondNulls = second.nulls();
+        boolean[] resultNulls = result.nulls();
+
+        for (int i = 0; i < resultNulls.length; i++)
+        {
+            resultNulls[i] = firstNulls[i] || secondNulls[i];
+        }
+    }
+
+    /*
+     * Returns false if the values cannot be computed because of a division by zero
+     */
+    private static boolean applyLong(ArithmeticOp op, long[] first, long[] second, boolean[] nulls, boolean[] active, long[] result)
+    {
+        int size = result.length;
+
+        if (op == ArithmeticOp.ADD)
+        {
+            for (int i = 0; i < size; i++)
+            {
+                result[i] = first[i] + second[i];
+            }
+        }
+        else if (op == ArithmeticOp.SUBTRACT)
+        {
+            for (int i = 0; i < size; i++)
+            {
+                result[i] = first[i] - second[i];
+            }
+        }
+        else if (op == ArithmeticOp.MULTIPLY)
+        {
+            for (int i = 0; i < size; i++)
+            {
+                result[i] = first[i] * second[i];
+            }
+        }
+        else
+        {
+            for (int i = 0; i < size; i++)
+            {
+                // the interpreter does not divide nulls and does not evaluate short-circuited operands
+                if (!nulls[i] && (active == null || active[i]))
+                {
+                    if (second[i] == 0L)
+                    {
+                        return false;
+                    }
+
+                    result[i] = first[i] / second[i];
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static void applyDouble(ArithmeticOp op, double[] first, double[] second, double[] result)
+    {
+        int size = result.length;
+
+        if (op == ArithmeticOp.ADD)
+        {
+            for (int i = 0; i < size; i++)
+            {
+                result[i] = first[i] + second[i];
+            }
+        }
+        else if (op == ArithmeticOp.SUBTRACT)
+        {
+            for (int i = 0; i < size; i++)
+            {
+                result[i] = first[i] - second[i];
+            }
+        }
+        else if (op == ArithmeticOp.MULTIPLY)
+        {
+            for (int i = 0; i < size; i++)
+            {
+                result[i] = first[i] * second[i];
+            }
+        }
+        else
+        {
+            for (int i = 0; i < size; i++)
+            {
+                result[i] = first[i] / second[i];
+            }
+        }
+    }
+
+    private static void compareLongs(DfComparisonOutcomes outcomes, long[] first, long[] second, boolean[] result)
+    {
+        for (int i = 0; i < result.length; i++)
+        {
+            result[i] = outcomes.compareLongs(first[i], second[i]);
+        }
+    }
+
+    private static void compareDoubles(DfComparisonOutcomes outcomes, double[] first, double[] second, boolean[] result)
+    {
+        for (int i = 0; i < result.length; i++)
+        {
+            result[i] = outcomes.compareDoubles(first[i], second[i]);
+        }
+    }
+
+    private static void applyNullOutcomes(DfComparisonOutcomes outcomes, boolean[] firstNulls, boolean[] secondNulls, boolean[] result)
+    {
+        for (int i = 0; i < result.length; i++)
+        {
+            if (firstNulls[i] || secondNulls[i])
+            {
+                result[i] = outcomes.withNulls(firstNulls[i], secondNulls[i]);
+            }
+        }
+    }
+
+    /*
+     * "and" and "or" do not evaluate their second operand if the outcome is determined by the first one, so the second
+     * operand is only evaluated for the rows where it matters
+     */
+    private static boolean[] secondOperandActive(BooleanOp op, DfVector firstVector, boolean[] active)
+    {
+        if (op == BooleanOp.XOR)
+        {
+            return active;
+        }
+
+        boolean[] firstValues = firstVector.booleans();
+        boolean[] firstNulls = firstVector.nulls();
+        boolean[] secondActive = new boolean[firstValues.length];
+        boolean shortCircuitOn = op == BooleanOp.OR;
+
+        for (int i = 0; i < secondActive.length; i++)
+        {
+            secondActive[i] = (active == null || active[i]) && (firstNulls[i] || firstValues[i] != shortCircuitOn);
+        }
+
+        return secondActive;
+    }
+
+    /*
+     * Compiles expressions into kernels, evaluating the values of an operation for all the rows of a batch before
+     * moving on to the next operation
+     */
+    private class KernelCompiler
+    extends DfExpressionCompiler<Kernel>
+    {
+        KernelCompiler()
+        {
+            super(DfVectorEvaluator.this.dataFrame, true);
+        }
+
+        @Override
+        protected ValueType typeOf(Kernel node)
+        {
+            return node.type();
+        }
+
+        @Override
+        protected Kernel interpretedBoolean(Expression operand)
+        {
+            return new Kernel(ValueType.BOOLEAN,
+                    (fromRow, toRow, active) -> DfVectorEvaluator.this.interpretBoolean(operand, fromRow, toRow, active));
+        }
+
+        @Override
+        protected Kernel storedColumn(DfColumn column)
+        {
+            return switch (column.getType())
+            {
+                case LONG -> new Kernel(ValueType.LONG, (fromRow, toRow, active) ->
+                        ((DfLongColumn) column).fillVector(fromRow, new DfVector(ValueType.LONG, toRow - fromRow)));
+                case INT -> new Kernel(ValueType.INT, (fromRow, toRow, active) ->
+                        ((DfIntColumn) column).fillVector(fromRow, new DfVector(ValueType.INT, toRow - fromRow)));
+                case DOUBLE -> new Kernel(ValueType.DOUBLE, (fromRow, toRow, active) ->
+                        ((DfDoubleColumn) column).fillVector(fromRow, new DfVector(ValueType.DOUBLE, toRow - fromRow)));
+                case FLOAT -> new Kernel(ValueType.FLOAT, (fromRow, toRow, active) ->
+                        ((DfFloatColumn) column).fillVector(fromRow, new DfVector(ValueType.FLOAT, toRow - fromRow)));
+                case BOOLEAN -> new Kernel(ValueType.BOOLEAN, (fromRow, toRow, active) ->
+                        ((DfBooleanColumnStored) column).fillVector(fromRow, new DfVector(ValueType.BOOLEAN, toRow - fromRow)));
+                default -> null;
+            };
+        }
+
+        @Override
+        protected Kernel wholeNumberConstant(ValueType type, long constant)
+        {
+            return new Kernel(type, (fromRow, toRow, active) -> {
+                DfVector result = new DfVector(type, toRow - fromRow);
+                Arrays.fill(result.longs(), constant);
+                return result;
+            });
+        }
+
+        @Override
+        protected Kernel realNumberConstant(ValueType type, double constant)
+        {
+            return new Kernel(type, (fromRow, toRow, active) -> {
+                DfVector result = new DfVector(type, toRow - fromRow);
+                Arrays.fill(result.doubles(), constant);
+                return result;
+            });
+        }
+
+        @Override
+        protected Kernel booleanConstant(boolean constant)
+        {
+            return new Kernel(ValueType.BOOLEAN, (fromRow, toRow, active) -> {
+                DfVector result = new DfVector(ValueType.BOOLEAN, toRow - fromRow);
+                Arrays.fill(result.booleans(), constant);
+                return result;
+            });
+        }
+
+        @Override
+        protected Kernel compileSpecialBinary(BinaryExpr binaryExpr)
+        {
+            return DfVectorEvaluator.this.compileEncodedStringPredicate(binaryExpr);
+        }
+
+        @Override
+        protected Kernel arithmetic(ArithmeticOp op, Kernel first, Kernel second, boolean wholeNumbers)
+        {
+            if (wholeNumbers)
+            {
+                return new Kernel(ValueType.LONG, (fromRow, toRow, active) -> {
+                    DfVector firstVector = first.evaluate(fromRow, toRow, active);
+                    DfVector secondVector = second.evaluate(fromRow, toRow, active);
+                    if (firstVector == null || secondVector == null)
+                    {
+                        return null;
+                    }
+
+                    DfVector result = new DfVector(ValueType.LONG, toRow - fromRow);
+
+                    mergeNulls(firstVector, secondVector, result);
+                    return applyLong(op, firstVector.longs(), secondVector.longs(), result.nulls(), active, result.longs())
+                            ? result
+                            : null;
+                });
+            }
+
+            return new Kernel(ValueType.DOUBLE, (fromRow, toRow, active) -> {
+                DfVector firstVector = first.evaluate(fromRow, toRow, active);
+                DfVector secondVector = second.evaluate(fromRow, toRow, active);
+                if (firstVector == null || secondVector == null)
+                {
+                    return null;
+                }
+
+                DfVector result = new DfVector(ValueType.DOUBLE, toRow - fromRow);
+
+                mergeNulls(firstVector, secondVector, result);
+                applyDouble(op, firstVector.asDoubles(), secondVector.asDoubles(), result.doubles());
+                return result;
+            });
+        }
+
+        @Override
+        protected Kernel comparison(DfComparisonOutcomes outcomes, Kernel first, Kernel second, boolean wholeNumbers)
+        {
+            return new Kernel(ValueType.BOOLEAN, (fromRow, toRow, active) -> {
+                DfVector firstVector = first.evaluate(fromRow, toRow, active);
+                DfVector secondVector = second.evaluate(fromRow, toRow, active);
+                if (firstVector == null || secondVector == null)
+                {
+                    return null;
+                }
+
+                DfVector result = new DfVector(ValueType.BOOLEAN, toRow - fromRow);
+
+                if (wholeNumbers)
+                {
+                    compareLongs(outcomes, firstVector.longs(), secondVector.longs(), result.booleans());
+                }
+                else
+                {
+                    compareDoubles(outcomes, firstVector.asDoubles(), secondVector.asDoubles(), result.booleans());
+                }
+
+                applyNullOutcomes(outcomes, firstVector.nulls(), secondVector.nulls(), result.booleans());
+                return result;
+            });
+        }
+
+        @Override
+        protected Kernel booleanOperation(BooleanOp op, Kernel first, Kernel second)
+        {
+            return new Kernel(ValueType.BOOLEAN, (fromRow, toRow, active) -> {
+                DfVector firstVector = first.evaluate(fromRow, toRow, active);
+                if (firstVector == null)
+                {
+                    return null;
+                }
+
+                DfVector secondVector = second.evaluate(fromRow, toRow, secondOperandActive(op, firstVector, active));
+                if (secondVector == null)
+                {
+                    return null;
+                }
+
+                DfVector result = new DfVector(ValueType.BOOLEAN, toRow - fromRow);
+
+                boolean[] a = firstVector.booleans();
+                boolean[] aNulls = firstVector.nulls();
+                boolean[] b = secondVector.booleans();
+                boolean[] bNulls = secondVector.nulls();
+                boolean[] values = result.booleans();
+                boolean[] nulls = result.nulls();
+
+                if (op == BooleanOp.AND)
+                {
+                    // three-valued logic: false and anything is false, otherwise null if either operand is null
+                    for (int i = 0; i < values.length; i++)
+                    {
+                        boolean definitelyFalse = (!aNulls[i] && !a[i]) || (!bNulls[i] && !b[i]);
+                        nulls[i] = !definitelyFalse && (aNulls[i] || bNulls[i]);
+                        values[i] = !definitelyFalse && !nulls[i];
+                    }
+                }
+                else if (op == BooleanOp.OR)
+                {
+                    // three-valued logic: true or anything is true, otherwise null if either operand is null
+                    for (int i = 0; i < values.length; i++)
+                    {
+                        boolean definitelyTrue = (!aNulls[i] && a[i]) || (!bNulls[i] && b[i]);
+                        nulls[i] = !definitelyTrue && (aNulls[i] || bNulls[i]);
+                        values[i] = definitelyTrue;
+                    }
+                }
+                else
+                {
+                    for (int i = 0; i < values.length; i++)
+                    {
+                        nulls[i] = aNulls[i] || bNulls[i];
+                        values[i] = !nulls[i] && (a[i] ^ b[i]);
+                    }
+                }
+
+                return result;
+            });
+        }
+
+        @Override
+        protected Kernel minus(Kernel operand)
+        {
+            return new Kernel(operand.type(), (fromRow, toRow, active) -> {
+                DfVector operandVector = operand.evaluate(fromRow, toRow, active);
+                if (operandVector == null)
+                {
+                    return null;
+                }
+
+                boolean[] nulls = operandVector.nulls();
+                for (int i = 0; i < nulls.length; i++)
+                {
+                    if (nulls[i] && (active == null || active[i]))
+                    {
+                        // negating a null is an error, let the interpreter report it
+                        return null;
+                    }
+                }
+
+                DfVector result = new DfVector(operand.type(), toRow - fromRow);
+
+                if (operand.type() == ValueType.INT)
+                {
+                    long[] values = operandVector.longs();
+                    long[] negated = result.longs();
+                    for (int i = 0; i < values.length; i++)
+                    {
+                        negated[i] = -((int) values[i]);
+                    }
+                }
+                else if (operand.type() == ValueType.LONG)
+                {
+                    long[] values = operandVector.longs();
+                    long[] negated = result.longs();
+                    for (int i = 0; i < values.length; i++)
+                    {
+                        negated[i] = -values[i];
+                    }
+                }
+                else
+                {
+                    double[] values = operandVector.doubles();
+                    double[] negated = result.doubles();
+                    for (int i = 0; i < values.length; i++)
+                    {
+                        negated[i] = -values[i];
+                    }
+                }
+
+                return result;
+            });
+        }
+
+        @Override
+        protected Kernel not(Kernel operand)
+        {
+            return new Kernel(ValueType.BOOLEAN, (fromRow, toRow, active) -> {
+                DfVector operandVector = operand.evaluate(fromRow, toRow, active);
+                if (operandVector == null)
+                {
+                    return null;
+                }
+
+                DfVector result = new DfVector(ValueType.BOOLEAN, toRow - fromRow);
+                boolean[] values = operandVector.booleans();
+                boolean[] negated = result.booleans();
+
+                System.arraycopy(operandVector.nulls(), 0, result.nulls(), 0, values.length);
+                for (int i = 0; i < values.length; i++)
+                {
+                    negated[i] = !values[i];
+                }
+
+                return result;
+            });
+        }
+
+        @Override
+        protected Kernel nullCheck(Kernel operand, boolean isNull)
+        {
+            return new Kernel(ValueType.BOOLEAN, (fromRow, toRow, active) -> {
+                DfVector operandVector = operand.evaluate(fromRow, toRow, active);
+                if (operandVector == null)
+                {
+                    return null;
+                }
+
+                boolean[] operandNulls = operandVector.nulls();
+                DfVector result = new DfVector(ValueType.BOOLEAN, toRow - fromRow);
+                boolean[] values = result.booleans();
+                for (int i = 0; i < values.length; i++)
+                {
+                    values[i] = operandNulls[i] == isNull;
+                }
+                return result;
+            });
+        }
+
+        @Override
+        protected Kernel storedColumnNullCheck(DfColumn column, boolean isNull)
+        {
+            return new Kernel(ValueType.BOOLEAN, (fromRow, toRow, active) -> {
+                DfVector result = new DfVector(ValueType.BOOLEAN, toRow - fromRow);
+                boolean[] values = result.booleans();
+                if (!column.mayContainNulls())
+                {
+                    Arrays.fill(values, !isNull);
+                    return result;
+                }
+
+                for (int i = 0; i < values.length; i++)
+                {
+                    values[i] = column.isNull(fromRow + i) == isNull;
+                }
+                return result;
+            });
+        }
+    }
+
+    /*
+     * Evaluates an expression for a batch of rows. If the active row flags are provided, the values only need to be
+     * computed for the active rows, the rest of the results will be ignored. Returns null if the batch cannot be
+     * evaluated this way and has to be evaluated by the interpreter
+     */
+    private interface BatchFunction
+    {
+        DfVector evaluate(int fromRow, int toRow, boolean[] active);
+    }
+
+    private record Kernel(ValueType type, BatchFunction function)
+    {
+        public DfVector evaluate(int fromRow, int toRow, boolean[] active)
+        {
+            return this.function.evaluate(fromRow, toRow, active);
+        }
+    }
+}
@@ -54,6 +54,12 @@ extends AggregateFunction
         return "Average, or mean of numeric values, the result retains the original value type";
     }
 
+    @Override
+    public boolean supportsCombining(ValueType accumulatorType)
+    {
+        return accumulatorType.isDecimal();
+    }
+
     @Override
     public ValueType targetColumnType(ValueType sourceColumnType)
     {
@@ -87,10 +93,7 @@ extends AggregateFunction
     @Override
     public Object applyToObjectColumn(DfObjectColumn<?> objectColumn)
     {
-        BigDecimal sum = ((DfDecimalColumn) objectColumn).injectIntoBreakOnNulls(
-                this.objectInitialValue(),
-                BigDecimal::add
-        );
+        BigDecimal sum = ((DfDecimalColumn) objectColumn).sum();
 
         return sum == null ? null : sum.divide(BigDecimal.valueOf(objectColumn.getSize()), RoundingMode.HALF_UP);
     }
@@ -114,6 +117,12 @@ extends AggregateFunction
         return currentAggregate + newValue;
     }
 
+    @Override
+    protected boolean sumsDecimals()
+    {
+        return true;
+    }
+
     @Override
     protected Object objectAccumulator(Object currentAggregate, Object newValue)
     {
@@ -2,6 +2,8 @@ package io.github.vmzakharov.ecdataframe.dataframe.aggregation;
 
 import io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction;
 import io.github.vmzakharov.ecdataframe.dataframe.DfColumn;
+import io.github.vmzakharov.ecdataframe.dataframe.DfLongColumn;
+import io.github.vmzakharov.ecdataframe.dataframe.DfLongColumnStored;
 import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
 import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.impl.factory.Lists;
@@ -54,6 +56,21 @@ extends AggregateFunction
         return "Count the number of rows in a set or a group within a set";
     }
 
+    @Override
+    public boolean supportsCombining(ValueType accumulatorType)
+    {
+        return true;
+    }
+
+    @Override
+    public void combine(DfColumn accumulatorColumn, int accumulatorRowIndex, DfColumn partialColumn, int partialRowIndex)
+    {
+        DfLongColumnStored countColumn = (DfLongColumnStored) accumulatorColumn;
+        countColumn.setLong(
+                accumulatorRowIndex,
+                countColumn.getLong(accumulatorRowIndex) + ((DfLongColumn) partialColumn).getLong(partialRowIndex));
+    }
+
     @Override
     public Object applyToColumn(DfColumn column)
     {
@@ -46,6 +46,12 @@ extends AggregateFunction
         return "Minimum numeric value";
     }
 
+    @Override
+    public boolean supportsCombining(ValueType accumulatorType)
+    {
+        return true;
+    }
+
     @Override
     public Object applyToDoubleColumn(DfDoubleColumn doubleColumn)
     {
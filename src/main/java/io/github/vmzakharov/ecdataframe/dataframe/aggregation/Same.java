@@ -75,6 +75,49 @@ extends AggregateFunction
         return INITIAL_VALUE_OBJECT;
     }
 
+    @Override
+    public void initializeValue(DfColumn accumulatorColumn, int accumulatorRowIndex)
+    {
+        if (this.startsWithFirstValue(accumulatorColumn))
+        {
+            accumulatorColumn.setObject(accumulatorRowIndex, null);
+        }
+        else
+        {
+            super.initializeValue(accumulatorColumn, accumulatorRowIndex);
+        }
+    }
+
+    @Override
+    public void aggregateFirstValue(DfColumn accumulatorColumn, int accumulatorRowIndex, DfColumn sourceColumn, int sourceRowIndex)
+    {
+        if (this.startsWithFirstValue(accumulatorColumn))
+        {
+            accumulatorColumn.setObject(accumulatorRowIndex, this.getObjectValue(sourceColumn, sourceRowIndex));
+        }
+        else
+        {
+            super.aggregateFirstValue(accumulatorColumn, accumulatorRowIndex, sourceColumn, sourceRowIndex);
+        }
+    }
+
+    @Override
+    public void combineFirst(DfColumn accumulatorColumn, int accumulatorRowIndex, DfColumn partialColumn, int partialRowIndex)
+    {
+        this.aggregateFirstValue(accumulatorColumn, accumulatorRowIndex, partialColumn, partialRowIndex);
+    }
+
+    /*
+     * Date, date/time, and decimal columns store primitive values rather than objects, and any initial value of their
+     * type could be mistaken for an aggregated value, so the first aggregated value is stored as is instead. This also
+     * keeps the accumulator of a decimal column at the scale of the aggregated values.
+     */
+    private boolean startsWithFirstValue(DfColumn accumulatorColumn)
+    {
+        ValueType type = accumulatorColumn.getType();
+        return type == DATE || type == DATE_TIME || type == DECIMAL;
+    }
+
     @Override
     public void aggregateValueIntoInt(DfIntColumnStored targetColumn, int targetRowIndex, DfColumn sourceColumn, int sourceRowIndex)
     {
@@ -218,6 +261,12 @@ extends AggregateFunction
         return "All values in the set are the same";
     }
 
+    @Override
+    public boolean supportsCombining(ValueType accumulatorType)
+    {
+        return true;
+    }
+
     @Override
     public ListIterable<ValueType> supportedSourceTypes()
     {
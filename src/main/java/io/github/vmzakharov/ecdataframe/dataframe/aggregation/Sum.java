@@ -55,6 +55,12 @@ extends AggregateFunction
         return "Sum";
     }
 
+    @Override
+    public boolean supportsCombining(ValueType accumulatorType)
+    {
+        return accumulatorType.isLong() || accumulatorType.isDecimal();
+    }
+
     @Override
     public Object applyToDoubleColumn(DfDoubleColumn doubleColumn)
     {
@@ -82,9 +88,13 @@ extends AggregateFunction
     @Override
     public Object applyToObjectColumn(DfObjectColumn<?> objectColumn)
     {
-        return ((DfDecimalColumn) objectColumn).injectIntoBreakOnNulls(
-                this.objectInitialValue(),
-                BigDecimal::add);
+        return ((DfDecimalColumn) objectColumn).sum();
+    }
+
+    @Override
+    protected boolean sumsDecimals()
+    {
+        return true;
     }
 
     @Override
@@ -1,6 +1,7 @@
 package io.github.vmzakharov.ecdataframe.dataframe.compare;
 
 import java.math.BigDecimal;
+import java.util.function.LongSupplier;
 
 public class DecimalComparisonResult
 extends ComparisonResult
@@ -17,6 +18,34 @@ extends ComparisonResult
         }
     }
 
+    /**
+     * Compares two decimal values with the same scale represented by their unscaled values, only creating a
+     * {@code BigDecimal} instance for the difference between them.
+     */
+    public DecimalComparisonResult(
+            LongSupplier thisUnscaledValueSupplier, LongSupplier otherUnscaledValueSupplier, int scale,
+            boolean thisIsNull, boolean otherIsNull)
+    {
+        this.dealWithNullsIfAny(thisIsNull, otherIsNull);
+
+        if (this.noNulls())
+        {
+            long thisValue = thisUnscaledValueSupplier.getAsLong();
+            long otherValue = otherUnscaledValueSupplier.getAsLong();
+            long delta = thisValue - otherValue;
+
+            // check for overflows
+            if (((thisValue ^ otherValue) & (thisValue ^ delta)) < 0)
+            {
+                this.decDelta = BigDecimal.valueOf(thisValue, scale).subtract(BigDecimal.valueOf(otherValue, scale));
+            }
+            else
+            {
+                this.decDelta = BigDecimal.valueOf(delta, scale);
+            }
+        }
+    }
+
     @Override
     public double dDelta()
     {
@@ -0,0 +1,789 @@
+package io.github.vmzakharov.ecdataframe.dataset;
+
+import io.github.vmzakharov.ecdataframe.dataframe.DataFrame;
+import io.github.vmzakharov.ecdataframe.dataframe.DfBooleanColumn;
+import io.github.vmzakharov.ecdataframe.dataframe.DfColumn;
+import io.github.vmzakharov.ecdataframe.dataframe.DfColumnComputed;
+import io.github.vmzakharov.ecdataframe.dataframe.DfDateColumn;
+import io.github.vmzakharov.ecdataframe.dataframe.DfDateColumnStored;
+import io.github.vmzakharov.ecdataframe.dataframe.DfDateTimeColumn;
+import io.github.vmzakharov.ecdataframe.dataframe.DfDecimalColumn;
+import io.github.vmzakharov.ecdataframe.dataframe.DfDoubleColumn;
+import io.github.vmzakharov.ecdataframe.dataframe.DfFloatColumn;
+import io.github.vmzakharov.ecdataframe.dataframe.DfIntColumn;
+import io.github.vmzakharov.ecdataframe.dataframe.DfLongColumn;
+import io.github.vmzakharov.ecdataframe.dataframe.DfMappedBuffer;
+import io.github.vmzakharov.ecdataframe.dataframe.DfObjectColumn;
+import io.github.vmzakharov.ecdataframe.dataframe.DfStringColumn;
+import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.primitive.ObjectIntMaps;
+import org.eclipse.collections.impl.list.mutable.primitive.BooleanArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.DoubleArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.FloatArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.BitSet;
+
+import static io.github.vmzakharov.ecdataframe.util.ExceptionFactory.exceptionByKey;
+
+/**
+ * A data set stored in a binary columnar file. Writing a data frame to this data set and loading it back is much faster
+ * than doing the same with a CSV file as the values are stored in their binary form and do not need to be formatted
+ * and parsed, and the schema does not need to be inferred.
+ * <p>
+ * The file starts with a header describing the data frame: the number of rows, whether pooling is enabled, and the
+ * name and the type of each column, along with the expression for computed columns. The header is followed by the
+ * values of the stored columns, one column after another. The values of each column are stored as a contiguous block
+ * preceded by a bitmap of null values: the values of numeric columns in their binary representation, booleans as a
+ * bitmap, dates as epoch days, date/time values as UTC epoch seconds and nanoseconds, and strings and decimals as a
+ * dictionary of distinct values followed by a dictionary code for each row.
+ */
+public class BinaryDataSet
+extends DataSetAbstract
+{
+    public static final int BUFFER_SIZE = 65_536;
+
+    private static final int MAGIC_NUMBER = 0x44464543; // "DFEC"
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int NULL_CODE = -1;
+
+    private final Path dataFilePath;
+
+    /**
+     * Create a new binary data set pointing to the file with the name {@code newDataFileName}
+     * @param newDataFileName the location of the data set (the file name)
+     * @param newName the name of the data set
+     */
+    public BinaryDataSet(String newDataFileName, String newName)
+    {
+        this(Paths.get(newDataFileName), newName);
+    }
+
+    /**
+     * Create a new binary data set named {@code newName} pointing to the file stored at the location
+     * {@code newDataFilePath}
+     * @param newDataFilePath the location of the data set (the path of the file)
+     * @param newName the name of the data set
+     */
+    public BinaryDataSet(Path newDataFilePath, String newName)
+    {
+        super(newName);
+        this.dataFilePath = newDataFilePath;
+    }
+
+    private String getDataFileName()
+    {
+        return this.dataFilePath.toString();
+    }
+
+    @Override
+    public void openFileForReading()
+    {
+        // Not needed for binary files
+    }
+
+    @Override
+    public Object next()
+    {
+        return null;
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        return false;
+    }
+
+    @Override
+    public void close()
+    {
+        // Not needed for binary files
+    }
+
+    protected OutputStream createOutputStream()
+    throws IOException
+    {
+        return Files.newOutputStream(this.dataFilePath);
+    }
+
+    protected InputStream createInputStream()
+    throws IOException
+    {
+        return Files.newInputStream(this.dataFilePath);
+    }
+
+    /**
+     * Writes the data frame to the file backing this data set, replacing its contents. The values are written in the
+     * order they are stored in the data frame columns, i.e., ignoring any sort order applied to the data frame.
+     * @param dataFrame the data frame to write
+     */
+    public void write(DataFrame dataFrame)
+    {
+        dataFrame.getColumns().forEach(column -> this.validateColumnType(column.getType()));
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(this.createOutputStream(), BUFFER_SIZE)))
+        {
+            int rowCount = dataFrame.rowCount();
+            int columnCount = dataFrame.columnCount();
+
+            out.writeInt(MAGIC_NUMBER);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(rowCount);
+            out.writeBoolean(dataFrame.isPoolingEnabled());
+            out.writeInt(columnCount);
+
+            for (int columnIndex = 0; columnIndex < columnCount; columnIndex++)
+            {
+                DfColumn column = dataFrame.getColumnAt(columnIndex);
+
+                out.writeUTF(column.getName());
+                out.writeUTF(column.getType().name());
+                out.writeBoolean(column.isStored());
+                if (!column.isStored())
+                {
+                    out.writeUTF(((DfColumnComputed) column).getExpressionAsString());
+                }
+            }
+
+            for (int columnIndex = 0; columnIndex < columnCount; columnIndex++)
+            {
+                DfColumn column = dataFrame.getColumnAt(columnIndex);
+                if (column.isStored())
+                {
+                    this.writeColumn(out, column, rowCount);
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            exceptionByKey("BIN_FILE_WRITE_FAIL").with("fileName", this.getDataFileName()).fire(e);
+        }
+    }
+
+    private void validateColumnType(ValueType type)
+    {
+        boolean supported = switch (type)
+        {
+            case LONG, INT, DOUBLE, FLOAT, BOOLEAN, DATE, DATE_TIME, STRING, DECIMAL -> true;
+            default -> false;
+        };
+
+        if (!supported)
+        {
+            exceptionByKey("BIN_UNSUPPORTED_COL_TYPE").with("valueType", type).fire();
+        }
+    }
+
+    private void writeColumn(DataOutputStream out, DfColumn column, int rowCount)
+    throws IOException
+    {
+        BitSet nulls = new BitSet(rowCount);
+        if (column.mayContainNulls())
+        {
+            for (int rowIndex = 0; rowIndex < rowCount; rowIndex++)
+            {
+                if (column.isNull(rowIndex))
+                {
+                    nulls.set(rowIndex);
+                }
+            }
+        }
+
+        this.writeBitmap(out, nulls);
+
+        switch (column.getType())
+        {
+            case LONG -> this.writeLongs(out, (DfLongColumn) column, nulls, rowCount);
+            case INT -> this.writeInts(out, (DfIntColumn) column, nulls, rowCount);
+            case DOUBLE -> this.writeDoubles(out, (DfDoubleColumn) column, nulls, rowCount);
+            case FLOAT -> this.writeFloats(out, (DfFloatColumn) column, nulls, rowCount);
+            case BOOLEAN -> this.writeBooleans(out, (DfBooleanColumn) column, nulls, rowCount);
+            case DATE -> this.writeDates(out, (DfDateColumn) column, nulls, rowCount);
+            case DATE_TIME -> this.writeDateTimes(out, (DfDateTimeColumn) column, nulls, rowCount);
+            case STRING -> this.writeDictionaryEncoded(out, (DfStringColumn) column, nulls, rowCount, this::writeString);
+            case DECIMAL -> this.writeDictionaryEncoded(out, (DfDecimalColumn) column, nulls, rowCount, this::writeDecimal);
+            default -> exceptionByKey("BIN_UNSUPPORTED_COL_TYPE").with("valueType", column.getType()).fire();
+        }
+    }
+
+    private void writeBitmap(DataOutputStream out, BitSet bits)
+    throws IOException
+    {
+        long[] words = bits.toLongArray();
+        out.writeInt(words.length);
+        for (long word : words)
+        {
+            out.writeLong(word);
+        }
+    }
+
+    private void writeLongs(DataOutputStream out, DfLongColumn column, BitSet nulls, int rowCount)
+    throws IOException
+    {
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++)
+        {
+            out.writeLong(nulls.get(rowIndex) ? 0L : column.getLong(rowIndex));
+        }
+    }
+
+    private void writeInts(DataOutputStream out, DfIntColumn column, BitSet nulls, int rowCount)
+    throws IOException
+    {
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++)
+        {
+            out.writeInt(nulls.get(rowIndex) ? 0 : column.getInt(rowIndex));
+        }
+    }
+
+    private void writeDoubles(DataOutputStream out, DfDoubleColumn column, BitSet nulls, int rowCount)
+    throws IOException
+    {
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++)
+        {
+            out.writeDouble(nulls.get(rowIndex) ? Double.NaN : column.getDouble(rowIndex));
+        }
+    }
+
+    private void writeFloats(DataOutputStream out, DfFloatColumn column, BitSet nulls, int rowCount)
+    throws IOException
+    {
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++)
+        {
+            out.writeFloat(nulls.get(rowIndex) ? Float.NaN : column.getFloat(rowIndex));
+        }
+    }
+
+    private void writeBooleans(DataOutputStream out, DfBooleanColumn column, BitSet nulls, int rowCount)
+    throws IOException
+    {
+        BitSet values = new BitSet(rowCount);
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++)
+        {
+            if (!nulls.get(rowIndex) && column.getBoolean(rowIndex))
+            {
+                values.set(rowIndex);
+            }
+        }
+
+        this.writeBitmap(out, values);
+    }
+
+    private void writeDates(DataOutputStream out, DfDateColumn column, BitSet nulls, int rowCount)
+    throws IOException
+    {
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++)
+        {
+            out.writeLong(nulls.get(rowIndex) ? 0L : column.getEpochDay(rowIndex));
+        }
+    }
+
+    private void writeDateTimes(DataOutputStream out, DfDateTimeColumn column, BitSet nulls, int rowCount)
+    throws IOException
+    {
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++)
+        {
+            out.writeLong(nulls.get(rowIndex) ? 0L : column.getTypedObject(rowIndex).toEpochSecond(ZoneOffset.UTC));
+        }
+
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++)
+        {
+            out.writeInt(nulls.get(rowIndex) ? 0 : column.getTypedObject(rowIndex).getNano());
+        }
+    }
+
+    private <T> void writeDictionaryEncoded(
+            DataOutputStream out, DfObjectColumn<T> column, BitSet nulls, int rowCount, ValueWriter<T> valueWriter)
+    throws IOException
+    {
+        MutableObjectIntMap<T> codes = ObjectIntMaps.mutable.of();
+        MutableList<T> dictionary = Lists.mutable.of();
+        int[] rowCodes = new int[rowCount];
+
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++)
+        {
+            if (nulls.get(rowIndex))
+            {
+                rowCodes[rowIndex] = NULL_CODE;
+            }
+            else
+            {
+                T value = column.getTypedObject(rowIndex);
+                rowCodes[rowIndex] = codes.getIfAbsentPutWithKey(value, each -> {
+                    dictionary.add(each);
+                    return dictionary.size() - 1;
+                });
+            }
+        }
+
+        out.writeInt(dictionary.size());
+        for (T value : dictionary)
+        {
+            valueWriter.write(out, value);
+        }
+
+        for (int code : rowCodes)
+        {
+            out.writeInt(code);
+        }
+    }
+
+    private void writeString(DataOutputStream out, String value)
+    throws IOException
+    {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeDecimal(DataOutputStream out, BigDecimal value)
+    throws IOException
+    {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeInt(value.scale());
+        out.writeInt(unscaled.length);
+        out.write(unscaled);
+    }
+
+    /**
+     * Loads the data set as a data frame with the same columns, including the computed ones, and the same values as
+     * the data frame that was written to it. If pooling was enabled on the written data frame, it is also enabled on
+     * the loaded one.
+     * @return a data frame representing the contents of the data set
+     */
+    public DataFrame loadAsDataFrame()
+    {
+        DataFrame df = null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(this.createInputStream(), BUFFER_SIZE)))
+        {
+            df = this.readDataFrame(in, (frame, header, rowCount) -> this.readColumn(in, frame, header, rowCount));
+        }
+        catch (IOException e)
+        {
+            exceptionByKey("BIN_FILE_LOAD_FAIL").with("fileName", this.getDataFileName()).fire(e);
+        }
+
+        return df;
+    }
+
+    /**
+     * Loads the data set as a data frame, same as {@link #loadAsDataFrame()}, except that the values of long, int,
+     * double, and float columns are not copied into memory, instead these columns read their values directly from the
+     * file mapped into memory. This allows working with data sets larger than the available heap, and avoids the cost
+     * of loading the columns that are not accessed. The mapped columns are read-only.
+     * @return a data frame representing the contents of the data set
+     */
+    public DataFrame mapAsDataFrame()
+    {
+        DataFrame df = null;
+
+        try (FileChannel channel = FileChannel.open(this.dataFilePath, StandardOpenOption.READ);
+             PositionTrackingInputStream tracker = new PositionTrackingInputStream(
+                     new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE)))
+        {
+            DataInputStream in = new DataInputStream(tracker);
+            df = this.readDataFrame(
+                    in, (frame, header, rowCount) -> this.mapColumn(channel, tracker, in, frame, header, rowCount));
+        }
+        catch (IOException e)
+        {
+            exceptionByKey("BIN_FILE_LOAD_FAIL").with("fileName", this.getDataFileName()).fire(e);
+        }
+
+        return df;
+    }
+
+    private DataFrame readDataFrame(DataInputStream in, StoredColumnReader storedColumnReader)
+    throws IOException
+    {
+        if (in.readInt() != MAGIC_NUMBER || in.readInt() != FORMAT_VERSION)
+        {
+            exceptionByKey("BIN_UNKNOWN_FILE_FORMAT").with("fileName", this.getDataFileName()).fire();
+        }
+
+        int rowCount = in.readInt();
+        boolean poolingEnabled = in.readBoolean();
+        int columnCount = in.readInt();
+
+        MutableList<ColumnHeader> headers = Lists.mutable.withInitialCapacity(columnCount);
+        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++)
+        {
+            String name = in.readUTF();
+            ValueType type = ValueType.valueOf(in.readUTF());
+            boolean stored = in.readBoolean();
+            headers.add(new ColumnHeader(name, type, stored ? null : in.readUTF()));
+        }
+
+        DataFrame df = new DataFrame(this.getName());
+
+        for (ColumnHeader header : headers)
+        {
+            if (header.isStored())
+            {
+                storedColumnReader.read(df, header, rowCount);
+            }
+            else
+            {
+                df.addColumn(header.getName(), header.getType(), header.getExpression());
+            }
+        }
+
+        df.seal();
+
+        if (poolingEnabled)
+        {
+            df.enablePooling();
+        }
+
+        return df;
+    }
+
+    private void mapColumn(
+            FileChannel channel, PositionTrackingInputStream tracker, DataInputStream in,
+            DataFrame df, ColumnHeader header, int rowCount)
+    throws IOException
+    {
+        int valueSize = switch (header.getType())
+        {
+            case LONG, DOUBLE -> Long.BYTES;
+            case INT, FLOAT -> Integer.BYTES;
+            default -> 0;
+        };
+
+        if (valueSize == 0)
+        {
+            this.readColumn(in, df, header, rowCount);
+            return;
+        }
+
+        long nullMapSize = (long) in.readInt() * Long.BYTES;
+        DfMappedBuffer nullMap = DfMappedBuffer.map(channel, tracker.getPosition(), nullMapSize);
+        in.skipNBytes(nullMapSize);
+
+        long valuesSize = (long) rowCount * valueSize;
+        DfMappedBuffer values = DfMappedBuffer.map(channel, tracker.getPosition(), valuesSize);
+        in.skipNBytes(valuesSize);
+
+        df.addMappedColumn(header.getName(), header.getType(), rowCount, nullMap, values);
+    }
+
+    private void readColumn(DataInputStream in, DataFrame df, ColumnHeader header, int rowCount)
+    throws IOException
+    {
+        String name = header.getName();
+        BitSet nulls = this.readBitmap(in);
+
+        switch (header.getType())
+        {
+            case LONG -> df.addLongColumn(name, LongArrayList.newListWith(this.readLongs(in, rowCount)));
+            case INT -> df.addIntColumn(name, IntArrayList.newListWith(this.readInts(in, rowCount)));
+            case DOUBLE -> df.addDoubleColumn(name, DoubleArrayList.newListWith(this.readDoubles(in, rowCount)));
+            case FLOAT -> df.addFloatColumn(name, FloatArrayList.newListWith(this.readFloats(in, rowCount)));
+            case BOOLEAN -> df.addBooleanColumn(name, this.readBooleans(in, rowCount));
+            case DATE -> this.readDates(in, (DfDateColumnStored) df.newColumn(name, ValueType.DATE), nulls, rowCount);
+            case DATE_TIME -> df.addDateTimeColumn(name, this.readDateTimes(in, nulls, rowCount));
+            case STRING -> df.addStringColumn(name, this.readDictionaryEncoded(in, rowCount, this::readString));
+            case DECIMAL -> df.addDecimalColumn(name, this.readDictionaryEncoded(in, rowCount, this::readDecimal));
+            default -> exceptionByKey("BIN_UNSUPPORTED_COL_TYPE").with("valueType", header.getType()).fire();
+        }
+
+        // object columns are populated with nulls directly, the primitive ones need them to be set
+        boolean primitive = switch (header.getType())
+        {
+            case LONG, INT, DOUBLE, FLOAT, BOOLEAN -> true;
+            default -> false;
+        };
+
+        if (primitive && !nulls.isEmpty())
+        {
+            DfColumn column = df.getColumnNamed(name);
+            nulls.stream().forEach(rowIndex -> column.setObject(rowIndex, null));
+        }
+    }
+
+    private BitSet readBitmap(DataInputStream in)
+    throws IOException
+    {
+        return BitSet.valueOf(this.readLongs(in, in.readInt()));
+    }
+
+    private long[] readLongs(DataInputStream in, int count)
+    throws IOException
+    {
+        long[] values = new long[count];
+        this.readBlocks(
+                in, count, Long.BYTES, (buffer, offset, length) -> buffer.asLongBuffer().get(values, offset, length));
+        return values;
+    }
+
+    private int[] readInts(DataInputStream in, int count)
+    throws IOException
+    {
+        int[] values = new int[count];
+        this.readBlocks(
+                in, count, Integer.BYTES, (buffer, offset, length) -> buffer.asIntBuffer().get(values, offset, length));
+        return values;
+    }
+
+    private double[] readDoubles(DataInputStream in, int count)
+    throws IOException
+    {
+        double[] values = new double[count];
+        this.readBlocks(
+                in, count, Double.BYTES, (buffer, offset, length) -> buffer.asDoubleBuffer().get(values, offset, length));
+        return values;
+    }
+
+    private float[] readFloats(DataInputStream in, int count)
+    throws IOException
+    {
+        float[] values = new float[count];
+        this.readBlocks(
+                in, count, Float.BYTES, (buffer, offset, length) -> buffer.asFloatBuffer().get(values, offset, length));
+        return values;
+    }
+
+    /**
+     * Reads {@code count} values of the specified size in blocks of up to {@link #BUFFER_SIZE} bytes, passing each
+     * block to the reader to copy the values out of it
+     */
+    private void readBlocks(DataInputStream in, int count, int valueSize, BlockReader blockReader)
+    throws IOException
+    {
+        int valuesPerBlock = BUFFER_SIZE / valueSize;
+        byte[] block = new byte[Math.min(count, valuesPerBlock) * valueSize];
+        ByteBuffer buffer = ByteBuffer.wrap(block);
+
+        for (int offset = 0; offset < count; offset += valuesPerBlock)
+        {
+            int length = Math.min(valuesPerBlock, count - offset);
+            in.readFully(block, 0, length * valueSize);
+            buffer.clear();
+            blockReader.read(buffer, offset, length);
+        }
+    }
+
+    private BooleanArrayList readBooleans(DataInputStream in, int rowCount)
+    throws IOException
+    {
+        BitSet values = this.readBitmap(in);
+
+        BooleanArrayList booleans = new BooleanArrayList(rowCount);
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++)
+        {
+            booleans.add(values.get(rowIndex));
+        }
+        return booleans;
+    }
+
+    private void readDates(DataInputStream in, DfDateColumnStored column, BitSet nulls, int rowCount)
+    throws IOException
+    {
+        long[] epochDays = this.readLongs(in, rowCount);
+
+        column.ensureInitialCapacity(rowCount);
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++)
+        {
+            if (nulls.get(rowIndex))
+            {
+                column.addEmptyValue();
+            }
+            else
+            {
+                column.addEpochDay(Math.toIntExact(epochDays[rowIndex]));
+            }
+        }
+    }
+
+    private MutableList<LocalDateTime> readDateTimes(DataInputStream in, BitSet nulls, int rowCount)
+    throws IOException
+    {
+        long[] epochSeconds = this.readLongs(in, rowCount);
+        int[] nanos = this.readInts(in, rowCount);
+
+        MutableList<LocalDateTime> dateTimes = Lists.mutable.withInitialCapacity(rowCount);
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++)
+        {
+            dateTimes.add(nulls.get(rowIndex)
+                    ? null
+                    : LocalDateTime.ofEpochSecond(epochSeconds[rowIndex], nanos[rowIndex], ZoneOffset.UTC));
+        }
+        return dateTimes;
+    }
+
+    private <T> MutableList<T> readDictionaryEncoded(DataInputStream in, int rowCount, ValueReader<T> valueReader)
+    throws IOException
+    {
+        int dictionarySize = in.readInt();
+        MutableList<T> dictionary = Lists.mutable.withInitialCapacity(dictionarySize);
+        for (int i = 0; i < dictionarySize; i++)
+        {
+            dictionary.add(valueReader.read(in));
+        }
+
+        int[] codes = this.readInts(in, rowCount);
+
+        MutableList<T> values = Lists.mutable.withInitialCapacity(rowCount);
+        for (int code : codes)
+        {
+            values.add(code == NULL_CODE ? null : dictionary.get(code));
+        }
+        return values;
+    }
+
+    private String readString(DataInputStream in)
+    throws IOException
+    {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private BigDecimal readDecimal(DataInputStream in)
+    throws IOException
+    {
+        int scale = in.readInt();
+        byte[] unscaled = new byte[in.readInt()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    @FunctionalInterface
+    private interface ValueWriter<T>
+    {
+        void write(DataOutputStream out, T value)
+        throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ValueReader<T>
+    {
+        T read(DataInputStream in)
+        throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface StoredColumnReader
+    {
+        void read(DataFrame df, ColumnHeader header, int rowCount)
+        throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface BlockReader
+    {
+        void read(ByteBuffer buffer, int offset, int length);
+    }
+
+    private static class ColumnHeader
+    {
+        private final String name;
+        private final ValueType type;
+        private final String expression;
+
+        ColumnHeader(String newName, ValueType newType, String newExpression)
+        {
+            this.name = newName;
+            this.type = newType;
+            this.expression = newExpression;
+        }
+
+        String getName()
+        {
+            return this.name;
+        }
+
+        ValueType getType()
+        {
+            return this.type;
+        }
+
+        String getExpression()
+        {
+            return this.expression;
+        }
+
+        boolean isStored()
+        {
+            return this.expression == null;
+        }
+    }
+
+    /**
+     * Keeps track of the number of bytes read from the underlying stream so that the position of a block of values in
+     * the file is known when the block is reached
+     */
+    private static class PositionTrackingInputStream
+    extends FilterInputStream
+    {
+        private long position = 0;
+
+        PositionTrackingInputStream(InputStream newInputStream)
+        {
+            super(newInputStream);
+        }
+
+        long getPosition()
+        {
+            return this.position;
+        }
+
+        @Override
+        public int read()
+        throws IOException
+        {
+            int aByte = super.read();
+            if (aByte >= 0)
+            {
+                this.position++;
+            }
+            return aByte;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length)
+        throws IOException
+        {
+            int count = super.read(bytes, offset, length);
+            if (count > 0)
+            {
+                this.position += count;
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long count)
+        throws IOException
+        {
+            long skipped = super.skip(count);
+            this.position += skipped;
+            return skipped;
+        }
+    }
+}
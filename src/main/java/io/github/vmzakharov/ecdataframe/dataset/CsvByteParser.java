@@ -0,0 +1,542 @@
+package io.github.vmzakharov.ecdataframe.dataset;
+
+import io.github.vmzakharov.ecdataframe.dataframe.DfColumn;
+import io.github.vmzakharov.ecdataframe.dataframe.DfDoubleColumnStored;
+import io.github.vmzakharov.ecdataframe.dataframe.DfIntColumnStored;
+import io.github.vmzakharov.ecdataframe.dataframe.DfLongColumnStored;
+import org.eclipse.collections.api.block.procedure.Procedure;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.impl.utility.StringIterate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+
+/**
+ * Parses the lines of a CSV file directly from the bytes of a (memory mapped) buffer, without decoding the lines into
+ * strings. The lines are split into elements following the same rules as {@link CsvDataSet#splitMindingQsInto}. The
+ * elements of whole number, floating point, and ISO date columns in the common formats are parsed straight from the
+ * bytes into the columns, strings are created only for the elements of string columns. Any element this parser cannot
+ * handle directly is converted to a string and passed to the column populator, and a line that does not split into the
+ * expected number of elements is passed to the line parser, so the result of parsing, including any errors, is the
+ * same as if the file was read line by line as strings.
+ * <p>
+ * The bytes are expected to be encoded in an ASCII compatible charset, where the bytes of the separator, quote, and
+ * line break characters never occur as a part of the encoding of another character.
+ */
+final class CsvByteParser
+{
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // the integer values with up to this many digits can be converted to double exactly
+    private static final int MAX_EXACT_DOUBLE_DIGITS = 15;
+
+    private final byte separator;
+    private final byte quote;
+    private final byte[] nullMarker;
+    private final boolean emptyElementsConvertedToNulls;
+    private final Charset charset;
+
+    private final ListIterable<DfColumn> columns;
+    private final ListIterable<Procedure<String>> columnPopulators;
+    private final Procedure<String> lineParser;
+    private final ElementParser[] elementParsers;
+
+    private final int[] elementStarts;
+    private final int[] elementEnds;
+
+    private ByteBuffer buffer;
+    private byte[] scratch = new byte[256];
+
+    /**
+     * @param newSchema the schema of the data set being parsed
+     * @param newColumns the columns to add the parsed values to, in the order of the schema columns
+     * @param newColumnPopulators the procedures parsing an element as a string and adding it to the respective column
+     * @param newLineParser the procedure parsing an entire line as a string and adding it to the columns
+     * @param newEmptyElementsConvertedToNulls if {@code true} the empty elements are treated as nulls
+     * @param newCharset the charset the bytes are encoded in
+     */
+    CsvByteParser(
+            CsvSchema newSchema,
+            ListIterable<DfColumn> newColumns,
+            ListIterable<Procedure<String>> newColumnPopulators,
+            Procedure<String> newLineParser,
+            boolean newEmptyElementsConvertedToNulls,
+            Charset newCharset)
+    {
+        this.separator = (byte) newSchema.getSeparator();
+        this.quote = (byte) newSchema.getQuoteCharacter();
+        this.nullMarker = newSchema.hasNullMarker() ? newSchema.getNullMarker().getBytes(newCharset) : null;
+        this.emptyElementsConvertedToNulls = newEmptyElementsConvertedToNulls;
+        this.charset = newCharset;
+
+        this.columns = newColumns;
+        this.columnPopulators = newColumnPopulators;
+        this.lineParser = newLineParser;
+
+        int columnCount = newSchema.columnCount();
+        this.elementParsers = new ElementParser[columnCount];
+        for (int i = 0; i < columnCount; i++)
+        {
+            this.elementParsers[i] = this.elementParserFor(newSchema.columnAt(i));
+        }
+
+        this.elementStarts = new int[columnCount];
+        this.elementEnds = new int[columnCount];
+    }
+
+    /**
+     * Checks if the data encoded in the specified charset using the separator and quote characters of the schema can
+     * be parsed by this parser
+     */
+    static boolean canParse(CsvSchema schema, Charset charset)
+    {
+        return (charset.equals(StandardCharsets.UTF_8)
+                || charset.equals(StandardCharsets.US_ASCII)
+                || charset.equals(StandardCharsets.ISO_8859_1))
+                && schema.getSeparator() < 0x80
+                && schema.getQuoteCharacter() < 0x80
+                && schema.getSeparator() != '\n' && schema.getSeparator() != '\r';
+    }
+
+    /**
+     * Parses all the lines in the specified buffer, from its start to its limit, and adds the parsed values to the
+     * columns. The lines are terminated by a line feed, a carriage return, or a carriage return followed by a line feed,
+     * the same way as by {@link java.io.BufferedReader#readLine()}.
+     */
+    void parseLines(ByteBuffer newBuffer)
+    {
+        this.buffer = newBuffer;
+
+        int end = newBuffer.limit();
+        int lineStart = 0;
+        while (lineStart < end)
+        {
+            int lineEnd = lineStart;
+            while (lineEnd < end && newBuffer.get(lineEnd) != '\n' && newBuffer.get(lineEnd) != '\r')
+            {
+                lineEnd++;
+            }
+
+            this.parseLine(lineStart, lineEnd);
+
+            lineStart = lineEnd + 1;
+            if (lineEnd < end && newBuffer.get(lineEnd) == '\r' && lineStart < end && newBuffer.get(lineStart) == '\n')
+            {
+                lineStart++;
+            }
+        }
+
+        this.buffer = null;
+    }
+
+    private void parseLine(int lineStart, int lineEnd)
+    {
+        int elementCount = this.splitMindingQs(lineStart, lineEnd);
+
+        if (elementCount != this.elementParsers.length)
+        {
+            // let the string based parser deal with it, including reporting any errors
+            this.lineParser.accept(this.decode(lineStart, lineEnd));
+            return;
+        }
+
+        for (int i = 0; i < elementCount; i++)
+        {
+            int start = this.elementStarts[i];
+            int end = this.elementEnds[i];
+
+            if (start >= end)
+            {
+                boolean isNull = this.emptyElementsConvertedToNulls || this.isNullMarker(start, end);
+                this.columnPopulators.get(i).accept(isNull ? null : "");
+            }
+            else if (this.isNullMarker(start, end))
+            {
+                this.columnPopulators.get(i).accept(null);
+            }
+            else if (!this.elementParsers[i].parseAndAddToColumn(start, end, this.columns.get(i)))
+            {
+                this.columnPopulators.get(i).accept(this.decode(start, end));
+            }
+        }
+    }
+
+    /**
+     * Splits the line into elements, recording the boundaries of each element, following the same rules as
+     * {@link CsvDataSet#splitMindingQsInto}.
+     * @return the number of elements in the line or -1 if the line cannot be split into the expected number of elements
+     * by looking at the individual bytes
+     */
+    private int splitMindingQs(int lineStart, int lineEnd)
+    {
+        int elementCount = 0;
+
+        int currentTokenStart = lineStart;
+        boolean insideQuotes = false;
+        boolean initialBlanks = true;
+        boolean closedQuote = false;
+
+        for (int index = lineStart; index < lineEnd; index++)
+        {
+            byte curByte = this.buffer.get(index);
+
+            if (index == lineEnd - 1)
+            {
+                if (insideQuotes && curByte != this.quote)
+                {
+                    return -1; // unbalanced quotes
+                }
+
+                if (curByte == this.separator)
+                {
+                    if (!closedQuote)
+                    {
+                        elementCount = this.addElement(elementCount, currentTokenStart, index);
+                    }
+                    elementCount = this.addElement(elementCount, index + 1, index + 1);
+                }
+                else
+                {
+                    elementCount = this.addElement(elementCount, currentTokenStart, index + 1);
+                }
+            }
+            else if (insideQuotes)
+            {
+                if (curByte == this.quote)
+                {
+                    insideQuotes = false;
+                    closedQuote = true;
+                    elementCount = this.addElement(elementCount, currentTokenStart, index + 1);
+                    currentTokenStart = index + 1;
+                }
+            }
+            else if (curByte == this.separator)
+            {
+                if (!closedQuote)
+                {
+                    elementCount = this.addElement(elementCount, currentTokenStart, index);
+                }
+                closedQuote = false;
+                initialBlanks = true;
+                currentTokenStart = index + 1;
+            }
+            else if (initialBlanks)
+            {
+                if (curByte < 0)
+                {
+                    return -1; // a non-ASCII character, which may or may not be a space
+                }
+
+                if (curByte != ' ')
+                {
+                    initialBlanks = false;
+                    if (curByte == this.quote)
+                    {
+                        insideQuotes = true;
+                        currentTokenStart = index;
+                    }
+                }
+            }
+
+            if (elementCount < 0)
+            {
+                return -1;
+            }
+        }
+
+        return elementCount;
+    }
+
+    private int addElement(int elementCount, int start, int end)
+    {
+        if (elementCount < 0 || elementCount == this.elementStarts.length)
+        {
+            return -1; // too many elements
+        }
+
+        this.elementStarts[elementCount] = start;
+        this.elementEnds[elementCount] = end;
+        return elementCount + 1;
+    }
+
+    private boolean isNullMarker(int start, int end)
+    {
+        if (this.nullMarker == null || end - start != this.nullMarker.length)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < this.nullMarker.length; i++)
+        {
+            if (this.buffer.get(start + i) != this.nullMarker[i])
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private String decode(int start, int end)
+    {
+        int length = end - start;
+        if (this.scratch.length < length)
+        {
+            this.scratch = new byte[Math.max(length, 2 * this.scratch.length)];
+        }
+
+        this.buffer.get(start, this.scratch, 0, length);
+        return new String(this.scratch, 0, length, this.charset);
+    }
+
+    private ElementParser elementParserFor(CsvSchemaColumn schemaColumn)
+    {
+        boolean noPattern = StringIterate.isEmpty(schemaColumn.getPattern());
+
+        return switch (schemaColumn.getType())
+        {
+            case LONG -> noPattern ? this::parseAndAddLong : ElementParser.NONE;
+            case INT -> noPattern ? this::parseAndAddInt : ElementParser.NONE;
+            case DOUBLE -> noPattern ? this::parseAndAddDouble : ElementParser.NONE;
+            case DATE -> this.dateParserFor(schemaColumn.getPattern());
+            case STRING -> this::parseAndAddString;
+            default -> ElementParser.NONE;
+        };
+    }
+
+    private ElementParser dateParserFor(String pattern)
+    {
+        if ("uuuu-M-d".equals(pattern))
+        {
+            return (start, end, column) -> this.parseAndAddIsoDate(start, end, column, 1);
+        }
+
+        if ("uuuu-MM-dd".equals(pattern))
+        {
+            return (start, end, column) -> this.parseAndAddIsoDate(start, end, column, 2);
+        }
+
+        return ElementParser.NONE;
+    }
+
+    /**
+     * Parses a whole number with up to {@code maxDigits} digits, which is guaranteed to fit in a {@code long},
+     * following the syntax accepted by {@link Long#parseLong(String)}
+     * @return the parsed value or {@code Long.MIN_VALUE} if the element is not a whole number of this size
+     */
+    private long parseWholeNumber(int start, int end, int maxDigits)
+    {
+        int index = start;
+        byte first = this.buffer.get(index);
+        boolean negative = first == '-';
+        if (negative || first == '+')
+        {
+            index++;
+        }
+
+        int digitCount = end - index;
+        if (digitCount < 1 || digitCount > maxDigits)
+        {
+            return Long.MIN_VALUE;
+        }
+
+        long value = 0;
+        for (; index < end; index++)
+        {
+            int digit = this.buffer.get(index) - '0';
+            if (digit < 0 || digit > 9)
+            {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + digit;
+        }
+
+        return negative ? -value : value;
+    }
+
+    private boolean parseAndAddLong(int start, int end, DfColumn column)
+    {
+        long value = this.parseWholeNumber(start, end, 18);
+        if (value == Long.MIN_VALUE)
+        {
+            return false;
+        }
+
+        ((DfLongColumnStored) column).addLong(value, false);
+        return true;
+    }
+
+    private boolean parseAndAddInt(int start, int end, DfColumn column)
+    {
+        long value = this.parseWholeNumber(start, end, 9);
+        if (value == Long.MIN_VALUE)
+        {
+            return false;
+        }
+
+        ((DfIntColumnStored) column).addInt((int) value, false);
+        return true;
+    }
+
+    /**
+     * Parses a plain decimal number (an optional sign, digits, and an optional decimal point, no exponent) with at most
+     * 15 digits. Both the digits taken as a whole number and the power of ten it needs to be divided by are then
+     * exactly representable as doubles, so a single division produces the correctly rounded result, the same as
+     * {@link Double#parseDouble(String)}.
+     */
+    private boolean parseAndAddDouble(int start, int end, DfColumn column)
+    {
+        int index = start;
+        byte first = this.buffer.get(index);
+        boolean negative = first == '-';
+        if (negative || first == '+')
+        {
+            index++;
+        }
+
+        long mantissa = 0;
+        int digitCount = 0;
+        int fractionDigitCount = 0;
+        boolean seenPoint = false;
+
+        for (; index < end; index++)
+        {
+            byte aByte = this.buffer.get(index);
+            if (aByte == '.' && !seenPoint)
+            {
+                seenPoint = true;
+            }
+            else if (aByte >= '0' && aByte <= '9')
+            {
+                mantissa = mantissa * 10 + (aByte - '0');
+                digitCount++;
+                if (seenPoint)
+                {
+                    fractionDigitCount++;
+                }
+            }
+            else
+            {
+                return false;
+            }
+        }
+
+        if (digitCount == 0 || digitCount > MAX_EXACT_DOUBLE_DIGITS)
+        {
+            return false;
+        }
+
+        double value = mantissa / POWERS_OF_TEN[fractionDigitCount];
+        ((DfDoubleColumnStored) column).addDouble(negative ? -value : value);
+        return true;
+    }
+
+    /**
+     * Parses a date in the format {@code yyyy-M-d} (if {@code minFieldWidth} is 1) or {@code yyyy-MM-dd} (if it is 2)
+     * optionally surrounded by blanks
+     */
+    private boolean parseAndAddIsoDate(int start, int end, DfColumn column, int minFieldWidth)
+    {
+        int from = start;
+        int to = end;
+        while (from < to && this.isBlank(this.buffer.get(from)))
+        {
+            from++;
+        }
+
+        while (to > from && this.isBlank(this.buffer.get(to - 1)))
+        {
+            to--;
+        }
+
+        // yyyy-M-d is between 8 and 10 characters long
+        if (to - from < 8 || to - from > 10 || this.buffer.get(from + 4) != '-')
+        {
+            return false;
+        }
+
+        int year = this.digitsAt(from, 4);
+        int monthEnd = from + 5;
+        while (monthEnd < to && this.buffer.get(monthEnd) != '-')
+        {
+            monthEnd++;
+        }
+
+        int monthWidth = monthEnd - from - 5;
+        int dayWidth = to - monthEnd - 1;
+        if (monthWidth < minFieldWidth || monthWidth > 2 || dayWidth < minFieldWidth || dayWidth > 2)
+        {
+            return false;
+        }
+
+        int month = this.digitsAt(from + 5, monthWidth);
+        int day = this.digitsAt(monthEnd + 1, dayWidth);
+
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year)))
+        {
+            return false;
+        }
+
+        column.addObject(LocalDate.of(year, month, day));
+        return true;
+    }
+
+    private boolean isBlank(byte aByte)
+    {
+        // the same characters as the ones removed by String.trim()
+        return aByte >= 0 && aByte <= ' ';
+    }
+
+    /**
+     * @return the value of the specified number of decimal digits starting at the index or -1 if any of the bytes is
+     * not a digit
+     */
+    private int digitsAt(int index, int count)
+    {
+        int value = 0;
+        for (int i = index; i < index + count; i++)
+        {
+            int digit = this.buffer.get(i) - '0';
+            if (digit < 0 || digit > 9)
+            {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private boolean parseAndAddString(int start, int end, DfColumn column)
+    {
+        int from = start;
+        int to = end;
+
+        if (to - from >= 2 && this.buffer.get(from) == this.quote && this.buffer.get(to - 1) == this.quote)
+        {
+            from++;
+            to--;
+        }
+
+        column.addObject(this.decode(from, to));
+        return true;
+    }
+
+    @FunctionalInterface
+    private interface ElementParser
+    {
+        ElementParser NONE = (start, end, column) -> false;
+
+        /**
+         * Parses the non-empty element between the specified positions and adds its value to the column
+         * @return {@code true} if the element has been parsed, {@code false} if it needs to be parsed as a string
+         */
+        boolean parseAndAddToColumn(int start, int end, DfColumn column);
+    }
+}
@@ -2,11 +2,13 @@ package io.github.vmzakharov.ecdataframe.dataset;
 
 import io.github.vmzakharov.ecdataframe.dataframe.DataFrame;
 import io.github.vmzakharov.ecdataframe.dataframe.DfColumn;
+import io.github.vmzakharov.ecdataframe.dataframe.DfColumnStored;
 import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
 import org.eclipse.collections.api.block.procedure.Procedure;
 import org.eclipse.collections.api.list.ListIterable;
 import org.eclipse.collections.api.list.MutableList;
 import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.list.primitive.IntInterval;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
@@ -16,14 +18,22 @@ import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.time.format.ResolverStyle;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -40,6 +50,10 @@ extends DataSetAbstract
 {
     public static final int BUFFER_SIZE = 65_536;
     public static final int LINE_COUNT_FOR_TYPE_INFERENCE = 100;
+    public static final int PARALLEL_LOADING_MIN_CHUNK_SIZE = 65_536;
+
+    private static final int LINE_SEARCH_BUFFER_SIZE = 8_192;
+    private static final int MAX_MAPPED_CHUNK_SIZE = 1 << 28;
 
     private final Path dataFilePath;
 
@@ -47,6 +61,10 @@ extends DataSetAbstract
 
     private CsvSchema schema;
 
+    private ForkJoinPool parallelLoadingPool;
+
+    private boolean memoryMappedParsingEnabled = false;
+
     /**
      * Create a new CSV data set pointing to the file with the name {@code newDataFileName}
      * @param newDataFileName the location of the data set (the file name)
@@ -134,6 +152,79 @@ extends DataSetAbstract
         return this;
     }
 
+    /**
+     * Turns on parallel loading of this data set using the common fork join pool.
+     * See also {@link #enableParallelLoading(ForkJoinPool)}, {@link #disableParallelLoading()}
+     * @return this data set
+     */
+    public CsvDataSet enableParallelLoading()
+    {
+        return this.enableParallelLoading(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Turns on parallel loading of this data set using the specified pool. When the entire data set is loaded from an
+     * uncompressed file, the file is split into byte ranges aligned to line boundaries, the ranges are parsed
+     * concurrently by the tasks running in the pool, and the parsed values are then appended to the columns of the
+     * resulting data frame in the original order of the rows. Compressed files and partial loads are always loaded in
+     * the calling thread.
+     * @param newPool the pool to run the tasks in
+     * @return this data set
+     */
+    public CsvDataSet enableParallelLoading(ForkJoinPool newPool)
+    {
+        this.parallelLoadingPool = newPool;
+        return this;
+    }
+
+    /**
+     * Turns off parallel loading, the data set will be loaded in the calling thread. This is the default behavior.
+     * @return this data set
+     */
+    public CsvDataSet disableParallelLoading()
+    {
+        this.parallelLoadingPool = null;
+        return this;
+    }
+
+    public boolean isParallelLoadingEnabled()
+    {
+        return this.parallelLoadingPool != null;
+    }
+
+    /**
+     * Turns on parsing of the data set directly from the bytes of the file, which is memory mapped in chunks, instead
+     * of reading it line by line as strings. The values of whole number, floating point, and ISO date columns in the
+     * common formats are parsed straight from the bytes, strings are only created for the values of string columns.
+     * This only applies when the entire data set is loaded from an uncompressed file on the default file system encoded
+     * in an ASCII compatible charset (UTF-8, US-ASCII, or ISO-8859-1), other loads use the string based parsing. The loaded data frame is the
+     * same regardless of the parsing method. If parallel loading is enabled, each chunk is parsed from the bytes in
+     * parallel.
+     * See also {@link #disableMemoryMappedParsing()}, {@link #enableParallelLoading()}
+     * @return this data set
+     */
+    public CsvDataSet enableMemoryMappedParsing()
+    {
+        this.memoryMappedParsingEnabled = true;
+        return this;
+    }
+
+    /**
+     * Turns off parsing of the data set directly from the bytes of the file, the file is read line by line as strings.
+     * This is the default behavior.
+     * @return this data set
+     */
+    public CsvDataSet disableMemoryMappedParsing()
+    {
+        this.memoryMappedParsingEnabled = false;
+        return this;
+    }
+
+    public boolean isMemoryMappedParsingEnabled()
+    {
+        return this.memoryMappedParsingEnabled;
+    }
+
     @Override
     public Object next()
     {
@@ -407,18 +498,29 @@ extends DataSetAbstract
 
             this.getSchema().getColumns().forEach(col -> this.addDataFrameColumn(df, col, columnPopulators));
 
-            int columnCount = this.getSchema().columnCount();
-            MutableList<String> lineElements = Lists.mutable.withInitialCapacity(columnCount);
+            if (loadAllLines && this.isParallelLoadingEnabled() && this.isUncompressedFile())
+            {
+                this.loadDataInParallel(df);
+            }
+            else if (loadAllLines && this.canParseMemoryMapped())
+            {
+                this.loadDataMemoryMapped(df, columnPopulators);
+            }
+            else
+            {
+                int columnCount = this.getSchema().columnCount();
+                MutableList<String> lineElements = Lists.mutable.withInitialCapacity(columnCount);
 
-            int lineNumber = 0;
+                int lineNumber = 0;
 
-            while (
-                    (dataRow = this.getNextLine(lineBuffer, reader, lineNumber)) != null
-                    && (loadAllLines || (lineNumber < headLineCount))
-            )
-            {
-                this.parseAndAddLineToDataFrame(dataRow, lineElements, columnCount, columnPopulators);
-                lineNumber++;
+                while (
+                        (dataRow = this.getNextLine(lineBuffer, reader, lineNumber)) != null
+                        && (loadAllLines || (lineNumber < headLineCount))
+                )
+                {
+                    this.parseAndAddLineToDataFrame(dataRow, lineElements, columnCount, columnPopulators);
+                    lineNumber++;
+                }
             }
 
             df.seal();
@@ -431,6 +533,241 @@ extends DataSetAbstract
         return df;
     }
 
+    private boolean isUncompressedFile()
+    {
+        if (!Files.isRegularFile(this.dataFilePath))
+        {
+            return false;
+        }
+
+        String fileName = this.dataFilePath.getFileName().toString();
+        return !(fileName.endsWith(".zip") || fileName.endsWith(".gz"));
+    }
+
+    private boolean canParseMemoryMapped()
+    {
+        // file channels of other file systems do not necessarily support mapping
+        return this.isMemoryMappedParsingEnabled()
+                && this.dataFilePath.getFileSystem() == FileSystems.getDefault()
+                && this.isUncompressedFile()
+                && CsvByteParser.canParse(this.getSchema(), Charset.defaultCharset());
+    }
+
+    /**
+     * Loads the data lines of the file into the (empty) columns of the data frame parsing them directly from the bytes
+     * of the file, which is memory mapped one chunk at a time
+     */
+    private void loadDataMemoryMapped(DataFrame df, MutableList<Procedure<String>> columnPopulators)
+    throws IOException
+    {
+        int columnCount = this.getSchema().columnCount();
+        MutableList<String> lineElements = Lists.mutable.withInitialCapacity(columnCount);
+
+        CsvByteParser parser = new CsvByteParser(
+                this.getSchema(),
+                df.getColumns(),
+                columnPopulators,
+                line -> this.parseAndAddLineToDataFrame(line, lineElements, columnCount, columnPopulators),
+                this.emptyElementsConvertedToNulls,
+                Charset.defaultCharset());
+
+        for (CsvChunk chunk : this.splitIntoChunks(1))
+        {
+            this.parseMemoryMapped(chunk, parser);
+        }
+    }
+
+    private void parseMemoryMapped(CsvChunk chunk, CsvByteParser parser)
+    throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(this.dataFilePath, StandardOpenOption.READ))
+        {
+            MappedByteBuffer mapped = channel.map(
+                    FileChannel.MapMode.READ_ONLY, chunk.getStart(), chunk.getEnd() - chunk.getStart());
+            parser.parseLines(mapped);
+        }
+    }
+
+    /**
+     * Loads the data lines of the file into the (empty) columns of the data frame. The file is split into chunks, which
+     * are parsed concurrently into data frames of their own, the chunks are then concatenated into the target data
+     * frame one column at a time. A line break inside a quoted value is not supported by this data set, so each line is
+     * a record and a chunk boundary placed right after a line break never splits a record.
+     */
+    private void loadDataInParallel(DataFrame df)
+    throws IOException
+    {
+        MutableList<CsvChunk> chunks = this.splitIntoChunks(4 * this.parallelLoadingPool.getParallelism());
+
+        MutableList<ForkJoinTask<?>> submitted = chunks.collect(
+                chunk -> this.parallelLoadingPool.submit(() -> this.loadChunk(chunk)));
+        submitted.forEach(ForkJoinTask::join);
+
+        // report the failure that the sequential load would have encountered first
+        chunks.forEach(CsvChunk::rethrowFailureIfAny);
+
+        int rowCount = (int) chunks.sumOfInt(chunk -> chunk.getLoaded().rowCount());
+
+        MutableList<ForkJoinTask<?>> columnConcatenations = Lists.mutable.withInitialCapacity(df.columnCount());
+        for (int columnIndex = 0; columnIndex < df.columnCount(); columnIndex++)
+        {
+            int index = columnIndex;
+            DfColumn target = df.getColumnAt(index);
+            columnConcatenations.add(this.parallelLoadingPool.submit(() -> {
+                ((DfColumnStored) target).ensureInitialCapacity(rowCount);
+                chunks.forEach(chunk -> {
+                    DataFrame loaded = chunk.getLoaded();
+                    if (loaded.rowCount() > 0)
+                    {
+                        loaded.getColumnAt(index).addRowsToColumn(IntInterval.zeroTo(loaded.rowCount() - 1), target);
+                    }
+                });
+            }));
+        }
+        columnConcatenations.forEach(ForkJoinTask::join);
+    }
+
+    /**
+     * Splits the data lines of the file into about the specified number of chunks, the chunks are no smaller than
+     * {@link #PARALLEL_LOADING_MIN_CHUNK_SIZE} and small enough to be memory mapped
+     */
+    private MutableList<CsvChunk> splitIntoChunks(int targetChunkCount)
+    throws IOException
+    {
+        MutableList<CsvChunk> chunks = Lists.mutable.of();
+
+        try (FileChannel channel = FileChannel.open(this.dataFilePath, StandardOpenOption.READ))
+        {
+            long fileSize = channel.size();
+            long dataStart = this.getSchema().hasHeaderLine() ? this.nextLineStart(channel, 0, fileSize) : 0;
+
+            long chunkSize = Math.min(
+                    MAX_MAPPED_CHUNK_SIZE,
+                    Math.max(PARALLEL_LOADING_MIN_CHUNK_SIZE, (fileSize - dataStart) / targetChunkCount + 1));
+
+            long chunkStart = dataStart;
+            while (chunkStart < fileSize)
+            {
+                long chunkEnd = chunkStart + chunkSize >= fileSize
+                        ? fileSize
+                        : this.nextLineStart(channel, chunkStart + chunkSize, fileSize);
+
+                chunks.add(new CsvChunk(chunkStart, chunkEnd));
+                chunkStart = chunkEnd;
+            }
+        }
+
+        return chunks;
+    }
+
+    /**
+     * Finds the position of the beginning of the first line starting at or after the specified position, recognizing
+     * the same line terminators as {@link BufferedReader#readLine()}: a line feed, a carriage return, or a carriage
+     * return followed by a line feed
+     */
+    private long nextLineStart(FileChannel channel, long fromPosition, long fileSize)
+    throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(LINE_SEARCH_BUFFER_SIZE);
+
+        long position = fromPosition;
+        while (position < fileSize)
+        {
+            buffer.clear();
+            int byteCount = channel.read(buffer, position);
+            if (byteCount <= 0)
+            {
+                break;
+            }
+
+            for (int i = 0; i < byteCount; i++)
+            {
+                byte aByte = buffer.get(i);
+                if (aByte == '\n')
+                {
+                    return position + i + 1;
+                }
+
+                if (aByte == '\r')
+                {
+                    long next = position + i + 1;
+                    return next < fileSize && this.byteAt(channel, next) == '\n' ? next + 1 : next;
+                }
+            }
+
+            position += byteCount;
+        }
+
+        return fileSize;
+    }
+
+    private byte byteAt(FileChannel channel, long position)
+    throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(1);
+        channel.read(buffer, position);
+        return buffer.get(0);
+    }
+
+    private void loadChunk(CsvChunk chunk)
+    {
+        // the formatters used to parse the values are not thread safe, so each chunk gets its own
+        CsvSchema chunkSchema = this.getSchema().copy();
+
+        DataFrame loaded = new DataFrame(this.getName());
+        MutableList<Procedure<String>> columnPopulators = Lists.mutable.of();
+        chunkSchema.getColumns().forEach(col -> this.addDataFrameColumn(loaded, col, columnPopulators));
+
+        int columnCount = chunkSchema.columnCount();
+        MutableList<String> lineElements = Lists.mutable.withInitialCapacity(columnCount);
+        Procedure<String> lineParser =
+                line -> this.parseAndAddLineToDataFrame(line, lineElements, columnCount, columnPopulators);
+
+        try
+        {
+            if (this.canParseMemoryMapped())
+            {
+                this.parseMemoryMapped(chunk, new CsvByteParser(
+                        chunkSchema,
+                        loaded.getColumns(),
+                        columnPopulators,
+                        lineParser,
+                        this.emptyElementsConvertedToNulls,
+                        Charset.defaultCharset()));
+            }
+            else
+            {
+                this.parseLines(chunk, lineParser);
+            }
+
+            loaded.seal();
+            chunk.setLoaded(loaded);
+        }
+        catch (IOException e)
+        {
+            chunk.setFailure(exceptionByKey("CSV_FILE_LOAD_FAIL").with("fileName", this.getDataFileName()).get(e));
+        }
+        catch (RuntimeException e)
+        {
+            chunk.setFailure(e);
+        }
+    }
+
+    private void parseLines(CsvChunk chunk, Procedure<String> lineParser)
+    throws IOException
+    {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileRangeInputStream(this.dataFilePath, chunk.getStart(), chunk.getEnd())),
+                BUFFER_SIZE))
+        {
+            String dataRow;
+            while ((dataRow = reader.readLine()) != null)
+            {
+                lineParser.accept(dataRow);
+            }
+        }
+    }
+
     private String getNextLine(MutableList<String> lineBuffer, BufferedReader reader, int lineNumber)
     throws IOException
     {
@@ -778,4 +1115,116 @@ extends DataSetAbstract
 
         return this.emptyElementsConvertedToNulls ? null : "";
     }
+
+    /**
+     * A range of bytes of the data file, which is parsed as a unit during parallel loading, along with the result of
+     * parsing it
+     */
+    private static class CsvChunk
+    {
+        private final long start;
+        private final long end;
+
+        private DataFrame loaded;
+        private RuntimeException failure;
+
+        CsvChunk(long newStart, long newEnd)
+        {
+            this.start = newStart;
+            this.end = newEnd;
+        }
+
+        long getStart()
+        {
+            return this.start;
+        }
+
+        long getEnd()
+        {
+            return this.end;
+        }
+
+        DataFrame getLoaded()
+        {
+            return this.loaded;
+        }
+
+        void setLoaded(DataFrame newLoaded)
+        {
+            this.loaded = newLoaded;
+        }
+
+        void setFailure(RuntimeException newFailure)
+        {
+            this.failure = newFailure;
+        }
+
+        void rethrowFailureIfAny()
+        {
+            if (this.failure != null)
+            {
+                throw this.failure;
+            }
+        }
+    }
+
+    /**
+     * An input stream reading the bytes of a file between two positions
+     */
+    private static class FileRangeInputStream
+    extends InputStream
+    {
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+
+        FileRangeInputStream(Path filePath, long newStart, long newEnd)
+        throws IOException
+        {
+            this.channel = FileChannel.open(filePath, StandardOpenOption.READ);
+            this.position = newStart;
+            this.end = newEnd;
+        }
+
+        @Override
+        public int read()
+        throws IOException
+        {
+            byte[] oneByte = new byte[1];
+            int byteCount = this.read(oneByte, 0, 1);
+            return byteCount <= 0 ? -1 : oneByte[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length)
+        throws IOException
+        {
+            if (this.position >= this.end)
+            {
+                return -1;
+            }
+
+            if (length == 0)
+            {
+                return 0;
+            }
+
+            int byteCount = this.channel.read(
+                    ByteBuffer.wrap(bytes, offset, (int) Math.min(length, this.end - this.position)), this.position);
+
+            if (byteCount > 0)
+            {
+                this.position += byteCount;
+            }
+
+            return byteCount;
+        }
+
+        @Override
+        public void close()
+        throws IOException
+        {
+            this.channel.close();
+        }
+    }
 }
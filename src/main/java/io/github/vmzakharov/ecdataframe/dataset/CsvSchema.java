@@ -89,6 +89,25 @@ public class CsvSchema
         return this;
     }
 
+    /**
+     * Creates a copy of this schema with the same settings and columns. The columns of the copy have their own
+     * formatters, which are not guaranteed to be thread safe, so the copy can be used to parse values concurrently with
+     * this schema.
+     * @return a copy of this schema
+     */
+    public CsvSchema copy()
+    {
+        CsvSchema copy = new CsvSchema()
+                .nullMarker(this.nullMarker)
+                .separator(this.separator)
+                .quoteCharacter(this.quoteCharacter)
+                .hasHeaderLine(this.hasHeaderLine);
+
+        this.columns.forEach(column -> copy.addColumn(column.getName(), column.getType(), column.getPattern()));
+
+        return copy;
+    }
+
     public MutableList<CsvSchemaColumn> getColumns()
     {
         return this.columns;
@@ -29,9 +29,13 @@ final public class ConfigureMessages
         addMessage("DF_ADD_COL_UNKNOWN_TYPE",         "Cannot add a column ${columnName} for values of type ${type}");
         addMessage("DF_DIFFERENT_COL_SIZES",          "Stored column sizes are not the same when attempting to set up data frame '${dataFrameName}'");
         addMessage("DF_UNION_DIFF_COL_COUNT",         "Attempting to union data frames with different numbers of columns");
+        addMessage("DF_APPEND_DIFF_COL_COUNT",        "Cannot append rows to data frame '${dataFrameName}': data frame '${otherDataFrameName}' has a different number of columns");
+        addMessage("DF_APPEND_COL_MISMATCH",          "Cannot append rows to data frame '${dataFrameName}': data frame '${otherDataFrameName}' does not have column '${columnName}' of type ${columnType}");
         addMessage("DF_JOIN_DIFF_KEY_COUNT",          "Attempting to join dataframes by different number of keys on each side: ${side1KeyList} to ${side2KeyList}");
         addMessage("DF_NO_COL_COMPARATOR",            "Column comparator is not implemented for column ${columnName} of type ${type}");
         addMessage("DF_COL_ALREADY_LINKED",           "Column '${columnName}' has already been linked to a data frame");
+        addMessage("DF_UTF8_UNPAIRED_SURROGATE",      "Cannot store a string with an unpaired surrogate character at index ${index} in UTF-8 string column '${columnName}'");
+        addMessage("DF_MAPPED_COL_MODIFICATION",      "Cannot modify column '${columnName}' as its values are mapped from a file");
         addMessage("DF_BAD_VAL_ADD_TO_COL",           "Attempting to add a value ${value} of type ${valueType} to a column ${columnName} of type ${columnType}");
         addMessage("DF_SET_VAL_ON_COMP_COL",          "Cannot set a value on computed column '${columnName}'");
         addMessage("DF_AGG_VAL_TO_COMP_COL",          "Cannot store aggregated value into a computed column '${columnNane}'");
@@ -40,6 +44,7 @@ final public class ConfigureMessages
         addMessage("DF_CALC_COL_TYPE_MISMATCH",       "Cannot add calculated column ${columnName} to data frame ${dataFrameName}: type ${inferredType} of expression '${expression}' does not match specified type ${specifiedType}");
         addMessage("DF_MERGE_COL_DIFF_TYPES",         "Attempting to merge columns of different types: ${firstColumnName} (${firstColumnType}) and ${secondColumnName} (${secondColumnType})");
         addMessage("DF_COL_CONTAINS_NULL",            "Column '${columnName}' contains null value in row ${rowIndex}");
+        addMessage("DF_VECTOR_UNSUPPORTED_TYPE",      "Vectorized evaluation is not supported for values of type ${type}");
         addMessage("CSV_FILE_WRITE_FAIL",             "Failed to write data frame to '${fileName}'");
         addMessage("CSV_UNSUPPORTED_VAL_TO_STR",      "Do not know how to convert value of type ${valueType} to a string");
         addMessage("CSV_UNSUPPORTED_COL_TYPE",        "Serializing columns of type of type ${valueType} is not supported");
@@ -54,6 +59,10 @@ final public class ConfigureMessages
         addMessage("CSV_UNBALANCED_QUOTES",           "Unbalanced quotes at index ${index} in ${aString}");
         addMessage("CSV_INVALID_FORMAT_STR",          "Invalid format string '${format}' for type '${type}'");
         addMessage("CSV_PARSE_ERR",                   "Failed to parse input string to ${type}: '${inputString}'");
+        addMessage("BIN_FILE_WRITE_FAIL",             "Failed to write data frame to '${fileName}'");
+        addMessage("BIN_FILE_LOAD_FAIL",              "Failed to load file as a data frame '${fileName}'");
+        addMessage("BIN_UNKNOWN_FILE_FORMAT",         "'${fileName}' is not a binary data frame file or its format version is not supported");
+        addMessage("BIN_UNSUPPORTED_COL_TYPE",        "Saving columns of type ${valueType} in binary format is not supported");
         addMessage("OBJ_END_OF_DATA_SET",             "No more elements in data set ${dataSetName}");
         addMessage("OBJ_METHOD_INVOKE_FAIL",          "Failed to invoke ${method}");
         addMessage("OBJ_PROPERTY_NOT_FOUND",          "Unable to find property ${property} on ${className}");
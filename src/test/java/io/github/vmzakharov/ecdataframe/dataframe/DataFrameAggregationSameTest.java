@@ -5,9 +5,12 @@ import org.eclipse.collections.impl.factory.Lists;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 import static io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction.same;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class DataFrameAggregationSameTest
 {
@@ -83,6 +86,38 @@ public class DataFrameAggregationSameTest
                         Lists.immutable.of("Name")));
     }
 
+    @Test
+    public void sameValuesWithoutInitialValueCollisions()
+    {
+        // these used to be the initial values of the date, date/time, and decimal accumulators
+        LocalDate farDate = LocalDate.of(-999_999, 1, 1);
+        LocalDateTime farDateTime = LocalDateTime.of(-99_999, 1, 1, 0, 0);
+
+        DataFrame df = new DataFrame("FrameOfData")
+                .addStringColumn("Name").addDateColumn("Date").addDateTimeColumn("DateTime").addDecimalColumn("Amount")
+                .addRow("Alice", farDate,                   farDateTime,                         new BigDecimal("1.25"))
+                .addRow("Alice", LocalDate.of(2021, 11, 21), LocalDateTime.of(2021, 11, 21, 9, 30), new BigDecimal("1.25"))
+                .addRow("Bob",   farDate,                   farDateTime,                         new BigDecimal("2.50"))
+                .addRow("Bob",   farDate,                   farDateTime,                         new BigDecimal("2.50"))
+                .addRow("Carol", null,                      farDateTime,                         null)
+                .addRow("Carol", null,                      null,                                new BigDecimal("3.75"))
+                ;
+
+        DataFrame aggregated = df.aggregateBy(
+                Lists.immutable.of(same("Date"), same("DateTime"), same("Amount")),
+                Lists.immutable.of("Name"));
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("aggregated")
+                        .addStringColumn("Name").addDateColumn("Date").addDateTimeColumn("DateTime").addDecimalColumn("Amount")
+                        .addRow("Alice", null,    null,        new BigDecimal("1.25"))
+                        .addRow("Bob",   farDate, farDateTime, new BigDecimal("2.50"))
+                        .addRow("Carol", null,    null,        null),
+                aggregated);
+
+        assertTrue(((DfDecimalColumnStored) aggregated.getColumnNamed("Amount")).storesUnscaledValues());
+    }
+
     @Test
     public void aggregateAllNoGrouping()
     {
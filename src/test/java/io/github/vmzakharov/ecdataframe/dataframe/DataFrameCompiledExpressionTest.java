@@ -0,0 +1,160 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
+import io.github.vmzakharov.ecdataframe.util.ExpressionParserHelper;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.impl.factory.primitive.LongLists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static io.github.vmzakharov.ecdataframe.dataframe.DfColumnSortOrder.DESC;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataFrameCompiledExpressionTest
+{
+    private DataFrame dataFrame;
+
+    @BeforeEach
+    public void setUpDataFrame()
+    {
+        this.dataFrame = new DataFrame("FrameOfData")
+                .addStringColumn("Key").addStringColumn("Name").addLongColumn("Bar").addDoubleColumn("Baz")
+                .addIntColumn("Fred").addFloatColumn("Qux").addBooleanColumn("Flag")
+                .addRow("a", "Alice", 1L,   10.0, 1,    1.0f, true)
+                .addRow("b", "Bob",   null, 20.0, 2,    2.0f, false)
+                .addRow("c", null,    3L,   null, 3,    3.0f, null)
+                .addRow("d", "Carl",  4L,   40.0, null, null, true)
+                .addRow("e", "",      5L,   50.0, 0,    5.0f, false)
+                .addRow("f", "Bob",   6L,   60.0, 4,    3.0f, true);
+
+        this.dataFrame.addColumn("TwoBars", "Bar * 2");
+        this.dataFrame.addColumn("BarPlusBaz", "Bar + Baz");
+        this.dataFrame.addColumn("BigBar", "Bar > 4 or Flag");
+        this.dataFrame.addIntColumn("FredToo", "Fred");
+        this.dataFrame.addColumn("HalfQux", "Qux / 2.0");
+        this.dataFrame.addFloatColumn("QuxToo", "Qux");
+
+        this.dataFrame.seal();
+
+        // compiled expressions are used where vectorized evaluation does not apply
+        this.dataFrame.disableVectorizedEvaluation();
+    }
+
+    @Test
+    public void selection()
+    {
+        this.assertSelection("Bar > 1 and Baz < 45.0", "c", "d");
+        this.assertSelection("Bar >= 5 or Fred == 3", "c", "e", "f");
+        this.assertSelection("Bar is null or Qux == 3.0", "b", "c", "f");
+        this.assertSelection("Flag is not null and not (Flag)", "b", "e");
+        this.assertSelection("TwoBars - 5 > BarPlusBaz / 10", "c", "f");
+        this.assertSelection("BigBar is not null and BigBar and Fred != 1", "d", "e", "f");
+        this.assertSelection("Fred != 0 and Fred is not null and 12 / Fred > 5", "a", "b");
+        this.assertSelection("Name == \"Bob\" and Bar > 1", "f");
+        this.assertSelection("Fred is not null and Flag is not null and (Fred / 2 == 1 xor Flag)", "a", "b", "f");
+    }
+
+    @Test
+    public void computedColumns()
+    {
+        DataFrameUtil.assertEquals(
+                new DataFrame("Expected")
+                        .addStringColumn("Key").addStringColumn("Name").addLongColumn("Bar").addDoubleColumn("Baz")
+                        .addIntColumn("Fred").addFloatColumn("Qux").addBooleanColumn("Flag")
+                        .addLongColumn("TwoBars").addDoubleColumn("BarPlusBaz").addBooleanColumn("BigBar")
+                        .addIntColumn("FredToo").addDoubleColumn("HalfQux").addFloatColumn("QuxToo")
+                        .addRow("a", "Alice", 1L,   10.0, 1,    1.0f, true,  2L,   11.0, true,  1,    0.5,  1.0f)
+                        .addRow("b", "Bob",   null, 20.0, 2,    2.0f, false, null, null, false, 2,    1.0,  2.0f)
+                        .addRow("c", null,    3L,   null, 3,    3.0f, null,  6L,   null, null,  3,    1.5,  3.0f)
+                        .addRow("d", "Carl",  4L,   40.0, null, null, true,  8L,   44.0, true,  null, null, null)
+                        .addRow("e", "",      5L,   50.0, 0,    5.0f, false, 10L,  55.0, true,  0,    2.5,  5.0f)
+                        .addRow("f", "Bob",   6L,   60.0, 4,    3.0f, true,  12L,  66.0, true,  4,    1.5,  3.0f),
+                this.dataFrame);
+
+        assertThrows(NullPointerException.class, () -> this.dataFrame.getLong("TwoBars", 1));
+        assertThrows(NullPointerException.class, () -> this.dataFrame.getDouble("BarPlusBaz", 2));
+    }
+
+    @Test
+    public void sortByExpression()
+    {
+        assertEquals(
+                Lists.immutable.of("b", "d", "a", "c", "e", "f"),
+                this.keysInOrder(this.dataFrame.sortByExpression("Bar * 2 + Fred")));
+
+        assertEquals(
+                Lists.immutable.of("f", "e", "b", "a", "c", "d"),
+                this.keysInOrder(this.dataFrame.sortByExpression("Baz - Qux", DESC)));
+    }
+
+    @Test
+    public void compiledExpressionReportsTypeAndValues()
+    {
+        DfCompiledExpression barPlusOne = this.compile("Bar + 1");
+        assertEquals(ValueType.LONG, barPlusOne.getType());
+        assertEquals(2L, barPlusOne.getLong(0));
+        assertTrue(barPlusOne.isNull(1));
+
+        assertEquals(ValueType.DOUBLE, this.compile("Bar + Qux").getType());
+        assertEquals(ValueType.INT, this.compile("-Fred").getType());
+        assertEquals(ValueType.BOOLEAN, this.compile("Bar > 5 and Name == \"Bob\"").getType());
+
+        assertNull(this.compile("Name + \"Bob\""));
+        assertNull(this.compile("Bar == Fred"));
+    }
+
+    @Test
+    public void negatingNullIsReportedAsByInterpreter()
+    {
+        RuntimeException compiledError = assertThrows(RuntimeException.class, () -> this.dataFrame.selectBy("-Fred < 0"));
+
+        this.dataFrame.disableExpressionCompilation();
+        RuntimeException interpretedError = assertThrows(RuntimeException.class, () -> this.dataFrame.selectBy("-Fred < 0"));
+
+        assertEquals(interpretedError.getMessage(), compiledError.getMessage());
+    }
+
+    @Test
+    public void computedColumnRecompiledAfterReferencedColumnReplaced()
+    {
+        DataFrame df = new DataFrame("FrameOfData")
+                .addLongColumn("A").addColumn("B", "A * 10")
+                .addRow(1L)
+                .addRow(2L)
+                .seal();
+
+        assertEquals(20L, df.getLong("B", 1));
+
+        df.dropColumn("A");
+        df.addLongColumn("A", LongLists.immutable.of(5L, 6L));
+
+        assertEquals(50L, df.getLong("B", 0));
+        assertEquals(60L, df.getLong("B", 1));
+    }
+
+    private DfCompiledExpression compile(String expressionString)
+    {
+        return DfCompiledExpression.compile(
+                this.dataFrame, ExpressionParserHelper.DEFAULT.toExpression(expressionString), false);
+    }
+
+    private ListIterable<String> keysInOrder(DataFrame sorted)
+    {
+        MutableList<String> keys = Lists.mutable.empty();
+        for (int rowIndex = 0; rowIndex < sorted.rowCount(); rowIndex++)
+        {
+            keys.add(sorted.getString("Key", rowIndex));
+        }
+        return keys;
+    }
+
+    private void assertSelection(String filterExpression, String... expectedKeys)
+    {
+        assertEquals(
+                Lists.immutable.of(expectedKeys),
+                this.dataFrame.selectBy(filterExpression).getStringColumn("Key").toList(),
+                filterExpression);
+    }
+}
@@ -0,0 +1,173 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.api.tuple.Triplet;
+import org.eclipse.collections.impl.factory.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataFrameHashJoinTest
+{
+    private DataFrame orders;
+    private DataFrame customers;
+
+    @BeforeEach
+    public void setUpDataFrames()
+    {
+        this.orders = new DataFrame("Orders")
+                .addStringColumn("Customer").addLongColumn("Region").addDateColumn("Date").addLongColumn("Qty");
+
+        for (int i = 0; i < 1_000; i++)
+        {
+            this.orders.addRow(
+                    i % 13 == 0 ? null : "C" + (i * 7 % 53),
+                    i % 11 == 0 ? null : (long) (i % 3),
+                    LocalDate.of(2024, 1, 1).plusDays(i % 4),
+                    (long) i);
+        }
+
+        this.orders.seal();
+
+        // duplicate keys, null keys and keys without a match on the orders side
+        this.customers = new DataFrame("Customers")
+                .addStringColumn("Name").addLongColumn("Region").addStringColumn("Tier").addLongColumn("Qty")
+                .addRow("C1", 1, "Gold", 10)
+                .addRow("C7", 0, "Silver", 20)
+                .addRow("C1", 1, "Bronze", 30)
+                .addRow(null, 2, "None", 40)
+                .addRow("C99", 0, "Gold", 50)
+                .addRow("C14", null, "Silver", 60)
+                .addRow("C7", 1, "Gold", 70)
+                .addRow("C21", 0, "Tin", 80)
+                .seal();
+    }
+
+    @Test
+    public void manyToManyJoin()
+    {
+        DataFrame left = new DataFrame("left")
+                .addStringColumn("Key").addLongColumn("Left")
+                .addRow("A", 1).addRow("B", 2).addRow("A", 3).addRow("C", 4).addRow("A", 5);
+
+        DataFrame right = new DataFrame("right")
+                .addStringColumn("Key").addLongColumn("Right")
+                .addRow("A", 10).addRow("A", 20).addRow("D", 30);
+
+        DataFrame expected = new DataFrame("expected")
+                .addStringColumn("Key").addLongColumn("Left").addLongColumn("Right")
+                .addRow("A", 1, 10).addRow("A", 1, 20)
+                .addRow("A", 3, 10).addRow("A", 3, 20)
+                .addRow("A", 5, 10).addRow("A", 5, 20);
+
+        left.setJoinStrategy(DfJoinStrategy.HASH);
+        DataFrameUtil.assertEquals(expected, left.join(right, "Key", "Key"));
+
+        left.setJoinStrategy(DfJoinStrategy.SORT_MERGE);
+        DataFrameUtil.assertEquals(expected, left.join(right, "Key", "Key"));
+
+        DataFrame expectedOuter = new DataFrame("expected")
+                .addStringColumn("Key").addLongColumn("Left").addLongColumn("Right")
+                .addRow("A", 1, 10).addRow("A", 1, 20)
+                .addRow("A", 3, 10).addRow("A", 3, 20)
+                .addRow("A", 5, 10).addRow("A", 5, 20)
+                .addRow("B", 2, null)
+                .addRow("C", 4, null)
+                .addRow("D", null, 30);
+
+        left.setJoinStrategy(DfJoinStrategy.HASH);
+        DataFrameUtil.assertEquals(expectedOuter, left.outerJoin(right, "Key", "Key"));
+
+        left.setJoinStrategy(DfJoinStrategy.SORT_MERGE);
+        DataFrameUtil.assertEquals(expectedOuter, left.outerJoin(right, "Key", "Key"));
+    }
+
+    @Test
+    public void autoIsTheDefault()
+    {
+        assertEquals(DfJoinStrategy.AUTO, this.orders.getJoinStrategy());
+    }
+
+    @Test
+    public void singleKeyJoinsMatchSortMerge()
+    {
+        this.assertSameJoins(this.orders, Lists.immutable.of("Customer"), this.customers, Lists.immutable.of("Name"));
+        this.assertSameJoins(this.customers, Lists.immutable.of("Name"), this.orders, Lists.immutable.of("Customer"));
+    }
+
+    @Test
+    public void multipleKeyJoinsMatchSortMerge()
+    {
+        this.assertSameJoins(
+                this.orders, Lists.immutable.of("Customer", "Region"),
+                this.customers, Lists.immutable.of("Name", "Region"));
+
+        this.assertSameJoins(
+                this.customers, Lists.immutable.of("Name", "Region"),
+                this.orders, Lists.immutable.of("Customer", "Region"));
+    }
+
+    @Test
+    public void joinToEmptyMatchesSortMerge()
+    {
+        DataFrame empty = new DataFrame("Empty")
+                .addStringColumn("Name").addLongColumn("Region").addStringColumn("Tier")
+                .seal();
+
+        this.assertSameJoins(this.orders, Lists.immutable.of("Customer"), empty, Lists.immutable.of("Name"));
+        this.assertSameJoins(empty, Lists.immutable.of("Name"), this.orders, Lists.immutable.of("Customer"));
+    }
+
+    @Test
+    public void joinWithComplementsAndAdditionalSortColumnsMatchesSortMerge()
+    {
+        ListIterable<String> ordersKeys = Lists.immutable.of("Customer", "Region");
+        ListIterable<String> customersKeys = Lists.immutable.of("Name", "Region");
+
+        this.orders.setJoinStrategy(DfJoinStrategy.SORT_MERGE);
+        Triplet<DataFrame> sortMerge = this.orders.joinWithComplements(
+                this.customers, ordersKeys, Lists.immutable.of("Date"), customersKeys, Lists.immutable.of("Tier"));
+
+        this.orders.setJoinStrategy(DfJoinStrategy.HASH);
+        Triplet<DataFrame> hash = this.orders.joinWithComplements(
+                this.customers, ordersKeys, Lists.immutable.of("Date"), customersKeys, Lists.immutable.of("Tier"));
+
+        this.assertSameTriplets(sortMerge, hash);
+
+        this.orders.setJoinStrategy(DfJoinStrategy.SORT_MERGE);
+        sortMerge = this.orders.joinWithComplements(
+                this.customers, ordersKeys, Lists.immutable.of("Date"), customersKeys, Lists.immutable.empty());
+
+        this.orders.setJoinStrategy(DfJoinStrategy.HASH);
+        hash = this.orders.joinWithComplements(
+                this.customers, ordersKeys, Lists.immutable.of("Date"), customersKeys, Lists.immutable.empty());
+
+        this.assertSameTriplets(sortMerge, hash);
+    }
+
+    private void assertSameJoins(DataFrame left, ListIterable<String> leftKeys, DataFrame right, ListIterable<String> rightKeys)
+    {
+        for (DfJoinStrategy strategy : Lists.immutable.of(DfJoinStrategy.HASH, DfJoinStrategy.AUTO))
+        {
+            left.setJoinStrategy(DfJoinStrategy.SORT_MERGE);
+            DataFrame inner = left.join(right, leftKeys, rightKeys);
+            DataFrame outer = left.outerJoin(right, leftKeys, rightKeys);
+            Triplet<DataFrame> withComplements = left.joinWithComplements(right, leftKeys, rightKeys);
+
+            left.setJoinStrategy(strategy);
+            DataFrameUtil.assertEquals(inner, left.join(right, leftKeys, rightKeys));
+            DataFrameUtil.assertEquals(outer, left.outerJoin(right, leftKeys, rightKeys));
+            this.assertSameTriplets(withComplements, left.joinWithComplements(right, leftKeys, rightKeys));
+        }
+    }
+
+    private void assertSameTriplets(Triplet<DataFrame> expected, Triplet<DataFrame> actual)
+    {
+        DataFrameUtil.assertEquals(expected.getOne(), actual.getOne());
+        DataFrameUtil.assertEquals(expected.getTwo(), actual.getTwo());
+        DataFrameUtil.assertEquals(expected.getThree(), actual.getThree());
+    }
+}
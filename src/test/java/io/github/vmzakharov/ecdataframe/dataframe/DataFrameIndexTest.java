@@ -1,10 +1,13 @@
 package io.github.vmzakharov.ecdataframe.dataframe;
 
+import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
 import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.impl.factory.primitive.IntLists;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
+
 import static io.github.vmzakharov.ecdataframe.util.FormatWithPlaceholders.messageFromKey;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -117,6 +120,162 @@ public class DataFrameIndexTest
         assertEquals(IntLists.immutable.of(2), index.getRowIndicesAtKey(Lists.immutable.of("Abigail", 10)));
     }
 
+    @Test
+    public void indexWithNullsAndAddedRows()
+    {
+        DataFrame dataFrame = new DataFrame("FrameOfData")
+                .addStringColumn("Name").addLongColumn("Quux").addDateColumn("Date")
+                .addRow("Alice",   10L, LocalDate.of(2024, 1, 1))
+                .addRow(null,      20L, LocalDate.of(2024, 1, 2))
+                .addRow("Alice",  null, LocalDate.of(2024, 1, 1))
+                .addRow(null,      20L, null)
+                .addRow("Alice",   10L, LocalDate.of(2024, 1, 1))
+                ;
+
+        DfIndex byName = new DfIndex(dataFrame, Lists.immutable.of("Name"));
+
+        assertEquals(IntLists.immutable.of(0, 2, 4), byName.getRowIndicesAtKey("Alice"));
+        assertEquals(IntLists.immutable.of(1, 3), byName.getRowIndicesAtKey(Lists.mutable.with((Object) null)));
+        assertEquals(0, byName.getFirstRowIndexAtKey(Lists.immutable.of("Alice")));
+        assertEquals(-1, byName.getFirstRowIndexAtKey(Lists.immutable.of("Bob")));
+
+        byName.addRowIndex(Lists.immutable.of("Bob"), 7);
+        byName.addRowIndex(Lists.immutable.of("Alice"), 8);
+
+        assertEquals(IntLists.immutable.of(7), byName.getRowIndicesAtKey("Bob"));
+        assertEquals(7, byName.getFirstRowIndexAtKey(Lists.immutable.of("Bob")));
+        assertEquals(IntLists.immutable.of(0, 2, 4, 8), byName.getRowIndicesAtKey("Alice"));
+        assertEquals(4, byName.sizeAt("Alice"));
+
+        DfIndex byQuuxAndDate = new DfIndex(dataFrame, Lists.immutable.of("Quux", "Date"));
+
+        assertEquals(IntLists.immutable.of(0, 4), byQuuxAndDate.getRowIndicesAtKey(10L, LocalDate.of(2024, 1, 1)));
+        assertEquals(IntLists.immutable.of(2), byQuuxAndDate.getRowIndicesAtKey(null, LocalDate.of(2024, 1, 1)));
+        assertEquals(IntLists.immutable.of(3), byQuuxAndDate.getRowIndicesAtKey(20L, null));
+        assertEquals(IntLists.immutable.of(), byQuuxAndDate.getRowIndicesAtKey(10, LocalDate.of(2024, 1, 1)));
+    }
+
+    @Test
+    public void indexMaintainedOnAppend()
+    {
+        DataFrame dataFrame = new DataFrame("FrameOfData")
+                .addStringColumn("Name").addLongColumn("Bar")
+                .addRow("Alice", 11L)
+                .addRow("Carol", 12L)
+                .addRow("Alice", 13L)
+                ;
+
+        dataFrame.createIndex("ByName", Lists.immutable.of("Name"));
+        dataFrame.createIndex("ByNameAndBar", Lists.immutable.of("Name", "Bar"));
+
+        assertEquals(IntLists.immutable.of(0, 2), dataFrame.index("ByName").getRowIndicesAtKey("Alice"));
+
+        dataFrame.addRow("Bob", 14L).addRow("Alice", 11L);
+
+        assertEquals(IntLists.immutable.of(0, 2, 4), dataFrame.index("ByName").getRowIndicesAtKey("Alice"));
+        assertEquals(IntLists.immutable.of(3), dataFrame.index("ByName").getRowIndicesAtKey("Bob"));
+        assertEquals(IntLists.immutable.of(0, 4), dataFrame.index("ByNameAndBar").getRowIndicesAtKey("Alice", 11L));
+
+        DataFrame batch = new DataFrame("Batch")
+                .addStringColumn("Name").addLongColumn("Bar")
+                .addRow("Carol", 12L)
+                .addRow("Dave", 15L)
+                ;
+
+        dataFrame.appendRows(batch);
+
+        assertEquals(7, dataFrame.rowCount());
+        assertEquals(IntLists.immutable.of(1, 5), dataFrame.index("ByName").getRowIndicesAtKey("Carol"));
+        assertEquals(1, dataFrame.index("ByNameAndBar").sizeAt("Dave", 15L));
+        assertEquals(2, dataFrame.index("ByNameAndBar").sizeAt("Carol", 12L));
+
+        assertFalse(dataFrame.index("ByName").isRebuildNeeded());
+
+        dataFrame.dropColumn("Bar");
+
+        assertFalse(dataFrame.index("ByName").isRebuildNeeded());
+        assertTrue(dataFrame.index("ByNameAndBar").isRebuildNeeded());
+
+        dataFrame.addLongColumn("Bar", "5");
+
+        assertEquals(IntLists.immutable.of(0, 2, 4), dataFrame.index("ByNameAndBar").getRowIndicesAtKey("Alice", 5L));
+        assertFalse(dataFrame.index("ByNameAndBar").isRebuildNeeded());
+    }
+
+    @Test
+    public void indexRebuiltAfterValuesChangedInPlace()
+    {
+        DataFrame dataFrame = new DataFrame("FrameOfData")
+                .addStringColumn("Customer").addLongColumn("Bar")
+                .addRow("X", 11L)
+                .addRow("Y", 12L)
+                .addRow("Z", 13L)
+                .addLongColumn("TwoBars", "Bar * 2")
+                ;
+
+        dataFrame.createIndex("ByCustomer", Lists.immutable.of("Customer"));
+        dataFrame.createIndex("ByTwoBars", Lists.immutable.of("TwoBars"));
+
+        assertEquals(IntLists.immutable.of(0), dataFrame.index("ByCustomer").getRowIndicesAtKey("X"));
+        assertEquals(IntLists.immutable.of(1), dataFrame.index("ByTwoBars").getRowIndicesAtKey(24L));
+
+        dataFrame.getColumnNamed("Customer").setObject(1, "X");
+        assertTrue(dataFrame.index("ByCustomer").isRebuildNeeded());
+
+        assertEquals(IntLists.immutable.of(0, 1), dataFrame.index("ByCustomer").getRowIndicesAtKey("X"));
+        assertEquals(2, dataFrame.selectBy("Customer == 'X'").rowCount());
+        assertFalse(dataFrame.index("ByCustomer").isRebuildNeeded());
+
+        ((DfLongColumnStored) dataFrame.getColumnNamed("Bar")).setLong(2, 12L);
+
+        assertEquals(IntLists.immutable.of(1, 2), dataFrame.index("ByTwoBars").getRowIndicesAtKey(24L));
+    }
+
+    @Test
+    public void appendRowsChecksSchemaFirst()
+    {
+        DataFrame dataFrame = new DataFrame("FrameOfData")
+                .addStringColumn("Name").addLongColumn("Bar")
+                .addRow("Alice", 11L)
+                ;
+
+        dataFrame.createIndex("ByName", Lists.immutable.of("Name"));
+
+        DataFrame wrongType = new DataFrame("Batch")
+                .addStringColumn("Name").addDoubleColumn("Bar")
+                .addRow("Bob", 12.0)
+                ;
+
+        Exception e = assertThrows(RuntimeException.class, () -> dataFrame.appendRows(wrongType));
+        assertEquals(
+                messageFromKey("DF_APPEND_COL_MISMATCH")
+                        .with("dataFrameName", "FrameOfData")
+                        .with("otherDataFrameName", "Batch")
+                        .with("columnName", "Bar")
+                        .with("columnType", ValueType.LONG.toString())
+                        .toString(),
+                e.getMessage());
+
+        DataFrame wrongName = new DataFrame("Batch")
+                .addLongColumn("Bar").addStringColumn("Nom")
+                .addRow(12L, "Bob")
+                ;
+
+        assertThrows(RuntimeException.class, () -> dataFrame.appendRows(wrongName));
+
+        DataFrame wrongCount = new DataFrame("Batch")
+                .addStringColumn("Name")
+                .addRow("Bob")
+                ;
+
+        assertThrows(RuntimeException.class, () -> dataFrame.appendRows(wrongCount));
+
+        assertEquals(1, dataFrame.rowCount());
+        assertEquals(1, dataFrame.getColumnNamed("Name").getSize());
+        assertEquals(1, dataFrame.getColumnNamed("Bar").getSize());
+        assertEquals(0, dataFrame.index("ByName").sizeAt("Bob"));
+    }
+
     @Test
     public void dataFrameWrappedIndex()
     {
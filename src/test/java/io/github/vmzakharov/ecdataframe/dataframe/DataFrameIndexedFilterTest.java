@@ -0,0 +1,200 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.visitor.PrettyPrintVisitor;
+import io.github.vmzakharov.ecdataframe.util.ExpressionParserHelper;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.Sets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataFrameIndexedFilterTest
+{
+    private DataFrame dataFrame;
+
+    @BeforeEach
+    public void setUpDataFrame()
+    {
+        this.dataFrame = this.emptyDataFrame()
+                .addRow("Alice", 1L, 10.0, 1)
+                .addRow("Bob",   2L, 20.0, 2)
+                .addRow("Alice", 2L, 30.0, 2)
+                .addRow(null,    1L, 40.0, null)
+                .addRow("Carl",  null, 50.0, 1)
+                .addRow("Bob",   1L, 60.0, 1);
+
+        this.dataFrame.addColumn("TwoBars", "Bar * 2");
+        this.dataFrame.seal();
+
+        this.dataFrame.createIndex("ByName", Lists.immutable.of("Name"));
+        this.dataFrame.createIndex("ByNameAndFred", Lists.immutable.of("Name", "Fred"));
+        this.dataFrame.createIndex("ByBar", Lists.immutable.of("Bar"));
+    }
+
+    private DataFrame emptyDataFrame()
+    {
+        return new DataFrame("FrameOfData")
+                .addStringColumn("Name").addLongColumn("Bar").addDoubleColumn("Baz").addIntColumn("Fred");
+    }
+
+    private DataFrame expected()
+    {
+        return this.emptyDataFrame().addColumn("TwoBars", "Bar * 2");
+    }
+
+    @Test
+    public void equality()
+    {
+        this.assertPlan("Name == \"Bob\"", "ByName", null, Sets.immutable.of("Bob"));
+        this.assertPlan("\"Bob\" == Name", "ByName", null, Sets.immutable.of("Bob"));
+        this.assertPlan("Bar == 2", "ByBar", null, Sets.immutable.of(2L));
+
+        DataFrameUtil.assertEquals(
+                this.expected()
+                        .addRow("Bob", 2L, 20.0, 2)
+                        .addRow("Bob", 1L, 60.0, 1),
+                this.dataFrame.selectBy("Name == \"Bob\""));
+
+        DataFrameUtil.assertEquals(
+                this.expected()
+                        .addRow("Alice", 1L, 10.0, 1)
+                        .addRow(null,    1L, 40.0, null)
+                        .addRow("Carl",  null, 50.0, 1)
+                        .addRow("Bob",   1L, 60.0, 1),
+                this.dataFrame.rejectBy("Bar == 2"));
+
+        DataFrameUtil.assertEquals(this.expected(), this.dataFrame.selectBy("Name == \"Xavier\""));
+    }
+
+    @Test
+    public void inVector()
+    {
+        this.assertPlan("Name in (\"Carl\", \"Alice\", \"Carl\")", "ByName", null, Sets.immutable.of("Alice", "Carl"));
+        this.assertPlan("Bar in (1, 100)", "ByBar", null, Sets.immutable.of(1L, 100L));
+
+        DataFrameUtil.assertEquals(
+                this.expected()
+                        .addRow("Alice", 1L, 10.0, 1)
+                        .addRow("Alice", 2L, 30.0, 2)
+                        .addRow("Carl",  null, 50.0, 1),
+                this.dataFrame.selectBy("Name in (\"Carl\", \"Alice\", \"Carl\")"));
+
+        DataFrameUtil.assertEquals(
+                this.expected()
+                        .addRow("Bob",   2L, 20.0, 2)
+                        .addRow("Alice", 2L, 30.0, 2)
+                        .addRow("Carl",  null, 50.0, 1),
+                this.dataFrame.rejectBy("Bar in (1, 100)"));
+    }
+
+    @Test
+    public void conjunctionWithResidual()
+    {
+        this.assertPlan("Name == \"Bob\" and Fred == 1", "ByNameAndFred", null,
+                Sets.immutable.of("Bob"), Sets.immutable.of(1));
+        this.assertPlan("Baz > 15.0 and Name == \"Alice\"", "ByName", "(Baz > 15.0)", Sets.immutable.of("Alice"));
+        this.assertPlan("Name == \"Alice\" and Name == \"Bob\"", "ByName", null, Sets.immutable.empty());
+
+        DataFrameUtil.assertEquals(
+                this.expected().addRow("Bob", 1L, 60.0, 1),
+                this.dataFrame.selectBy("Name == \"Bob\" and Fred == 1"));
+
+        DataFrameUtil.assertEquals(
+                this.expected().addRow("Alice", 2L, 30.0, 2),
+                this.dataFrame.selectBy("Baz > 15.0 and Name == \"Alice\""));
+
+        DataFrameUtil.assertEquals(
+                this.expected()
+                        .addRow("Alice", 1L, 10.0, 1)
+                        .addRow("Bob",   2L, 20.0, 2)
+                        .addRow(null,    1L, 40.0, null)
+                        .addRow("Carl",  null, 50.0, 1)
+                        .addRow("Bob",   1L, 60.0, 1),
+                this.dataFrame.rejectBy("Baz > 15.0 and Name == \"Alice\""));
+
+        DataFrameUtil.assertEquals(this.expected(), this.dataFrame.selectBy("Name == \"Alice\" and Name == \"Bob\""));
+    }
+
+    @Test
+    public void notAnsweredByIndex()
+    {
+        this.assertNoPlan("Name == \"Bob\" or Bar == 1");
+        this.assertNoPlan("Name != \"Bob\"");
+        this.assertNoPlan("Baz == 10.0");
+        this.assertNoPlan("TwoBars == 4");
+        this.assertNoPlan("Fred == 1");
+        this.assertNoPlan("Bar == \"1\"");
+
+        DataFrameUtil.assertEquals(
+                this.expected()
+                        .addRow("Alice", 1L, 10.0, 1)
+                        .addRow("Alice", 2L, 30.0, 2)
+                        .addRow(null,    1L, 40.0, null)
+                        .addRow("Carl",  null, 50.0, 1),
+                this.dataFrame.selectBy("Name != \"Bob\""));
+    }
+
+    @Test
+    public void rowsAppendedAfterIndexCreated()
+    {
+        this.dataFrame.addRow("Bob", 2L, 70.0, 1);
+
+        DataFrameUtil.assertEquals(
+                this.expected()
+                        .addRow("Bob", 2L, 20.0, 2)
+                        .addRow("Bob", 2L, 70.0, 1),
+                this.dataFrame.selectBy("Name == \"Bob\" and Bar == 2"));
+    }
+
+    @Test
+    public void valuesChangedInPlaceAfterIndexCreated()
+    {
+        this.dataFrame.getColumnNamed("Name").setObject(0, "Bob");
+        ((DfLongColumnStored) this.dataFrame.getColumnNamed("Bar")).setLong(5, 2L);
+
+        DataFrameUtil.assertEquals(
+                this.expected()
+                        .addRow("Bob", 1L, 10.0, 1)
+                        .addRow("Bob", 2L, 20.0, 2)
+                        .addRow("Bob", 2L, 60.0, 1),
+                this.dataFrame.selectBy("Name == \"Bob\""));
+
+        DataFrameUtil.assertEquals(
+                this.expected()
+                        .addRow("Bob",   2L, 20.0, 2)
+                        .addRow("Alice", 2L, 30.0, 2)
+                        .addRow("Bob",   2L, 60.0, 1),
+                this.dataFrame.selectBy("Bar == 2"));
+    }
+
+    private void assertPlan(String filterExpression, String indexName, String residual, Object... allowedValues)
+    {
+        DfIndexPlanner.Plan plan = this.planFor(filterExpression);
+
+        assertNotNull(plan);
+        assertSame(this.dataFrame.index(indexName), plan.index());
+        assertEquals(Lists.immutable.of(allowedValues), plan.allowedValues());
+
+        if (residual == null)
+        {
+            assertNull(plan.residual());
+        }
+        else
+        {
+            assertEquals(residual, PrettyPrintVisitor.exprToString(plan.residual()));
+        }
+    }
+
+    private void assertNoPlan(String filterExpression)
+    {
+        assertNull(this.planFor(filterExpression));
+    }
+
+    private DfIndexPlanner.Plan planFor(String filterExpression)
+    {
+        return new DfIndexPlanner(this.dataFrame).planFor(
+                ExpressionParserHelper.DEFAULT.toExpression(filterExpression),
+                Lists.immutable.of("ByName", "ByNameAndFred", "ByBar").collect(this.dataFrame::index));
+    }
+}
@@ -92,8 +92,12 @@ public class DataFrameJoinTest
         DataFrame expected = new DataFrame("expected")
                 .addStringColumn("Foo").addStringColumn("Bar").addLongColumn("Baz").addStringColumn("Name").addLongColumn("Number")
                 .addRow("Pinky", "cyan", 8, "Grapefruit", 2)
+                .addRow("Pinky", "cyan", 8, "Mint", 3)
+                .addRow("Inky", "cyan", 9, "Grapefruit", 2)
                 .addRow("Inky", "cyan", 9, "Mint", 3)
                 .addRow("Blinky", "pink", 7, "Orange", 4)
+                .addRow("Blinky", "pink", 7, "Apple", 1)
+                .addRow("Clyde", "pink", 10, "Orange", 4)
                 .addRow("Clyde", "pink", 10, "Apple", 1);
 
         DataFrameUtil.assertEquals(expected, joined);
@@ -119,7 +123,9 @@ public class DataFrameJoinTest
         DataFrame expected = new DataFrame("expected")
                 .addStringColumn("Foo").addStringColumn("Bar").addLongColumn("Baz").addStringColumn("Name").addLongColumn("Number")
                 .addRow("Pinky", "cyan", 8, "Mint", 3)
+                .addRow("Inky", "cyan", 9, "Mint", 3)
                 .addRow("Clyde", "pink", 10, "Orange", 4)
+                .addRow("Clyde", "pink", 10, "Apple", 1)
                 ;
 
         DataFrameUtil.assertEquals(expected, joined);
@@ -0,0 +1,62 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import java.math.BigDecimal;
+
+/**
+ * Creates a data frame large enough to be split into several chunks by parallel processing and into several batches by
+ * vectorized evaluation. The values are derived from the row index, so the expected results of the operations on the
+ * data frame can be spelled out in tests.
+ */
+final public class DataFrameLargeTestData
+{
+    static public final int ROW_COUNT = 300_000;
+
+    private DataFrameLargeTestData()
+    {
+        // Utility class
+    }
+
+    /**
+     * @return a data frame where the row {@code i} has the values: Id = i, Name = "N" + i % 3, Fred = i % 5,
+     * Value = i * 0.5, Amount = (i % 100) / 100, and Flag = i is even
+     */
+    static public DataFrame create()
+    {
+        return populate(new DataFrame("FrameOfData"));
+    }
+
+    /**
+     * Adds the columns and the rows described in {@link #create()} to a data frame, which can be configured before
+     * it is populated
+     *
+     * @param dataFrame an empty data frame
+     * @return the populated and sealed data frame
+     */
+    static public DataFrame populate(DataFrame dataFrame)
+    {
+        addColumns(dataFrame);
+
+        for (int i = 0; i < ROW_COUNT; i++)
+        {
+            dataFrame.addRow((long) i, "N" + i % 3, i % 5, i * 0.5, BigDecimal.valueOf(i % 100, 2), i % 2 == 0);
+        }
+
+        return dataFrame.seal();
+    }
+
+    /**
+     * @return an empty data frame with the same columns as the one returned by {@link #create()}, to populate with the
+     * expected results
+     */
+    static public DataFrame createEmpty()
+    {
+        return addColumns(new DataFrame("FrameOfData"));
+    }
+
+    static private DataFrame addColumns(DataFrame dataFrame)
+    {
+        return dataFrame
+                .addLongColumn("Id").addStringColumn("Name").addIntColumn("Fred").addDoubleColumn("Value")
+                .addDecimalColumn("Amount").addBooleanColumn("Flag");
+    }
+}
@@ -196,4 +196,127 @@ public class DataFrameLookupJoinTest
                 clients
         );
     }
+
+    @Test
+    public void cachedLookupIndexReflectsAddedRows()
+    {
+        DataFrame currencies = new DataFrame("currencies")
+                .addStringColumn("Currency").addLongColumn("Digits")
+                .addRow("USD", 2)
+                .addRow("JPY", 0)
+                ;
+
+        DataFrame trades = new DataFrame("trades")
+                .addLongColumn("Id").addDictionaryEncodedStringColumn("Currency")
+                .addRow(1, "USD")
+                .addRow(2, "CHF")
+                .addRow(3, null)
+                ;
+
+        trades.lookup(DfJoin.to(currencies).match("Currency", "Currency").select("Digits"));
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("trades")
+                        .addLongColumn("Id").addStringColumn("Currency").addLongColumn("Digits")
+                        .addRow(1, "USD", 2)
+                        .addRow(2, "CHF", null)
+                        .addRow(3, null, null)
+                , trades
+        );
+
+        currencies.addRow("CHF", 2);
+
+        DataFrame moreTrades = new DataFrame("trades")
+                .addLongColumn("Id").addStringColumn("Currency")
+                .addRow(4, "CHF")
+                .addRow(5, "JPY")
+                ;
+
+        moreTrades.lookup(DfJoin.to(currencies).match("Currency", "Currency").select("Digits").ifAbsent(-1L));
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("trades")
+                        .addLongColumn("Id").addStringColumn("Currency").addLongColumn("Digits")
+                        .addRow(4, "CHF", 2)
+                        .addRow(5, "JPY", 0)
+                , moreTrades
+        );
+
+        currencies.clearLookupIndexCache();
+    }
+
+    @Test
+    public void lookupIndexesReflectChangedValues()
+    {
+        DataFrame rates = new DataFrame("rates")
+                .addStringColumn("Key").addLongColumn("Rate")
+                .addRow("x", 10)
+                .addRow("y", 20)
+                ;
+
+        DataFrame named = rates.copy("named rates");
+        named.createIndex("ByKey", Lists.immutable.of("Key"));
+
+        for (DataFrame target : Lists.immutable.of(rates, named))
+        {
+            DataFrame before = new DataFrame("keys").addStringColumn("Key").addRow("x").addRow("z");
+            before.lookup(DfJoin.to(target).match("Key", "Key").select("Rate"));
+
+            DataFrameUtil.assertEquals(
+                    new DataFrame("keys").addStringColumn("Key").addLongColumn("Rate")
+                            .addRow("x", 10)
+                            .addRow("z", null)
+                    , before
+            );
+
+            target.getColumnNamed("Key").setObject(0, "z");
+
+            DataFrame after = new DataFrame("keys").addStringColumn("Key").addRow("x").addRow("z");
+            after.lookup(DfJoin.to(target).match("Key", "Key").select("Rate"));
+
+            DataFrameUtil.assertEquals(
+                    new DataFrame("keys").addStringColumn("Key").addLongColumn("Rate")
+                            .addRow("x", null)
+                            .addRow("z", 10)
+                    , after
+            );
+        }
+    }
+
+    @Test
+    public void lookupUsesNamedIndexAndMatchesTypes()
+    {
+        DataFrame ratings = new DataFrame("ratings")
+                .addLongColumn("Code").addIntColumn("Grade").addStringColumn("Rating")
+                .addRow(1, 10, "AAA")
+                .addRow(2, 20, "BB")
+                .addRow(1, 20, "A")
+                ;
+
+        ratings.createIndex("ByCodeAndGrade", Lists.immutable.of("Code", "Grade"));
+
+        DataFrame bonds = new DataFrame("bonds")
+                .addLongColumn("Code").addIntColumn("Grade").addLongColumn("Long Grade")
+                .addRow(1, 20, 20)
+                .addRow(2, 10, 10)
+                .addRow(1, 10, 10)
+                ;
+
+        bonds.lookup(DfJoin.to(ratings).match(Lists.immutable.of("Code", "Grade"), Lists.immutable.of("Code", "Grade")).select("Rating"));
+
+        // long values do not match int values
+        bonds.lookup(DfJoin.to(ratings)
+                           .match(Lists.immutable.of("Code", "Long Grade"), Lists.immutable.of("Code", "Grade"))
+                           .select("Rating", "Other Rating"));
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("bonds")
+                        .addLongColumn("Code").addIntColumn("Grade").addLongColumn("Long Grade")
+                        .addStringColumn("Rating").addStringColumn("Other Rating")
+                        .addRow(1, 20, 20,     "A", null)
+                        .addRow(2, 10, 10,    null, null)
+                        .addRow(1, 10, 10,   "AAA", null)
+                , bonds
+        );
+    }
 }
@@ -0,0 +1,143 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.impl.factory.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataFrameOffHeapStorageTest
+{
+    private DataFrame dataFrame;
+
+    @BeforeEach
+    public void setUpDataFrame()
+    {
+        this.dataFrame = new DataFrame("FrameOfData");
+        this.dataFrame.enableOffHeapStorage();
+
+        this.addColumns(this.dataFrame)
+                .addRow("A", 3L,   30,   1.5,  0.25f)
+                .addRow("B", null, 20,   2.5,  null)
+                .addRow("A", 1L,   null, null, 0.75f)
+                .addRow("B", 2L,   10,   0.5,  1.25f)
+                .seal();
+    }
+
+    private DataFrame addColumns(DataFrame df)
+    {
+        return df.addStringColumn("Key").addLongColumn("Long").addIntColumn("Int").addDoubleColumn("Double").addFloatColumn("Float");
+    }
+
+    private DataFrame expected()
+    {
+        return this.addColumns(new DataFrame("Expected"));
+    }
+
+    @Test
+    public void storesValues()
+    {
+        assertTrue(this.dataFrame.isOffHeapStorageEnabled());
+        assertFalse(new DataFrame("OnHeap").isOffHeapStorageEnabled());
+
+        assertEquals(4, this.dataFrame.rowCount());
+        assertEquals(3L, this.dataFrame.getLong("Long", 0));
+        assertTrue(this.dataFrame.getColumnNamed("Long").isNull(1));
+        assertEquals(20, this.dataFrame.getInt("Int", 1));
+        assertTrue(this.dataFrame.getColumnNamed("Double").isNull(2));
+        assertEquals(0.5, this.dataFrame.getDouble("Double", 3));
+        assertEquals(1.25f, this.dataFrame.getFloat("Float", 3));
+
+        DataFrameUtil.assertEquals(
+                this.expected()
+                        .addRow("A", 3L,   30,   1.5,  0.25f)
+                        .addRow("B", null, 20,   2.5,  null)
+                        .addRow("A", 1L,   null, null, 0.75f)
+                        .addRow("B", 2L,   10,   0.5,  1.25f),
+                this.dataFrame);
+    }
+
+    @Test
+    public void updateValues()
+    {
+        this.dataFrame.getColumnNamed("Long").setObject(1, 42L);
+        this.dataFrame.getColumnNamed("Int").setObject(0, null);
+        this.dataFrame.getColumnNamed("Float").setObject(3, 1.5f);
+
+        DataFrameUtil.assertEquals(
+                this.expected()
+                        .addRow("A", 3L,  null, 1.5,  0.25f)
+                        .addRow("B", 42L, 20,   2.5,  null)
+                        .addRow("A", 1L,  null, null, 0.75f)
+                        .addRow("B", 2L,  10,   0.5,  1.5f),
+                this.dataFrame);
+    }
+
+    @Test
+    public void filterSortAndAggregate()
+    {
+        DataFrameUtil.assertEquals(
+                this.expected()
+                        .addRow("A", 3L, 30, 1.5, 0.25f)
+                        .addRow("B", 2L, 10, 0.5, 1.25f),
+                this.dataFrame.selectBy("Long > 1 and Double < 2.0"));
+
+        DataFrameUtil.assertEquals(
+                this.expected()
+                        .addRow("A", 1L,   null, null, 0.75f)
+                        .addRow("B", 2L,   10,   0.5,  1.25f)
+                        .addRow("B", null, 20,   2.5,  null)
+                        .addRow("A", 3L,   30,   1.5,  0.25f),
+                this.dataFrame.sortBy(Lists.immutable.of("Int", "Long")));
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("Expected")
+                        .addStringColumn("Key").addLongColumn("Long").addDoubleColumn("Double").addFloatColumn("Float")
+                        .addRow("A", 4L,   null, 0.25f)
+                        .addRow("B", null, 2.5,  null),
+                this.dataFrame.aggregateBy(
+                        Lists.immutable.of(sum("Long"), max("Double"), min("Float")), Lists.immutable.of("Key")));
+    }
+
+    @Test
+    public void valuesSpanningStorageChunks()
+    {
+        DataFrame large = new DataFrame("FrameOfData");
+        large.enableOffHeapStorage();
+        DataFrameLargeTestData.populate(large);
+
+        assertEquals(16_383L, large.getLong("Id", 16_383));
+        assertEquals(16_384L, large.getLong("Id", 16_384));
+        assertEquals(4, large.getInt("Fred", 16_384));
+        assertEquals(149_999.5, large.getDouble("Value", 299_999));
+
+        DataFrameUtil.assertEquals(
+                DataFrameLargeTestData.createEmpty()
+                        .addRow(16_383L, "N0", 3, 8_191.5, new BigDecimal("0.83"), false)
+                        .addRow(16_384L, "N1", 4, 8_192.0, new BigDecimal("0.84"), true)
+                        .addRow(299_999L, "N2", 4, 149_999.5, new BigDecimal("0.99"), false),
+                large.selectBy("Id == 16383 or Id == 16384 or Id > 299998"));
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("Expected")
+                        .addStringColumn("Name").addLongColumn("Id").addLongColumn("Fred")
+                        .addRow("N0", 14_999_850_000L, 200_000L)
+                        .addRow("N1", 14_999_950_000L, 200_000L)
+                        .addRow("N2", 15_000_050_000L, 200_000L),
+                large.aggregateBy(Lists.immutable.of(sum("Id"), sum("Fred")), Lists.immutable.of("Name")));
+
+        large.releaseStorage();
+    }
+
+    @Test
+    public void releaseStorage()
+    {
+        this.dataFrame.releaseStorage();
+
+        assertEquals(0, this.dataFrame.getColumnNamed("Long").getSize());
+        assertEquals(0, this.dataFrame.getColumnNamed("Double").getSize());
+    }
+}
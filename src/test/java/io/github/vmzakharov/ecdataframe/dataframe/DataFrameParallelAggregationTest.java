@@ -0,0 +1,102 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.list.primitive.IntInterval;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ForkJoinPool;
+
+import static io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataFrameParallelAggregationTest
+{
+    private ForkJoinPool pool;
+
+    private DataFrame dataFrame;
+
+    @BeforeEach
+    public void setUpDataFrame()
+    {
+        this.pool = new ForkJoinPool(4);
+
+        this.dataFrame = DataFrameLargeTestData.create();
+        this.dataFrame.enableParallelProcessing(this.pool);
+    }
+
+    @AfterEach
+    public void shutDownPool()
+    {
+        this.pool.shutdown();
+    }
+
+    @Test
+    public void aggregationSpanningChunks()
+    {
+        DataFrame aggregated = this.dataFrame.aggregateBy(
+                Lists.immutable.of(
+                        sum("Id", "IdSum"), sum("Fred", "FredSum"), sum("Amount", "AmountSum"),
+                        min("Value", "ValueMin"), max("Id", "IdMax"), max("Amount", "AmountMax"),
+                        count("Id", "IdCount")),
+                Lists.immutable.of("Name"));
+
+        DataFrame expected = new DataFrame("Expected")
+                .addStringColumn("Name").addLongColumn("IdSum").addLongColumn("FredSum").addDecimalColumn("AmountSum")
+                .addDoubleColumn("ValueMin").addLongColumn("IdMax").addDecimalColumn("AmountMax")
+                .addLongColumn("IdCount")
+                .addRow("N0", 14_999_850_000L, 200_000L, new BigDecimal("49500.00"), 0.0, 299_997L, new BigDecimal("0.99"), 100_000L)
+                .addRow("N1", 14_999_950_000L, 200_000L, new BigDecimal("49500.00"), 0.5, 299_998L, new BigDecimal("0.99"), 100_000L)
+                .addRow("N2", 15_000_050_000L, 200_000L, new BigDecimal("49500.00"), 1.0, 299_999L, new BigDecimal("0.99"), 100_000L);
+
+        DataFrameUtil.assertEquals(expected, aggregated);
+    }
+
+    @Test
+    public void aggregationWithIndex()
+    {
+        DataFrame aggregated = this.dataFrame.aggregateByWithIndex(
+                Lists.immutable.of(sum("Id"), count("Fred", "FredCount")), Lists.immutable.of("Name"));
+
+        DataFrame expected = new DataFrame("Expected")
+                .addStringColumn("Name").addLongColumn("Id").addLongColumn("FredCount")
+                .addRow("N0", 14_999_850_000L, 100_000L)
+                .addRow("N1", 14_999_950_000L, 100_000L)
+                .addRow("N2", 15_000_050_000L, 100_000L);
+
+        DataFrameUtil.assertEquals(expected, aggregated);
+
+        assertEquals(IntInterval.fromToBy(0, 299_997, 3), aggregated.getAggregateIndex(0));
+        assertEquals(IntInterval.fromToBy(1, 299_998, 3), aggregated.getAggregateIndex(1));
+        assertEquals(IntInterval.fromToBy(2, 299_999, 3), aggregated.getAggregateIndex(2));
+    }
+
+    @Test
+    public void aggregationNotSupportingCombining()
+    {
+        // summing doubles is sensitive to the order of operations so it is not performed in parallel
+        DataFrame aggregated = this.dataFrame.aggregateBy(
+                Lists.immutable.of(sum("Value"), avg("Value", "ValueAvg")), Lists.immutable.of("Name"));
+
+        DataFrame expected = new DataFrame("Expected")
+                .addStringColumn("Name").addDoubleColumn("Value").addDoubleColumn("ValueAvg")
+                .addRow("N0", 7_499_925_000.0, 74_999.25)
+                .addRow("N1", 7_499_975_000.0, 74_999.75)
+                .addRow("N2", 7_500_025_000.0, 75_000.25);
+
+        DataFrameUtil.assertEquals(expected, aggregated);
+    }
+
+    @Test
+    public void combinability()
+    {
+        assertTrue(sum("Id").supportsCombining(ValueType.LONG));
+        assertFalse(sum("Value").supportsCombining(ValueType.DOUBLE));
+        assertTrue(min("Value").supportsCombining(ValueType.DOUBLE));
+        assertFalse(avg2d("Id").supportsCombining(ValueType.DOUBLE));
+        assertTrue(count("Value").supportsCombining(ValueType.LONG));
+    }
+}
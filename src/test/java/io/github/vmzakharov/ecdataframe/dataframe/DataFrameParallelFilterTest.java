@@ -0,0 +1,134 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.SimpleEvalContext;
+import io.github.vmzakharov.ecdataframe.dsl.value.LongValue;
+import io.github.vmzakharov.ecdataframe.dsl.value.StringValue;
+import org.eclipse.collections.api.tuple.Twin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataFrameParallelFilterTest
+{
+    private ForkJoinPool pool;
+
+    private DataFrame dataFrame;
+
+    @BeforeEach
+    public void setUpDataFrame()
+    {
+        this.pool = new ForkJoinPool(4);
+
+        this.dataFrame = DataFrameLargeTestData.create();
+        this.dataFrame.enableParallelProcessing(this.pool);
+    }
+
+    @AfterEach
+    public void shutDownPool()
+    {
+        this.pool.shutdown();
+    }
+
+    @Test
+    public void parallelProcessingIsDisabledByDefault()
+    {
+        assertFalse(new DataFrame("Empty").isParallelProcessingEnabled());
+        assertTrue(this.dataFrame.isParallelProcessingEnabled());
+
+        this.dataFrame.disableParallelProcessing();
+        assertFalse(this.dataFrame.isParallelProcessingEnabled());
+    }
+
+    @Test
+    public void selectionSpanningChunks()
+    {
+        DataFrameUtil.assertEquals(
+                DataFrameLargeTestData.createEmpty()
+                        .addRow(0L,       "N0", 0, 0.0,       new BigDecimal("0.00"), true)
+                        .addRow(1L,       "N1", 1, 0.5,       new BigDecimal("0.01"), false)
+                        .addRow(150_000L, "N0", 0, 75_000.0,  new BigDecimal("0.00"), true)
+                        .addRow(299_999L, "N2", 4, 149_999.5, new BigDecimal("0.99"), false),
+                this.dataFrame.selectBy("Id < 2 or Id == 150000 or Id > 299998"));
+    }
+
+    @Test
+    public void selectionWithComputedColumnAndVariables()
+    {
+        SimpleEvalContext evalContext = new SimpleEvalContext();
+        evalContext.setVariable("Three", new LongValue(3));
+        evalContext.setVariable("Target", new StringValue("N2"));
+        this.dataFrame.setExternalEvalContext(evalContext);
+
+        this.dataFrame.addColumn("TwoIds", "Id * 2");
+
+        DataFrameUtil.assertEquals(
+                DataFrameLargeTestData.createEmpty()
+                        .addRow(2L, "N2", 2, 1.0, new BigDecimal("0.02"), true)
+                        .addRow(5L, "N2", 0, 2.5, new BigDecimal("0.05"), false)
+                        .addRow(8L, "N2", 3, 4.0, new BigDecimal("0.08"), true)
+                        .addColumn("TwoIds", "Id * 2"),
+                this.dataFrame.selectBy("Name == Target and Id * Three < 30"));
+
+        DataFrameUtil.assertEquals(
+                DataFrameLargeTestData.createEmpty()
+                        .addRow(299_998L, "N1", 3, 149_999.0, new BigDecimal("0.98"), true)
+                        .addRow(299_999L, "N2", 4, 149_999.5, new BigDecimal("0.99"), false)
+                        .addColumn("TwoIds", "Id * 2"),
+                this.dataFrame.selectBy("TwoIds > 599994"));
+    }
+
+    @Test
+    public void rejection()
+    {
+        DataFrameUtil.assertEquals(
+                DataFrameLargeTestData.createEmpty()
+                        .addRow(0L, "N0", 0, 0.0, new BigDecimal("0.00"), true)
+                        .addRow(1L, "N1", 1, 0.5, new BigDecimal("0.01"), false),
+                this.dataFrame.rejectBy("Id >= 2"));
+    }
+
+    @Test
+    public void partition()
+    {
+        Twin<DataFrame> result = this.dataFrame.partition("Id < 2 or Id > 299998");
+
+        DataFrameUtil.assertEquals(
+                DataFrameLargeTestData.createEmpty()
+                        .addRow(0L,       "N0", 0, 0.0,       new BigDecimal("0.00"), true)
+                        .addRow(1L,       "N1", 1, 0.5,       new BigDecimal("0.01"), false)
+                        .addRow(299_999L, "N2", 4, 149_999.5, new BigDecimal("0.99"), false),
+                result.getOne());
+
+        DataFrame rest = result.getTwo();
+        assertEquals(299_997, rest.rowCount());
+        assertEquals(2L, rest.getLong("Id", 0));
+        assertEquals(299_998L, rest.getLong("Id", 299_996));
+    }
+
+    @Test
+    public void flagging()
+    {
+        this.dataFrame.flagRowsBy("Fred == 4 and Id < 20");
+
+        DataFrameUtil.assertEquals(
+                DataFrameLargeTestData.createEmpty()
+                        .addRow(4L,  "N1", 4, 2.0, new BigDecimal("0.04"), true)
+                        .addRow(9L,  "N0", 4, 4.5, new BigDecimal("0.09"), false)
+                        .addRow(14L, "N2", 4, 7.0, new BigDecimal("0.14"), true)
+                        .addRow(19L, "N1", 4, 9.5, new BigDecimal("0.19"), false),
+                this.dataFrame.selectFlagged());
+
+        assertEquals(299_996, this.dataFrame.selectNotFlagged().rowCount());
+    }
+
+    @Test
+    public void exceptionIsPropagated()
+    {
+        assertThrows(ArithmeticException.class, () -> this.dataFrame.selectBy("100 / Fred > 2"));
+    }
+}
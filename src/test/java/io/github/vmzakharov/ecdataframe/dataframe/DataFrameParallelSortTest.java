@@ -0,0 +1,132 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.SimpleEvalContext;
+import io.github.vmzakharov.ecdataframe.dsl.value.LongValue;
+import org.eclipse.collections.api.factory.Lists;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ForkJoinPool;
+
+import static io.github.vmzakharov.ecdataframe.dataframe.DfColumnSortOrder.ASC;
+import static io.github.vmzakharov.ecdataframe.dataframe.DfColumnSortOrder.DESC;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataFrameParallelSortTest
+{
+    private ForkJoinPool pool;
+
+    private DataFrame dataFrame;
+
+    @BeforeEach
+    public void setUpDataFrame()
+    {
+        this.pool = new ForkJoinPool(4);
+
+        this.dataFrame = DataFrameLargeTestData.create();
+        this.dataFrame.enableParallelProcessing(this.pool);
+    }
+
+    @AfterEach
+    public void shutDownPool()
+    {
+        this.pool.shutdown();
+    }
+
+    @Test
+    public void thresholdIsConfigurable()
+    {
+        assertTrue(this.dataFrame.getParallelSortThreshold() < DataFrameLargeTestData.ROW_COUNT);
+
+        this.dataFrame.setParallelSortThreshold(1_000);
+        assertEquals(1_000, this.dataFrame.getParallelSortThreshold());
+    }
+
+    @Test
+    public void sortBy()
+    {
+        this.dataFrame.sortBy(Lists.immutable.of("Fred", "Id"), Lists.immutable.of(DESC, ASC));
+        this.assertIds(4L, 9L, 14L);
+        this.assertLastIds(299_985L, 299_990L, 299_995L);
+
+        this.dataFrame.sortBy(Lists.immutable.of("Name", "Value"), Lists.immutable.of(ASC, DESC));
+        this.assertIds(299_997L, 299_994L, 299_991L);
+        this.assertLastIds(8L, 5L, 2L);
+    }
+
+    @Test
+    public void sortByComputedColumn()
+    {
+        SimpleEvalContext evalContext = new SimpleEvalContext();
+        evalContext.setVariable("Three", new LongValue(3));
+        this.dataFrame.setExternalEvalContext(evalContext);
+
+        this.dataFrame.addColumn("ThreeIds", "Id * Three");
+
+        this.dataFrame.sortBy(Lists.immutable.of("Flag", "ThreeIds"), Lists.immutable.of(DESC, DESC));
+        this.assertIds(299_998L, 299_996L, 299_994L);
+        this.assertLastIds(5L, 3L, 1L);
+    }
+
+    @Test
+    public void sortByExpression()
+    {
+        this.dataFrame.sortByExpression("Fred * 1000000 - Id", ASC);
+        this.assertIds(299_995L, 299_990L, 299_985L);
+        this.assertLastIds(14L, 9L, 4L);
+
+        this.dataFrame.sortByExpression("Value / 2", DESC);
+        this.assertIds(299_999L, 299_998L, 299_997L);
+        this.assertLastIds(2L, 1L, 0L);
+    }
+
+    @Test
+    public void outerJoin()
+    {
+        DataFrame codes = new DataFrame("Codes")
+                .addLongColumn("Id").addStringColumn("Code")
+                .addRow(400_000L, "C400000")
+                .addRow(299_999L, "C299999")
+                .addRow(1L, "C1")
+                .addRow(150_000L, "C150000")
+                .seal();
+
+        DataFrame expected = DataFrameLargeTestData.createEmpty().addStringColumn("Code")
+                .addRow(1L,       "N1", 1,    0.5,       new BigDecimal("0.01"), false, "C1")
+                .addRow(150_000L, "N0", 0,    75_000.0,  new BigDecimal("0.00"), true,  "C150000")
+                .addRow(299_999L, "N2", 4,    149_999.5, new BigDecimal("0.99"), false, "C299999")
+                .addRow(400_000L, null, null, null,      null,                   null,  "C400000");
+
+        for (DfJoinStrategy strategy : DfJoinStrategy.values())
+        {
+            this.dataFrame.setJoinStrategy(strategy);
+
+            DataFrame joined = this.dataFrame.outerJoin(codes, "Id", "Id");
+
+            assertEquals(DataFrameLargeTestData.ROW_COUNT + 1, joined.rowCount());
+            assertEquals(0L, joined.getLong("Id", 0));
+            assertEquals(299_999L, joined.getLong("Id", DataFrameLargeTestData.ROW_COUNT - 1));
+
+            DataFrameUtil.assertEquals(expected, joined.selectBy("Code is not null"));
+        }
+    }
+
+    private void assertIds(long... expectedIds)
+    {
+        for (int i = 0; i < expectedIds.length; i++)
+        {
+            assertEquals(expectedIds[i], this.dataFrame.getLong("Id", i));
+        }
+    }
+
+    private void assertLastIds(long... expectedIds)
+    {
+        int firstRow = this.dataFrame.rowCount() - expectedIds.length;
+        for (int i = 0; i < expectedIds.length; i++)
+        {
+            assertEquals(expectedIds[i], this.dataFrame.getLong("Id", firstRow + i));
+        }
+    }
+}
@@ -8,7 +8,9 @@ import org.eclipse.collections.impl.block.factory.HashingStrategies;
 import org.eclipse.collections.impl.factory.HashingStrategySets;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -254,6 +256,46 @@ public class DataFramePoolingTest
         assertTrue(notFlagged.isPoolingEnabled());
     }
 
+    @Test
+    public void dateTimePooling()
+    {
+        DataFrame df = new DataFrame("df").addStringColumn("name").addDateTimeColumn("timestamp");
+        df.enablePooling();
+
+        this.nameRoots.forEachWithIndex(
+            (name, index) -> df.addRow(name, LocalDateTime.of(2025, 10, index % 2 + 1, 9, 30))
+        );
+
+        assertFalse(df.getDateTimeColumn("timestamp").storesEpochMicros());
+        assertEquals(2, this.createIdentitySet().withAll(df.getDateTimeColumn("timestamp").toList()).size());
+
+        df.disablePooling();
+        DataFrame filtered = df.selectBy("name != 'Alice'");
+        filtered.addRow("Frank", LocalDateTime.of(2025, 10, 1, 9, 30));
+
+        assertEquals(3, this.createIdentitySet().withAll(filtered.getDateTimeColumn("timestamp").toList()).size());
+    }
+
+    @Test
+    public void decimalPooling()
+    {
+        DataFrame df = new DataFrame("df").addStringColumn("name").addDecimalColumn("amount");
+        df.enablePooling();
+
+        this.nameRoots.forEachWithIndex(
+            (name, index) -> df.addRow(name, BigDecimal.valueOf(index % 2 + 100, 2))
+        );
+
+        assertFalse(((DfDecimalColumnStored) df.getColumnNamed("amount")).storesUnscaledValues());
+        assertEquals(2, this.createIdentitySet().withAll(df.getDecimalColumn("amount").toList()).size());
+
+        df.disablePooling();
+        DataFrame filtered = df.selectBy("name != 'Alice'");
+        filtered.addRow("Frank", BigDecimal.valueOf(100, 2));
+
+        assertEquals(3, this.createIdentitySet().withAll(filtered.getDecimalColumn("amount").toList()).size());
+    }
+
     private void assertInstanceCount(DataFrame dataFrame, int expectedCount)
     {
         MutableSet<Object> names = this.createIdentitySet().withAll(dataFrame.getStringColumn("name").toList());
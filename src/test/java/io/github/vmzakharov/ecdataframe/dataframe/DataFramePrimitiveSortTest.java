@@ -0,0 +1,127 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ListIterable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+import static io.github.vmzakharov.ecdataframe.dataframe.DfColumnSortOrder.ASC;
+import static io.github.vmzakharov.ecdataframe.dataframe.DfColumnSortOrder.DESC;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataFramePrimitiveSortTest
+{
+    private static final int ROW_COUNT = 5_000;
+
+    private DataFrame dataFrame;
+
+    @BeforeEach
+    public void setUpDataFrame()
+    {
+        this.dataFrame = new DataFrame("FrameOfData")
+                .addLongColumn("Id").addLongColumn("Long").addIntColumn("Int").addDoubleColumn("Double")
+                .addFloatColumn("Float").addDateColumn("Date").addBooleanColumn("Flag").addStringColumn("Name")
+                .addDecimalColumn("Amount");
+
+        for (int i = 0; i < ROW_COUNT; i++)
+        {
+            this.dataFrame.addRow(
+                    (long) i,
+                    i % 17 == 0 ? null : (long) ((i * 7919L) % 211 - 105) * 1_000_000_007L,
+                    i % 19 == 0 ? null : (i * 31) % 23 - 11,
+                    i % 23 == 0 ? null : ((i * 13) % 29 - 14) * 0.5,
+                    i % 29 == 0 ? null : ((i * 11) % 31 - 15) * 0.25f,
+                    i % 31 == 0 ? null : LocalDate.of(2020, 1, 1).plusDays((i * 37) % 41),
+                    i % 3 == 0,
+                    i % 37 == 0 ? null : "N" + (i * 17) % 43,
+                    i % 41 == 0 ? null : BigDecimal.valueOf((i * 19) % 47, 1));
+        }
+
+        this.dataFrame.seal();
+    }
+
+    @Test
+    public void singleColumnSorts()
+    {
+        for (String columnName : Lists.immutable.of("Long", "Int", "Double", "Float", "Date", "Flag", "Name", "Amount"))
+        {
+            this.assertSortMatchesTupleSort(Lists.immutable.of(columnName), null);
+            this.assertSortMatchesTupleSort(Lists.immutable.of(columnName), Lists.immutable.of(ASC));
+            this.assertSortMatchesTupleSort(Lists.immutable.of(columnName), Lists.immutable.of(DESC));
+        }
+    }
+
+    @Test
+    public void multiColumnSorts()
+    {
+        this.assertSortMatchesTupleSort(Lists.immutable.of("Flag", "Int", "Double"), null);
+        this.assertSortMatchesTupleSort(Lists.immutable.of("Date", "Long"), Lists.immutable.of(DESC, ASC));
+        this.assertSortMatchesTupleSort(Lists.immutable.of("Name", "Float", "Int"), Lists.immutable.of(ASC, DESC, DESC));
+        this.assertSortMatchesTupleSort(Lists.immutable.of("Amount", "Flag"), Lists.immutable.of(DESC, ASC));
+    }
+
+    @Test
+    public void sortByExpression()
+    {
+        int[] expected = this.tupleOrder(
+                i -> new DfTuple(i, this.dataFrame.isNull("Int", i) || this.dataFrame.isNull("Long", i)
+                        ? null : this.dataFrame.getInt("Int", i) * 2L - this.dataFrame.getLong("Long", i)),
+                Lists.immutable.of(DESC));
+
+        this.dataFrame.sortByExpression("Int * 2 - Long", DESC);
+        this.assertSortedOrder(expected);
+
+        this.dataFrame.unsort();
+        expected = this.tupleOrder(
+                i -> new DfTuple(i, this.dataFrame.isNull("Double", i) || this.dataFrame.isNull("Int", i)
+                        ? null : this.dataFrame.getDouble("Double", i) + this.dataFrame.getInt("Int", i)),
+                Lists.immutable.of(ASC));
+
+        this.dataFrame.sortByExpression("Double + Int", ASC);
+        this.assertSortedOrder(expected);
+    }
+
+    private void assertSortMatchesTupleSort(ListIterable<String> columnNames, ListIterable<DfColumnSortOrder> sortOrders)
+    {
+        this.dataFrame.unsort();
+        int[] expected = this.tupleOrder(
+                i -> new DfTuple(i, columnNames.collect(name -> this.dataFrame.getObject(name, i)).toArray()),
+                sortOrders);
+
+        this.dataFrame.sortBy(columnNames, sortOrders);
+        this.assertSortedOrder(expected);
+    }
+
+    private int[] tupleOrder(IntFunction<DfTuple> tupleFactory, ListIterable<DfColumnSortOrder> sortOrders)
+    {
+        DfTuple[] tuples = new DfTuple[ROW_COUNT];
+        for (int i = 0; i < ROW_COUNT; i++)
+        {
+            tuples[i] = tupleFactory.apply(i);
+        }
+
+        if (sortOrders == null)
+        {
+            Arrays.sort(tuples);
+        }
+        else
+        {
+            Arrays.sort(tuples, (t1, t2) -> t1.compareTo(t2, sortOrders));
+        }
+
+        return Arrays.stream(tuples).mapToInt(DfTuple::order).toArray();
+    }
+
+    private void assertSortedOrder(int[] expected)
+    {
+        for (int i = 0; i < ROW_COUNT; i++)
+        {
+            assertEquals(expected[i], this.dataFrame.getLong("Id", i), "Row " + i);
+        }
+    }
+}
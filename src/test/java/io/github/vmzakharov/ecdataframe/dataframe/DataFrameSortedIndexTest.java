@@ -0,0 +1,104 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataFrameSortedIndexTest
+{
+    private DataFrame dataFrame;
+
+    @BeforeEach
+    public void setUpDataFrame()
+    {
+        this.dataFrame = new DataFrame("FrameOfData")
+                .addStringColumn("Name").addDateColumn("Date").addLongColumn("Qty").addDoubleColumn("Price")
+                .addRow("Alice", LocalDate.of(2024, 1, 3), 10L, 20.5)
+                .addRow("Carol", LocalDate.of(2024, 1, 1), 20L, 10.0)
+                .addRow("Bob",   null,                     30L, 15.0)
+                .addRow("Alice", LocalDate.of(2024, 1, 2), 40L, null)
+                .addRow("Dave",  LocalDate.of(2024, 1, 5), 50L, 12.0)
+                .addRow("Carol", LocalDate.of(2024, 1, 3), 60L, 30.0)
+                ;
+    }
+
+    @Test
+    public void rangeQueries()
+    {
+        this.dataFrame.createSortedIndex("ByDate", Lists.immutable.of("Date"));
+        DfSortedIndex index = this.dataFrame.sortedIndex("ByDate");
+
+        assertEquals(IntLists.immutable.of(3, 0, 5),
+                index.between(LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 3)).getRowIndices());
+
+        assertEquals(IntLists.immutable.of(1, 3),
+                index.range(null, false, Lists.immutable.of(LocalDate.of(2024, 1, 3)), false).getRowIndices());
+
+        assertEquals(IntLists.immutable.of(4), index.greaterThan(LocalDate.of(2024, 1, 3)).getRowIndices());
+        assertEquals(IntLists.immutable.of(0, 5, 4), index.greaterThanOrEqualTo(LocalDate.of(2024, 1, 3)).getRowIndices());
+        assertEquals(IntLists.immutable.of(1), index.lessThan(LocalDate.of(2024, 1, 2)).getRowIndices());
+        assertEquals(IntLists.immutable.of(1, 3), index.lessThanOrEqualTo(LocalDate.of(2024, 1, 2)).getRowIndices());
+
+        assertTrue(index.between(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 1)).isEmpty());
+        assertTrue(index.between(LocalDate.of(2024, 1, 5), LocalDate.of(2024, 1, 1)).isEmpty());
+
+        DfSortedIndex byPrice = new DfSortedIndex(this.dataFrame, Lists.immutable.of("Price"));
+        assertEquals(IntLists.immutable.of(4, 2, 0), byPrice.between(11, 25.0).getRowIndices());
+    }
+
+    @Test
+    public void topAndBottom()
+    {
+        DfSortedIndex index = new DfSortedIndex(this.dataFrame, Lists.immutable.of("Price"));
+
+        assertEquals(IntLists.immutable.of(1, 4), index.bottom(2).getRowIndices());
+        assertEquals(IntLists.immutable.of(5, 0, 2), index.top(3).getRowIndices());
+        assertEquals(5, index.top(10).size());
+    }
+
+    @Test
+    public void multiColumnPrefix()
+    {
+        DfSortedIndex index = new DfSortedIndex(this.dataFrame, Lists.immutable.of("Name", "Qty"));
+
+        assertEquals(IntLists.immutable.of(1, 5), index.prefix("Carol").getRowIndices());
+        assertEquals(IntLists.immutable.of(5), index.prefix("Carol", 60L).getRowIndices());
+        assertTrue(index.prefix("Xavier").isEmpty());
+
+        assertEquals(IntLists.immutable.of(3, 2),
+                index.range(Lists.immutable.of("Alice", 10L), false, Lists.immutable.of("Bob"), true).getRowIndices());
+
+        StringBuilder names = new StringBuilder();
+        index.bottom(3).forEach(row -> names.append(row.getString("Name")).append(row.getLong("Qty")).append(' '));
+        assertEquals("Alice10 Alice40 Bob30 ", names.toString());
+    }
+
+    @Test
+    public void rebuiltAfterAppend()
+    {
+        this.dataFrame.createSortedIndex("ByQty", Lists.immutable.of("Qty"));
+
+        assertEquals(IntLists.immutable.of(5), this.dataFrame.sortedIndex("ByQty").top(1).getRowIndices());
+
+        this.dataFrame.addRow("Eve", LocalDate.of(2024, 1, 4), 70L, 1.0);
+
+        assertEquals(IntLists.immutable.of(6), this.dataFrame.sortedIndex("ByQty").top(1).getRowIndices());
+        assertEquals(IntLists.immutable.of(4, 5, 6), this.dataFrame.sortedIndex("ByQty").greaterThan(40L).getRowIndices());
+
+        this.dataFrame.getColumnNamed("Qty").setObject(6, 10L);
+        assertTrue(this.dataFrame.sortedIndex("ByQty").isRebuildNeeded());
+        assertEquals(IntLists.immutable.of(5), this.dataFrame.sortedIndex("ByQty").top(1).getRowIndices());
+        assertFalse(this.dataFrame.sortedIndex("ByQty").isRebuildNeeded());
+
+        this.dataFrame.dropColumn("Qty");
+        assertTrue(this.dataFrame.sortedIndex("ByQty").isRebuildNeeded());
+
+        this.dataFrame.dropIndex("ByQty");
+        assertThrows(RuntimeException.class, () -> this.dataFrame.sortedIndex("ByQty"));
+    }
+}
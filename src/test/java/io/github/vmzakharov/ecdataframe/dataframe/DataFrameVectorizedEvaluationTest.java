@@ -0,0 +1,253 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.dsl.value.ValueType;
+import io.github.vmzakharov.ecdataframe.util.ExpressionParserHelper;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.tuple.Twin;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataFrameVectorizedEvaluationTest
+{
+    private DataFrame dataFrame;
+
+    @BeforeEach
+    public void setUpDataFrame()
+    {
+        this.dataFrame = this.emptyDataFrame()
+                .addRow("a", "Alice", 1L,   10.0, 1,    1.0f, true)
+                .addRow("b", "Bob",   null, 20.0, 2,    2.0f, false)
+                .addRow("c", null,    3L,   null, 3,    3.0f, null)
+                .addRow("d", "Carl",  4L,   40.0, null, null, true)
+                .addRow("e", "",      5L,   50.0, 0,    5.0f, false)
+                .addRow("f", "Bob",   6L,   60.0, 4,    3.0f, true);
+
+        this.addComputedColumns(this.dataFrame);
+        this.dataFrame.seal();
+    }
+
+    private DataFrame emptyDataFrame()
+    {
+        return new DataFrame("FrameOfData")
+                .addStringColumn("Key").addStringColumn("Name").addLongColumn("Bar").addDoubleColumn("Baz")
+                .addIntColumn("Fred").addFloatColumn("Qux").addBooleanColumn("Flag");
+    }
+
+    private DataFrame addComputedColumns(DataFrame df)
+    {
+        return df
+                .addColumn("TwoBars", "Bar * 2")
+                .addColumn("BarPlusBaz", "Bar + Baz")
+                .addColumn("BigBar", "Bar > 4");
+    }
+
+    private DataFrame expected()
+    {
+        return this.addComputedColumns(this.emptyDataFrame());
+    }
+
+    @Test
+    public void selection()
+    {
+        this.assertSelection("Bar > 1 and Baz < 55.0", "c", "d", "e");
+        this.assertSelection("Bar >= 5 or Fred == 3", "c", "e", "f");
+        this.assertSelection("Bar is null or Qux == 3.0", "b", "c", "f");
+        this.assertSelection("Flag is not null and not (Flag)", "b", "e");
+        this.assertSelection("Bar * 2 + Fred > Baz / 10", "a", "c", "e", "f");
+        this.assertSelection("Fred is not null and Flag is not null and (Fred / 2 == 1 xor Flag)", "a", "b", "f");
+        this.assertSelection("Fred is not null and -Fred < -2", "c", "f");
+        this.assertSelection("TwoBars - 5 > BarPlusBaz / 10", "c", "f");
+        this.assertSelection("BigBar and Fred != 1", "e", "f");
+        this.assertSelection("Bar < 3", "a", "b");
+        this.assertSelection("Bar <= 3", "a", "b", "c");
+        this.assertSelection("Bar > 5", "f");
+        this.assertSelection("Bar >= 5", "e", "f");
+        this.assertSelection("Bar != 4", "a", "b", "c", "e", "f");
+
+        DataFrameUtil.assertEquals(
+                this.expected()
+                        .addRow("c", null,   3L, null, 3,    3.0f, null)
+                        .addRow("d", "Carl", 4L, 40.0, null, null, true)
+                        .addRow("e", "",     5L, 50.0, 0,    5.0f, false),
+                this.dataFrame.selectBy("Bar > 1 and Baz < 55.0"));
+    }
+
+    @Test
+    public void selectionWithInterpretedSubexpressions()
+    {
+        this.assertSelection("Name == \"Bob\" and Bar > 1", "f");
+        this.assertSelection("Bar < 2 or Name in (\"Bob\", \"Carl\")", "a", "b", "d", "f");
+        this.assertSelection("Name is not null and Name is empty or Baz > 55.0", "e", "f");
+        this.assertSelection("Name is null and Fred is not null", "c");
+    }
+
+    @Test
+    public void shortCircuitingIsRespected()
+    {
+        this.assertSelection("Fred != 0 and Fred is not null and 12 / Fred > 5", "a", "b");
+        this.assertSelection("Fred == 0 or Fred is null or 12 / Fred < 5", "c", "d", "e", "f");
+    }
+
+    @Test
+    public void selectionSpanningBatches()
+    {
+        DataFrame large = DataFrameLargeTestData.create();
+
+        DataFrameUtil.assertEquals(
+                DataFrameLargeTestData.createEmpty()
+                        .addRow(4_095L,   "N0", 0, 2_047.5,   new BigDecimal("0.95"), false)
+                        .addRow(4_096L,   "N1", 1, 2_048.0,   new BigDecimal("0.96"), true)
+                        .addRow(4_097L,   "N2", 2, 2_048.5,   new BigDecimal("0.97"), false)
+                        .addRow(299_999L, "N2", 4, 149_999.5, new BigDecimal("0.99"), false),
+                large.selectBy("Id > 4094 and Value < 2049.0 or Id > 299998 and Fred == 4"));
+    }
+
+    @Test
+    public void partition()
+    {
+        Twin<DataFrame> result = this.dataFrame.partition("BarPlusBaz > 50.0 or Bar is null");
+
+        DataFrameUtil.assertEquals(
+                this.expected()
+                        .addRow("b", "Bob", null, 20.0, 2, 2.0f, false)
+                        .addRow("e", "",    5L,   50.0, 0, 5.0f, false)
+                        .addRow("f", "Bob", 6L,   60.0, 4, 3.0f, true),
+                result.getOne());
+
+        DataFrameUtil.assertEquals(
+                this.expected()
+                        .addRow("a", "Alice", 1L, 10.0, 1,    1.0f, true)
+                        .addRow("c", null,    3L, null, 3,    3.0f, null)
+                        .addRow("d", "Carl",  4L, 40.0, null, null, true),
+                result.getTwo());
+    }
+
+    @Test
+    public void flagging()
+    {
+        this.dataFrame.flagRowsBy("Fred > 1 and Baz < 50.0");
+
+        assertEquals(Lists.immutable.of("b", "c"), this.dataFrame.selectFlagged().getStringColumn("Key").toList());
+        assertEquals(
+                Lists.immutable.of("a", "d", "e", "f"),
+                this.dataFrame.selectNotFlagged().getStringColumn("Key").toList());
+    }
+
+    @Test
+    public void rejection()
+    {
+        assertEquals(
+                Lists.immutable.of("a", "b", "c", "f"),
+                this.dataFrame.rejectBy("Bar > 3 and Fred < 3").getStringColumn("Key").toList());
+    }
+
+    @Test
+    public void computedColumnsAreMaterializedInBatches()
+    {
+        DataFrame copy = this.dataFrame.copy("Copy");
+
+        assertTrue(copy.getColumnNamed("TwoBars").isStored());
+        assertTrue(copy.getColumnNamed("BarPlusBaz").isStored());
+        assertTrue(copy.getColumnNamed("BigBar").isStored());
+
+        DataFrameUtil.assertEquals(
+                this.emptyDataFrame()
+                        .addLongColumn("TwoBars").addDoubleColumn("BarPlusBaz").addBooleanColumn("BigBar")
+                        .addRow("a", "Alice", 1L,   10.0, 1,    1.0f, true,  2L,   11.0, false)
+                        .addRow("b", "Bob",   null, 20.0, 2,    2.0f, false, null, null, false)
+                        .addRow("c", null,    3L,   null, 3,    3.0f, null,  6L,   null, false)
+                        .addRow("d", "Carl",  4L,   40.0, null, null, true,  8L,   44.0, false)
+                        .addRow("e", "",      5L,   50.0, 0,    5.0f, false, 10L,  55.0, true)
+                        .addRow("f", "Bob",   6L,   60.0, 4,    3.0f, true,  12L,  66.0, true),
+                copy);
+    }
+
+    @Test
+    public void evaluatorReportsTypeAndVectorizability()
+    {
+        assertEquals(ValueType.LONG, this.evaluatorFor("Bar + Fred").getType());
+        assertEquals(ValueType.DOUBLE, this.evaluatorFor("Bar + Qux").getType());
+        assertEquals(ValueType.INT, this.evaluatorFor("-Fred").getType());
+        assertEquals(ValueType.BOOLEAN, this.evaluatorFor("Bar > 5 and Name == \"Bob\"").getType());
+
+        assertTrue(this.evaluatorFor("TwoBars * 2").isVectorizable());
+
+        assertFalse(this.evaluatorFor("Name == \"Bob\"").isVectorizable());
+        assertFalse(this.evaluatorFor("Name + \"Bob\"").isVectorizable());
+        assertFalse(this.evaluatorFor("Bar == Fred").isVectorizable());
+        assertNull(this.evaluatorFor("Name").getType());
+    }
+
+    @Test
+    public void evaluatorProducesValuesAndNulls()
+    {
+        DfVector vector = this.evaluatorFor("Bar + 1").evaluate(0, 4);
+
+        assertEquals(4, vector.size());
+        assertEquals(ValueType.LONG, vector.getType());
+
+        assertEquals(2L, vector.getLong(0));
+        assertTrue(vector.isNull(1));
+        assertEquals(4L, vector.getLong(2));
+        assertEquals(5L, vector.getLong(3));
+    }
+
+    @Test
+    public void divisionByZeroIsReportedAsByInterpreter()
+    {
+        assertThrows(ArithmeticException.class, () -> this.dataFrame.selectBy("100 / Fred > 2"));
+
+        this.dataFrame.disableVectorizedEvaluation();
+        this.dataFrame.disableExpressionCompilation();
+        assertThrows(ArithmeticException.class, () -> this.dataFrame.selectBy("100 / Fred > 2"));
+    }
+
+    @Test
+    public void batchesKernelsCannotEvaluateAreInterpreted()
+    {
+        DataFrame df = new DataFrame("FrameOfData").addLongColumn("Bar").addIntColumn("Fred")
+                .addRow(10L, 2).addRow(20L, 0).addRow(30L, null)
+                .seal();
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("Expected").addLongColumn("Bar").addIntColumn("Fred").addRow(10L, 2),
+                df.selectBy("Fred != 0 and Bar / Fred > 2"));
+
+        DfVectorEvaluator evaluator = new DfVectorEvaluator(df, ExpressionParserHelper.DEFAULT.toExpression("Bar / Fred"));
+        assertThrows(ArithmeticException.class, () -> evaluator.evaluate(0, 3));
+
+        RuntimeException vectorizedError = assertThrows(RuntimeException.class, () -> df.selectBy("-Fred < 0"));
+
+        df.disableVectorizedEvaluation();
+        df.disableExpressionCompilation();
+        RuntimeException interpretedError = assertThrows(RuntimeException.class, () -> df.selectBy("-Fred < 0"));
+
+        assertEquals(interpretedError.getMessage(), vectorizedError.getMessage());
+    }
+
+    @Test
+    public void selectionFromEmptyDataFrame()
+    {
+        DataFrame empty = new DataFrame("Empty").addLongColumn("Bar").seal();
+
+        assertEquals(0, empty.selectBy("Bar > 5").rowCount());
+    }
+
+    private DfVectorEvaluator evaluatorFor(String expressionString)
+    {
+        return new DfVectorEvaluator(this.dataFrame, ExpressionParserHelper.DEFAULT.toExpression(expressionString));
+    }
+
+    private void assertSelection(String filterExpression, String... expectedKeys)
+    {
+        assertEquals(
+                Lists.immutable.of(expectedKeys),
+                this.dataFrame.selectBy(filterExpression).getStringColumn("Key").toList(),
+                filterExpression);
+    }
+}
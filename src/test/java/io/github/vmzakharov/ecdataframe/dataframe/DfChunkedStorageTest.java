@@ -0,0 +1,80 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DfChunkedStorageTest
+{
+    private static final int VALUE_COUNT = 200_000;
+
+    @Test
+    public void growFromEmpty()
+    {
+        DfLongHeapStorage storage = new DfLongHeapStorage(0);
+        for (int i = 0; i < VALUE_COUNT; i++)
+        {
+            storage.add(i * 3L);
+        }
+
+        assertEquals(VALUE_COUNT, storage.size());
+        for (int i = 0; i < VALUE_COUNT; i++)
+        {
+            assertEquals(i * 3L, storage.get(i));
+        }
+    }
+
+    @Test
+    public void growBeyondInitialCapacity()
+    {
+        DfDoubleHeapStorage storage = new DfDoubleHeapStorage(100_000);
+        for (int i = 0; i < VALUE_COUNT; i++)
+        {
+            storage.add(i * 0.5);
+        }
+
+        storage.set(65_536, -1.0);
+        storage.set(VALUE_COUNT - 1, -2.0);
+
+        assertEquals(VALUE_COUNT, storage.size());
+        assertEquals(65_535 * 0.5, storage.get(65_535));
+        assertEquals(-1.0, storage.get(65_536));
+        assertEquals(65_537 * 0.5, storage.get(65_537));
+        assertEquals(-2.0, storage.get(VALUE_COUNT - 1));
+    }
+
+    @Test
+    public void objectStorage()
+    {
+        DfObjectStorage<String> storage = new DfObjectStorage<>(10);
+        for (int i = 0; i < VALUE_COUNT; i++)
+        {
+            storage.add(i % 5 == 0 ? null : "Value" + i);
+        }
+
+        assertEquals(VALUE_COUNT, storage.size());
+        assertNull(storage.get(70_000));
+        assertEquals("Value70001", storage.get(70_001));
+
+        storage.release();
+        assertEquals(0, storage.size());
+
+        storage.add("Again");
+        assertEquals("Again", storage.get(0));
+    }
+
+    @Test
+    public void largeColumn()
+    {
+        DataFrame df = new DataFrame("Large").addIntColumn("Int").addStringColumn("String");
+        for (int i = 0; i < VALUE_COUNT; i++)
+        {
+            df.addRow(i, "S" + i % 100);
+        }
+        df.seal();
+
+        assertEquals(VALUE_COUNT, df.rowCount());
+        assertEquals(131_072, df.getInt("Int", 131_072));
+        assertEquals("S72", df.getString("String", 131_072));
+    }
+}
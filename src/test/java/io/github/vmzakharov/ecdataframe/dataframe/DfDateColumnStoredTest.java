@@ -0,0 +1,80 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.impl.factory.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DfDateColumnStoredTest
+{
+    private DataFrame dataFrame;
+
+    @BeforeEach
+    public void setUpDataFrame()
+    {
+        this.dataFrame = new DataFrame("Dates")
+                .addStringColumn("Name").addDateColumn("Date")
+                .addRow("Alice", LocalDate.of(2024, 2, 29))
+                .addRow("Bob", null)
+                .addRow("Carol", LocalDate.of(1969, 12, 31))
+                .addRow("Dave", LocalDate.of(1970, 1, 1))
+                .seal();
+    }
+
+    @Test
+    public void epochDays()
+    {
+        assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), this.dataFrame.getEpochDay("Date", 0));
+        assertEquals(-1L, this.dataFrame.getEpochDay("Date", 2));
+        assertEquals(0L, this.dataFrame.getEpochDay("Date", 3));
+        assertThrows(NullPointerException.class, () -> this.dataFrame.getEpochDay("Date", 1));
+
+        assertEquals(LocalDate.of(1969, 12, 31), this.dataFrame.getDate("Date", 2));
+        assertNull(this.dataFrame.getDate("Date", 1));
+        assertTrue(this.dataFrame.getColumnNamed("Date").isNull(1));
+    }
+
+    @Test
+    public void setValues()
+    {
+        DfColumn dates = this.dataFrame.getColumnNamed("Date");
+
+        dates.setObject(0, null);
+        dates.setObject(1, LocalDate.of(2000, 1, 1));
+
+        assertTrue(dates.isNull(0));
+        assertEquals(LocalDate.of(2000, 1, 1), this.dataFrame.getDate("Date", 1));
+        assertEquals(LocalDate.of(2000, 1, 1).toEpochDay(), this.dataFrame.getEpochDay("Date", 1));
+    }
+
+    @Test
+    public void sortAndFilter()
+    {
+        DataFrameUtil.assertEquals(
+                new DataFrame("Expected")
+                        .addStringColumn("Name").addDateColumn("Date")
+                        .addRow("Bob", null)
+                        .addRow("Carol", LocalDate.of(1969, 12, 31))
+                        .addRow("Dave", LocalDate.of(1970, 1, 1))
+                        .addRow("Alice", LocalDate.of(2024, 2, 29)),
+                this.dataFrame.sortBy(Lists.immutable.of("Date")));
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("Expected")
+                        .addStringColumn("Name").addDateColumn("Date")
+                        .addRow("Alice", LocalDate.of(2024, 2, 29))
+                        .addRow("Dave", LocalDate.of(1970, 1, 1)),
+                this.dataFrame.selectBy("Date >= toDate(1970, 1, 1)"));
+    }
+
+    @Test
+    public void dateOutsideOfSupportedRange()
+    {
+        DfColumn dates = this.dataFrame.getColumnNamed("Date");
+
+        assertThrows(ArithmeticException.class, () -> dates.setObject(0, LocalDate.MAX));
+    }
+}
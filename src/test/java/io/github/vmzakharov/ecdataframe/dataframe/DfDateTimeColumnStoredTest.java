@@ -0,0 +1,118 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.impl.factory.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DfDateTimeColumnStoredTest
+{
+    private DataFrame dataFrame;
+
+    @BeforeEach
+    public void setUpDataFrame()
+    {
+        this.dataFrame = new DataFrame("Date Times")
+                .addStringColumn("Name").addDateTimeColumn("Timestamp")
+                .addRow("Alice", LocalDateTime.of(2024, 2, 29, 12, 30, 15, 123_456_000))
+                .addRow("Bob", null)
+                .addRow("Carol", LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000))
+                .addRow("Dave", LocalDateTime.of(1970, 1, 1, 0, 0))
+                .seal();
+    }
+
+    @Test
+    public void epochMicros()
+    {
+        DfDateTimeColumn timestamps = this.dataFrame.getDateTimeColumn("Timestamp");
+        assertTrue(timestamps.storesEpochMicros());
+
+        assertEquals(1_709_209_815_123_456L, this.dataFrame.getEpochMicros("Timestamp", 0));
+        assertEquals(-1L, this.dataFrame.getEpochMicros("Timestamp", 2));
+        assertEquals(0L, this.dataFrame.getEpochMicros("Timestamp", 3));
+        assertThrows(NullPointerException.class, () -> this.dataFrame.getEpochMicros("Timestamp", 1));
+
+        assertEquals(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000), this.dataFrame.getDateTime("Timestamp", 2));
+        assertNull(this.dataFrame.getDateTime("Timestamp", 1));
+        assertTrue(timestamps.isNull(1));
+    }
+
+    @Test
+    public void setValues()
+    {
+        DfColumn timestamps = this.dataFrame.getColumnNamed("Timestamp");
+
+        timestamps.setObject(0, null);
+        timestamps.setObject(1, LocalDateTime.of(2000, 1, 1, 10, 0));
+
+        assertTrue(timestamps.isNull(0));
+        assertEquals(LocalDateTime.of(2000, 1, 1, 10, 0), this.dataFrame.getDateTime("Timestamp", 1));
+        assertTrue(this.dataFrame.getDateTimeColumn("Timestamp").storesEpochMicros());
+    }
+
+    @Test
+    public void switchToObjectsForNanoseconds()
+    {
+        DfDateTimeColumn timestamps = this.dataFrame.getDateTimeColumn("Timestamp");
+
+        timestamps.setObject(3, LocalDateTime.of(2001, 2, 3, 4, 5, 6, 123_456_789));
+
+        assertFalse(timestamps.storesEpochMicros());
+        assertEquals(LocalDateTime.of(2001, 2, 3, 4, 5, 6, 123_456_789), this.dataFrame.getDateTime("Timestamp", 3));
+        assertEquals(LocalDateTime.of(2024, 2, 29, 12, 30, 15, 123_456_000), this.dataFrame.getDateTime("Timestamp", 0));
+        assertEquals(-1L, this.dataFrame.getEpochMicros("Timestamp", 2));
+        assertTrue(timestamps.isNull(1));
+    }
+
+    @Test
+    public void switchToObjectsOutsideOfSupportedRange()
+    {
+        DataFrame df = new DataFrame("Extremes")
+                .addDateTimeColumn("Timestamp")
+                .addRow(LocalDateTime.of(2020, 1, 1, 0, 0))
+                .addRow(LocalDateTime.MAX)
+                .addRow(LocalDateTime.MIN)
+                .seal();
+
+        assertFalse(df.getDateTimeColumn("Timestamp").storesEpochMicros());
+        assertEquals(LocalDateTime.of(2020, 1, 1, 0, 0), df.getDateTime("Timestamp", 0));
+        assertEquals(LocalDateTime.MAX, df.getDateTime("Timestamp", 1));
+        assertEquals(LocalDateTime.MIN, df.getDateTime("Timestamp", 2));
+        assertThrows(ArithmeticException.class, () -> df.getEpochMicros("Timestamp", 1));
+    }
+
+    @Test
+    public void sort()
+    {
+        DataFrameUtil.assertEquals(
+                new DataFrame("Expected")
+                        .addStringColumn("Name").addDateTimeColumn("Timestamp")
+                        .addRow("Bob", null)
+                        .addRow("Carol", LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000))
+                        .addRow("Dave", LocalDateTime.of(1970, 1, 1, 0, 0))
+                        .addRow("Alice", LocalDateTime.of(2024, 2, 29, 12, 30, 15, 123_456_000)),
+                this.dataFrame.sortBy(Lists.immutable.of("Timestamp")));
+    }
+
+    @Test
+    public void aggregateSame()
+    {
+        DataFrame df = new DataFrame("Events")
+                .addStringColumn("Key").addDateTimeColumn("Timestamp")
+                .addRow("A", LocalDateTime.of(2020, 5, 1, 9, 0))
+                .addRow("A", LocalDateTime.of(2020, 5, 1, 9, 0))
+                .addRow("B", LocalDateTime.of(2021, 6, 2, 10, 0))
+                .seal();
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("Expected")
+                        .addStringColumn("Key").addDateTimeColumn("Timestamp")
+                        .addRow("A", LocalDateTime.of(2020, 5, 1, 9, 0))
+                        .addRow("B", LocalDateTime.of(2021, 6, 2, 10, 0)),
+                df.aggregateBy(Lists.immutable.of(same("Timestamp")), Lists.immutable.of("Key")));
+    }
+}
@@ -0,0 +1,147 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.impl.factory.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DfDecimalColumnStoredTest
+{
+    private DataFrame dataFrame;
+
+    @BeforeEach
+    public void setUpDataFrame()
+    {
+        this.dataFrame = new DataFrame("Trades")
+                .addStringColumn("Book").addDecimalColumn("PnL")
+                .addRow("A", new BigDecimal("10.25"))
+                .addRow("B", new BigDecimal("-3.50"))
+                .addRow("A", new BigDecimal("0.75"))
+                .addRow("B", null)
+                .addRow("C", new BigDecimal("100.00"))
+                .seal();
+    }
+
+    @Test
+    public void unscaledValues()
+    {
+        DfDecimalColumnStored pnl = (DfDecimalColumnStored) this.dataFrame.getColumnNamed("PnL");
+
+        assertTrue(pnl.storesUnscaledValues());
+        assertEquals(2, pnl.getScale());
+        assertEquals(1025L, pnl.getUnscaledValue(0));
+        assertEquals(-350L, pnl.getUnscaledValue(1));
+        assertThrows(NullPointerException.class, () -> pnl.getUnscaledValue(3));
+
+        assertEquals(new BigDecimal("-3.50"), this.dataFrame.getDecimal("PnL", 1));
+        assertNull(this.dataFrame.getDecimal("PnL", 3));
+        assertTrue(pnl.isNull(3));
+    }
+
+    @Test
+    public void switchToObjectsForDifferentScale()
+    {
+        DfDecimalColumnStored pnl = (DfDecimalColumnStored) this.dataFrame.getColumnNamed("PnL");
+
+        pnl.setObject(4, new BigDecimal("1.5"));
+
+        assertFalse(pnl.storesUnscaledValues());
+        assertEquals(new BigDecimal("1.5"), this.dataFrame.getDecimal("PnL", 4));
+        assertEquals(new BigDecimal("10.25"), this.dataFrame.getDecimal("PnL", 0));
+        assertEquals(new BigDecimal("-3.50"), this.dataFrame.getDecimal("PnL", 1));
+        assertTrue(pnl.isNull(3));
+    }
+
+    @Test
+    public void switchToObjectsForLargeValues()
+    {
+        BigDecimal large = new BigDecimal("123456789012345678901234567890.12");
+
+        DataFrame df = new DataFrame("Large")
+                .addDecimalColumn("Value")
+                .addRow(new BigDecimal("1.00"))
+                .addRow(large)
+                .seal();
+
+        assertFalse(((DfDecimalColumnStored) df.getColumnNamed("Value")).storesUnscaledValues());
+        assertEquals(new BigDecimal("1.00"), df.getDecimal("Value", 0));
+        assertEquals(large, df.getDecimal("Value", 1));
+    }
+
+    @Test
+    public void sort()
+    {
+        DataFrameUtil.assertEquals(
+                new DataFrame("Expected")
+                        .addStringColumn("Book").addDecimalColumn("PnL")
+                        .addRow("B", null)
+                        .addRow("B", new BigDecimal("-3.50"))
+                        .addRow("A", new BigDecimal("0.75"))
+                        .addRow("A", new BigDecimal("10.25"))
+                        .addRow("C", new BigDecimal("100.00")),
+                this.dataFrame.sortBy(Lists.immutable.of("PnL")));
+    }
+
+    @Test
+    public void sortByComputedColumn()
+    {
+        this.dataFrame.addColumn("Loss", "PnL * toDecimal(-1, 0)");
+        this.dataFrame.sortBy(Lists.immutable.of("Loss"));
+
+        assertEquals(
+                Lists.immutable.of("B", "C", "A", "A", "B"),
+                Lists.immutable.of(0, 1, 2, 3, 4).collect(rowIndex -> this.dataFrame.getString("Book", rowIndex)));
+    }
+
+    @Test
+    public void sumAndAverage()
+    {
+        DataFrame noNulls = this.dataFrame.selectBy("Book != \"B\"");
+
+        assertEquals(new BigDecimal("111.00"), noNulls.sum(Lists.immutable.of("PnL")).getDecimal("PnL", 0));
+        assertNull(this.dataFrame.sum(Lists.immutable.of("PnL")).getDecimal("PnL", 0));
+
+        DataFrame summed = noNulls.aggregateBy(Lists.immutable.of(sum("PnL")), Lists.immutable.of("Book"));
+        assertTrue(((DfDecimalColumnStored) summed.getColumnNamed("PnL")).storesUnscaledValues());
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("Expected")
+                        .addStringColumn("Book").addDecimalColumn("PnL")
+                        .addRow("A", new BigDecimal("11.00"))
+                        .addRow("C", new BigDecimal("100.00")),
+                summed);
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("Expected")
+                        .addStringColumn("Book").addDecimalColumn("PnL")
+                        .addRow("A", new BigDecimal("5.50"))
+                        .addRow("C", new BigDecimal("100.00")),
+                noNulls.aggregateBy(Lists.immutable.of(avg("PnL")), Lists.immutable.of("Book")));
+    }
+
+    @Test
+    public void sumFallsBackToBigDecimalOnOverflow()
+    {
+        BigDecimal large = BigDecimal.valueOf(Long.MAX_VALUE - 1, 2);
+
+        DataFrame df = new DataFrame("Large")
+                .addStringColumn("Key").addDecimalColumn("Value")
+                .addRow("A", large)
+                .addRow("A", large)
+                .addRow("B", new BigDecimal("0.01"))
+                .seal();
+
+        assertEquals(large.add(large).add(new BigDecimal("0.01")), df.sum(Lists.immutable.of("Value")).getDecimal("Value", 0));
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("Expected")
+                        .addStringColumn("Key").addDecimalColumn("Value")
+                        .addRow("A", large.add(large))
+                        .addRow("B", new BigDecimal("0.01")),
+                df.aggregateBy(Lists.immutable.of(sum("Value")), Lists.immutable.of("Key")));
+    }
+}
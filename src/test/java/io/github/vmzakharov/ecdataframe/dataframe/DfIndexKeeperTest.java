@@ -0,0 +1,124 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.list.ListIterable;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.list.primitive.IntInterval;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DfIndexKeeperTest
+{
+    @Test
+    public void singleLongKeyWithNulls()
+    {
+        DataFrame source = new DataFrame("Source").addLongColumn("Bar")
+                .addRow(1L).addRow((Object) null).addRow(1L).addRow(2L).addRow((Object) null)
+                .seal();
+
+        DataFrame indexed = new DataFrame("Indexed").addLongColumn("Bar");
+
+        DfIndexKeeper index = new DfIndexKeeper(indexed, Lists.immutable.of("Bar"), source);
+
+        assertEquals(Lists.immutable.of(0, 1, 0, 2, 1), this.rowIndicesFor(index, source));
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("Expected").addLongColumn("Bar").addRow(1L).addRow((Object) null).addRow(2L),
+                indexed.seal());
+
+        assertTrue(index.contains(Lists.immutable.of(2L)));
+        assertTrue(index.contains(Lists.fixedSize.of((Object) null)));
+        assertTrue(index.doesNotContain(Lists.immutable.of(3L)));
+    }
+
+    @Test
+    public void doubleKeysMatchObjectEquality()
+    {
+        DataFrame source = new DataFrame("Source").addDoubleColumn("Baz")
+                .addRow(Double.NaN).addRow(0.0).addRow(-0.0).addRow(Double.NaN).addRow(0.0)
+                .seal();
+
+        DfIndexKeeper index = new DfIndexKeeper(
+                new DataFrame("Indexed").addDoubleColumn("Baz"), Lists.immutable.of("Baz"), source);
+
+        assertEquals(Lists.immutable.of(0, 1, 2, 0, 1), this.rowIndicesFor(index, source));
+    }
+
+    @Test
+    public void compositeKeyWithDictionaryEncodedValues()
+    {
+        DataFrame source = new DataFrame("Source")
+                .addStringColumn("Name").addIntColumn("Fred").addDateColumn("Date")
+                .addRow("Alice", 1, LocalDate.of(2024, 1, 1))
+                .addRow("Bob", 1, LocalDate.of(2024, 1, 1))
+                .addRow("Alice", 1, LocalDate.of(2024, 1, 1))
+                .addRow(null, 1, LocalDate.of(2024, 1, 1))
+                .addRow("Alice", null, LocalDate.of(2024, 1, 1))
+                .addRow("Alice", 1, LocalDate.of(2024, 1, 2))
+                .addRow(null, 1, LocalDate.of(2024, 1, 1))
+                .addRow("Alice", null, LocalDate.of(2024, 1, 1))
+                .seal();
+
+        DataFrame indexed = new DataFrame("Indexed")
+                .addStringColumn("Name").addIntColumn("Fred").addDateColumn("Date");
+
+        DfIndexKeeper index = new DfIndexKeeper(indexed, Lists.immutable.of("Name", "Fred", "Date"), source);
+
+        assertEquals(Lists.immutable.of(0, 1, 0, 2, 3, 4, 2, 3), this.rowIndicesFor(index, source));
+        assertEquals(5, indexed.rowCount());
+
+        assertTrue(index.contains(Lists.fixedSize.of("Alice", null, LocalDate.of(2024, 1, 1))));
+        assertTrue(index.doesNotContain(Lists.fixedSize.of("Carl", 1, LocalDate.of(2024, 1, 1))));
+        assertTrue(index.doesNotContain(Lists.fixedSize.of("Bob", 2, LocalDate.of(2024, 1, 1))));
+
+        assertEquals(1, index.getRowIndexAtKeyIfAbsentAdd(Lists.fixedSize.of("Bob", 1, LocalDate.of(2024, 1, 1))));
+        assertEquals(5, index.getRowIndexAtKeyIfAbsentAdd(Lists.fixedSize.of("Carl", 1, LocalDate.of(2024, 1, 1))));
+        assertEquals("Carl", indexed.getString("Name", 5));
+    }
+
+    @Test
+    public void keysOfDifferentTypeAreNotContained()
+    {
+        DataFrame source = new DataFrame("Source").addStringColumn("Name").addLongColumn("Bar")
+                .addRow("Alice", 1L)
+                .addRow("Bob", 2L)
+                .seal();
+
+        DfIndexKeeper byBar = new DfIndexKeeper(
+                new DataFrame("Indexed").addLongColumn("Bar"), Lists.immutable.of("Bar"), source);
+        this.rowIndicesFor(byBar, source);
+
+        assertTrue(byBar.contains(Lists.immutable.of(1L)));
+        assertFalse(byBar.contains(Lists.immutable.of(1)));
+        assertTrue(byBar.doesNotContain(Lists.immutable.of("Alice")));
+
+        DfIndexKeeper byNameAndBar = new DfIndexKeeper(
+                new DataFrame("Indexed").addStringColumn("Name").addLongColumn("Bar"),
+                Lists.immutable.of("Name", "Bar"), source);
+        this.rowIndicesFor(byNameAndBar, source);
+
+        assertTrue(byNameAndBar.contains(Lists.immutable.of("Bob", 2L)));
+        assertFalse(byNameAndBar.contains(Lists.immutable.of(2L, "Bob")));
+        assertTrue(byNameAndBar.doesNotContain(Lists.immutable.of("Bob", 2)));
+    }
+
+    @Test
+    public void keyComputedFromSourceRow()
+    {
+        DataFrame source = new DataFrame("Source").addStringColumn("Name").addLongColumn("Bar")
+                .addRow("Alice", 1L)
+                .seal();
+
+        DfIndexKeeper index = new DfIndexKeeper(
+                new DataFrame("Indexed").addStringColumn("Name"), Lists.immutable.of("Name"), source);
+
+        assertEquals(Lists.fixedSize.of("Alice"), index.computeKeyFrom(0));
+    }
+
+    private ListIterable<Integer> rowIndicesFor(DfIndexKeeper index, DataFrame source)
+    {
+        return IntInterval.zeroTo(source.rowCount() - 1).collect(index::getRowIndexAtSourceRowIfAbsentAdd);
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.impl.factory.Lists;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DfNullMapTest
+{
+    @Test
+    public void bitmapIsAllocatedOnFirstNull()
+    {
+        DfNullMap nullMap = new DfNullMap();
+
+        for (int i = 0; i < 200; i++)
+        {
+            nullMap.add(i == 150);
+        }
+
+        assertEquals(200, nullMap.size());
+        assertEquals(1, nullMap.getNullCount());
+        assertTrue(nullMap.get(150));
+        assertFalse(nullMap.get(149));
+        assertFalse(nullMap.get(0));
+
+        nullMap.set(10, true);
+        nullMap.set(10, true);
+        nullMap.set(150, false);
+        nullMap.set(199, false);
+
+        assertEquals(1, nullMap.getNullCount());
+        assertTrue(nullMap.get(10));
+        assertFalse(nullMap.get(150));
+    }
+
+    @Test
+    public void nullCountOfColumns()
+    {
+        DataFrame df = new DataFrame("Nulls")
+                .addLongColumn("Long").addIntColumn("Int").addBooleanColumn("Boolean")
+                .addRow(1L, 1, true)
+                .addRow(2L, 2, false)
+                .addRow(3L, 3, true)
+                .seal();
+
+        DfLongColumnStored longColumn = (DfLongColumnStored) df.getColumnNamed("Long");
+
+        assertFalse(longColumn.mayContainNulls());
+        assertFalse(df.getColumnNamed("Int").mayContainNulls());
+        assertFalse(df.getColumnNamed("Boolean").mayContainNulls());
+        assertEquals(6L, df.sum(Lists.immutable.of("Long")).getLong("Long", 0));
+
+        longColumn.setObject(1, null);
+
+        assertTrue(longColumn.mayContainNulls());
+        assertEquals(1, longColumn.getNullCount());
+        assertTrue(df.isNull("Long", 1));
+        assertNull(df.sum(Lists.immutable.of("Long")).getObject("Long", 0));
+        assertEquals(1, df.selectBy("Long is null").rowCount());
+
+        longColumn.setLong(1, 5L);
+
+        assertFalse(longColumn.mayContainNulls());
+        assertEquals(9L, df.sum(Lists.immutable.of("Long")).getLong("Long", 0));
+        assertEquals(0, df.selectBy("Long is null").rowCount());
+    }
+}
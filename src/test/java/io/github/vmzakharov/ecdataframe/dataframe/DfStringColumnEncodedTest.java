@@ -0,0 +1,197 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import io.github.vmzakharov.ecdataframe.util.ExpressionParserHelper;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DfStringColumnEncodedTest
+{
+    private DataFrame dataFrame;
+
+    @BeforeEach
+    public void setUpDataFrame()
+    {
+        this.dataFrame = new DataFrame("Trades")
+                .addDictionaryEncodedStringColumn("Book").addLongColumn("Quantity")
+                .addRow("Macro", 10)
+                .addRow("Credit", 20)
+                .addRow(null, 30)
+                .addRow("Macro", 40)
+                .addRow("Equity", 50)
+                .addRow("Credit", 60)
+                .seal();
+    }
+
+    @Test
+    public void codes()
+    {
+        DfStringColumnEncoded book = (DfStringColumnEncoded) this.dataFrame.getColumnNamed("Book");
+
+        assertEquals(3, book.getDictionarySize());
+        assertEquals(book.getCode(0), book.getCode(3));
+        assertEquals(book.getCode(1), book.getCode(5));
+        assertNotEquals(book.getCode(0), book.getCode(1));
+        assertEquals(book.getCode(4), book.getCodeOf("Equity"));
+        assertEquals(DfStringColumnEncoded.NULL_CODE, book.getCodeOf("Rates"));
+
+        assertTrue(book.isNull(2));
+        assertEquals(DfStringColumnEncoded.NULL_CODE, book.getCode(2));
+        assertNull(this.dataFrame.getString("Book", 2));
+        assertEquals("Equity", this.dataFrame.getString("Book", 4));
+    }
+
+    @Test
+    public void setValues()
+    {
+        DfStringColumnEncoded book = (DfStringColumnEncoded) this.dataFrame.getColumnNamed("Book");
+
+        book.setObject(2, "Rates");
+        book.setObject(0, null);
+
+        assertEquals(4, book.getDictionarySize());
+        assertEquals("Rates", this.dataFrame.getString("Book", 2));
+        assertTrue(book.isNull(0));
+        assertEquals("Macro", this.dataFrame.getString("Book", 3));
+    }
+
+    @Test
+    public void filterOnCodes()
+    {
+        DataFrame plain = new DataFrame("Plain")
+                .addStringColumn("Book").addLongColumn("Quantity")
+                .addRow("Macro", 10)
+                .addRow("Credit", 20)
+                .addRow(null, 30)
+                .addRow("Macro", 40)
+                .addRow("Equity", 50)
+                .addRow("Credit", 60)
+                .seal();
+
+        Lists.immutable.of(
+                "Book == \"Macro\"",
+                "\"Credit\" == Book",
+                "Book != \"Macro\"",
+                "Book == \"Rates\"",
+                "Book in (\"Equity\", \"Credit\", \"Rates\")",
+                "Book not in (\"Equity\", \"Credit\")",
+                "Book == \"Macro\" or Quantity > 45"
+        ).forEach(filter -> {
+            assertTrue(new DfVectorEvaluator(this.dataFrame, ExpressionParserHelper.DEFAULT.toExpression(filter)).isVectorizable());
+            DataFrameUtil.assertEquals(plain.selectBy(filter), this.dataFrame.selectBy(filter));
+        });
+
+        assertTrue(this.dataFrame.selectBy("Book == \"Macro\"").getColumnNamed("Book") instanceof DfStringColumnEncoded);
+    }
+
+    @Test
+    public void sort()
+    {
+        this.dataFrame.sortBy(Lists.immutable.of("Book", "Quantity"));
+
+        assertEquals(
+                Lists.immutable.of(30L, 20L, 60L, 50L, 10L, 40L),
+                Lists.immutable.of(0, 1, 2, 3, 4, 5).collect(rowIndex -> this.dataFrame.getLong("Quantity", rowIndex)));
+    }
+
+    @Test
+    public void sortWithSortedDictionary()
+    {
+        DataFrame df = new DataFrame("Sorted Dictionary")
+                .addDictionaryEncodedStringColumn("Name", true).addLongColumn("Value")
+                .addRow("Carol", 1)
+                .addRow("Alice", 2)
+                .addRow("Bob", 3)
+                .addRow(null, 4)
+                .addRow("Alice", 5)
+                .seal();
+
+        df.sortBy(Lists.immutable.of("Name"));
+
+        DfStringColumnEncoded name = (DfStringColumnEncoded) df.getColumnNamed("Name");
+        assertTrue(name.getCodeOf("Alice") < name.getCodeOf("Bob"));
+        assertTrue(name.getCodeOf("Bob") < name.getCodeOf("Carol"));
+
+        assertEquals(
+                Lists.mutable.of(null, "Alice", "Alice", "Bob", "Carol"),
+                Lists.mutable.of(0, 1, 2, 3, 4).collect(rowIndex -> df.getString("Name", rowIndex)));
+        assertEquals("Carol", df.getColumnNamed("Name").getObject(0));
+    }
+
+    @Test
+    public void indexesRebuiltAfterSortedDictionaryReEncoded()
+    {
+        DataFrame df = new DataFrame("Sorted Dictionary")
+                .addDictionaryEncodedStringColumn("Code", true).addLongColumn("Value")
+                .addRow("b", 1)
+                .addRow("a", 2)
+                .addRow("c", 3)
+                .seal();
+
+        df.createIndex("ByCode", Lists.immutable.of("Code"));
+        assertEquals(IntLists.immutable.of(0), df.index("ByCode").getRowIndicesAtKey("b"));
+
+        df.sortBy(Lists.immutable.of("Code"));
+
+        assertEquals(IntLists.immutable.of(0), df.index("ByCode").getRowIndicesAtKey("b"));
+        assertEquals(IntLists.immutable.of(1), df.index("ByCode").getRowIndicesAtKey("a"));
+
+        DataFrame selected = df.selectBy("Code == 'b'");
+        assertEquals(1, selected.rowCount());
+        assertEquals(1L, selected.getLong("Value", 0));
+    }
+
+    @Test
+    public void distinctAndAggregate()
+    {
+        DataFrameUtil.assertEquals(
+                new DataFrame("Expected")
+                        .addStringColumn("Book")
+                        .addRow("Macro")
+                        .addRow("Credit")
+                        .addRow((Object) null)
+                        .addRow("Equity"),
+                this.dataFrame.distinct(Lists.immutable.of("Book")));
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("Expected")
+                        .addStringColumn("Book").addLongColumn("Quantity")
+                        .addRow("Macro", 50)
+                        .addRow("Credit", 80)
+                        .addRow("Equity", 50),
+                this.dataFrame
+                        .selectBy("Book is not null")
+                        .aggregateBy(Lists.immutable.of(sum("Quantity")), Lists.immutable.of("Book")));
+    }
+
+    @Test
+    public void joinWithPlainStringColumn()
+    {
+        DataFrame books = new DataFrame("Books")
+                .addStringColumn("Book").addStringColumn("Desk")
+                .addRow("Credit", "Fixed Income")
+                .addRow("Equity", "Equities")
+                .addRow("Rates", "Fixed Income")
+                .seal();
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("Expected")
+                        .addStringColumn("Book").addLongColumn("Quantity").addStringColumn("Desk")
+                        .addRow("Credit", 20, "Fixed Income")
+                        .addRow("Credit", 60, "Fixed Income")
+                        .addRow("Equity", 50, "Equities"),
+                this.dataFrame.join(books, "Book", "Book"));
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("Expected")
+                        .addStringColumn("Book").addStringColumn("Desk").addLongColumn("Quantity")
+                        .addRow("Credit", "Fixed Income", 20)
+                        .addRow("Credit", "Fixed Income", 60)
+                        .addRow("Equity", "Equities", 50),
+                books.join(this.dataFrame, "Book", "Book"));
+    }
+}
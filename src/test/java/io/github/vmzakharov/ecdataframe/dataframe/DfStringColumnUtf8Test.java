@@ -0,0 +1,211 @@
+package io.github.vmzakharov.ecdataframe.dataframe;
+
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.impl.factory.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DfStringColumnUtf8Test
+{
+    private DataFrame dataFrame;
+
+    @BeforeEach
+    public void setUpDataFrame()
+    {
+        this.dataFrame = new DataFrame("Trades")
+                .addUtf8StringColumn("Id").addLongColumn("Quantity")
+                .addRow("T-003", 10)
+                .addRow("T-001", 20)
+                .addRow(null, 30)
+                .addRow("", 40)
+                .addRow("T-001", 50)
+                .addRow("Привет", 60)
+                .seal();
+    }
+
+    @Test
+    public void values()
+    {
+        DfStringColumnUtf8 id = (DfStringColumnUtf8) this.dataFrame.getColumnNamed("Id");
+
+        assertEquals("T-003", this.dataFrame.getString("Id", 0));
+        assertNull(this.dataFrame.getString("Id", 2));
+        assertTrue(id.isNull(2));
+        assertEquals("", this.dataFrame.getString("Id", 3));
+        assertFalse(id.isNull(3));
+        assertEquals("Привет", this.dataFrame.getString("Id", 5));
+
+        assertEquals(5, id.getUtf8Length(0));
+        assertEquals(-1, id.getUtf8Length(2));
+        assertEquals(12, id.getUtf8Length(5));
+
+        id.setObject(0, "T-002");
+        id.setObject(3, null);
+        assertEquals("T-002", this.dataFrame.getString("Id", 0));
+        assertTrue(id.isNull(3));
+    }
+
+    @Test
+    public void byteLevelOperations()
+    {
+        DfStringColumnUtf8 id = (DfStringColumnUtf8) this.dataFrame.getColumnNamed("Id");
+
+        assertTrue(id.bytesEqual(1, id, 4));
+        assertFalse(id.bytesEqual(0, id, 1));
+        assertEquals(id.bytesHashCode(1), id.bytesHashCode(4));
+
+        assertTrue(id.compareBytes(1, id, 0) < 0);
+        assertTrue(id.compareBytes(0, id, 1) > 0);
+        assertEquals(0, id.compareBytes(1, id, 4));
+        assertTrue(id.compareBytes(3, id, 0) < 0);
+    }
+
+    @Test
+    public void compareLikeStrings()
+    {
+        ImmutableList<String> values = Lists.immutable.of(
+                "", "a", "ab", "b", "é", "中", "￿", "", "😀", "a😀", "a！");
+
+        DfStringColumnUtf8 column = (DfStringColumnUtf8) new DataFrame("Values")
+                .addUtf8StringColumn("Value", values)
+                .getColumnNamed("Value");
+
+        for (int i = 0; i < values.size(); i++)
+        {
+            for (int j = 0; j < values.size(); j++)
+            {
+                assertEquals(
+                        Integer.signum(values.get(i).compareTo(values.get(j))),
+                        Integer.signum(column.compareBytes(i, column, j)),
+                        values.get(i) + " vs " + values.get(j));
+            }
+        }
+    }
+
+    @Test
+    public void largeValuesSpanningChunks()
+    {
+        String large = "x".repeat(10_000);
+
+        DataFrame df = new DataFrame("Large")
+                .addUtf8StringColumn("Value")
+                .addRow("small")
+                .addRow(large)
+                .addRow("small again")
+                .seal();
+
+        assertEquals("small", df.getString("Value", 0));
+        assertEquals(large, df.getString("Value", 1));
+        assertEquals("small again", df.getString("Value", 2));
+    }
+
+    @Test
+    public void sort()
+    {
+        this.dataFrame.sortBy(Lists.immutable.of("Id", "Quantity"));
+
+        assertEquals(
+                Lists.immutable.of(30L, 40L, 20L, 50L, 10L, 60L),
+                Lists.immutable.of(0, 1, 2, 3, 4, 5).collect(rowIndex -> this.dataFrame.getLong("Quantity", rowIndex)));
+    }
+
+    @Test
+    public void filterAndAggregate()
+    {
+        DataFrame selected = this.dataFrame.selectBy("Id == \"T-001\" or Id == \"T-003\"");
+        assertTrue(selected.getColumnNamed("Id") instanceof DfStringColumnUtf8);
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("Expected")
+                        .addStringColumn("Id").addLongColumn("Quantity")
+                        .addRow("T-003", 10)
+                        .addRow("T-001", 70),
+                selected.aggregateBy(Lists.immutable.of(sum("Quantity")), Lists.immutable.of("Id")));
+
+        DataFrameUtil.assertEquals(
+                new DataFrame("Expected")
+                        .addStringColumn("Id")
+                        .addRow("T-003")
+                        .addRow("T-001")
+                        .addRow((Object) null)
+                        .addRow("")
+                        .addRow("Привет"),
+                this.dataFrame.distinct(Lists.immutable.of("Id")));
+    }
+
+    @Test
+    public void join()
+    {
+        DataFrame plainIds = new DataFrame("Plain")
+                .addStringColumn("Id").addStringColumn("Desk")
+                .addRow("T-001", "Rates")
+                .addRow("T-003", "Credit")
+                .addRow("T-004", "Macro")
+                .seal();
+
+        DataFrame utf8Ids = new DataFrame("UTF-8")
+                .addUtf8StringColumn("Id").addStringColumn("Desk")
+                .addRow("T-001", "Rates")
+                .addRow("T-003", "Credit")
+                .addRow("T-004", "Macro")
+                .seal();
+
+        DataFrame expected = new DataFrame("Expected")
+                .addStringColumn("Id").addLongColumn("Quantity").addStringColumn("Desk")
+                .addRow("T-001", 20, "Rates")
+                .addRow("T-001", 50, "Rates")
+                .addRow("T-003", 10, "Credit");
+
+        Lists.immutable.of(DfJoinStrategy.SORT_MERGE, DfJoinStrategy.HASH).forEach(joinStrategy -> {
+            this.dataFrame.setJoinStrategy(joinStrategy);
+            DataFrameUtil.assertEquals(expected, this.dataFrame.join(plainIds, "Id", "Id"));
+            DataFrameUtil.assertEquals(expected, this.dataFrame.join(utf8Ids, "Id", "Id"));
+        });
+
+        plainIds.setJoinStrategy(DfJoinStrategy.HASH);
+        DataFrameUtil.assertEquals(
+                new DataFrame("Expected")
+                        .addStringColumn("Id").addStringColumn("Desk").addLongColumn("Quantity")
+                        .addRow("T-001", "Rates", 20)
+                        .addRow("T-001", "Rates", 50)
+                        .addRow("T-003", "Credit", 10),
+                plainIds.join(this.dataFrame, "Id", "Id"));
+    }
+
+    @Test
+    public void unpairedSurrogates()
+    {
+        DfStringColumnUtf8 id = (DfStringColumnUtf8) this.dataFrame.getColumnNamed("Id");
+
+        assertThrows(RuntimeException.class, () -> id.setObject(0, "T\uD800"));
+        assertThrows(RuntimeException.class, () -> new DataFrame("Bad").addUtf8StringColumn("Id").addRow("\uDC00T"));
+        assertEquals("T-003", this.dataFrame.getString("Id", 0));
+
+        DataFrame withQuestionMark = new DataFrame("UTF-8")
+                .addUtf8StringColumn("Id").addLongColumn("Value")
+                .addRow("a?", 1)
+                .addRow("a\uD83D\uDE00", 2)
+                .seal();
+
+        withQuestionMark.createIndex("ById", Lists.immutable.of("Id"));
+        assertEquals(0, withQuestionMark.index("ById").sizeAt("a\uD800"));
+        assertEquals(1, withQuestionMark.index("ById").sizeAt("a?"));
+
+        DataFrame plainIds = new DataFrame("Plain")
+                .addStringColumn("Id").addStringColumn("Desk")
+                .addRow("a\uD800", "Rates")
+                .addRow("a\uDC00", "Credit")
+                .addRow("a\uD83D\uDE00", "Macro")
+                .seal();
+
+        withQuestionMark.setJoinStrategy(DfJoinStrategy.HASH);
+        DataFrameUtil.assertEquals(
+                new DataFrame("Expected")
+                        .addStringColumn("Id").addLongColumn("Value").addStringColumn("Desk")
+                        .addRow("a\uD83D\uDE00", 2, "Macro"),
+                withQuestionMark.join(plainIds, "Id", "Id"));
+    }
+}
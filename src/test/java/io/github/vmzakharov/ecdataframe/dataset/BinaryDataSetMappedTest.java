@@ -0,0 +1,100 @@
+package io.github.vmzakharov.ecdataframe.dataset;
+
+import io.github.vmzakharov.ecdataframe.dataframe.DataFrame;
+import io.github.vmzakharov.ecdataframe.dataframe.DataFrameUtil;
+import io.github.vmzakharov.ecdataframe.dataframe.DfColumnMapped;
+import org.eclipse.collections.impl.factory.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+import static io.github.vmzakharov.ecdataframe.dataframe.AggregateFunction.*;
+import static io.github.vmzakharov.ecdataframe.dsl.value.ValueType.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryDataSetMappedTest
+{
+    private static final int ROW_COUNT = 10_000;
+
+    @TempDir
+    Path tempDir;
+
+    private DataFrame dataFrame;
+    private DataFrame mapped;
+
+    @BeforeEach
+    public void writeAndMap()
+    {
+        this.dataFrame = new DataFrame("Data")
+                .addStringColumn("Key").addLongColumn("Long").addIntColumn("Int").addDoubleColumn("Double")
+                .addFloatColumn("Float").addDecimalColumn("Decimal");
+
+        for (int i = 0; i < ROW_COUNT; i++)
+        {
+            this.dataFrame.addRow(
+                    "Key" + i % 10,
+                    i % 11 == 0 ? null : (long) i * 1_000_000_000L,
+                    i % 13 == 0 ? null : ROW_COUNT - i,
+                    i % 17 == 0 ? null : i * 0.25,
+                    i % 19 == 0 ? null : i * 0.5f,
+                    BigDecimal.valueOf(i, 2));
+        }
+        this.dataFrame.seal();
+        this.dataFrame.addColumn("Total", DOUBLE, "Double + Float");
+
+        Path dataFile = this.tempDir.resolve("data.dfec");
+        new BinaryDataSet(dataFile, "Data").write(this.dataFrame);
+        this.mapped = new BinaryDataSet(dataFile, "Data").mapAsDataFrame();
+    }
+
+    @Test
+    public void mappedMatchesOriginal()
+    {
+        assertTrue(this.mapped.getColumnNamed("Long") instanceof DfColumnMapped);
+        assertTrue(this.mapped.getColumnNamed("Float") instanceof DfColumnMapped);
+        assertFalse(this.mapped.getColumnNamed("Key") instanceof DfColumnMapped);
+
+        assertTrue(this.mapped.getColumnNamed("Long").isNull(22));
+        assertTrue(this.mapped.getColumnNamed("Int").isNull(26));
+        assertTrue(this.mapped.getColumnNamed("Double").isNull(34));
+        assertTrue(this.mapped.getColumnNamed("Float").isNull(38));
+        assertEquals(9_998_000_000_000L, this.mapped.getLong("Long", 9_998));
+
+        DataFrameUtil.assertEquals(this.dataFrame, this.mapped);
+    }
+
+    @Test
+    public void selectBy()
+    {
+        String filter = "Long > 5000000000000 and Int < 4000 and Double > 0.0";
+
+        DataFrameUtil.assertEquals(this.dataFrame.selectBy(filter), this.mapped.selectBy(filter));
+    }
+
+    @Test
+    public void sortBy()
+    {
+        DataFrameUtil.assertEquals(
+                this.dataFrame.sortBy(Lists.immutable.of("Int", "Double")),
+                this.mapped.sortBy(Lists.immutable.of("Int", "Double")));
+    }
+
+    @Test
+    public void aggregateBy()
+    {
+        DataFrameUtil.assertEquals(
+                this.dataFrame.aggregateBy(Lists.immutable.of(max("Long"), sum("Int"), avg("Float")), Lists.immutable.of("Key")),
+                this.mapped.aggregateBy(Lists.immutable.of(max("Long"), sum("Int"), avg("Float")), Lists.immutable.of("Key")));
+    }
+
+    @Test
+    public void mappedColumnsAreReadOnly()
+    {
+        assertThrows(UnsupportedOperationException.class, () -> this.mapped.getColumnNamed("Long").setObject(0, 1L));
+        assertThrows(UnsupportedOperationException.class, () -> this.mapped.getColumnNamed("Double").addObject(1.0));
+        assertThrows(UnsupportedOperationException.class, () -> this.mapped.getColumnNamed("Int").addEmptyValue());
+    }
+}
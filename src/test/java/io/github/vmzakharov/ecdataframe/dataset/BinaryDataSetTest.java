@@ -0,0 +1,115 @@
+package io.github.vmzakharov.ecdataframe.dataset;
+
+import io.github.vmzakharov.ecdataframe.dataframe.DataFrame;
+import io.github.vmzakharov.ecdataframe.dataframe.DataFrameUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static io.github.vmzakharov.ecdataframe.dsl.value.ValueType.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryDataSetTest
+{
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void allColumnTypesWithNulls()
+    {
+        DataFrame df = new DataFrame("Everything")
+                .addStringColumn("Name").addLongColumn("Long").addIntColumn("Int").addDoubleColumn("Double")
+                .addFloatColumn("Float").addBooleanColumn("Flag").addDateColumn("Date").addDateTimeColumn("DateTime")
+                .addDecimalColumn("Decimal")
+                .addRow("Alice", 1L, 10, 1.5, 2.5f, true, LocalDate.of(2020, 1, 1),
+                        LocalDateTime.of(2020, 1, 1, 10, 15, 30, 123_456_789), new BigDecimal("1.10"))
+                .addRow(null, null, null, null, null, null, null, null, null)
+                .addRow("Ünïcödé", Long.MIN_VALUE, Integer.MAX_VALUE, -0.0, Float.NaN, false, LocalDate.of(1850, 12, 31),
+                        LocalDateTime.of(1960, 2, 29, 23, 59), new BigDecimal("-12345678901234567890.123456789"))
+                .addRow("Alice", 0L, -1, Double.MAX_VALUE, 0.0f, true, LocalDate.of(2262, 4, 12),
+                        LocalDateTime.of(2050, 6, 15, 0, 0, 1), new BigDecimal("1.10"))
+                .seal();
+
+        DataFrame loaded = this.writeAndLoad(df);
+
+        DataFrameUtil.assertEquals(df, loaded);
+        assertTrue(loaded.getColumnNamed("Long").isNull(1));
+        assertTrue(loaded.getColumnNamed("Flag").isNull(1));
+        assertTrue(loaded.getColumnNamed("Name").isNull(1));
+        assertEquals("Ünïcödé", loaded.getString("Name", 2));
+        assertEquals(new BigDecimal("-12345678901234567890.123456789"), loaded.getDecimal("Decimal", 2));
+        assertEquals(LocalDateTime.of(2020, 1, 1, 10, 15, 30, 123_456_789), loaded.getDateTime("DateTime", 0));
+        assertSame(loaded.getString("Name", 0), loaded.getString("Name", 3));
+    }
+
+    @Test
+    public void computedColumnsAndPooling()
+    {
+        DataFrame df = new DataFrame("Computed")
+                .addStringColumn("Name").addLongColumn("Quantity")
+                .addRow("Apple", 5)
+                .addRow("Banana", 7)
+                .seal();
+        df.addColumn("Double", LONG, "Quantity * 2");
+        df.enablePooling();
+
+        DataFrame loaded = this.writeAndLoad(df);
+
+        assertTrue(loaded.isPoolingEnabled());
+        assertFalse(loaded.getColumnNamed("Double").isStored());
+        assertEquals(14L, loaded.getLong("Double", 1));
+        DataFrameUtil.assertEquals(df, loaded);
+
+        df.disablePooling();
+        assertFalse(this.writeAndLoad(df).isPoolingEnabled());
+    }
+
+    @Test
+    public void largeDataFrame()
+    {
+        DataFrame df = new DataFrame("Large").addLongColumn("Id").addDoubleColumn("Value").addStringColumn("Key");
+        for (int i = 0; i < 50_000; i++)
+        {
+            df.addRow(i, i % 17 == 0 ? null : i * 0.5, "Key" + i % 100);
+        }
+        df.seal();
+
+        DataFrameUtil.assertEquals(df, this.writeAndLoad(df));
+    }
+
+    @Test
+    public void emptyDataFrame()
+    {
+        DataFrame df = new DataFrame("Empty").addStringColumn("Name").addLongColumn("Quantity").seal();
+
+        DataFrame loaded = this.writeAndLoad(df);
+
+        assertEquals(0, loaded.rowCount());
+        assertEquals(2, loaded.columnCount());
+        assertEquals(STRING, loaded.getColumnNamed("Name").getType());
+    }
+
+    @Test
+    public void notABinaryDataFrameFile()
+    throws IOException
+    {
+        Path dataFile = this.tempDir.resolve("data.csv");
+        Files.writeString(dataFile, "Name,Quantity\nApple,5\n");
+
+        assertThrows(RuntimeException.class, () -> new BinaryDataSet(dataFile, "Data").loadAsDataFrame());
+    }
+
+    private DataFrame writeAndLoad(DataFrame df)
+    {
+        Path dataFile = this.tempDir.resolve(df.getName() + ".dfec");
+
+        new BinaryDataSet(dataFile, df.getName()).write(df);
+        return new BinaryDataSet(dataFile, df.getName()).loadAsDataFrame();
+    }
+}
@@ -0,0 +1,210 @@
+package io.github.vmzakharov.ecdataframe.dataset;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import io.github.vmzakharov.ecdataframe.dataframe.DataFrame;
+import io.github.vmzakharov.ecdataframe.dataframe.DataFrameUtil;
+import org.eclipse.collections.api.block.function.Function;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+
+import static io.github.vmzakharov.ecdataframe.dsl.value.ValueType.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvMemoryMappedParsingTest
+{
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void inferredSchema()
+    throws IOException
+    {
+        DataFrame loaded = this.assertSameAsStringParsing(
+                """
+                Name,Count,Amount,Date,Code
+                "Alice",1234,110000.00,2020-01-01,abc
+                "Bob, Jr.",-1233,-0.5,2010-1-1,"x,y"
+                  "Carl",+10000,.25,2005-11-21,
+                "Diane",0,1e3,2012-09-20, padded
+                "Ed",9223372036854775807,123456789012345678.5,,""
+                "Fiona",-9223372036854775808,0.1234567890123456789,2024-02-29,"Ünïcödé"
+                """,
+                dataFile -> new CsvDataSet(dataFile, "Data"));
+
+        assertEquals(6, loaded.rowCount());
+        assertEquals("Bob, Jr.", loaded.getString("Name", 1));
+        assertEquals("Carl", loaded.getString("Name", 2));
+        assertEquals(-1233L, loaded.getLong("Count", 1));
+        assertEquals(10_000L, loaded.getLong("Count", 2));
+        assertEquals(Long.MIN_VALUE, loaded.getLong("Count", 5));
+        assertEquals(0.25, loaded.getDouble("Amount", 2));
+        assertEquals(1000.0, loaded.getDouble("Amount", 3));
+        assertEquals(0.1234567890123456789, loaded.getDouble("Amount", 5));
+        assertEquals(LocalDate.of(2010, 1, 1), loaded.getDate("Date", 1));
+        assertEquals(LocalDate.of(2024, 2, 29), loaded.getDate("Date", 5));
+        assertEquals(" padded", loaded.getString("Code", 3));
+    }
+
+    @Test
+    public void explicitSchemaWithNullMarker()
+    throws IOException
+    {
+        CsvSchema schema = new CsvSchema()
+                .nullMarker("N/A")
+                .addColumn("Name", STRING)
+                .addColumn("Count", INT)
+                .addColumn("Amount", DOUBLE)
+                .addColumn("Date", DATE, "uuuu-MM-dd")
+                .addColumn("Flag", BOOLEAN)
+                .addColumn("Price", DECIMAL);
+
+        DataFrame loaded = this.assertSameAsStringParsing(
+                """
+                Name,Count,Amount,Date,Flag,Price
+                "Alice",12,1.5,2020-01-01,true,1.10
+                N/A,N/A,N/A,N/A,N/A,N/A
+                ,,,,,
+                "Carl",-7, 2.5 ,2005-11-21,false,-0.5
+                """,
+                dataFile -> new CsvDataSet(dataFile, "Data", schema));
+
+        assertTrue(loaded.getColumnNamed("Name").isNull(1));
+        assertTrue(loaded.getColumnNamed("Count").isNull(1));
+        assertEquals("", loaded.getString("Name", 2));
+        assertEquals(0, loaded.getInt("Count", 2));
+        assertEquals(2.5, loaded.getDouble("Amount", 3));
+
+        this.assertSameAsStringParsing(
+                """
+                Name,Count,Amount,Date,Flag,Price
+                ,,,,,
+                "Carl",-7,2.5,2005-11-21,false,-0.5
+                """,
+                dataFile -> new CsvDataSet(dataFile, "Data", schema).convertEmptyElementsToNulls());
+    }
+
+    @Test
+    public void windowsLineBreaksAndPooling()
+    throws IOException
+    {
+        DataFrame loaded = this.assertSameAsStringParsing(
+                "Name,Value\r\n\"Alice\",1\r\n\"Bob\",2\r\n\"Alice\",3\r\n",
+                dataFile -> new CsvDataSet(dataFile, "Data"));
+
+        assertSame(loaded.getString("Name", 0), loaded.getString("Name", 2));
+    }
+
+    @Test
+    public void parallelLoading()
+    throws IOException
+    {
+        StringBuilder data = new StringBuilder("Id,Name,Amount,Date\n");
+        for (int i = 0; i < 20_000; i++)
+        {
+            data.append(i).append(",\"Name ").append(i % 50).append("\",").append(i * 0.25).append(',')
+                .append(LocalDate.of(2020, 1, 1).plusDays(i % 1000)).append('\n');
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            DataFrame loaded = this.assertSameAsStringParsing(
+                    data.toString(),
+                    dataFile -> new CsvDataSet(dataFile, "Data").enableParallelLoading(pool));
+
+            assertEquals(20_000, loaded.rowCount());
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void sameErrorsAsStringParsing()
+    throws IOException
+    {
+        this.assertSameError("Name,Count\n\"Alice\",12\n\"Bob\",12,13\n");
+        this.assertSameError("Name,Count\n\"Alice\",12\n\"Bob,12\n");
+        this.assertSameError("Name,Count\n\"Alice\",12\n\n\"Bob\",13\n");
+
+        CsvSchema schema = new CsvSchema().addColumn("Name", STRING).addColumn("Date", DATE);
+        Path dataFile = this.writeFile("Name,Date\n\"Alice\",2021-02-29\n");
+        this.assertSameError(dataFile, new CsvDataSet(dataFile, "Data", schema));
+    }
+
+    @Test
+    public void fileOnNonDefaultFileSystem()
+    throws IOException
+    {
+        FileSystem fileSystem = Jimfs.newFileSystem(Configuration.unix());
+        Path dataFile = fileSystem.getPath("/data.csv");
+        Files.writeString(dataFile, "Name,Count,Date\n\"Alice\",12,2020-01-01\n\"Bob\",-7,\n");
+
+        DataFrame expected = new DataFrame("Expected")
+                .addStringColumn("Name").addLongColumn("Count").addDateColumn("Date")
+                .addRow("Alice", 12, LocalDate.of(2020, 1, 1))
+                .addRow("Bob", -7, null);
+
+        DataFrameUtil.assertEquals(
+                expected,
+                new CsvDataSet(dataFile, "Data").enableMemoryMappedParsing().loadAsDataFrame());
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try
+        {
+            DataFrameUtil.assertEquals(
+                    expected,
+                    new CsvDataSet(dataFile, "Data").enableMemoryMappedParsing().enableParallelLoading(pool)
+                            .loadAsDataFrame());
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    private DataFrame assertSameAsStringParsing(String data, Function<Path, CsvDataSet> dataSetFactory)
+    throws IOException
+    {
+        Path dataFile = this.writeFile(data);
+
+        DataFrame expected = dataSetFactory.valueOf(dataFile).loadAsDataFrame();
+        DataFrame loaded = dataSetFactory.valueOf(dataFile).enableMemoryMappedParsing().loadAsDataFrame();
+
+        DataFrameUtil.assertEquals(expected, loaded);
+        return loaded;
+    }
+
+    private void assertSameError(String data)
+    throws IOException
+    {
+        Path dataFile = this.writeFile(data);
+        this.assertSameError(dataFile, new CsvDataSet(dataFile, "Data"));
+    }
+
+    private void assertSameError(Path dataFile, CsvDataSet dataSet)
+    {
+        Exception expected = assertThrows(RuntimeException.class, dataSet::loadAsDataFrame);
+        Exception actual = assertThrows(
+                RuntimeException.class, () -> dataSet.enableMemoryMappedParsing().loadAsDataFrame());
+
+        assertEquals(expected.getMessage(), actual.getMessage());
+    }
+
+    private Path writeFile(String data)
+    throws IOException
+    {
+        Path dataFile = Files.createTempFile(this.tempDir, "data", ".csv");
+        Files.writeString(dataFile, data);
+        return dataFile;
+    }
+}
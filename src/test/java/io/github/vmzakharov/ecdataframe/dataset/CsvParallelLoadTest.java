@@ -0,0 +1,180 @@
+package io.github.vmzakharov.ecdataframe.dataset;
+
+import io.github.vmzakharov.ecdataframe.dataframe.DataFrame;
+import io.github.vmzakharov.ecdataframe.dataframe.DataFrameUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+
+import static io.github.vmzakharov.ecdataframe.dsl.value.ValueType.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvParallelLoadTest
+{
+    private static final int ROW_COUNT = 20_000;
+
+    @TempDir
+    Path tempDir;
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    public void setUpPool()
+    {
+        this.pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    public void shutDownPool()
+    {
+        this.pool.shutdown();
+    }
+
+    @Test
+    public void parallelLoadMatchesSequentialLoad()
+    throws IOException
+    {
+        Path dataFile = this.writeDataFile("data.csv", "\n");
+
+        DataFrame sequential = new CsvDataSet(dataFile, "Data").loadAsDataFrame();
+        DataFrame parallel = new CsvDataSet(dataFile, "Data").enableParallelLoading(this.pool).loadAsDataFrame();
+
+        assertEquals(ROW_COUNT, parallel.rowCount());
+        DataFrameUtil.assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void parallelLoadWithWindowsLineBreaks()
+    throws IOException
+    {
+        Path dataFile = this.writeDataFile("data.csv", "\r\n");
+
+        DataFrame sequential = new CsvDataSet(dataFile, "Data").loadAsDataFrame();
+        DataFrame parallel = new CsvDataSet(dataFile, "Data").enableParallelLoading(this.pool).loadAsDataFrame();
+
+        assertEquals(ROW_COUNT, parallel.rowCount());
+        DataFrameUtil.assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void parallelLoadWithSchemaAndNullMarker()
+    throws IOException
+    {
+        Path dataFile = this.writeDataFile("data.csv", "\n");
+
+        CsvSchema schema = new CsvSchema()
+                .nullMarker("N/A")
+                .addColumn("Id", LONG)
+                .addColumn("Name", STRING)
+                .addColumn("Amount", DECIMAL, "0.00")
+                .addColumn("Date", DATE, "uuuu-MM-dd");
+
+        DataFrame sequential = new CsvDataSet(dataFile, "Data", schema).convertEmptyElementsToNulls().loadAsDataFrame();
+        DataFrame parallel = new CsvDataSet(dataFile, "Data", schema)
+                .convertEmptyElementsToNulls()
+                .enableParallelLoading(this.pool)
+                .loadAsDataFrame();
+
+        assertEquals(ROW_COUNT, parallel.rowCount());
+        assertTrue(parallel.getColumnNamed("Name").isNull(7));
+        assertTrue(parallel.getColumnNamed("Date").isNull(19_994));
+        assertEquals(new BigDecimal("1234.50"), parallel.getObject("Amount", 1));
+        DataFrameUtil.assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void parallelLoadWithoutHeaderLine()
+    throws IOException
+    {
+        Path dataFile = this.tempDir.resolve("noHeader.csv");
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < ROW_COUNT; i++)
+        {
+            data.append(i).append(",\"Value ").append(i % 100).append("\"\n");
+        }
+        Files.writeString(dataFile, data);
+
+        CsvSchema schema = new CsvSchema().hasHeaderLine(false).addColumn("Id", LONG).addColumn("Value", STRING);
+
+        DataFrame parallel = new CsvDataSet(dataFile, "Data", schema).enableParallelLoading(this.pool).loadAsDataFrame();
+
+        assertEquals(ROW_COUNT, parallel.rowCount());
+        assertEquals(0L, parallel.getLong("Id", 0));
+        assertEquals(ROW_COUNT - 1L, parallel.getLong("Id", ROW_COUNT - 1));
+        assertEquals("Value 99", parallel.getString("Value", 12_399));
+    }
+
+    @Test
+    public void reportsFirstMalformedRow()
+    throws IOException
+    {
+        Path dataFile = this.tempDir.resolve("malformed.csv");
+        StringBuilder data = new StringBuilder("Id,Name\n");
+        for (int i = 0; i < ROW_COUNT; i++)
+        {
+            data.append(i).append(",\"Name ").append(i).append('"');
+            if (i == 15_000 || i == 19_000)
+            {
+                data.append(",extra");
+            }
+            data.append('\n');
+        }
+        Files.writeString(dataFile, data);
+
+        Exception sequentialException = assertThrows(
+                RuntimeException.class, () -> new CsvDataSet(dataFile, "Data").loadAsDataFrame());
+
+        Exception parallelException = assertThrows(
+                RuntimeException.class,
+                () -> new CsvDataSet(dataFile, "Data").enableParallelLoading(this.pool).loadAsDataFrame());
+
+        assertEquals(sequentialException.getMessage(), parallelException.getMessage());
+        assertTrue(parallelException.getMessage().contains("15000"));
+    }
+
+    private Path writeDataFile(String fileName, String lineBreak)
+    throws IOException
+    {
+        StringBuilder data = new StringBuilder("Id,Name,Amount,Date").append(lineBreak);
+
+        LocalDate startDate = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < ROW_COUNT; i++)
+        {
+            data.append(i).append(',');
+
+            if (i % 7 == 0)
+            {
+                data.append("N/A");
+            }
+            else if (i % 11 == 0)
+            {
+                data.append("\"Name, with comma ").append(i % 50).append('"');
+            }
+            else
+            {
+                data.append("\"Name ").append(i % 50).append('"');
+            }
+
+            data.append(',').append(BigDecimal.valueOf(i * 12_345L, 1).setScale(2).toPlainString()).append(',');
+
+            if (i % 13 != 0)
+            {
+                data.append(startDate.plusDays(i % 1000));
+            }
+
+            data.append(lineBreak);
+        }
+
+        Path dataFile = this.tempDir.resolve(fileName);
+        Files.writeString(dataFile, data);
+        return dataFile;
+    }
+}